@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.framework.AopProxyInvocationBenchmark.Counter;
+import org.springframework.aop.framework.AopProxyInvocationBenchmark.SimpleCounter;
+
+/**
+ * Benchmarks for the target method invocation at the end of a
+ * 3-interceptor chain on JDK and CGLIB proxies, comparing reflective
+ * invocation with generated joinpoint invokers.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AopJoinpointInvocationBenchmark {
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dspring.beans.generated-invokers=false")
+	public int reflectiveJoinpoint(BenchmarkData data) {
+		return data.proxy.increment(1);
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dspring.beans.generated-invokers=true")
+	public int generatedJoinpoint(BenchmarkData data) {
+		return data.proxy.increment(1);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"false", "true"})
+		public boolean proxyTargetClass;
+
+		public Counter proxy;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			ProxyFactory proxyFactory = new ProxyFactory(new SimpleCounter());
+			proxyFactory.setProxyTargetClass(this.proxyTargetClass);
+			for (int i = 0; i < 3; i++) {
+				proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+			}
+			this.proxy = (Counter) proxyFactory.getProxy();
+		}
+	}
+
+}
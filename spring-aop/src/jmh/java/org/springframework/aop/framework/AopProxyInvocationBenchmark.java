@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for invocations through JDK and CGLIB proxies,
+ * with and without a frozen proxy configuration.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AopProxyInvocationBenchmark {
+
+	@Benchmark
+	public int invokeAdvisedMethod(BenchmarkData data) {
+		return data.proxy.increment(1);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"false", "true"})
+		public boolean proxyTargetClass;
+
+		@Param({"false", "true"})
+		public boolean frozen;
+
+		public Counter proxy;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			ProxyFactory proxyFactory = new ProxyFactory(new SimpleCounter());
+			proxyFactory.setProxyTargetClass(this.proxyTargetClass);
+			proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+			proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+			proxyFactory.setFrozen(this.frozen);
+			this.proxy = (Counter) proxyFactory.getProxy();
+		}
+	}
+
+
+	public interface Counter {
+
+		int increment(int delta);
+	}
+
+
+	public static class SimpleCounter implements Counter {
+
+		private int count;
+
+		@Override
+		public int increment(int delta) {
+			this.count += delta;
+			return this.count;
+		}
+	}
+
+}
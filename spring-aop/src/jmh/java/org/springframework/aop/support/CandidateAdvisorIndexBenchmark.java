@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * Benchmarks for determining the eligible Advisors for a bean class,
+ * with and without a {@link CandidateAdvisorIndex}.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CandidateAdvisorIndexBenchmark {
+
+	@Benchmark
+	public List<Advisor> findAdvisorsThatCanApply(BenchmarkData data) {
+		return AopUtils.findAdvisorsThatCanApply(data.candidateAdvisors, data.beanClass);
+	}
+
+	@Benchmark
+	public List<Advisor> findAdvisorsThatCanApplyWithIndex(BenchmarkData data) {
+		return data.index.findAdvisorsThatCanApply(data.beanClass);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"20", "200"})
+		public int advisorCount;
+
+		public List<Advisor> candidateAdvisors;
+
+		public CandidateAdvisorIndex index;
+
+		public Class<?> beanClass = MarkedService.class;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			MethodInterceptor interceptor = invocation -> invocation.proceed();
+			this.candidateAdvisors = new ArrayList<>(this.advisorCount);
+			for (int i = 0; i < this.advisorCount; i++) {
+				switch (i % 4) {
+					case 0:
+						this.candidateAdvisors.add(new DefaultPointcutAdvisor(
+								new AnnotationMatchingPointcut(Marked.class), interceptor));
+						break;
+					case 1:
+						this.candidateAdvisors.add(new DefaultPointcutAdvisor(
+								new AnnotationMatchingPointcut(Unused.class), interceptor));
+						break;
+					case 2:
+						this.candidateAdvisors.add(new DefaultPointcutAdvisor(
+								new AnnotationMatchingPointcut(null, Marked.class), interceptor));
+						break;
+					default:
+						NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(interceptor);
+						advisor.setMappedName("method" + i);
+						this.candidateAdvisors.add(advisor);
+				}
+			}
+			this.index = new CandidateAdvisorIndex(this.candidateAdvisors);
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Marked {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Unused {
+	}
+
+
+	@Marked
+	public static class MarkedService {
+
+		public void process() {
+		}
+
+		public void handle() {
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,10 @@ import org.springframework.aop.SpringProxy;
 import org.springframework.aop.TargetClassAware;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.GeneratedJoinpointInvoker;
+import org.springframework.aop.support.JoinpointInvoker;
 import org.springframework.aop.target.SingletonTargetSource;
+import org.springframework.beans.GeneratedInvokerFactory;
 import org.springframework.core.DecoratingProxy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -40,10 +43,16 @@ import org.springframework.util.ObjectUtils;
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @see org.springframework.aop.support.AopUtils
  */
 public abstract class AopProxyUtils {
 
+	/** Strategy for invoking the target method at the end of an interceptor chain. */
+	private static final JoinpointInvoker joinpointInvoker = (GeneratedInvokerFactory.isEnabledByDefault() ?
+			GeneratedJoinpointInvoker.INSTANCE : AopUtils::invokeJoinpointUsingReflection);
+
+
 	/**
 	 * Obtain the singleton target object behind the given proxy, if any.
 	 * @param candidate the (potential) proxy to check
@@ -246,4 +255,21 @@ public abstract class AopProxyUtils {
 		return arguments;
 	}
 
+	/**
+	 * Invoke the given target method as the joinpoint of an AOP invocation:
+	 * through a {@link GeneratedJoinpointInvoker} if generated invokers are
+	 * enabled, or via reflection otherwise.
+	 * @param target the target object
+	 * @param method the method to invoke
+	 * @param args the arguments for the method
+	 * @return the invocation result, if any
+	 * @throws Throwable if thrown by the target method
+	 * @since 5.3
+	 * @see GeneratedInvokerFactory#GENERATED_INVOKERS_PROPERTY_NAME
+	 */
+	@Nullable
+	static Object invokeJoinpoint(@Nullable Object target, Method method, @Nullable Object[] args) throws Throwable {
+		return joinpointInvoker.invokeJoinpoint(target, method, args);
+	}
+
 }
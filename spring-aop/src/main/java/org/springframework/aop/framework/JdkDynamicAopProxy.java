@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,7 @@ import org.springframework.util.ClassUtils;
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @author Dave Syer
+ * @author Tan Jiquan
  * @see java.lang.reflect.Proxy
  * @see AdvisedSupport
  * @see ProxyFactory
@@ -92,6 +93,12 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interceptor chains resolved at proxy creation time, if the configuration is frozen.
+	 */
+	@Nullable
+	private transient FixedInterceptorChains fixedChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -120,6 +127,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		this.fixedChains = FixedInterceptorChains.resolve(this.advised, this.advised.getProxiedInterfaces());
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
@@ -208,7 +216,10 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			// 把我们的aop 的 advisor 转化为拦截器  就是转换为各种通知
 			// 拦截器链哪里来的呢？
 			//
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			FixedInterceptorChains fixedChains = this.fixedChains;
+			List<Object> chain = (fixedChains != null ?
+					fixedChains.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass) :
+					this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -219,7 +230,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
 				// 调用了为空 直接通过反射执行
 				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				retVal = AopProxyUtils.invokeJoinpoint(target, method, argsToUse);
 			}
 			else {
 				// We need to create a method invocation...
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,7 +26,6 @@ import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
 import org.springframework.aop.ProxyMethodInvocation;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 
@@ -231,14 +230,16 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 	}
 
 	/**
-	 * Invoke the joinpoint using reflection.
+	 * Invoke the joinpoint using reflection, or through a generated invoker
+	 * if generated invokers are enabled.
 	 * Subclasses can override this to use custom invocation.
 	 * @return the return value of the joinpoint
 	 * @throws Throwable if invoking the joinpoint resulted in an exception
+	 * @see org.springframework.aop.support.GeneratedJoinpointInvoker
 	 */
 	@Nullable
 	protected Object invokeJoinpoint() throws Throwable {
-		return AopUtils.invokeJoinpointUsingReflection(this.target, this.method, this.arguments);
+		return AopProxyUtils.invokeJoinpoint(this.target, this.method, this.arguments);
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.List;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.CandidateAdvisorIndex;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
@@ -42,8 +43,16 @@ import org.springframework.util.Assert;
  * Ordered interface will be considered as unordered; they will appear
  * at the end of the advisor chain in undefined order.
  *
+ * <p>Candidate Advisors are matched against bean classes through a
+ * {@link CandidateAdvisorIndex} which is kept for as long as the candidate
+ * Advisors stay the same, so that only plausible Advisors get evaluated
+ * for each bean. The index is only built once the same candidate Advisors
+ * have been returned twice in a row: candidates that get recreated for
+ * every bean, e.g. for perthis or prototype aspects, are matched directly.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @see #findCandidateAdvisors
  */
 @SuppressWarnings("serial")
@@ -52,6 +61,37 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	@Nullable
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	private boolean useCandidateAdvisorIndex = true;
+
+	@Nullable
+	private transient volatile CandidateAdvisorIndex candidateAdvisorIndex;
+
+	/** Candidate Advisors of the last call without a matching index. */
+	@Nullable
+	private transient volatile Advisor[] unindexedCandidateAdvisors;
+
+
+	/**
+	 * Set whether to match candidate Advisors against bean classes through a
+	 * {@link CandidateAdvisorIndex}, evaluating shared class filters and
+	 * pointcuts only once per bean class. Default is "true".
+	 * <p>Switch this to "false" for custom class filters or pointcuts
+	 * without proper {@code equals}/{@code hashCode} implementations,
+	 * evaluating each candidate Advisor on its own.
+	 * @since 5.3
+	 * @see AopUtils#findAdvisorsThatCanApply(List, Class)
+	 */
+	public void setUseCandidateAdvisorIndex(boolean useCandidateAdvisorIndex) {
+		this.useCandidateAdvisorIndex = useCandidateAdvisorIndex;
+	}
+
+	/**
+	 * Return whether candidate Advisors are matched through a {@link CandidateAdvisorIndex}.
+	 * @since 5.3
+	 */
+	public boolean isUseCandidateAdvisorIndex() {
+		return this.useCandidateAdvisorIndex;
+	}
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -129,6 +169,11 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
 			// 匹配通知
+			CandidateAdvisorIndex index = (this.useCandidateAdvisorIndex ?
+					obtainCandidateAdvisorIndex(candidateAdvisors) : null);
+			if (index != null) {
+				return index.findAdvisorsThatCanApply(beanClass);
+			}
 			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
 		}
 		finally {
@@ -136,6 +181,46 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 		}
 	}
 
+	/**
+	 * Obtain a {@link CandidateAdvisorIndex} for the given candidate Advisors,
+	 * reusing the current index as long as the candidates have not changed.
+	 * <p>A new index only gets built once the same candidates come in for
+	 * the second time in a row, since building it does not pay off for
+	 * candidates that are recreated on every call.
+	 * @return the index, or {@code null} if the candidates are to be
+	 * matched directly
+	 */
+	@Nullable
+	private CandidateAdvisorIndex obtainCandidateAdvisorIndex(List<Advisor> candidateAdvisors) {
+		CandidateAdvisorIndex index = this.candidateAdvisorIndex;
+		if (index != null && index.isIndexFor(candidateAdvisors)) {
+			return index;
+		}
+		Advisor[] previousCandidates = this.unindexedCandidateAdvisors;
+		if (previousCandidates != null && isSameAdvisors(previousCandidates, candidateAdvisors)) {
+			index = new CandidateAdvisorIndex(candidateAdvisors);
+			this.candidateAdvisorIndex = index;
+			this.unindexedCandidateAdvisors = null;
+			return index;
+		}
+		this.candidateAdvisorIndex = null;
+		this.unindexedCandidateAdvisors = candidateAdvisors.toArray(new Advisor[0]);
+		return null;
+	}
+
+	private static boolean isSameAdvisors(Advisor[] previousCandidates, List<Advisor> candidateAdvisors) {
+		if (previousCandidates.length != candidateAdvisors.size()) {
+			return false;
+		}
+		int i = 0;
+		for (Advisor advisor : candidateAdvisors) {
+			if (advisor != previousCandidates[i++]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Return whether the Advisor bean with the given name is eligible
 	 * for proxying in the first place.
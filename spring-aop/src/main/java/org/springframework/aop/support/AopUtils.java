@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,7 @@ import org.springframework.util.ReflectionUtils;
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Rob Harrop
+ * @author Tan Jiquan
  * @see org.springframework.aop.framework.AopProxyUtils
  */
 public abstract class AopUtils {
@@ -226,7 +227,21 @@ public abstract class AopUtils {
 		if (!pc.getClassFilter().matches(targetClass)) {
 			return false;
 		}
+		return canApplyToAnyMethod(pc, targetClass, hasIntroductions);
+	}
 
+	/**
+	 * Can the given pointcut's method matcher apply on any method of the given class?
+	 * <p>Expects the class filter of the pointcut to have been checked already.
+	 * @param pc the static or dynamic pointcut to check
+	 * @param targetClass the class to test
+	 * @param hasIntroductions whether or not the advisor chain
+	 * for this bean includes any introductions
+	 * @return whether the pointcut can apply on any method
+	 * @since 5.3
+	 * @see CandidateAdvisorIndex
+	 */
+	static boolean canApplyToAnyMethod(Pointcut pc, Class<?> targetClass, boolean hasIntroductions) {
 		MethodMatcher methodMatcher = pc.getMethodMatcher();
 		if (methodMatcher == MethodMatcher.TRUE) {
 			// No need to iterate the methods if we're matching any method anyway...
@@ -297,6 +312,8 @@ public abstract class AopUtils {
 	/**
 	 * Determine the sublist of the {@code candidateAdvisors} list
 	 * that is applicable to the given class.
+	 * <p>Use a {@link CandidateAdvisorIndex} instead when matching the same
+	 * candidate Advisors against many classes.
 	 * @param candidateAdvisors the Advisors to evaluate
 	 * @param clazz the target class
 	 * @return sublist of Advisors that can apply to an object of the given class
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.util.Assert;
+
+/**
+ * Index over a fixed list of candidate Advisors, determining the Advisors
+ * that can apply to a given class with the same outcome as
+ * {@link AopUtils#findAdvisorsThatCanApply(List, Class)} but without
+ * evaluating every candidate against every class.
+ *
+ * <p>Candidates are pre-classified by their {@link ClassFilter}: Advisors
+ * restricted to classes carrying a specific annotation (through a plain
+ * {@link AnnotationClassFilter}) are only looked at for classes which have
+ * that annotation present, and any other class filter is evaluated only
+ * once per class even if it is shared by several candidates. Likewise,
+ * method matching runs only once per class for all candidates with equal
+ * pointcuts, e.g. AspectJ advice methods that refer to the same named pointcut.
+ *
+ * <p>The index assumes that the pointcuts of its candidate Advisors do not
+ * change once created, which is the case for Advisor beans in an application
+ * context. It is thread-safe and typically held on to for as long as the
+ * candidate Advisors stay the same.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see org.springframework.aop.framework.autoproxy.AbstractAdvisorAutoProxyCreator
+ */
+public class CandidateAdvisorIndex {
+
+	private final Advisor[] candidateAdvisors;
+
+	/** Class filter per candidate, or {@code null} if not restricted to certain classes. */
+	private final ClassFilter[] classFilters;
+
+	/** Pointcut per non-introduction candidate, or {@code null} if applying to any method. */
+	private final Pointcut[] pointcuts;
+
+	/** Positions of the candidates restricted to classes with a given annotation present. */
+	private final Map<Class<? extends Annotation>, int[]> annotationIndex;
+
+	/** Positions of the candidates not covered by the annotation index. */
+	private final int[] unindexed;
+
+	private final boolean hasIntroductionAdvisors;
+
+
+	/**
+	 * Create a new CandidateAdvisorIndex for the given candidate Advisors.
+	 * @param candidateAdvisors the Advisors to evaluate, in their original order
+	 */
+	public CandidateAdvisorIndex(List<Advisor> candidateAdvisors) {
+		Assert.notNull(candidateAdvisors, "Candidate Advisors must not be null");
+		int size = candidateAdvisors.size();
+		this.candidateAdvisors = candidateAdvisors.toArray(new Advisor[0]);
+		this.classFilters = new ClassFilter[size];
+		this.pointcuts = new Pointcut[size];
+
+		Map<Class<? extends Annotation>, List<Integer>> byAnnotationType = new LinkedHashMap<>();
+		List<Integer> others = new ArrayList<>(size);
+		boolean hasIntroductionAdvisors = false;
+		for (int i = 0; i < size; i++) {
+			Advisor advisor = this.candidateAdvisors[i];
+			ClassFilter classFilter = null;
+			if (advisor instanceof IntroductionAdvisor) {
+				classFilter = ((IntroductionAdvisor) advisor).getClassFilter();
+				hasIntroductionAdvisors = true;
+			}
+			else if (advisor instanceof PointcutAdvisor) {
+				Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+				Assert.notNull(pointcut, "Pointcut must not be null");
+				classFilter = pointcut.getClassFilter();
+				this.pointcuts[i] = pointcut;
+			}
+			if (classFilter != null && classFilter != ClassFilter.TRUE) {
+				this.classFilters[i] = classFilter;
+			}
+			if (classFilter != null && classFilter.getClass() == AnnotationClassFilter.class &&
+					!((AnnotationClassFilter) classFilter).isCheckInherited()) {
+				// Class#isAnnotationPresent semantics: the annotations present on the class suffice
+				byAnnotationType.computeIfAbsent(((AnnotationClassFilter) classFilter).getAnnotationType(),
+						key -> new ArrayList<>()).add(i);
+			}
+			else {
+				others.add(i);
+			}
+		}
+
+		this.annotationIndex = new HashMap<>(byAnnotationType.size());
+		byAnnotationType.forEach((annotationType, positions) ->
+				this.annotationIndex.put(annotationType, toIntArray(positions)));
+		this.unindexed = toIntArray(others);
+		this.hasIntroductionAdvisors = hasIntroductionAdvisors;
+	}
+
+	private static int[] toIntArray(List<Integer> positions) {
+		int[] result = new int[positions.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = positions.get(i);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Determine whether this index has been built for the given candidate
+	 * Advisors, i.e. for the very same Advisor instances in the same order.
+	 * @param candidateAdvisors the Advisors to check
+	 */
+	public boolean isIndexFor(List<Advisor> candidateAdvisors) {
+		if (candidateAdvisors.size() != this.candidateAdvisors.length) {
+			return false;
+		}
+		int i = 0;
+		for (Advisor advisor : candidateAdvisors) {
+			if (advisor != this.candidateAdvisors[i++]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determine the sublist of the candidate Advisors that is applicable
+	 * to the given class, in the order of the candidate Advisors.
+	 * @param clazz the target class
+	 * @return a new List of Advisors that can apply to an object of the given class
+	 * @see AopUtils#findAdvisorsThatCanApply(List, Class)
+	 */
+	public List<Advisor> findAdvisorsThatCanApply(Class<?> clazz) {
+		int size = this.candidateAdvisors.length;
+		if (size == 0) {
+			return new ArrayList<>();
+		}
+
+		boolean[] classMatches = new boolean[size];
+		Map<ClassFilter, Boolean> classFilterResults = new HashMap<>();
+		for (int i : this.unindexed) {
+			ClassFilter classFilter = this.classFilters[i];
+			classMatches[i] = (classFilter == null ||
+					classFilterResults.computeIfAbsent(classFilter, filter -> filter.matches(clazz)));
+		}
+		if (!this.annotationIndex.isEmpty()) {
+			for (Annotation annotation : clazz.getAnnotations()) {
+				int[] positions = this.annotationIndex.get(annotation.annotationType());
+				if (positions != null) {
+					for (int i : positions) {
+						classMatches[i] = true;
+					}
+				}
+			}
+		}
+
+		List<Advisor> eligibleAdvisors = new ArrayList<>();
+		boolean hasIntroductions = false;
+		if (this.hasIntroductionAdvisors) {
+			for (int i = 0; i < size; i++) {
+				if (classMatches[i] && this.candidateAdvisors[i] instanceof IntroductionAdvisor) {
+					eligibleAdvisors.add(this.candidateAdvisors[i]);
+				}
+			}
+			hasIntroductions = !eligibleAdvisors.isEmpty();
+		}
+		Map<Pointcut, Boolean> pointcutResults = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			if (!classMatches[i] || this.candidateAdvisors[i] instanceof IntroductionAdvisor) {
+				continue;
+			}
+			Pointcut pointcut = this.pointcuts[i];
+			if (pointcut == null || canApplyToAnyMethod(pointcut, clazz, hasIntroductions, pointcutResults)) {
+				eligibleAdvisors.add(this.candidateAdvisors[i]);
+			}
+		}
+		return eligibleAdvisors;
+	}
+
+	private static boolean canApplyToAnyMethod(Pointcut pointcut, Class<?> clazz, boolean hasIntroductions,
+			Map<Pointcut, Boolean> pointcutResults) {
+
+		Boolean result = pointcutResults.get(pointcut);
+		if (result == null) {
+			result = AopUtils.canApplyToAnyMethod(pointcut, clazz, hasIntroductions);
+			pointcutResults.put(pointcut, result);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getName() + ": " + this.candidateAdvisors.length + " candidate Advisors, " +
+				this.annotationIndex.size() + " indexed annotation types";
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.springframework.beans.GeneratedInvoker;
+import org.springframework.beans.GeneratedInvokerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * {@link JoinpointInvoker} that calls target methods through classes generated
+ * by the {@link GeneratedInvokerFactory}, with a direct bytecode call instead of
+ * {@link Method#invoke}. Invokers are generated once per method and cached,
+ * together with the parameter types that every invocation gets checked against.
+ *
+ * <p>Falls back to {@link AopUtils#invokeJoinpointUsingReflection} for methods
+ * that cannot be called through a generated class (e.g. private methods), as
+ * well as for invocations whose target or arguments do not match the exact
+ * parameter types of the method: reflection applies widening conversions and
+ * raises the corresponding errors for such invocations.
+ *
+ * <p>Used for AOP proxies if the
+ * {@value GeneratedInvokerFactory#GENERATED_INVOKERS_PROPERTY_NAME}
+ * flag is set.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see GeneratedInvokerFactory#forMethod
+ */
+public class GeneratedJoinpointInvoker implements JoinpointInvoker {
+
+	/**
+	 * Shared instance of the {@code GeneratedJoinpointInvoker}.
+	 */
+	public static final GeneratedJoinpointInvoker INSTANCE = new GeneratedJoinpointInvoker();
+
+	private static final Object[] EMPTY_ARGS = new Object[0];
+
+	private static final Object NO_INVOKER = new Object();
+
+
+	/** Cache of {@link DirectInvocation} per method, or {@link #NO_INVOKER}. */
+	private final Map<Method, Object> invocationCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	@Override
+	@Nullable
+	public Object invokeJoinpoint(@Nullable Object target, Method method, @Nullable Object[] args) throws Throwable {
+		Object invocation = this.invocationCache.get(method);
+		if (invocation == null) {
+			GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+			invocation = (invoker != null ? new DirectInvocation(method, invoker) : NO_INVOKER);
+			this.invocationCache.put(method, invocation);
+		}
+		if (invocation == NO_INVOKER || !((DirectInvocation) invocation).isApplicable(target, args)) {
+			return AopUtils.invokeJoinpointUsingReflection(target, method, args);
+		}
+		return ((DirectInvocation) invocation).invoker.invoke(target, (args != null ? args : EMPTY_ARGS));
+	}
+
+
+	/**
+	 * Generated invoker for a method, along with the method metadata needed
+	 * to check each invocation against it.
+	 */
+	private static final class DirectInvocation {
+
+		final GeneratedInvoker invoker;
+
+		@Nullable
+		private final Class<?> targetType;
+
+		private final Class<?>[] parameterTypes;
+
+		private final boolean[] primitive;
+
+		DirectInvocation(Method method, GeneratedInvoker invoker) {
+			this.invoker = invoker;
+			this.targetType = (Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass());
+			this.parameterTypes = method.getParameterTypes();
+			this.primitive = new boolean[this.parameterTypes.length];
+			for (int i = 0; i < this.parameterTypes.length; i++) {
+				if (this.parameterTypes[i].isPrimitive()) {
+					this.primitive[i] = true;
+					this.parameterTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(this.parameterTypes[i]);
+				}
+			}
+		}
+
+		/**
+		 * Check whether the given target and arguments can be passed to the
+		 * generated invoker as-is, without any conversion.
+		 */
+		boolean isApplicable(@Nullable Object target, @Nullable Object[] args) {
+			if (this.targetType != null && !this.targetType.isInstance(target)) {
+				return false;
+			}
+			int argCount = (args != null ? args.length : 0);
+			if (argCount != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < argCount; i++) {
+				Object arg = args[i];
+				if (this.primitive[i] ?
+						(arg == null || arg.getClass() != this.parameterTypes[i]) :
+						(arg != null && !this.parameterTypes[i].isInstance(arg))) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for invoking the target method at the end of an AOP invocation,
+ * that is, the joinpoint of the interceptor chain.
+ *
+ * <p>The default strategy is {@link AopUtils#invokeJoinpointUsingReflection};
+ * {@link GeneratedJoinpointInvoker} calls target methods through generated
+ * classes instead.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see AopUtils#invokeJoinpointUsingReflection
+ * @see GeneratedJoinpointInvoker
+ */
+@FunctionalInterface
+public interface JoinpointInvoker {
+
+	/**
+	 * Invoke the given target method.
+	 * @param target the target object
+	 * @param method the method to invoke
+	 * @param args the arguments for the method
+	 * @return the invocation result, if any
+	 * @throws Throwable if thrown by the target method
+	 * @throws org.springframework.aop.AopInvocationException in case of an
+	 * invalid invocation, e.g. arguments that do not match the method
+	 */
+	@Nullable
+	Object invokeJoinpoint(@Nullable Object target, Method method, @Nullable Object[] args) throws Throwable;
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,6 +61,23 @@ public class AnnotationClassFilter implements ClassFilter {
 	}
 
 
+	/**
+	 * Return the annotation type to look for.
+	 * @since 5.3
+	 */
+	public Class<? extends Annotation> getAnnotationType() {
+		return this.annotationType;
+	}
+
+	/**
+	 * Return whether superclasses and interfaces as well as meta-annotations
+	 * are checked for the annotation type.
+	 * @since 5.3
+	 */
+	public boolean isCheckInherited() {
+		return this.checkInherited;
+	}
+
 	@Override
 	public boolean matches(Class<?> clazz) {
 		return (this.checkInherited ? AnnotatedElementUtils.hasAnnotation(clazz, this.annotationType) :
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aopalliance.aop.Advice;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.testfixture.interceptor.NopInterceptor;
+import org.springframework.aop.testfixture.interceptor.TimestampIntroductionInterceptor;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CandidateAdvisorIndex}.
+ *
+ * @author Tan Jiquan
+ */
+class CandidateAdvisorIndexTests {
+
+	private final Advisor markedAdvisor =
+			new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Marked.class), new NopInterceptor());
+
+	private final Advisor inheritedMarkedAdvisor =
+			new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Marked.class, true), new NopInterceptor());
+
+	private final Advisor otherMarkedAdvisor =
+			new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(OtherMarked.class), new NopInterceptor());
+
+	private final Advisor performMethodAdvisor = new NameMatchMethodPointcutAdvisor(new NopInterceptor());
+
+	private final Advisor anyMethodAdvisor = new DefaultPointcutAdvisor(new NopInterceptor());
+
+	private final Advisor introductionAdvisor = new DefaultIntroductionAdvisor(new TimestampIntroductionInterceptor());
+
+	private final Advisor plainAdvisor = new Advisor() {
+		@Override
+		public Advice getAdvice() {
+			return new NopInterceptor();
+		}
+		@Override
+		public boolean isPerInstance() {
+			return false;
+		}
+	};
+
+
+	@Test
+	void findAdvisorsThatCanApplyLikeAopUtils() {
+		((NameMatchMethodPointcutAdvisor) this.performMethodAdvisor).setMappedName("perform");
+		List<Advisor> candidates = Arrays.asList(this.plainAdvisor, this.markedAdvisor, this.performMethodAdvisor,
+				this.otherMarkedAdvisor, this.introductionAdvisor, this.inheritedMarkedAdvisor, this.anyMethodAdvisor);
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(candidates);
+
+		for (Class<?> clazz : new Class<?>[] {Object.class, MarkedBean.class, SubMarkedBean.class,
+				DoublyMarkedBean.class, MetaMarkedBean.class, PlainBean.class, Performer.class}) {
+			assertThat(index.findAdvisorsThatCanApply(clazz))
+					.as(clazz.getSimpleName()).isEqualTo(AopUtils.findAdvisorsThatCanApply(candidates, clazz));
+		}
+		assertThat(index.findAdvisorsThatCanApply(PlainBean.class)).containsExactly(this.introductionAdvisor,
+				this.plainAdvisor, this.performMethodAdvisor, this.anyMethodAdvisor);
+		assertThat(index.findAdvisorsThatCanApply(DoublyMarkedBean.class)).containsExactly(this.introductionAdvisor,
+				this.plainAdvisor, this.markedAdvisor, this.otherMarkedAdvisor,
+				this.inheritedMarkedAdvisor, this.anyMethodAdvisor);
+		assertThat(index.findAdvisorsThatCanApply(MetaMarkedBean.class)).containsExactly(this.introductionAdvisor,
+				this.plainAdvisor, this.inheritedMarkedAdvisor, this.anyMethodAdvisor);
+	}
+
+	@Test
+	void sharedClassFilterAndPointcutEvaluatedOncePerClass() {
+		AtomicInteger classFilterCount = new AtomicInteger();
+		AtomicInteger methodMatcherCount = new AtomicInteger();
+		List<Advisor> candidates = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			// equal class filters as well as equal pointcuts
+			ClassFilter classFilter = new RootClassFilter(Object.class) {
+				@Override
+				public boolean matches(Class<?> candidate) {
+					classFilterCount.incrementAndGet();
+					return super.matches(candidate);
+				}
+			};
+			candidates.add(new DefaultPointcutAdvisor(
+					new CountingPointcut(classFilter, methodMatcherCount), new NopInterceptor()));
+		}
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(candidates);
+
+		assertThat(index.findAdvisorsThatCanApply(PlainBean.class)).isEqualTo(candidates);
+		assertThat(classFilterCount.get()).isEqualTo(1);
+		assertThat(methodMatcherCount.get()).isEqualTo(1);
+
+		assertThat(index.findAdvisorsThatCanApply(Performer.class)).isEqualTo(candidates);
+		assertThat(classFilterCount.get()).isEqualTo(2);
+		assertThat(methodMatcherCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void indexIgnoresAdvisorsForAbsentAnnotations() {
+		AtomicInteger classFilterCount = new AtomicInteger();
+		ClassFilter countingFilter = clazz -> {
+			classFilterCount.incrementAndGet();
+			return true;
+		};
+		List<Advisor> candidates = Arrays.asList(this.markedAdvisor, this.otherMarkedAdvisor,
+				new DefaultPointcutAdvisor(new ComposablePointcut(countingFilter), new NopInterceptor()));
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(candidates);
+
+		assertThat(index.findAdvisorsThatCanApply(MarkedBean.class)).containsExactly(
+				this.markedAdvisor, candidates.get(2));
+		assertThat(index.findAdvisorsThatCanApply(PlainBean.class)).containsExactly(candidates.get(2));
+		assertThat(classFilterCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void customAnnotationClassFilterIsNotIndexed() {
+		ClassFilter customFilter = new AnnotationClassFilter(Marked.class) {
+			@Override
+			public boolean matches(Class<?> clazz) {
+				return (super.matches(clazz) || clazz == PlainBean.class);
+			}
+		};
+		List<Advisor> candidates = Arrays.asList(this.markedAdvisor,
+				new DefaultPointcutAdvisor(new ComposablePointcut(customFilter), new NopInterceptor()));
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(candidates);
+
+		assertThat(index.findAdvisorsThatCanApply(PlainBean.class)).containsExactly(candidates.get(1));
+		assertThat(index.findAdvisorsThatCanApply(MarkedBean.class)).isEqualTo(candidates);
+	}
+
+	@Test
+	void emptyCandidateAdvisors() {
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(new ArrayList<>());
+		List<Advisor> advisors = index.findAdvisorsThatCanApply(PlainBean.class);
+		assertThat(advisors).isEmpty();
+		advisors.add(this.plainAdvisor);
+		assertThat(index.findAdvisorsThatCanApply(PlainBean.class)).isEmpty();
+	}
+
+	@Test
+	void isIndexFor() {
+		List<Advisor> candidates = Arrays.asList(this.markedAdvisor, this.anyMethodAdvisor);
+		CandidateAdvisorIndex index = new CandidateAdvisorIndex(candidates);
+
+		assertThat(index.isIndexFor(new ArrayList<>(candidates))).isTrue();
+		assertThat(index.isIndexFor(Arrays.asList(this.anyMethodAdvisor, this.markedAdvisor))).isFalse();
+		assertThat(index.isIndexFor(Arrays.asList(this.markedAdvisor))).isFalse();
+		assertThat(index.isIndexFor(Arrays.asList(this.markedAdvisor,
+				new DefaultPointcutAdvisor(new NopInterceptor())))).isFalse();
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Inherited
+	@interface Marked {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface OtherMarked {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Marked
+	@interface MetaMarked {
+	}
+
+
+	static class PlainBean {
+
+		public void perform() {
+		}
+	}
+
+
+	@Marked
+	static class MarkedBean {
+	}
+
+
+	static class SubMarkedBean extends MarkedBean {
+	}
+
+
+	@Marked
+	@OtherMarked
+	static class DoublyMarkedBean {
+	}
+
+
+	@MetaMarked
+	static class MetaMarkedBean {
+	}
+
+
+	interface Performer {
+
+		void perform();
+	}
+
+
+	/**
+	 * Pointcut counting its evaluations; all instances are equal.
+	 */
+	static class CountingPointcut extends StaticMethodMatcherPointcut {
+
+		private final AtomicInteger methodMatcherCount;
+
+		CountingPointcut(ClassFilter classFilter, AtomicInteger methodMatcherCount) {
+			setClassFilter(classFilter);
+			this.methodMatcherCount = methodMatcherCount;
+		}
+
+		@Override
+		public boolean matches(Method method, Class<?> targetClass) {
+			this.methodMatcherCount.incrementAndGet();
+			return true;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (other instanceof CountingPointcut);
+		}
+
+		@Override
+		public int hashCode() {
+			return CountingPointcut.class.hashCode();
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.beans.GeneratedInvokerFactory;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GeneratedJoinpointInvoker}.
+ *
+ * @author Tan Jiquan
+ */
+class GeneratedJoinpointInvokerTests {
+
+	private final JoinpointInvoker invoker = GeneratedJoinpointInvoker.INSTANCE;
+
+	private final Calculator target = new SimpleCalculator();
+
+
+	@Test
+	void invokeInterfaceMethod() throws Throwable {
+		Method method = Calculator.class.getMethod("add", int.class, int.class);
+		assertThat(GeneratedInvokerFactory.forMethod(method)).isNotNull();
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, new Object[] {2, 3})).isEqualTo(5);
+	}
+
+	@Test
+	void invokeMethodWithoutArguments() throws Throwable {
+		Method method = Calculator.class.getMethod("reset");
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, null)).isNull();
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, new Object[0])).isNull();
+	}
+
+	@Test
+	void invokeMethodWithWideningConversion() throws Throwable {
+		Method method = Calculator.class.getMethod("negate", long.class);
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, new Object[] {5L})).isEqualTo(-5L);
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, new Object[] {5})).isEqualTo(-5L);
+	}
+
+	@Test
+	void invokePrivateMethod() throws Throwable {
+		Method method = ReflectionUtils.findMethod(SimpleCalculator.class, "twice", int.class);
+		assertThat(this.invoker.invokeJoinpoint(this.target, method, new Object[] {4})).isEqualTo(8);
+	}
+
+	@Test
+	void targetExceptionIsPropagatedAsIs() throws Throwable {
+		Method method = Calculator.class.getMethod("fail", String.class);
+		assertThatExceptionOfType(IOException.class).isThrownBy(() ->
+				this.invoker.invokeJoinpoint(this.target, method, new Object[] {"broken"}))
+			.withMessage("broken");
+	}
+
+	@Test
+	void invalidInvocationsAreRejectedAsWithReflection() throws Throwable {
+		Method method = Calculator.class.getMethod("add", int.class, int.class);
+		assertThatExceptionOfType(AopInvocationException.class).isThrownBy(() ->
+				this.invoker.invokeJoinpoint(new Object(), method, new Object[] {2, 3}));
+		assertThatExceptionOfType(AopInvocationException.class).isThrownBy(() ->
+				this.invoker.invokeJoinpoint(this.target, method, new Object[] {2, null}));
+		assertThatExceptionOfType(AopInvocationException.class).isThrownBy(() ->
+				this.invoker.invokeJoinpoint(this.target, method, new Object[] {2, "3"}));
+		assertThatExceptionOfType(AopInvocationException.class).isThrownBy(() ->
+				this.invoker.invokeJoinpoint(this.target, method, new Object[] {2}));
+	}
+
+
+	public interface Calculator {
+
+		int add(int a, int b);
+
+		long negate(long value);
+
+		void reset();
+
+		void fail(String message) throws IOException;
+	}
+
+
+	static class SimpleCalculator implements Calculator {
+
+		@Override
+		public int add(int a, int b) {
+			return a + b;
+		}
+
+		@Override
+		public long negate(long value) {
+			return -value;
+		}
+
+		@Override
+		public void reset() {
+		}
+
+		@Override
+		public void fail(String message) throws IOException {
+			throw new IOException(message);
+		}
+
+		private int twice(int value) {
+			return value * 2;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.Introspector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the first and the steady-state {@code setPropertyValue} call
+ * through {@link BeanWrapperImpl}, comparing property metadata determined by the
+ * JavaBeans {@link Introspector} with the {@link SimpleBeanInfoFactory}.
+ *
+ * <p>Each parameter value runs in its own fork, so the flag is in place before
+ * {@link CachedIntrospectionResults} loads its {@link BeanInfoFactory} instances.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanIntrospectionBenchmark {
+
+	@Benchmark
+	public Object firstSetPropertyValue(BenchmarkData data) {
+		CachedIntrospectionResults.clearClassLoader(Person.class.getClassLoader());
+		Introspector.flushFromCaches(Person.class);
+		BeanWrapper beanWrapper = new BeanWrapperImpl(new Person());
+		beanWrapper.setPropertyValue("name", "Juergen");
+		return beanWrapper.getWrappedInstance();
+	}
+
+	@Benchmark
+	public Object setPropertyValue(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("name", "Rod");
+		return data.target;
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"introspector", "simple"})
+		public String mode;
+
+		public Person target;
+
+		public BeanWrapper beanWrapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			System.setProperty(SimpleBeanInfoFactory.SIMPLE_BEANINFO_PROPERTY_NAME,
+					String.valueOf("simple".equals(this.mode)));
+			this.target = new Person();
+			this.beanWrapper = new BeanWrapperImpl(this.target);
+		}
+	}
+
+
+	public static class Person {
+
+		private String name;
+
+		private int age;
+
+		private boolean active;
+
+		private Person spouse;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public Person getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(Person spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for property access through {@link BeanWrapperImpl}, covering
+ * simple, converted and nested property paths, with reflective and with
+ * generated accessors.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanWrapperBenchmark {
+
+	@Benchmark
+	public Object setSimpleProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("name", "Rod");
+		return data.target;
+	}
+
+	@Benchmark
+	public Object setConvertedProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("age", "42");
+		return data.target;
+	}
+
+	@Benchmark
+	public Object setNestedProperty(BenchmarkData data) {
+		data.beanWrapper.setPropertyValue("spouse.name", "Kerry");
+		return data.target;
+	}
+
+	@Benchmark
+	public Object getNestedProperty(BenchmarkData data) {
+		return data.beanWrapper.getPropertyValue("spouse.name");
+	}
+
+	@Benchmark
+	public Object newBeanWrapper(BenchmarkData data) {
+		BeanWrapperImpl beanWrapper = new BeanWrapperImpl(new Person());
+		beanWrapper.setGeneratedAccessors(data.generatedAccessors);
+		beanWrapper.setPropertyValue("name", "Juergen");
+		return beanWrapper.getWrappedInstance();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"false", "true"})
+		public boolean generatedAccessors;
+
+		public Person target;
+
+		public BeanWrapper beanWrapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.target = new Person();
+			this.target.setSpouse(new Person());
+			BeanWrapperImpl beanWrapper = new BeanWrapperImpl(this.target);
+			beanWrapper.setGeneratedAccessors(this.generatedAccessors);
+			this.beanWrapper = beanWrapper;
+		}
+	}
+
+
+	public static class Person {
+
+		private String name;
+
+		private int age;
+
+		private Person spouse;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Person getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(Person spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmark for the memory footprint of bean definitions in a large
+ * {@link DefaultListableBeanFactory}. Run with the JMH "gc" profiler
+ * ({@code -prof gc}) to compare the normalized allocation per bootstrap,
+ * with and without releasing merged bean definition metadata.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BeanDefinitionFootprintBenchmark {
+
+	@Benchmark
+	public DefaultListableBeanFactory registerBeanDefinitions(BenchmarkState state) {
+		DefaultListableBeanFactory beanFactory = createBeanFactory(state);
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			beanFactory.getMergedBeanDefinition(beanName);
+		}
+		return beanFactory;
+	}
+
+	@Benchmark
+	public DefaultListableBeanFactory preInstantiateSingletons(BenchmarkState state) {
+		DefaultListableBeanFactory beanFactory = createBeanFactory(state);
+		beanFactory.preInstantiateSingletons();
+		return beanFactory;
+	}
+
+	private static DefaultListableBeanFactory createBeanFactory(BenchmarkState state) {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setReleaseMergedBeanDefinitionMetadata(state.releaseMetadata);
+		for (int i = 0; i < state.beanCount; i++) {
+			// Most bean definitions have no property values, constructor arguments or qualifiers
+			beanFactory.registerBeanDefinition("component" + i, new RootBeanDefinition(Component.class));
+			if (i % 10 == 0) {
+				RootBeanDefinition service = new RootBeanDefinition(Service.class);
+				service.getPropertyValues().add("component", new RuntimeBeanReference("component" + i));
+				beanFactory.registerBeanDefinition("service" + i, service);
+			}
+		}
+		return beanFactory;
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"1000", "10000"})
+		public int beanCount;
+
+		@Param({"false", "true"})
+		public boolean releaseMetadata;
+	}
+
+
+	static class Component {
+	}
+
+
+	static class Service {
+
+		private Component component;
+
+		public void setComponent(Component component) {
+			this.component = component;
+		}
+
+		public Component getComponent() {
+			return this.component;
+		}
+	}
+
+}
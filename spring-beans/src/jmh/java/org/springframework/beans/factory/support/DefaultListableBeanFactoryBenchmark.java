@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Benchmarks for bean retrieval and type-based bean name lookups
+ * on a {@link DefaultListableBeanFactory}.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object getSingletonByName(BenchmarkData data) {
+		return data.beanFactory.getBean("repository0");
+	}
+
+	@Benchmark
+	public Object getSingletonByType(BenchmarkData data) {
+		return data.beanFactory.getBean(Service.class);
+	}
+
+	@Benchmark
+	public Object getPrototypeByName(BenchmarkData data) {
+		return data.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public String[] getBeanNamesForTypeCached(BenchmarkData data) {
+		return data.beanFactory.getBeanNamesForType(Repository.class);
+	}
+
+	@Benchmark
+	public String[] getBeanNamesForGenericType(BenchmarkData data) {
+		// Generic types bypass the by-type cache: only the beans indexed for the raw type get evaluated
+		return data.beanFactory.getBeanNamesForType(data.genericRepositoryType);
+	}
+
+	@Benchmark
+	public String[] getBeanNamesForTypeAfterRegistration(BenchmarkData data) {
+		// Registering a bean definition clears the by-type cache, but not the bean type index
+		data.beanFactory.registerBeanDefinition("transient", new RootBeanDefinition(Object.class));
+		return data.beanFactory.getBeanNamesForType(Repository.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100", "1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		public ResolvableType genericRepositoryType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("repository" + i,
+						new RootBeanDefinition(StringRepository.class));
+				this.beanFactory.registerBeanDefinition("component" + i,
+						new RootBeanDefinition(Component.class, (Supplier<Component>) Component::new));
+			}
+			this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(Component.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			this.beanFactory.preInstantiateSingletons();
+			this.genericRepositoryType = ResolvableType.forClassWithGenerics(Repository.class, String.class);
+		}
+	}
+
+
+	interface Repository<T> {
+
+		List<T> findAll();
+	}
+
+
+	static class StringRepository implements Repository<String> {
+
+		@Override
+		public List<String> findAll() {
+			return null;
+		}
+	}
+
+
+	static class Component {
+	}
+
+
+	static class Service {
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Startup benchmark for the reflective and the generated instantiation strategies:
+ * pre-instantiates a context of 5,000 singletons with constructor, factory method
+ * and field injection, and creates prototypes from an already warmed-up factory.
+ *
+ * @author Tan Jiquan
+ * @see GeneratedInstantiationStrategy
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+public class InstantiationStrategyBenchmark {
+
+	@Benchmark
+	public DefaultListableBeanFactory preInstantiateSingletons(StartupData data) {
+		data.beanFactory.preInstantiateSingletons();
+		return data.beanFactory;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	public Object createPrototype(PrototypeData data) {
+		return data.beanFactory.getBean("prototype");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class StartupData {
+
+		@Param({"reflective", "generated"})
+		public String strategy;
+
+		@Param("5000")
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			this.beanFactory = createBeanFactory(this.strategy);
+			this.beanFactory.registerBeanDefinition("settings", new RootBeanDefinition(Settings.class));
+			for (int i = 0; i < this.beanCount; i += 3) {
+				this.beanFactory.registerBeanDefinition("repository" + i, new RootBeanDefinition(Repository.class));
+				RootBeanDefinition service = new RootBeanDefinition(Service.class);
+				service.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+				service.getConstructorArgumentValues().addGenericArgumentValue(
+						new RuntimeBeanReference("repository" + i));
+				this.beanFactory.registerBeanDefinition("service" + i, service);
+				RootBeanDefinition controller = new RootBeanDefinition(Controller.class);
+				controller.setFactoryMethodName("create");
+				this.beanFactory.registerBeanDefinition("controller" + i, controller);
+			}
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class PrototypeData {
+
+		@Param({"reflective", "generated"})
+		public String strategy;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = createBeanFactory(this.strategy);
+			this.beanFactory.registerBeanDefinition("settings", new RootBeanDefinition(Settings.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(Controller.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+		}
+	}
+
+
+	static DefaultListableBeanFactory createBeanFactory(String strategy) {
+		boolean generated = "generated".equals(strategy);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		if (generated) {
+			beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy());
+		}
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setGeneratedInjection(generated);
+		bpp.setBeanFactory(beanFactory);
+		beanFactory.addBeanPostProcessor(bpp);
+		return beanFactory;
+	}
+
+
+	static class Settings {
+	}
+
+
+	static class Repository {
+	}
+
+
+	static class Service {
+
+		final Repository repository;
+
+		Service(Repository repository) {
+			this.repository = repository;
+		}
+	}
+
+
+	static class Controller {
+
+		@Autowired
+		Settings settings;
+
+		static Controller create() {
+			return new Controller();
+		}
+	}
+
+}
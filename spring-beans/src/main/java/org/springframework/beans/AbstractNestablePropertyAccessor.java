@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,8 @@ import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -56,10 +58,17 @@ import org.springframework.util.StringUtils;
  * as String arrays are converted in such a format if the array itself is not
  * assignable.
  *
+ * <p>With {@link #setGeneratedAccessors generated accessors}, parsed property
+ * paths are cached across accessor instances, local properties are read and
+ * written through {@link GeneratedInvoker generated classes} instead of
+ * reflection where possible, and values that already match the property type
+ * are applied without going through the type conversion algorithm.
+ *
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @author Rod Johnson
  * @author Rob Harrop
+ * @author Tan Jiquan
  * @since 4.2
  * @see #registerCustomEditor
  * @see #setPropertyValues
@@ -76,8 +85,13 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/** Cache of parsed property names, shared by accessors with generated accessors. */
+	private static final Map<String, PropertyTokenHolder> propertyTokenCache = new ConcurrentReferenceHashMap<>(256);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
+	private boolean generatedAccessors = GeneratedInvokerFactory.isEnabledByDefault();
+
 	@Nullable
 	Object wrappedObject;
 
@@ -155,6 +169,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		setExtractOldValueForEditor(parent.isExtractOldValueForEditor());
 		setAutoGrowNestedPaths(parent.isAutoGrowNestedPaths());
 		setAutoGrowCollectionLimit(parent.getAutoGrowCollectionLimit());
+		setGeneratedAccessors(parent.isGeneratedAccessors());
 		setConversionService(parent.getConversionService());
 	}
 
@@ -174,6 +189,33 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		return this.autoGrowCollectionLimit;
 	}
 
+	/**
+	 * Set whether to access properties through generated accessors:
+	 * caching parsed property paths, reading and writing local properties
+	 * through {@link GeneratedInvoker generated classes} instead of reflection
+	 * where possible, and only applying type conversion when the given value
+	 * does not match the property type already.
+	 * <p>Note that in the latter case, a value of the property type is applied
+	 * as-is, even if the {@link #setConversionService ConversionService} has a
+	 * specific converter registered for that type. Custom editors still apply.
+	 * <p>Default is "false", unless the
+	 * {@value GeneratedInvokerFactory#GENERATED_INVOKERS_PROPERTY_NAME}
+	 * flag is set. Nested accessors inherit this setting.
+	 * @since 5.3
+	 * @see GeneratedInvokerFactory
+	 */
+	public void setGeneratedAccessors(boolean generatedAccessors) {
+		this.generatedAccessors = generatedAccessors;
+	}
+
+	/**
+	 * Return whether to access properties through generated accessors.
+	 * @since 5.3
+	 */
+	public boolean isGeneratedAccessors() {
+		return this.generatedAccessors;
+	}
+
 	/**
 	 * Switch the target object, replacing the cached introspection results only
 	 * if the class of the new object is different to that of the replaced object.
@@ -435,7 +477,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 				if (pv.isConverted()) {
 					valueToApply = pv.getConvertedValue();
 				}
-				else {
+				else if (isConversionNecessary(tokens, ph, originalValue)) {
 					if (isExtractOldValueForEditor() && ph.isReadable()) {
 						try {
 							oldValue = ph.getValue();
@@ -596,6 +638,37 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		}
 	}
 
+	/**
+	 * Invoke the given generated accessor, exposing exceptions thrown by the
+	 * target member as {@link InvocationTargetException} like reflection does.
+	 */
+	@Nullable
+	static Object invokeGenerated(GeneratedInvoker invoker, Object target, Object[] args)
+			throws InvocationTargetException {
+
+		try {
+			return invoker.invoke(target, args);
+		}
+		catch (Throwable ex) {
+			throw new InvocationTargetException(ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given value needs to go through type conversion.
+	 * Only skipped with generated accessors, for non-container values that
+	 * match the property type and have no custom editor registered.
+	 */
+	private boolean isConversionNecessary(PropertyTokenHolder tokens, PropertyHandler ph, @Nullable Object value) {
+		if (!this.generatedAccessors || value == null || value instanceof Collection ||
+				value instanceof Map || value instanceof Optional || value.getClass().isArray()) {
+			return true;
+		}
+		Class<?> propertyType = ph.getPropertyType();
+		return (!ClassUtils.isAssignableValue(propertyType, value) ||
+				findCustomEditor(propertyType, tokens.canonicalName) != null);
+	}
+
 	@Nullable
 	protected Object convertForProperty(
 			String propertyName, @Nullable Object oldValue, @Nullable Object newValue, TypeDescriptor td)
@@ -926,6 +999,22 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		if (!this.generatedAccessors) {
+			return parsePropertyNameTokens(propertyName);
+		}
+		PropertyTokenHolder tokens = propertyTokenCache.get(propertyName);
+		if (tokens == null) {
+			tokens = parsePropertyNameTokens(propertyName);
+			propertyTokenCache.put(propertyName, tokens);
+		}
+		// Hand out a copy: token holders are mutable and may be kept by callers
+		PropertyTokenHolder copy = new PropertyTokenHolder(tokens.actualName);
+		copy.canonicalName = tokens.canonicalName;
+		copy.keys = tokens.keys;
+		return copy;
+	}
+
+	private PropertyTokenHolder parsePropertyNameTokens(String propertyName) {
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -62,6 +63,8 @@ import org.springframework.util.ReflectionUtils;
  */
 public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements BeanWrapper {
 
+	private static final Object[] NO_ARGS = new Object[0];
+
 	/**
 	 * Cached introspections results for this object, to prevent encountering
 	 * the cost of JavaBeans introspection every time.
@@ -290,6 +293,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		@Nullable
 		public Object getValue() throws Exception {
 			final Method readMethod = this.pd.getReadMethod();
+			if (isGeneratedAccessors() && System.getSecurityManager() == null) {
+				GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(readMethod);
+				if (invoker != null) {
+					return invokeGenerated(invoker, getWrappedInstance(), NO_ARGS);
+				}
+			}
 			if (System.getSecurityManager() != null) {
 				AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
 					ReflectionUtils.makeAccessible(readMethod);
@@ -314,6 +323,14 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 			final Method writeMethod = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
 					((GenericTypeAwarePropertyDescriptor) this.pd).getWriteMethodForActualAccess() :
 					this.pd.getWriteMethod());
+			if (isGeneratedAccessors() && System.getSecurityManager() == null &&
+					ClassUtils.isAssignableValue(getPropertyType(), value)) {
+				GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(writeMethod);
+				if (invoker != null) {
+					invokeGenerated(invoker, getWrappedInstance(), new Object[] {value});
+					return;
+				}
+			}
 			if (System.getSecurityManager() != null) {
 				AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
 					ReflectionUtils.makeAccessible(writeMethod);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -362,6 +362,11 @@ public final class CachedIntrospectionResults {
 	}
 
 	private PropertyDescriptor buildGenericTypeAwarePropertyDescriptor(Class<?> beanClass, PropertyDescriptor pd) {
+		if (pd instanceof GenericTypeAwarePropertyDescriptor &&
+				((GenericTypeAwarePropertyDescriptor) pd).getBeanClass() == beanClass) {
+			// Already built for the given bean class, e.g. by the SimpleBeanInfoFactory
+			return pd;
+		}
 		try {
 			return new GenericTypeAwarePropertyDescriptor(beanClass, pd.getName(), pd.getReadMethod(),
 					pd.getWriteMethod(), pd.getPropertyEditorClass());
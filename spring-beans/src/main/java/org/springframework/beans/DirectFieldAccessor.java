@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Map;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -47,6 +48,8 @@ import org.springframework.util.ReflectionUtils;
  */
 public class DirectFieldAccessor extends AbstractNestablePropertyAccessor {
 
+	private static final Object[] NO_ARGS = new Object[0];
+
 	private final Map<String, FieldPropertyHandler> fieldMap = new HashMap<>();
 
 
@@ -126,6 +129,12 @@ public class DirectFieldAccessor extends AbstractNestablePropertyAccessor {
 		@Override
 		@Nullable
 		public Object getValue() throws Exception {
+			if (isGeneratedAccessors()) {
+				GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldRead(this.field);
+				if (invoker != null) {
+					return invokeGenerated(invoker, getWrappedInstance(), NO_ARGS);
+				}
+			}
 			try {
 				ReflectionUtils.makeAccessible(this.field);
 				return this.field.get(getWrappedInstance());
@@ -139,6 +148,13 @@ public class DirectFieldAccessor extends AbstractNestablePropertyAccessor {
 
 		@Override
 		public void setValue(@Nullable Object value) throws Exception {
+			if (isGeneratedAccessors() && ClassUtils.isAssignableValue(this.field.getType(), value)) {
+				GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldAssignment(this.field);
+				if (invoker != null) {
+					invokeGenerated(invoker, getWrappedInstance(), new Object[] {value});
+					return;
+				}
+			}
 			try {
 				ReflectionUtils.makeAccessible(this.field);
 				this.field.set(getWrappedInstance(), value);
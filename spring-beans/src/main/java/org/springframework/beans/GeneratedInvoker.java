@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback for invoking a constructor, a method or a field assignment through
+ * a generated class, that is, with a direct bytecode call instead of Java
+ * reflection.
+ *
+ * <p>Instances are obtained from {@link GeneratedInvokerFactory}. Exceptions
+ * thrown by the target member are propagated as-is rather than wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see GeneratedInvokerFactory
+ */
+@FunctionalInterface
+public interface GeneratedInvoker {
+
+	/**
+	 * Invoke the target member.
+	 * @param target the target instance, or {@code null} for a constructor or
+	 * a static member
+	 * @param args the arguments of the constructor or method, or the single
+	 * value to assign to the field. {@code null} values for primitive
+	 * constructor parameters are replaced by the default value of the primitive
+	 * type, whereas they lead to an {@link IllegalArgumentException} for methods
+	 * and fields, as with Java reflection.
+	 * @return the new instance for a constructor, the return value of a method
+	 * (boxed if necessary), or {@code null} for a {@code void} method or a field
+	 * assignment
+	 * @throws Throwable any exception thrown by the target member
+	 */
+	@Nullable
+	Object invoke(@Nullable Object target, Object[] args) throws Throwable;
+
+}
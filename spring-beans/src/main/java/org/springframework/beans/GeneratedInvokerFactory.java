@@ -0,0 +1,480 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Factory for {@link GeneratedInvoker} instances: classes generated with ASM
+ * that call a constructor or a method, or read or assign a field directly,
+ * avoiding the warm-up cost of Java reflection for members that are invoked
+ * repeatedly.
+ *
+ * <p>An invoker class is defined in the package and the class loader of the
+ * declaring class of the member, so that package-visible members can be
+ * called as well. Private members, assignments to final fields, members of
+ * classes that are defined by the bootstrap class loader or in a {@code java.*}
+ * package, as well as members whose signature refers to types that are not
+ * accessible from the declaring package are not supported: {@code null} is
+ * returned for those, and callers are expected to fall back to reflection.
+ *
+ * <p>Invokers are cached per member. The name of an invoker class is derived
+ * from the member it calls, so that an invoker whose cache entry has been
+ * reclaimed reuses the class already defined for it rather than defining a
+ * new one. The use of generated invokers by the
+ * bean factory infrastructure is enabled through the
+ * {@value #GENERATED_INVOKERS_PROPERTY_NAME} system property or Spring property.
+ * That flag also switches {@link BeanWrapperImpl} and {@link DirectFieldAccessor}
+ * to generated property accessors by default, and AOP proxies to generated
+ * invokers for their target methods.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see GeneratedInvoker
+ * @see org.springframework.beans.factory.support.GeneratedInstantiationStrategy
+ */
+public abstract class GeneratedInvokerFactory {
+
+	/**
+	 * System property that instructs Spring to use generated invokers instead
+	 * of reflection for instantiating beans, injecting fields and accessing bean
+	 * properties through a {@link BeanWrapper} or {@link DirectFieldAccessor},
+	 * where possible: e.g. a "spring.beans.generated-invokers=true" entry in a
+	 * "spring.properties" file at the root of the classpath.
+	 * <p>The default is "false", that is, reflection is used unless a
+	 * {@link org.springframework.beans.factory.support.GeneratedInstantiationStrategy}
+	 * is configured explicitly.
+	 */
+	public static final String GENERATED_INVOKERS_PROPERTY_NAME = "spring.beans.generated-invokers";
+
+	private static final boolean generatedInvokersEnabled =
+			SpringProperties.getFlag(GENERATED_INVOKERS_PROPERTY_NAME);
+
+	private static final String INVOKER_CLASS_SUFFIX = "$$GeneratedInvoker$$";
+
+	private static final String MEMBER_FIELD_NAME = "MEMBER";
+
+	private static final String INVOKE_DESCRIPTOR =
+			Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Object.class), Type.getType(Object[].class));
+
+	/** Marker for members that cannot be invoked through a generated class. */
+	private static final Object UNSUPPORTED = new Object();
+
+	private static final Log logger = LogFactory.getLog(GeneratedInvokerFactory.class);
+
+	private static final Map<Member, Object> invokerCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<Field, Object> fieldReaderCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	/**
+	 * Return whether the {@value #GENERATED_INVOKERS_PROPERTY_NAME} flag is set.
+	 */
+	public static boolean isEnabledByDefault() {
+		return generatedInvokersEnabled;
+	}
+
+	/**
+	 * Return an invoker that creates a new instance with the given constructor.
+	 * @param ctor the constructor to invoke
+	 * @return the invoker, or {@code null} if the constructor cannot be invoked
+	 * through a generated class
+	 */
+	@Nullable
+	public static GeneratedInvoker forConstructor(Constructor<?> ctor) {
+		return getInvoker(ctor);
+	}
+
+	/**
+	 * Return an invoker that calls the given method.
+	 * @param method the method to invoke
+	 * @return the invoker, or {@code null} if the method cannot be invoked
+	 * through a generated class
+	 */
+	@Nullable
+	public static GeneratedInvoker forMethod(Method method) {
+		return getInvoker(method);
+	}
+
+	/**
+	 * Return an invoker that assigns its single argument to the given field.
+	 * @param field the field to assign
+	 * @return the invoker, or {@code null} if the field cannot be assigned
+	 * through a generated class
+	 */
+	@Nullable
+	public static GeneratedInvoker forFieldAssignment(Field field) {
+		return getInvoker(field);
+	}
+
+	/**
+	 * Return an invoker that returns the value of the given field (boxed if
+	 * necessary), ignoring its arguments.
+	 * @param field the field to read
+	 * @return the invoker, or {@code null} if the field cannot be read
+	 * through a generated class
+	 */
+	@Nullable
+	public static GeneratedInvoker forFieldRead(Field field) {
+		Object invoker = fieldReaderCache.get(field);
+		if (invoker == null) {
+			invoker = (isSupported(field, true) ? generateInvoker(field, true) : null);
+			if (invoker == null) {
+				invoker = UNSUPPORTED;
+			}
+			fieldReaderCache.put(field, invoker);
+		}
+		return (invoker != UNSUPPORTED ? (GeneratedInvoker) invoker : null);
+	}
+
+	/**
+	 * Clear the invoker cache, removing all references to generated classes.
+	 */
+	public static void clearCache() {
+		invokerCache.clear();
+		fieldReaderCache.clear();
+	}
+
+
+	@Nullable
+	private static GeneratedInvoker getInvoker(Member member) {
+		Object invoker = invokerCache.get(member);
+		if (invoker == null) {
+			invoker = (isSupported(member, false) ? generateInvoker(member, false) : null);
+			if (invoker == null) {
+				invoker = UNSUPPORTED;
+			}
+			invokerCache.put(member, invoker);
+		}
+		return (invoker != UNSUPPORTED ? (GeneratedInvoker) invoker : null);
+	}
+
+	private static boolean isSupported(Member member, boolean fieldRead) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		ClassLoader classLoader = declaringClass.getClassLoader();
+		if (Modifier.isPrivate(member.getModifiers()) || classLoader == null ||
+				declaringClass.getName().startsWith("java.") || Proxy.isProxyClass(declaringClass) ||
+				!ClassUtils.isVisible(GeneratedInvoker.class, classLoader)) {
+			return false;
+		}
+		if (member instanceof Constructor) {
+			return (!Modifier.isAbstract(declaringClass.getModifiers()) &&
+					areAccessible(((Constructor<?>) member).getParameterTypes(), declaringClass));
+		}
+		else if (member instanceof Method) {
+			Method method = (Method) member;
+			return (isAccessible(method.getReturnType(), declaringClass) &&
+					areAccessible(method.getParameterTypes(), declaringClass));
+		}
+		else if (member instanceof Field) {
+			Field field = (Field) member;
+			return ((fieldRead || !Modifier.isFinal(field.getModifiers())) &&
+					isAccessible(field.getType(), declaringClass));
+		}
+		return false;
+	}
+
+	private static boolean areAccessible(Class<?>[] types, Class<?> declaringClass) {
+		for (Class<?> type : types) {
+			if (!isAccessible(type, declaringClass)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> type, Class<?> declaringClass) {
+		Class<?> typeToCheck = type;
+		while (typeToCheck.isArray()) {
+			typeToCheck = typeToCheck.getComponentType();
+		}
+		if (typeToCheck.isPrimitive() || Modifier.isPublic(typeToCheck.getModifiers())) {
+			return true;
+		}
+		return (typeToCheck.getClassLoader() == declaringClass.getClassLoader() &&
+				ClassUtils.getPackageName(typeToCheck).equals(ClassUtils.getPackageName(declaringClass)));
+	}
+
+	@Nullable
+	private static GeneratedInvoker generateInvoker(Member member, boolean fieldRead) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		ClassLoader classLoader = declaringClass.getClassLoader();
+		String signature = getSignature(member, fieldRead);
+		String baseName = declaringClass.getName() + INVOKER_CLASS_SUFFIX + Integer.toHexString(signature.hashCode());
+		try {
+			// Names may collide for distinct members: the actual one is checked against the class
+			for (int i = 0; ; i++) {
+				String className = (i == 0 ? baseName : baseName + "_" + i);
+				Class<?> invokerClass = findInvokerClass(className, classLoader);
+				if (invokerClass == null) {
+					byte[] bytes = generateInvokerClass(className.replace('.', '/'), member, fieldRead, signature);
+					try {
+						invokerClass = ReflectUtils.defineClass(className, bytes, classLoader,
+								declaringClass.getProtectionDomain(), declaringClass);
+					}
+					catch (Throwable ex) {
+						// Possibly defined concurrently by another thread
+						invokerClass = findInvokerClass(className, classLoader);
+						if (invokerClass == null) {
+							throw ex;
+						}
+					}
+				}
+				if (signature.equals(invokerClass.getField(MEMBER_FIELD_NAME).get(null))) {
+					return (GeneratedInvoker) ReflectionUtils.accessibleConstructor(invokerClass).newInstance();
+				}
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate invoker for " + member + " - falling back to reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Return a unique description of the given member and kind of access,
+	 * stored in the generated class to identify it.
+	 */
+	private static String getSignature(Member member, boolean fieldRead) {
+		if (member instanceof Constructor) {
+			return "<init>" + Type.getConstructorDescriptor((Constructor<?>) member);
+		}
+		else if (member instanceof Method) {
+			return member.getName() + Type.getMethodDescriptor((Method) member);
+		}
+		else {
+			return (fieldRead ? "get:" : "set:") + member.getName();
+		}
+	}
+
+	@Nullable
+	private static Class<?> findInvokerClass(String className, ClassLoader classLoader) {
+		try {
+			return Class.forName(className, false, classLoader);
+		}
+		catch (ClassNotFoundException ex) {
+			return null;
+		}
+	}
+
+	private static byte[] generateInvokerClass(String internalName, Member member, boolean fieldRead,
+			String signature) {
+		ClassLoader classLoader = member.getDeclaringClass().getClassLoader();
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected ClassLoader getClassLoader() {
+				return classLoader;
+			}
+		};
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+				Type.getInternalName(Object.class), new String[] {Type.getInternalName(GeneratedInvoker.class)});
+		cw.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, MEMBER_FIELD_NAME,
+				Type.getDescriptor(String.class), null, signature).visitEnd();
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null,
+				new String[] {Type.getInternalName(Throwable.class)});
+		mv.visitCode();
+		if (member instanceof Constructor) {
+			generateConstructorCall(mv, (Constructor<?>) member);
+		}
+		else if (member instanceof Method) {
+			generateMethodCall(mv, (Method) member);
+		}
+		else if (fieldRead) {
+			generateFieldRead(mv, (Field) member);
+		}
+		else {
+			generateFieldAssignment(mv, (Field) member);
+		}
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void generateConstructorCall(MethodVisitor mv, Constructor<?> ctor) {
+		String owner = Type.getInternalName(ctor.getDeclaringClass());
+		mv.visitTypeInsn(Opcodes.NEW, owner);
+		mv.visitInsn(Opcodes.DUP);
+		Class<?>[] parameterTypes = ctor.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			loadArgument(mv, i, parameterTypes[i], null);
+		}
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, "<init>", Type.getConstructorDescriptor(ctor), false);
+	}
+
+	private static void generateMethodCall(MethodVisitor mv, Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		boolean isInterface = declaringClass.isInterface();
+		if (Modifier.isStatic(method.getModifiers())) {
+			loadArguments(mv, method);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, method.getName(),
+					Type.getMethodDescriptor(method), isInterface);
+		}
+		else {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			loadArguments(mv, method);
+			mv.visitMethodInsn((isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL), owner,
+					method.getName(), Type.getMethodDescriptor(method), isInterface);
+		}
+		Class<?> returnType = method.getReturnType();
+		if (returnType == void.class) {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		else {
+			boxIfNecessary(mv, returnType);
+		}
+	}
+
+	private static void generateFieldRead(MethodVisitor mv, Field field) {
+		String owner = Type.getInternalName(field.getDeclaringClass());
+		if (Modifier.isStatic(field.getModifiers())) {
+			mv.visitFieldInsn(Opcodes.GETSTATIC, owner, field.getName(), Type.getDescriptor(field.getType()));
+		}
+		else {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			mv.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+		}
+		boxIfNecessary(mv, field.getType());
+	}
+
+	private static void generateFieldAssignment(MethodVisitor mv, Field field) {
+		String owner = Type.getInternalName(field.getDeclaringClass());
+		String nullMessage = "Can not set " + field.getType().getName() + " field " +
+				field.getDeclaringClass().getName() + "." + field.getName() + " to null value";
+		if (Modifier.isStatic(field.getModifiers())) {
+			loadArgument(mv, 0, field.getType(), nullMessage);
+			mv.visitFieldInsn(Opcodes.PUTSTATIC, owner, field.getName(), Type.getDescriptor(field.getType()));
+		}
+		else {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			loadArgument(mv, 0, field.getType(), nullMessage);
+			mv.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+		}
+		mv.visitInsn(Opcodes.ACONST_NULL);
+	}
+
+	private static void boxIfNecessary(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+					Type.getMethodDescriptor(Type.getType(wrapperType), Type.getType(type)), false);
+		}
+	}
+
+	private static void loadArguments(MethodVisitor mv, Method method) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			loadArgument(mv, i, parameterTypes[i], "Null value for primitive parameter " + i + " of " + method);
+		}
+	}
+
+	/**
+	 * Load {@code args[index]} on the stack, casting or unboxing it to the given
+	 * type. A {@code null} value for a primitive type either leads to an
+	 * {@link IllegalArgumentException} with the given message, as with Java
+	 * reflection, or, without a message, is replaced by its default value,
+	 * consistent with {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 */
+	private static void loadArgument(MethodVisitor mv, int index, Class<?> type, @Nullable String nullMessage) {
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitLdcInsn(index);
+		mv.visitInsn(Opcodes.AALOAD);
+		if (type.isPrimitive()) {
+			Label notNull = new Label();
+			Label end = new Label();
+			mv.visitInsn(Opcodes.DUP);
+			mv.visitJumpInsn(Opcodes.IFNONNULL, notNull);
+			mv.visitInsn(Opcodes.POP);
+			if (nullMessage != null) {
+				String exceptionType = Type.getInternalName(IllegalArgumentException.class);
+				mv.visitTypeInsn(Opcodes.NEW, exceptionType);
+				mv.visitInsn(Opcodes.DUP);
+				mv.visitLdcInsn(nullMessage);
+				mv.visitMethodInsn(Opcodes.INVOKESPECIAL, exceptionType, "<init>",
+						Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class)), false);
+				mv.visitInsn(Opcodes.ATHROW);
+			}
+			else {
+				pushDefaultValue(mv, type);
+				mv.visitJumpInsn(Opcodes.GOTO, end);
+			}
+			mv.visitLabel(notNull);
+			String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperType);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperType, type.getName() + "Value",
+					Type.getMethodDescriptor(Type.getType(type)), false);
+			mv.visitLabel(end);
+		}
+		else if (type != Object.class) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+	private static void pushDefaultValue(MethodVisitor mv, Class<?> type) {
+		if (type == long.class) {
+			mv.visitInsn(Opcodes.LCONST_0);
+		}
+		else if (type == float.class) {
+			mv.visitInsn(Opcodes.FCONST_0);
+		}
+		else if (type == double.class) {
+			mv.visitInsn(Opcodes.DCONST_0);
+		}
+		else {
+			mv.visitInsn(Opcodes.ICONST_0);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,17 @@
 
 package org.springframework.beans;
 
+import java.beans.IndexedPropertyDescriptor;
 import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
@@ -29,9 +36,94 @@ import org.springframework.util.ObjectUtils;
  *
  * @author Chris Beams
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  */
 abstract class PropertyDescriptorUtils {
 
+	/**
+	 * Determine the JavaBeans properties of the given class from its public
+	 * {@code get}/{@code is}/{@code set} accessor methods, following the conventions
+	 * of the JavaBeans {@link java.beans.Introspector} without going through it.
+	 * <p>As with the Introspector, properties are sorted by name, an {@code is}
+	 * accessor takes precedence over a {@code boolean} {@code get} accessor, and
+	 * indexed accessors are exposed through an {@link IndexedPropertyDescriptor}.
+	 * Classes whose properties the Introspector resolves in a less obvious way
+	 * (overloaded setters, read and write methods of different types, non-void
+	 * or static setters as handled by {@link ExtendedBeanInfo}) are not supported.
+	 * @param beanClass the class to introspect
+	 * @return the property descriptors, or {@code null} if the given class
+	 * needs to be introspected by the JavaBeans Introspector
+	 * @since 5.3
+	 * @see SimpleBeanInfoFactory
+	 */
+	@Nullable
+	public static Collection<PropertyDescriptor> determineBasicProperties(Class<?> beanClass) {
+		Map<String, BasicPropertyMethods> propertyMethods = new TreeMap<>();
+		for (Method method : beanClass.getMethods()) {
+			if (method.isBridge()) {
+				continue;
+			}
+			if (ExtendedBeanInfo.isCandidateWriteMethod(method)) {
+				return null;
+			}
+			if (Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			String methodName = method.getName();
+			Class<?>[] paramTypes = method.getParameterTypes();
+			Class<?> returnType = method.getReturnType();
+			if (methodName.length() > 3 && methodName.startsWith("get") && returnType != void.class) {
+				if (paramTypes.length == 0) {
+					getPropertyMethods(propertyMethods, methodName, 3).setReadMethod(method);
+				}
+				else if (paramTypes.length == 1 && paramTypes[0] == int.class) {
+					getPropertyMethods(propertyMethods, methodName, 3).setIndexedReadMethod(method);
+				}
+			}
+			else if (methodName.length() > 2 && methodName.startsWith("is") && returnType == boolean.class &&
+					paramTypes.length == 0) {
+				getPropertyMethods(propertyMethods, methodName, 2).setIsMethod(method);
+			}
+			else if (methodName.length() > 3 && methodName.startsWith("set") && returnType == void.class) {
+				if (paramTypes.length == 1) {
+					getPropertyMethods(propertyMethods, methodName, 3).setWriteMethod(method);
+				}
+				else if (paramTypes.length == 2 && paramTypes[0] == int.class) {
+					getPropertyMethods(propertyMethods, methodName, 3).setIndexedWriteMethod(method);
+				}
+			}
+		}
+
+		List<PropertyDescriptor> pds = new ArrayList<>(propertyMethods.size());
+		for (Map.Entry<String, BasicPropertyMethods> entry : propertyMethods.entrySet()) {
+			PropertyDescriptor pd = entry.getValue().toPropertyDescriptor(beanClass, entry.getKey());
+			if (pd == null) {
+				return null;
+			}
+			pds.add(pd);
+		}
+		return pds;
+	}
+
+	private static BasicPropertyMethods getPropertyMethods(
+			Map<String, BasicPropertyMethods> propertyMethods, String methodName, int prefixLength) {
+
+		return propertyMethods.computeIfAbsent(
+				decapitalize(methodName.substring(prefixLength)), name -> new BasicPropertyMethods());
+	}
+
+	/**
+	 * See {@link java.beans.Introspector#decapitalize}.
+	 */
+	private static String decapitalize(String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		char[] chars = name.toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+
 	/**
 	 * See {@link java.beans.FeatureDescriptor}.
 	 */
@@ -173,4 +265,93 @@ abstract class PropertyDescriptorUtils {
 				pd.isBound() == otherPd.isBound() && pd.isConstrained() == otherPd.isConstrained());
 	}
 
+
+
+	/**
+	 * The accessor methods found for a basic property.
+	 * @see #determineBasicProperties
+	 */
+	private static class BasicPropertyMethods {
+
+		@Nullable
+		private Method readMethod;
+
+		@Nullable
+		private Method isMethod;
+
+		@Nullable
+		private Method writeMethod;
+
+		@Nullable
+		private Method indexedReadMethod;
+
+		@Nullable
+		private Method indexedWriteMethod;
+
+		private boolean ambiguous;
+
+		void setReadMethod(Method readMethod) {
+			this.ambiguous |= (this.readMethod != null);
+			this.readMethod = readMethod;
+		}
+
+		void setIsMethod(Method isMethod) {
+			this.ambiguous |= (this.isMethod != null);
+			this.isMethod = isMethod;
+		}
+
+		void setWriteMethod(Method writeMethod) {
+			this.ambiguous |= (this.writeMethod != null);
+			this.writeMethod = writeMethod;
+		}
+
+		void setIndexedReadMethod(Method indexedReadMethod) {
+			this.ambiguous |= (this.indexedReadMethod != null);
+			this.indexedReadMethod = indexedReadMethod;
+		}
+
+		void setIndexedWriteMethod(Method indexedWriteMethod) {
+			this.ambiguous |= (this.indexedWriteMethod != null);
+			this.indexedWriteMethod = indexedWriteMethod;
+		}
+
+		/**
+		 * Build the property descriptor for the given property name,
+		 * or return {@code null} if the accessors are ambiguous or inconsistent.
+		 * <p>Non-indexed properties are exposed through a {@link GenericTypeAwarePropertyDescriptor},
+		 * resolving the property type against the bean class like the Introspector does.
+		 */
+		@Nullable
+		PropertyDescriptor toPropertyDescriptor(Class<?> beanClass, String name) {
+			if (this.ambiguous) {
+				return null;
+			}
+			Method readMethod = this.readMethod;
+			if (this.isMethod != null) {
+				if (readMethod != null && readMethod.getReturnType() != boolean.class) {
+					return null;
+				}
+				readMethod = this.isMethod;
+			}
+			if (readMethod != null && this.writeMethod != null &&
+					readMethod.getReturnType() != this.writeMethod.getParameterTypes()[0]) {
+				return null;
+			}
+			try {
+				if (this.indexedReadMethod != null || this.indexedWriteMethod != null) {
+					if (this.indexedReadMethod != null && this.indexedWriteMethod != null &&
+							this.indexedReadMethod.getReturnType() != this.indexedWriteMethod.getParameterTypes()[1]) {
+						return null;
+					}
+					return new IndexedPropertyDescriptor(name, readMethod, this.writeMethod,
+							this.indexedReadMethod, this.indexedWriteMethod);
+				}
+				return new GenericTypeAwarePropertyDescriptor(beanClass, name, readMethod, this.writeMethod, null);
+			}
+			catch (IntrospectionException ex) {
+				return null;
+			}
+		}
+	}
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.BeanDescriptor;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.beans.SimpleBeanInfo;
+import java.util.Collection;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link BeanInfoFactory} implementation that determines the bean properties
+ * from the public accessor methods of a class directly, bypassing the JavaBeans
+ * {@link java.beans.Introspector} and its search for {@code BeanInfo} classes.
+ *
+ * <p>Only active if the {@link #SIMPLE_BEANINFO_PROPERTY_NAME} flag is set.
+ * Classes whose accessor methods do not follow the basic JavaBeans conventions
+ * unambiguously are left to the Introspector, and to the {@link ExtendedBeanInfo}
+ * in case of non-void setter methods.
+ *
+ * <p>Ordered at {@code Ordered.LOWEST_PRECEDENCE - 1} to take precedence over
+ * the {@link ExtendedBeanInfoFactory} while still allowing other user-defined
+ * {@link BeanInfoFactory} types to take precedence.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see PropertyDescriptorUtils#determineBasicProperties
+ * @see CachedIntrospectionResults
+ */
+public class SimpleBeanInfoFactory implements BeanInfoFactory, Ordered {
+
+	/**
+	 * System property that instructs Spring to determine bean properties without
+	 * the JavaBeans {@link java.beans.Introspector}: "spring.beaninfo.simple",
+	 * with a value of "true" ignoring any {@code BeanInfo} classes for the beans
+	 * (as with {@link CachedIntrospectionResults#IGNORE_BEANINFO_PROPERTY_NAME}).
+	 * <p>The default is "false", introspecting all bean classes through the
+	 * Introspector. Consider switching this flag to "true" to reduce the cost
+	 * of the first property access on each bean class.
+	 */
+	public static final String SIMPLE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.simple";
+
+
+	private final boolean enabled = SpringProperties.getFlag(SIMPLE_BEANINFO_PROPERTY_NAME);
+
+
+	/**
+	 * Return a {@link BeanInfo} with the basic properties of the given bean class,
+	 * if enabled and applicable.
+	 */
+	@Override
+	@Nullable
+	public BeanInfo getBeanInfo(Class<?> beanClass) throws IntrospectionException {
+		if (!this.enabled) {
+			return null;
+		}
+		Collection<PropertyDescriptor> pds = PropertyDescriptorUtils.determineBasicProperties(beanClass);
+		return (pds != null ? new BasicBeanInfo(beanClass, pds.toArray(new PropertyDescriptor[0])) : null);
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE - 1;
+	}
+
+
+	/**
+	 * {@link BeanInfo} exposing a bean class along with its basic properties.
+	 */
+	private static class BasicBeanInfo extends SimpleBeanInfo {
+
+		private final BeanDescriptor beanDescriptor;
+
+		private final PropertyDescriptor[] propertyDescriptors;
+
+		public BasicBeanInfo(Class<?> beanClass, PropertyDescriptor[] propertyDescriptors) {
+			this.beanDescriptor = new BeanDescriptor(beanClass);
+			this.propertyDescriptors = propertyDescriptors;
+		}
+
+		@Override
+		public BeanDescriptor getBeanDescriptor() {
+			return this.beanDescriptor;
+		}
+
+		@Override
+		public PropertyDescriptor[] getPropertyDescriptors() {
+			return this.propertyDescriptors;
+		}
+	}
+
+}
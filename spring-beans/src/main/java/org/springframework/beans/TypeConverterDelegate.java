@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import org.springframework.core.CollectionFactory;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.NumberUtils;
@@ -48,6 +49,7 @@ import org.springframework.util.StringUtils;
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @author Dave Syer
+ * @author Tan Jiquan
  * @since 2.0
  * @see BeanWrapperImpl
  * @see SimpleTypeConverter
@@ -123,16 +125,26 @@ class TypeConverterDelegate {
 		// No custom editor but custom ConversionService specified?
 		ConversionService conversionService = this.propertyEditorRegistry.getConversionService();
 		if (editor == null && conversionService != null && newValue != null && typeDescriptor != null) {
-			TypeDescriptor sourceTypeDesc = TypeDescriptor.forObject(newValue);
-			if (conversionService.canConvert(sourceTypeDesc, typeDescriptor)) {
-				try {
-					return (T) conversionService.convert(newValue, sourceTypeDesc, typeDescriptor);
+			try {
+				if (conversionService instanceof GenericConversionService && isPlainTypeDescriptor(typeDescriptor)) {
+					// Plain class: let the conversion service look up its converter by class pair,
+					// without building TypeDescriptor-based cache keys on every call.
+					Class<?> targetType = typeDescriptor.getType();
+					if (conversionService.canConvert(newValue.getClass(), targetType)) {
+						return (T) conversionService.convert(newValue, targetType);
+					}
 				}
-				catch (ConversionFailedException ex) {
-					// fallback to default conversion logic below
-					conversionAttemptEx = ex;
+				else {
+					TypeDescriptor sourceTypeDesc = TypeDescriptor.forObject(newValue);
+					if (conversionService.canConvert(sourceTypeDesc, typeDescriptor)) {
+						return (T) conversionService.convert(newValue, sourceTypeDesc, typeDescriptor);
+					}
 				}
 			}
+			catch (ConversionFailedException ex) {
+				// fallback to default conversion logic below
+				conversionAttemptEx = ex;
+			}
 		}
 
 		Object convertedValue = newValue;
@@ -275,6 +287,16 @@ class TypeConverterDelegate {
 		return (T) convertedValue;
 	}
 
+	/**
+	 * Determine whether the given type descriptor carries no conversion context
+	 * beyond its raw class, i.e. neither annotations nor generic type information,
+	 * and is therefore equivalent to {@link TypeDescriptor#valueOf(Class)}.
+	 */
+	private boolean isPlainTypeDescriptor(TypeDescriptor typeDescriptor) {
+		return (typeDescriptor.getAnnotations().length == 0 &&
+				typeDescriptor.getResolvableType().getType() == typeDescriptor.getType());
+	}
+
 	private Object attemptToConvertStringToEnum(Class<?> requiredType, String trimmedValue, Object currentConvertedValue) {
 		Object convertedValue = currentConvertedValue;
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.annotation;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Strategy interface for looking up the members of a bean class that carry
+ * injection or lifecycle annotations from a pre-computed (typically build-time)
+ * index, sparing the annotation post-processors the reflective introspection
+ * of every field and method of the class.
+ *
+ * <p>Indexes are instantiated by the annotation post-processors by using the
+ * {@link org.springframework.core.io.support.SpringFactoriesLoader} utility
+ * class. When the members of a class are to be introspected, the discovered
+ * indexes are queried in turn for every class of the hierarchy; if none of
+ * them covers a class, all members declared by that class are introspected
+ * as usual.
+ *
+ * <p>The members reported for a class are resolved directly, without
+ * introspecting the other members of that class, and still checked for the
+ * actual annotations: an index may safely report more members than needed
+ * but must never omit an annotated one. If a reported member cannot be
+ * resolved (e.g. because the class changed since the index was built), all
+ * members declared by the class are introspected instead.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see AutowiredAnnotationBeanPostProcessor
+ * @see InitDestroyAnnotationBeanPostProcessor
+ * @see org.springframework.core.io.support.SpringFactoriesLoader
+ */
+public interface AnnotatedMemberIndex {
+
+	/**
+	 * The category of the members carrying an injection annotation, such as
+	 * {@link Autowired @Autowired}, {@link Value @Value}, {@link Lookup @Lookup},
+	 * {@code @Inject} or {@code @Resource}.
+	 */
+	String INJECTION = "injection";
+
+	/**
+	 * The category of the methods carrying a lifecycle annotation, that is
+	 * {@code @PostConstruct} or {@code @PreDestroy}.
+	 */
+	String LIFECYCLE = "lifecycle";
+
+
+	/**
+	 * Return the members declared by the given class that belong to the
+	 * specified category: fields by name, methods and constructors by name
+	 * followed by their parenthesized, comma-separated erased parameter types,
+	 * e.g. {@code setName(java.lang.String)}.
+	 * <p>Inherited members must not be reported: the annotation post-processors
+	 * query the index for each class of the hierarchy in turn, so that a
+	 * superclass that is not indexed (e.g. coming from a library that changed
+	 * since the index was built) is still introspected.
+	 * @param clazz the class to introspect
+	 * @param category the member category, e.g. {@link #INJECTION}
+	 * @return the matching fields and methods (possibly empty if the class has
+	 * none), or {@code null} if the given class is not indexed
+	 */
+	@Nullable
+	Set<String> getAnnotatedMembers(Class<?> clazz, String category);
+
+
+	/**
+	 * Invoke the given callbacks on the fields and methods declared by the given
+	 * class, restricted to the specified indexed members if any.
+	 * <p>Indexed fields are processed first, followed by the indexed methods,
+	 * in index order. Without indexed members, or if any of them cannot be
+	 * resolved, this is equivalent to {@link ReflectionUtils#doWithLocalFields}
+	 * followed by {@link ReflectionUtils#doWithLocalMethods}.
+	 * @param clazz the class to introspect
+	 * @param indexedMembers the members of the class as reported by
+	 * {@link #getAnnotatedMembers}, or {@code null} if the class is not indexed
+	 * @param fc the callback to invoke for each field, or {@code null} if
+	 * fields are not of interest
+	 * @param mc the callback to invoke for each method
+	 * @throws IllegalStateException if introspection fails
+	 */
+	static void doWithLocalMembers(Class<?> clazz, @Nullable Set<String> indexedMembers,
+			@Nullable ReflectionUtils.FieldCallback fc, ReflectionUtils.MethodCallback mc) {
+
+		List<Member> members = (indexedMembers != null ? resolveMembers(clazz, indexedMembers) : null);
+		if (members == null) {
+			if (fc != null) {
+				ReflectionUtils.doWithLocalFields(clazz, fc);
+			}
+			ReflectionUtils.doWithLocalMethods(clazz, mc);
+			return;
+		}
+		for (Member member : members) {
+			try {
+				if (member instanceof Field) {
+					if (fc != null) {
+						fc.doWith((Field) member);
+					}
+				}
+				else {
+					mc.doWith((Method) member);
+				}
+			}
+			catch (IllegalAccessException ex) {
+				throw new IllegalStateException("Not allowed to access member '" + member.getName() + "': " + ex);
+			}
+		}
+	}
+
+	/**
+	 * Resolve the given indexed members against the given class: field names
+	 * to the declared fields, method signatures (name followed by the
+	 * parenthesized, comma-separated parameter types) to the declared methods.
+	 * Constructors are ignored.
+	 * @return the declared fields followed by the declared methods, or
+	 * {@code null} if any member cannot be resolved
+	 */
+	@Nullable
+	static List<Member> resolveMembers(Class<?> clazz, Set<String> indexedMembers) {
+		List<Member> fields = new ArrayList<>();
+		List<Member> methods = new ArrayList<>();
+		try {
+			for (String member : indexedMembers) {
+				int paramsStart = member.indexOf('(');
+				if (paramsStart == -1) {
+					fields.add(clazz.getDeclaredField(member));
+				}
+				else if (!member.startsWith("<init>")) {
+					String[] paramTypeNames = StringUtils.commaDelimitedListToStringArray(
+							member.substring(paramsStart + 1, member.length() - 1));
+					Class<?>[] paramTypes = new Class<?>[paramTypeNames.length];
+					for (int i = 0; i < paramTypeNames.length; i++) {
+						paramTypes[i] = ClassUtils.forName(paramTypeNames[i], clazz.getClassLoader());
+					}
+					methods.add(clazz.getDeclaredMethod(member.substring(0, paramsStart), paramTypes));
+				}
+			}
+		}
+		catch (ReflectiveOperationException | LinkageError | SecurityException ex) {
+			return null;
+		}
+		fields.addAll(methods);
+		return fields;
+	}
+
+}
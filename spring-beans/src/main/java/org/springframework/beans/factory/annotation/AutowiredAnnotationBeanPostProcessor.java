@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,8 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.GeneratedInvoker;
+import org.springframework.beans.GeneratedInvokerFactory;
 import org.springframework.beans.PropertyValues;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
@@ -62,6 +64,7 @@ import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -118,11 +121,22 @@ import org.springframework.util.StringUtils;
  * version of {@code getBean(Class, args)} and {@code getBean(String, args)}.
  * See {@link Lookup @Lookup's javadoc} for details.
  *
+ * <h3>Member Index</h3>
+ * <p>If an {@link AnnotatedMemberIndex} is registered through
+ * {@code META-INF/spring.factories} and covers a class of the bean hierarchy,
+ * the members that the index reports for that class are resolved directly and
+ * checked for the autowired annotation types, without introspecting any other
+ * member; a class with no reported member is skipped altogether. Classes the
+ * index does not cover, such as a superclass from another archive, are
+ * introspected as usual. The index is
+ * not consulted once custom autowired annotation types are set.
+ *
  * @author Juergen Hoeller
  * @author Mark Fisher
  * @author Stephane Nicoll
  * @author Sebastien Deleuze
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 2.5
  * @see #setAutowiredAnnotationType
  * @see Autowired
@@ -131,10 +145,19 @@ import org.springframework.util.StringUtils;
 public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter
 		implements MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware {
 
+	/** Stores the AnnotatedMemberIndex instances. */
+	private static final List<AnnotatedMemberIndex> memberIndexes = SpringFactoriesLoader.loadFactories(
+			AnnotatedMemberIndex.class, AutowiredAnnotationBeanPostProcessor.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Set<Class<? extends Annotation>> autowiredAnnotationTypes = new LinkedHashSet<>(4);
 
+	private boolean useMemberIndex = true;
+
+	private boolean generatedInjection = GeneratedInvokerFactory.isEnabledByDefault();
+
 	private String requiredParameterName = "required";
 
 	private boolean requiredParameterValue = true;
@@ -186,6 +209,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		Assert.notNull(autowiredAnnotationType, "'autowiredAnnotationType' must not be null");
 		this.autowiredAnnotationTypes.clear();
 		this.autowiredAnnotationTypes.add(autowiredAnnotationType);
+		this.useMemberIndex = false;
 	}
 
 	/**
@@ -202,6 +226,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		Assert.notEmpty(autowiredAnnotationTypes, "'autowiredAnnotationTypes' must not be empty");
 		this.autowiredAnnotationTypes.clear();
 		this.autowiredAnnotationTypes.addAll(autowiredAnnotationTypes);
+		this.useMemberIndex = false;
 	}
 
 	/**
@@ -222,6 +247,19 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		this.requiredParameterValue = requiredParameterValue;
 	}
 
+	/**
+	 * Specify whether to inject fields and invoke config methods through
+	 * generated classes instead of reflection, where possible (that is, for
+	 * non-private members, see {@link GeneratedInvokerFactory}).
+	 * <p>Default is "false", unless the
+	 * {@value GeneratedInvokerFactory#GENERATED_INVOKERS_PROPERTY_NAME}
+	 * flag is set.
+	 * @since 5.3
+	 */
+	public void setGeneratedInjection(boolean generatedInjection) {
+		this.generatedInjection = generatedInjection;
+	}
+
 	public void setOrder(int order) {
 		this.order = order;
 	}
@@ -264,7 +302,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 				try {
 					Class<?> targetClass = beanClass;
 					do {
-						ReflectionUtils.doWithLocalMethods(targetClass, method -> {
+						AnnotatedMemberIndex.doWithLocalMembers(targetClass, getIndexedMembers(targetClass), null, method -> {
 							Lookup lookup = method.getAnnotation(Lookup.class);
 							if (lookup != null) {
 								Assert.state(this.beanFactory != null, "No BeanFactory available");
@@ -469,8 +507,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		do {
 			final List<InjectionMetadata.InjectedElement> currElements = new ArrayList<>();
-
-			ReflectionUtils.doWithLocalFields(targetClass, field -> {
+			AnnotatedMemberIndex.doWithLocalMembers(targetClass, getIndexedMembers(targetClass), field -> {
 				MergedAnnotation<?> ann = findAutowiredAnnotation(field);
 				if (ann != null) {
 					if (Modifier.isStatic(field.getModifiers())) {
@@ -482,9 +519,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 					boolean required = determineRequiredStatus(ann);
 					currElements.add(new AutowiredFieldElement(field, required));
 				}
-			});
-
-			ReflectionUtils.doWithLocalMethods(targetClass, method -> {
+			}, method -> {
 				Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 				if (!BridgeMethodResolver.isVisibilityBridgeMethodPair(method, bridgedMethod)) {
 					return;
@@ -517,6 +552,29 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		return InjectionMetadata.forElements(elements, clazz);
 	}
 
+	/**
+	 * Return the injection members declared by the given class as reported by
+	 * the first {@link AnnotatedMemberIndex} covering it, if any.
+	 * <p>Only the local members of the given class are covered: each superclass
+	 * is looked up on its own, falling back to the introspection of all its
+	 * members if it is not indexed.
+	 * @param clazz the class to introspect
+	 * @return the member names, or {@code null} if all members need to be checked
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Set<String> getIndexedMembers(Class<?> clazz) {
+		if (this.useMemberIndex) {
+			for (AnnotatedMemberIndex index : memberIndexes) {
+				Set<String> members = index.getAnnotatedMembers(clazz, AnnotatedMemberIndex.INJECTION);
+				if (members != null) {
+					return members;
+				}
+			}
+		}
+		return null;
+	}
+
 	@Nullable
 	private MergedAnnotation<?> findAutowiredAnnotation(AccessibleObject ao) {
 		MergedAnnotations annotations = MergedAnnotations.from(ao);
@@ -618,9 +676,13 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		@Nullable
 		private volatile Object cachedFieldValue;
 
+		@Nullable
+		private final GeneratedInvoker fieldInjector;
+
 		public AutowiredFieldElement(Field field, boolean required) {
 			super(field, null);
 			this.required = required;
+			this.fieldInjector = (generatedInjection ? GeneratedInvokerFactory.forFieldAssignment(field) : null);
 		}
 
 		@Override
@@ -664,8 +726,13 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 				}
 			}
 			if (value != null) {
-				ReflectionUtils.makeAccessible(field);
-				field.set(bean, value);
+				if (this.fieldInjector != null) {
+					this.fieldInjector.invoke(bean, new Object[] {value});
+				}
+				else {
+					ReflectionUtils.makeAccessible(field);
+					field.set(bean, value);
+				}
 			}
 		}
 	}
@@ -683,9 +750,13 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		@Nullable
 		private volatile Object[] cachedMethodArguments;
 
+		@Nullable
+		private final GeneratedInvoker methodInvoker;
+
 		public AutowiredMethodElement(Method method, boolean required, @Nullable PropertyDescriptor pd) {
 			super(method, pd);
 			this.required = required;
+			this.methodInvoker = (generatedInjection ? GeneratedInvokerFactory.forMethod(method) : null);
 		}
 
 		@Override
@@ -750,12 +821,17 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 				}
 			}
 			if (arguments != null) {
-				try {
-					ReflectionUtils.makeAccessible(method);
-					method.invoke(bean, arguments);
+				if (this.methodInvoker != null) {
+					this.methodInvoker.invoke(bean, arguments);
 				}
-				catch (InvocationTargetException ex) {
-					throw ex.getTargetException();
+				else {
+					try {
+						ReflectionUtils.makeAccessible(method);
+						method.invoke(bean, arguments);
+					}
+					catch (InvocationTargetException ex) {
+						throw ex.getTargetException();
+					}
 				}
 			}
 		}
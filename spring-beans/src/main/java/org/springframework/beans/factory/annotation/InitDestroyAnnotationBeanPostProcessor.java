@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,7 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
@@ -71,7 +72,13 @@ import org.springframework.util.ReflectionUtils;
  * Furthermore, it also supports the {@link javax.annotation.Resource} annotation
  * for annotation-driven injection of named beans.
  *
+ * <p>As of 5.3, the lifecycle methods declared by a class covered by an
+ * {@link AnnotatedMemberIndex} are resolved from the index if the JSR-250
+ * annotations are used, without introspecting the other methods of the class.
+ * Classes of the hierarchy that are not covered are introspected as usual.
+ *
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @since 2.5
  * @see #setInitAnnotationType
  * @see #setDestroyAnnotationType
@@ -80,6 +87,10 @@ import org.springframework.util.ReflectionUtils;
 public class InitDestroyAnnotationBeanPostProcessor
 		implements DestructionAwareBeanPostProcessor, MergedBeanDefinitionPostProcessor, PriorityOrdered, Serializable {
 
+	/** Stores the AnnotatedMemberIndex instances. */
+	private static final List<AnnotatedMemberIndex> memberIndexes = SpringFactoriesLoader.loadFactories(
+			AnnotatedMemberIndex.class, InitDestroyAnnotationBeanPostProcessor.class.getClassLoader());
+
 	private final transient LifecycleMetadata emptyLifecycleMetadata =
 			new LifecycleMetadata(Object.class, Collections.emptyList(), Collections.emptyList()) {
 				@Override
@@ -228,8 +239,10 @@ public class InitDestroyAnnotationBeanPostProcessor
 		do {
 			final List<LifecycleElement> currInitMethods = new ArrayList<>();
 			final List<LifecycleElement> currDestroyMethods = new ArrayList<>();
+			Set<String> indexedMethods = (isStandardLifecycle() ?
+					getIndexedMembers(targetClass, AnnotatedMemberIndex.LIFECYCLE) : null);
 
-			ReflectionUtils.doWithLocalMethods(targetClass, method -> {
+			AnnotatedMemberIndex.doWithLocalMembers(targetClass, indexedMethods, null, method -> {
 				if (this.initAnnotationType != null && method.isAnnotationPresent(this.initAnnotationType)) {
 					LifecycleElement element = new LifecycleElement(method);
 					currInitMethods.add(element);
@@ -255,6 +268,34 @@ public class InitDestroyAnnotationBeanPostProcessor
 				new LifecycleMetadata(clazz, initMethods, destroyMethods));
 	}
 
+	private boolean isStandardLifecycle() {
+		return ((this.initAnnotationType == null ||
+				this.initAnnotationType.getName().equals("javax.annotation.PostConstruct")) &&
+				(this.destroyAnnotationType == null ||
+				this.destroyAnnotationType.getName().equals("javax.annotation.PreDestroy")));
+	}
+
+	/**
+	 * Return the members declared by the given class in the specified category
+	 * as reported by the first {@link AnnotatedMemberIndex} covering it, if any.
+	 * <p>Only the local members of the given class are covered: each superclass
+	 * is looked up on its own.
+	 * @param clazz the class to introspect
+	 * @param category the member category, e.g. {@link AnnotatedMemberIndex#INJECTION}
+	 * @return the member names, or {@code null} if all members need to be checked
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Set<String> getIndexedMembers(Class<?> clazz, String category) {
+		for (AnnotatedMemberIndex index : memberIndexes) {
+			Set<String> members = index.getAnnotatedMembers(clazz, category);
+			if (members != null) {
+				return members;
+			}
+		}
+		return null;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Serialization support
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.config;
 
 import java.beans.PropertyEditor;
 import java.security.AccessControlContext;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.PropertyEditorRegistrar;
 import org.springframework.beans.PropertyEditorRegistry;
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.HierarchicalBeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringValueResolver;
 
@@ -283,6 +285,39 @@ public interface ConfigurableBeanFactory extends HierarchicalBeanFactory, Single
 	 */
 	AccessControlContext getAccessControlContext();
 
+	/**
+	 * Set the {@code ApplicationStartup} for this bean factory.
+	 * <p>This allows the application context to record metrics during application startup.
+	 * @param applicationStartup the new application startup
+	 * @since 5.3
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+
+	/**
+	 * Return the {@code ApplicationStartup} for this bean factory.
+	 * @since 5.3
+	 */
+	ApplicationStartup getApplicationStartup();
+
+	/**
+	 * Set an {@link Executor} for pre-instantiating singletons in parallel.
+	 * <p>If specified, {@link ConfigurableListableBeanFactory#preInstantiateSingletons()}
+	 * groups the non-lazy singletons by the dependencies declared in their bean
+	 * definitions and creates independent groups concurrently on the given executor.
+	 * The executor should be bounded, e.g. a fixed-size thread pool.
+	 * <p>Default is none, instantiating all singletons sequentially in the calling thread.
+	 * @param bootstrapExecutor the executor to use, or {@code null} for none
+	 * @since 5.3
+	 */
+	void setBootstrapExecutor(@Nullable Executor bootstrapExecutor);
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in parallel, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	Executor getBootstrapExecutor();
+
 	/**
 	 * Copy all relevant configuration from the given other factory.
 	 * <p>Should include all standard configuration settings as well as
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.beans.factory.config;
 
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ListableBeanFactory;
@@ -159,4 +161,32 @@ public interface ConfigurableListableBeanFactory
 	 */
 	void preInstantiateSingletons() throws BeansException;
 
+	/**
+	 * Instantiate all non-lazy-init singletons in the background, on the given
+	 * executor, without waiting for their completion.
+	 * <p>Singletons that are requested in the meantime get created on demand,
+	 * with their creation coordinated with the background instantiation.
+	 * <p>Cancelling the returned future stops the instantiation of further
+	 * singletons and waits for the ones currently in creation, as does
+	 * {@link #destroySingletons()}.
+	 * <p>The default implementation calls {@link #preInstantiateSingletons()}
+	 * in the calling thread.
+	 * @param executor the executor to instantiate the singletons on
+	 * @return a future completing once all singletons have been instantiated
+	 * (exceptionally if one of them could not be created)
+	 * @since 5.3
+	 * @see #preInstantiateSingletons()
+	 */
+	default CompletableFuture<Void> preInstantiateSingletonsInBackground(Executor executor) {
+		try {
+			preInstantiateSingletons();
+			return CompletableFuture.completedFuture(null);
+		}
+		catch (BeansException ex) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			future.completeExceptionally(ex);
+			return future;
+		}
+	}
+
 }
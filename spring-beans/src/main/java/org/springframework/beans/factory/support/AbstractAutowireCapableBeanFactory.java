@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.GeneratedInvokerFactory;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyAccessorUtils;
 import org.springframework.beans.PropertyValue;
@@ -124,7 +125,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		implements AutowireCapableBeanFactory {
 
 	/** Strategy for creating bean instances. */
-	private InstantiationStrategy instantiationStrategy = new CglibSubclassingInstantiationStrategy();
+	private InstantiationStrategy instantiationStrategy = (GeneratedInvokerFactory.isEnabledByDefault() ?
+			new GeneratedInstantiationStrategy() : new CglibSubclassingInstantiationStrategy());
 
 	/** Resolver strategy for method parameter names. */
 	@Nullable
@@ -597,6 +599,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			// 会进行推断，到底使用哪种方式实例化对象
 			instanceWrapper = createBeanInstance(beanName, mbd, args);
 		}
+		if (mbd.isSingleton()) {
+			singletonInstantiated(beanName);
+		}
 		// 从 beanWrapper 中获取我们的早期对象
 		final Object bean = instanceWrapper.getWrappedInstance();
 		Class<?> beanType = instanceWrapper.getWrappedClass();
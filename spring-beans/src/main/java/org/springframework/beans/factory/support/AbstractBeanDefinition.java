@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,6 +51,7 @@ import org.springframework.util.StringUtils;
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @author Mark Fisher
+ * @author Tan Jiquan
  * @see GenericBeanDefinition
  * @see RootBeanDefinition
  * @see ChildBeanDefinition
@@ -160,7 +161,8 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 
 	private boolean primary = false;
 
-	private final Map<String, AutowireCandidateQualifier> qualifiers = new LinkedHashMap<>();
+	@Nullable
+	private Map<String, AutowireCandidateQualifier> qualifiers;
 
 	@Nullable
 	private Supplier<?> instanceSupplier;
@@ -181,7 +183,8 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	@Nullable
 	private MutablePropertyValues propertyValues;
 
-	private MethodOverrides methodOverrides = new MethodOverrides();
+	@Nullable
+	private MethodOverrides methodOverrides;
 
 	@Nullable
 	private String initMethodName;
@@ -271,8 +274,12 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 			setResource(originalAbd.getResource());
 		}
 		else {
-			setConstructorArgumentValues(new ConstructorArgumentValues(original.getConstructorArgumentValues()));
-			setPropertyValues(new MutablePropertyValues(original.getPropertyValues()));
+			if (original.hasConstructorArgumentValues()) {
+				setConstructorArgumentValues(new ConstructorArgumentValues(original.getConstructorArgumentValues()));
+			}
+			if (original.hasPropertyValues()) {
+				setPropertyValues(new MutablePropertyValues(original.getPropertyValues()));
+			}
 			setLazyInit(original.isLazyInit());
 			setResourceDescription(original.getResourceDescription());
 		}
@@ -698,6 +705,9 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 * @see AutowireCandidateQualifier#getTypeName()
 	 */
 	public void addQualifier(AutowireCandidateQualifier qualifier) {
+		if (this.qualifiers == null) {
+			this.qualifiers = new LinkedHashMap<>(4);
+		}
 		this.qualifiers.put(qualifier.getTypeName(), qualifier);
 	}
 
@@ -705,7 +715,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 * Return whether this bean has the specified qualifier.
 	 */
 	public boolean hasQualifier(String typeName) {
-		return this.qualifiers.containsKey(typeName);
+		return (this.qualifiers != null && this.qualifiers.containsKey(typeName));
 	}
 
 	/**
@@ -713,7 +723,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 */
 	@Nullable
 	public AutowireCandidateQualifier getQualifier(String typeName) {
-		return this.qualifiers.get(typeName);
+		return (this.qualifiers != null ? this.qualifiers.get(typeName) : null);
 	}
 
 	/**
@@ -721,7 +731,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 * @return the Set of {@link AutowireCandidateQualifier} objects.
 	 */
 	public Set<AutowireCandidateQualifier> getQualifiers() {
-		return new LinkedHashSet<>(this.qualifiers.values());
+		return (this.qualifiers != null ? new LinkedHashSet<>(this.qualifiers.values()) : new LinkedHashSet<>());
 	}
 
 	/**
@@ -730,7 +740,14 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 */
 	public void copyQualifiersFrom(AbstractBeanDefinition source) {
 		Assert.notNull(source, "Source must not be null");
-		this.qualifiers.putAll(source.qualifiers);
+		if (source.qualifiers != null && !source.qualifiers.isEmpty()) {
+			if (this.qualifiers == null) {
+				this.qualifiers = new LinkedHashMap<>(source.qualifiers);
+			}
+			else {
+				this.qualifiers.putAll(source.qualifiers);
+			}
+		}
 	}
 
 	/**
@@ -889,6 +906,17 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 		return (this.propertyValues != null && !this.propertyValues.isEmpty());
 	}
 
+	/**
+	 * Drop the constructor argument values and property values of this
+	 * bean definition, without allocating empty replacements.
+	 * @since 5.3
+	 * @see RootBeanDefinition#releaseInstantiationMetadata()
+	 */
+	void clearValues() {
+		this.constructorArgumentValues = null;
+		this.propertyValues = null;
+	}
+
 	/**
 	 * Specify method overrides for the bean, if any.
 	 */
@@ -902,6 +930,9 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 * <p>Never returns {@code null}.
 	 */
 	public MethodOverrides getMethodOverrides() {
+		if (this.methodOverrides == null) {
+			this.methodOverrides = new MethodOverrides();
+		}
 		return this.methodOverrides;
 	}
 
@@ -910,7 +941,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	 * @since 5.0.2
 	 */
 	public boolean hasMethodOverrides() {
-		return !this.methodOverrides.isEmpty();
+		return (this.methodOverrides != null && !this.methodOverrides.isEmpty());
 	}
 
 	/**
@@ -1169,13 +1200,13 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 				this.dependencyCheck == that.dependencyCheck &&
 				Arrays.equals(this.dependsOn, that.dependsOn) &&
 				this.autowireCandidate == that.autowireCandidate &&
-				ObjectUtils.nullSafeEquals(this.qualifiers, that.qualifiers) &&
+				equalsQualifiers(that) &&
 				this.primary == that.primary &&
 				this.nonPublicAccessAllowed == that.nonPublicAccessAllowed &&
 				this.lenientConstructorResolution == that.lenientConstructorResolution &&
-				ObjectUtils.nullSafeEquals(this.constructorArgumentValues, that.constructorArgumentValues) &&
-				ObjectUtils.nullSafeEquals(this.propertyValues, that.propertyValues) &&
-				ObjectUtils.nullSafeEquals(this.methodOverrides, that.methodOverrides) &&
+				equalsConstructorArgumentValues(that) &&
+				equalsPropertyValues(that) &&
+				equalsMethodOverrides(that) &&
 				ObjectUtils.nullSafeEquals(this.factoryBeanName, that.factoryBeanName) &&
 				ObjectUtils.nullSafeEquals(this.factoryMethodName, that.factoryMethodName) &&
 				ObjectUtils.nullSafeEquals(this.initMethodName, that.initMethodName) &&
@@ -1187,12 +1218,46 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 				super.equals(other));
 	}
 
+	// Lazily allocated collections: a null collection equals an empty one
+
+	private boolean equalsQualifiers(AbstractBeanDefinition other) {
+		if (this.qualifiers == null || this.qualifiers.isEmpty()) {
+			return (other.qualifiers == null || other.qualifiers.isEmpty());
+		}
+		return this.qualifiers.equals(other.qualifiers);
+	}
+
+	private boolean equalsConstructorArgumentValues(AbstractBeanDefinition other) {
+		if (!hasConstructorArgumentValues()) {
+			return !other.hasConstructorArgumentValues();
+		}
+		return ObjectUtils.nullSafeEquals(this.constructorArgumentValues, other.constructorArgumentValues);
+	}
+
+	private boolean equalsPropertyValues(AbstractBeanDefinition other) {
+		if (!hasPropertyValues()) {
+			return !other.hasPropertyValues();
+		}
+		return ObjectUtils.nullSafeEquals(this.propertyValues, other.propertyValues);
+	}
+
+	private boolean equalsMethodOverrides(AbstractBeanDefinition other) {
+		if (!hasMethodOverrides()) {
+			return !other.hasMethodOverrides();
+		}
+		return ObjectUtils.nullSafeEquals(this.methodOverrides, other.methodOverrides);
+	}
+
 	@Override
 	public int hashCode() {
 		int hashCode = ObjectUtils.nullSafeHashCode(getBeanClassName());
 		hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.scope);
-		hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.constructorArgumentValues);
-		hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.propertyValues);
+		if (hasConstructorArgumentValues()) {
+			hashCode = 29 * hashCode + this.constructorArgumentValues.hashCode();
+		}
+		if (hasPropertyValues()) {
+			hashCode = 29 * hashCode + this.propertyValues.hashCode();
+		}
 		hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.factoryBeanName);
 		hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.factoryMethodName);
 		hashCode = 29 * hashCode + super.hashCode();
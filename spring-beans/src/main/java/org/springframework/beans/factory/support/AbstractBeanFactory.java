@@ -34,6 +34,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
@@ -71,6 +72,8 @@ import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.log.LogMessage;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -106,6 +109,7 @@ import org.springframework.util.StringValueResolver;
  * @author Costin Leau
  * @author Chris Beams
  * @author Phillip Webb
+ * @author Tan Jiquan
  * @since 15 April 2001
  * @see #getBeanDefinition
  * @see #createBean
@@ -129,6 +133,9 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	/** Whether to cache bean metadata or rather reobtain it for every access. */
 	private boolean cacheBeanMetadata = true;
 
+	/** Whether to release instantiation metadata of merged bean definitions after singleton creation. */
+	private boolean releaseMergedBeanDefinitionMetadata = false;
+
 	/** Resolution strategy for expressions in bean definition values. */
 	@Nullable
 	private BeanExpressionResolver beanExpressionResolver;
@@ -159,6 +166,13 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	/** Indicates whether any DestructionAwareBeanPostProcessors have been registered. */
 	private volatile boolean hasDestructionAwareBeanPostProcessors;
 
+	/** Application startup metrics. */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
+	/** Executor for parallel singleton pre-instantiation, if any. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Map from scope identifier String to corresponding Scope. */
 	private final Map<String, Scope> scopes = new LinkedHashMap<>(8);
 
@@ -309,11 +323,19 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				markBeanAsCreated(beanName);
 			}
 
+			StartupStep beanCreation = this.applicationStartup.start("spring.beans.instantiate")
+					.tag("beanName", name);
 			try {
+				if (requiredType != null) {
+					beanCreation.tag("beanType", requiredType::toString);
+				}
 				// 合并bean定义，从容器中获取 beanName 相应的 GenericBeanDefinition 对象 转化为 RootBeanDefinition 对象
-				final RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+				final RootBeanDefinition mbd = getMergedLocalBeanDefinitionForCreation(beanName);
 				//检查当前创建的bean定义是不是抽象的bean 定义
 				checkMergedBeanDefinition(mbd, beanName, args);
+				if (mbd.getBeanClassName() != null) {
+					beanCreation.tag("beanClass", mbd.getBeanClassName());
+				}
 
 				// Guarantee initialization of beans that the current bean depends on.
 				/**
@@ -398,6 +420,10 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 							throw ex;
 						}
 					});
+					if (this.releaseMergedBeanDefinitionMetadata) {
+						// Singleton created: release instantiation-only metadata (property values, constructor arguments etc)
+						mbd.releaseInstantiationMetadata();
+					}
 					bean = getObjectForBeanInstance(sharedInstance, name, beanName, mbd);
 				}
 
@@ -441,9 +467,14 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				}
 			}
 			catch (BeansException ex) {
+				beanCreation.tag("exception", ex.getClass().toString());
+				beanCreation.tag("message", String.valueOf(ex.getMessage()));
 				cleanupAfterBeanCreationFailure(beanName);
 				throw ex;
 			}
+			finally {
+				beanCreation.end();
+			}
 		}
 
 		// Check if required type matches the type of the actual bean instance.
@@ -872,6 +903,31 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		return this.cacheBeanMetadata;
 	}
 
+	/**
+	 * Set whether to release the instantiation metadata of a merged bean definition
+	 * (constructor argument values, property values, resolved constructor arguments)
+	 * once the corresponding singleton has been created. Default is "false".
+	 * <p>Switch this flag on to reduce the heap footprint of very large contexts
+	 * with mostly singleton beans. Type-related metadata is retained, and a released
+	 * definition gets re-merged from the original bean definition if the singleton
+	 * needs to be created again, e.g. after {@link #destroySingletons()}.
+	 * Note that {@link #getMergedBeanDefinition(String)} returns the released
+	 * definition for such a bean in the meantime.
+	 * @since 5.3
+	 */
+	public void setReleaseMergedBeanDefinitionMetadata(boolean releaseMergedBeanDefinitionMetadata) {
+		this.releaseMergedBeanDefinitionMetadata = releaseMergedBeanDefinitionMetadata;
+	}
+
+	/**
+	 * Return whether to release the instantiation metadata of merged bean
+	 * definitions after singleton creation.
+	 * @since 5.3
+	 */
+	public boolean isReleaseMergedBeanDefinitionMetadata() {
+		return this.releaseMergedBeanDefinitionMetadata;
+	}
+
 	@Override
 	public void setBeanExpressionResolver(@Nullable BeanExpressionResolver resolver) {
 		this.beanExpressionResolver = resolver;
@@ -1083,6 +1139,28 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				AccessController.getContext());
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "applicationStartup should not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
+	@Override
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	@Override
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
 		Assert.notNull(otherFactory, "BeanFactory must not be null");
@@ -1090,6 +1168,8 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		setCacheBeanMetadata(otherFactory.isCacheBeanMetadata());
 		setBeanExpressionResolver(otherFactory.getBeanExpressionResolver());
 		setConversionService(otherFactory.getConversionService());
+		setApplicationStartup(otherFactory.getApplicationStartup());
+		setBootstrapExecutor(otherFactory.getBootstrapExecutor());
 		if (otherFactory instanceof AbstractBeanFactory) {
 			AbstractBeanFactory otherAbstractFactory = (AbstractBeanFactory) otherFactory;
 			this.propertyEditorRegistrars.addAll(otherAbstractFactory.propertyEditorRegistrars);
@@ -1466,6 +1546,25 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		}
 	}
 
+	/**
+	 * Return a merged RootBeanDefinition that is suitable for creating a bean instance,
+	 * re-merging the definition if its instantiation metadata has been released.
+	 * @param beanName the name of the bean to retrieve the merged definition for
+	 * @return a (potentially merged) RootBeanDefinition for the given bean
+	 * @throws NoSuchBeanDefinitionException if there is no bean with the given name
+	 * @throws BeanDefinitionStoreException in case of an invalid bean definition
+	 * @since 5.3
+	 * @see #setReleaseMergedBeanDefinitionMetadata
+	 */
+	protected RootBeanDefinition getMergedLocalBeanDefinitionForCreation(String beanName) throws BeansException {
+		RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+		if (mbd.instantiationMetadataReleased) {
+			clearMergedBeanDefinition(beanName);
+			mbd = getMergedLocalBeanDefinition(beanName);
+		}
+		return mbd;
+	}
+
 	/**
 	 * Check the given merged bean definition,
 	 * potentially throwing validation exceptions.
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of bean definition names by the raw type of their bean, used by
+ * {@link DefaultListableBeanFactory} to narrow down the bean definitions
+ * that need to be evaluated for a by-type lookup.
+ *
+ * <p>Only beans whose type is fully known are indexed; all other bean
+ * definitions (factory methods, {@code FactoryBeans}, unresolved bean classes,
+ * non-singleton scopes, etc) remain candidates for any type. Beans are indexed
+ * once their type has been determined, and indexed types are updated when the
+ * actual singleton instance (e.g. a proxy) turns out to be of a different type.
+ *
+ * <p>Candidate names are cached per raw type and updated incrementally: newly
+ * registered bean names are appended to the cached candidates and removed bean
+ * names are dropped from the cached candidates that contain them, while a change
+ * of an indexed type only invalidates the cached types that it affects.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see DefaultListableBeanFactory#getBeanNamesForType
+ */
+final class BeanTypeIndex {
+
+	/** Raw types of the indexed beans, keyed by bean name. */
+	private final Map<String, Class<?>> indexedTypes = new ConcurrentHashMap<>(256);
+
+	/** Candidate bean names in registration order, keyed by raw type to match. */
+	private final Map<Class<?>, String[]> candidateNamesByType = new ConcurrentHashMap<>(64);
+
+	/** Modification counter, guarding the computation of candidate names. */
+	private int modificationCount = 0;
+
+
+	/**
+	 * Return the names of the beans that may match the given raw type,
+	 * in registration order.
+	 * @param type the raw type to match
+	 * @param beanDefinitionNames all bean definition names, in registration order
+	 * @return the candidate bean names (a subset of the given names)
+	 */
+	String[] getCandidateNames(Class<?> type, List<String> beanDefinitionNames) {
+		String[] candidateNames = this.candidateNamesByType.get(type);
+		if (candidateNames != null) {
+			return candidateNames;
+		}
+		int count;
+		synchronized (this) {
+			count = this.modificationCount;
+		}
+		List<String> result = new ArrayList<>();
+		for (String beanName : beanDefinitionNames) {
+			Class<?> indexedType = this.indexedTypes.get(beanName);
+			if (indexedType == null || type.isAssignableFrom(indexedType)) {
+				result.add(beanName);
+			}
+		}
+		candidateNames = StringUtils.toStringArray(result);
+		synchronized (this) {
+			// Only cache the result if the index did not change in the meantime.
+			if (count == this.modificationCount) {
+				this.candidateNamesByType.put(type, candidateNames);
+			}
+		}
+		return candidateNames;
+	}
+
+	/**
+	 * Return the raw type that the given bean is indexed with, if any.
+	 */
+	@Nullable
+	Class<?> getIndexedType(String beanName) {
+		return this.indexedTypes.get(beanName);
+	}
+
+	/**
+	 * Index the given bean with the given raw type.
+	 * @param beanName the name of the bean
+	 * @param type the raw type of the bean, which the bean is known to
+	 * match exclusively (along with its supertypes)
+	 */
+	synchronized void index(String beanName, Class<?> type) {
+		Class<?> previousType = this.indexedTypes.put(beanName, type);
+		if (previousType != null && previousType != type) {
+			// Cached types that excluded the bean before may include it now.
+			invalidate(previousType, type);
+		}
+	}
+
+	/**
+	 * Remove the given bean from the index, turning it into a candidate for any type.
+	 * @param beanName the name of the bean
+	 */
+	synchronized void unindex(String beanName) {
+		Class<?> previousType = this.indexedTypes.remove(beanName);
+		if (previousType != null) {
+			invalidate(previousType, null);
+		}
+	}
+
+	/**
+	 * Register a bean definition name that has been appended to the
+	 * bean definition names, as a candidate for all cached types.
+	 * @param beanName the name of the new bean definition
+	 */
+	synchronized void beanDefinitionAdded(String beanName) {
+		this.modificationCount++;
+		this.indexedTypes.remove(beanName);
+		for (Map.Entry<Class<?>, String[]> entry : this.candidateNamesByType.entrySet()) {
+			String[] candidateNames = entry.getValue();
+			String[] updatedNames = Arrays.copyOf(candidateNames, candidateNames.length + 1);
+			updatedNames[candidateNames.length] = beanName;
+			entry.setValue(updatedNames);
+		}
+	}
+
+	/**
+	 * Remove a bean definition name from the index and from the cached types
+	 * that it is a candidate for.
+	 * @param beanName the name of the removed bean definition
+	 */
+	synchronized void beanDefinitionRemoved(String beanName) {
+		this.modificationCount++;
+		Class<?> indexedType = this.indexedTypes.remove(beanName);
+		for (Map.Entry<Class<?>, String[]> entry : this.candidateNamesByType.entrySet()) {
+			if (indexedType != null && !entry.getKey().isAssignableFrom(indexedType)) {
+				// The bean has never been a candidate for this type.
+				continue;
+			}
+			String[] candidateNames = entry.getValue();
+			int index = Arrays.asList(candidateNames).indexOf(beanName);
+			if (index != -1) {
+				String[] updatedNames = new String[candidateNames.length - 1];
+				System.arraycopy(candidateNames, 0, updatedNames, 0, index);
+				System.arraycopy(candidateNames, index + 1, updatedNames, index, updatedNames.length - index);
+				entry.setValue(updatedNames);
+			}
+		}
+	}
+
+	/**
+	 * Clear the entire index, e.g. after bean definitions have been post-processed.
+	 */
+	synchronized void clear() {
+		this.modificationCount++;
+		this.indexedTypes.clear();
+		this.candidateNamesByType.clear();
+	}
+
+	/**
+	 * Invalidate the cached types that excluded a bean with the given previous type.
+	 * @param previousType the type the bean was indexed with
+	 * @param type the type the bean is indexed with now,
+	 * or {@code null} if it is not indexed anymore
+	 */
+	private void invalidate(Class<?> previousType, @Nullable Class<?> type) {
+		this.modificationCount++;
+		for (Iterator<Class<?>> it = this.candidateNamesByType.keySet().iterator(); it.hasNext();) {
+			Class<?> cachedType = it.next();
+			if (!cachedType.isAssignableFrom(previousType) && (type == null || cachedType.isAssignableFrom(type))) {
+				it.remove();
+			}
+		}
+	}
+
+}
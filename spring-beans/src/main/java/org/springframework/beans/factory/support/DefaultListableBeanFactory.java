@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -39,7 +40,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -48,6 +54,7 @@ import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -69,16 +76,20 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
 import org.springframework.core.log.LogMessage;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -137,6 +148,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Number of attempts in the background for a singleton that the background
+	 * pre-instantiation had to give way for, before waiting for other threads
+	 * like an on-demand creation does.
+	 */
+	private static final int MAX_BACKGROUND_ATTEMPTS = 3;
+
 
 	/** Map from serialized id to factory instance. */
 	private static final Map<String, Reference<DefaultListableBeanFactory>> serializableFactories =
@@ -171,6 +189,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Index of bean definition names by bean type, narrowing down by-type lookups. */
+	private final BeanTypeIndex beanTypeIndex = new BeanTypeIndex();
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -184,6 +205,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans. */
 	private volatile boolean configurationFrozen = false;
 
+	/** Completion of the last background pre-instantiation of singletons, if any. */
+	@Nullable
+	private volatile CompletableFuture<Void> backgroundPreInstantiation;
+
+	/** Whether the background pre-instantiation has been asked to stop. */
+	private volatile boolean backgroundPreInstantiationCancelled = false;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -506,8 +534,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions that may match the raw type.
+		Class<?> rawType = type.resolve();
+		List<String> candidateNames = (rawType != null && rawType != Object.class ?
+				Arrays.asList(this.beanTypeIndex.getCandidateNames(rawType, this.beanDefinitionNames)) :
+				this.beanDefinitionNames);
+		for (String beanName : candidateNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -526,6 +558,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 							if (includeNonSingletons || isSingleton(beanName, mbd, dbd)) {
 								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
 							}
+							if (this.beanTypeIndex.getIndexedType(beanName) == null) {
+								indexBeanType(beanName, mbd);
+							}
 						}
 						else  {
 							if (includeNonSingletons || isNonLazyDecorated ||
@@ -585,6 +620,63 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Index the type of the given bean for subsequent by-type lookups,
+	 * provided that the bean is a singleton whose type is known for sure:
+	 * either from its bean class or from its singleton instance.
+	 * @param beanName the name of the bean
+	 * @param mbd the merged bean definition for the bean
+	 * @since 5.3
+	 * @see BeanTypeIndex
+	 */
+	private void indexBeanType(String beanName, RootBeanDefinition mbd) {
+		if (!mbd.isSingleton()) {
+			return;
+		}
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance != null) {
+			if (isIndexableInstance(beanInstance)) {
+				this.beanTypeIndex.index(beanName, beanInstance.getClass());
+			}
+			return;
+		}
+		if (!mbd.hasBeanClass() || mbd.getFactoryMethodName() != null ||
+				mbd.getDecoratedDefinition() != null || mbd.getInstanceSupplier() != null) {
+			return;
+		}
+		Class<?> beanClass = mbd.getBeanClass();
+		Class<?> targetType = mbd.getTargetType();
+		if (!FactoryBean.class.isAssignableFrom(beanClass) && (targetType == null || targetType == beanClass) &&
+				predictBeanType(beanName, mbd) == beanClass) {
+			// No post-processor is going to expose the bean as a different type (so far):
+			// otherwise the index gets updated along with the singleton instance.
+			this.beanTypeIndex.index(beanName, beanClass);
+		}
+	}
+
+	/**
+	 * Update the indexed type of the given bean, if any, for the given
+	 * (possibly early) singleton instance of the bean.
+	 * @param beanName the name of the bean
+	 * @param beanInstance the singleton instance exposed for the bean
+	 * @since 5.3
+	 */
+	private void updateIndexedBeanType(String beanName, Object beanInstance) {
+		Class<?> indexedType = this.beanTypeIndex.getIndexedType(beanName);
+		if (indexedType != null && indexedType != beanInstance.getClass()) {
+			if (isIndexableInstance(beanInstance)) {
+				this.beanTypeIndex.index(beanName, beanInstance.getClass());
+			}
+			else {
+				this.beanTypeIndex.unindex(beanName);
+			}
+		}
+	}
+
+	private boolean isIndexableInstance(Object beanInstance) {
+		return (!(beanInstance instanceof FactoryBean) && beanInstance.getClass() != NullBean.class);
+	}
+
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
@@ -815,9 +907,19 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return iterator;
 	}
 
+	@Override
+	public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+		super.addBeanPostProcessor(beanPostProcessor);
+		if (beanPostProcessor instanceof SmartInstantiationAwareBeanPostProcessor) {
+			// Bean types indexed so far might get predicted differently now.
+			this.beanTypeIndex.clear();
+		}
+	}
+
 	@Override
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
+		this.beanTypeIndex.clear();
 		clearByTypeCache();
 	}
 
@@ -853,38 +955,83 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
+		Executor bootstrapExecutor = getBootstrapExecutor();
+		if (bootstrapExecutor != null) {
+			preInstantiateSingletonsInParallel(beanNames, bootstrapExecutor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+		}
+
+		// Trigger post-initialization callback for all applicable beans...
+		invokeSmartInitializingSingletons(beanNames);
+	}
+
+	@Override
+	public CompletableFuture<Void> preInstantiateSingletonsInBackground(Executor executor) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Pre-instantiating singletons in the background in " + this);
+		}
+
+		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
+		Set<String> deferredBeanNames = ConcurrentHashMap.newKeySet();
+
+		// From now on, singletons requested on demand get coordinated with the background
+		// tasks, which give way whenever waiting for each other would lead to a deadlock.
+		this.backgroundPreInstantiationCancelled = false;
+		setParallelSingletonCreation(true);
+		List<CompletableFuture<Void>> futures = submitPreInstantiationTasks(beanNames, executor, deferredBeanNames, true);
+		CompletableFuture<Void> tasks = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> {
+					for (String beanName : beanNames) {
+						if (deferredBeanNames.contains(beanName)) {
+							checkBackgroundPreInstantiationCancelled();
+							preInstantiateDeferredSingleton(beanName);
 						}
 					}
-				}
-				else {
-					getBean(beanName);
-				}
+					checkBackgroundPreInstantiationCancelled();
+					invokeSmartInitializingSingletons(beanNames);
+				}, executor);
+		BackgroundPreInstantiation completion = new BackgroundPreInstantiation(tasks);
+		this.backgroundPreInstantiation = completion;
+		return completion;
+	}
+
+	private void checkBackgroundPreInstantiationCancelled() {
+		if (this.backgroundPreInstantiationCancelled) {
+			throw new CancellationException("Background pre-instantiation of singletons cancelled");
+		}
+	}
+
+	/**
+	 * Instantiate the given singleton that the background pre-instantiation had
+	 * to give way for: after a bounded number of attempts in the background, the
+	 * current thread waits for the other threads like an on-demand creation,
+	 * as with parallel pre-instantiation.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateDeferredSingleton(String beanName) {
+		for (int attempt = 0; attempt < MAX_BACKGROUND_ATTEMPTS; attempt++) {
+			if (preInstantiateSingletonInBackground(beanName)) {
+				return;
 			}
 		}
+		preInstantiateSingleton(beanName);
+	}
 
-		// Trigger post-initialization callback for all applicable beans...
+	/**
+	 * Invoke the {@link SmartInitializingSingleton} callback on all applicable
+	 * singletons among the given beans.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 */
+	private void invokeSmartInitializingSingletons(List<String> beanNames) {
 		for (String beanName : beanNames) {
 			Object singletonInstance = getSingleton(beanName);
 			if (singletonInstance instanceof SmartInitializingSingleton) {
+				StartupStep smartInitialize = getApplicationStartup().start("spring.beans.smart-initialize")
+						.tag("beanName", beanName);
 				final SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
 				if (System.getSecurityManager() != null) {
 					AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
@@ -895,6 +1042,267 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				else {
 					smartSingleton.afterSingletonsInstantiated();
 				}
+				smartInitialize.end();
+			}
+		}
+	}
+
+
+	/**
+	 * Instantiate the given singleton if it is a non-lazy singleton bean,
+	 * including the object exposed by an eager-init {@link SmartFactoryBean}.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			if (isFactoryBean(beanName)) {
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Instantiate the given singletons on the given executor: singletons related
+	 * through the dependencies declared in their bean definitions are instantiated
+	 * sequentially within the same task, independent groups concurrently.
+	 * <p>Dependencies that only show up at runtime (e.g. autowired ones) are
+	 * coordinated by the singleton registry, resolving circular references between
+	 * threads through early singleton references. A singleton whose creation had to
+	 * be abandoned before any bean instance got created, in order to avoid a deadlock
+	 * between two threads, is instantiated in the calling thread once all tasks
+	 * have completed.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the executor to run the instantiation tasks on
+	 * @see #setBootstrapExecutor
+	 * @see #setParallelSingletonCreation
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		Set<String> deferredBeanNames = ConcurrentHashMap.newKeySet();
+		setParallelSingletonCreation(true);
+		try {
+			List<CompletableFuture<Void>> futures =
+					submitPreInstantiationTasks(beanNames, executor, deferredBeanNames, false);
+			RuntimeException failure = null;
+			for (CompletableFuture<Void> future : futures) {
+				try {
+					future.join();
+				}
+				catch (CompletionException ex) {
+					Throwable cause = (ex.getCause() != null ? ex.getCause() : ex);
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					RuntimeException taskFailure = (cause instanceof RuntimeException ?
+							(RuntimeException) cause : ex);
+					if (failure == null) {
+						failure = taskFailure;
+					}
+					else {
+						failure.addSuppressed(taskFailure);
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		}
+		finally {
+			setParallelSingletonCreation(false);
+		}
+
+		for (String beanName : beanNames) {
+			if (deferredBeanNames.contains(beanName)) {
+				preInstantiateSingleton(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Submit the instantiation of the given singletons to the given executor,
+	 * one task per group of singletons related through their declared dependencies.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the executor to run the instantiation tasks on
+	 * @param deferredBeanNames the set to collect the names of the singletons
+	 * whose creation had to be abandoned in
+	 * @param background whether the tasks give way to other threads on collisions
+	 * @return the futures of the submitted tasks
+	 * @see #runInBackground
+	 */
+	private List<CompletableFuture<Void>> submitPreInstantiationTasks(
+			List<String> beanNames, Executor executor, Set<String> deferredBeanNames, boolean background) {
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (List<String> group : groupByDeclaredDependencies(beanNames)) {
+			Runnable task = () -> {
+				for (String beanName : group) {
+					if (background && this.backgroundPreInstantiationCancelled) {
+						return;
+					}
+					boolean instantiated = (background ? preInstantiateSingletonInBackground(beanName) :
+							preInstantiateSingletonDeferrable(beanName));
+					if (!instantiated) {
+						deferredBeanNames.add(beanName);
+					}
+				}
+			};
+			try {
+				futures.add(CompletableFuture.runAsync(task, executor));
+			}
+			catch (RejectedExecutionException ex) {
+				// Executor saturated: process the group in the calling thread.
+				task.run();
+			}
+		}
+		return futures;
+	}
+
+	/**
+	 * Instantiate the given singleton in the current thread as a background task.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if instantiated, {@code false} if the creation had
+	 * to be abandoned to give way to another thread
+	 * @see #runInBackground
+	 */
+	private boolean preInstantiateSingletonInBackground(String beanName) {
+		boolean[] instantiated = new boolean[1];
+		runInBackground(() -> instantiated[0] = preInstantiateSingletonDeferrable(beanName));
+		return instantiated[0];
+	}
+
+	/**
+	 * Instantiate the given singleton, unless its creation has to be abandoned
+	 * to avoid a deadlock with another thread.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if instantiated, {@code false} if abandoned
+	 */
+	private boolean preInstantiateSingletonDeferrable(String beanName) {
+		try {
+			preInstantiateSingleton(beanName);
+			return true;
+		}
+		catch (BeanCreationException ex) {
+			if (!ex.contains(SingletonCreationCollisionException.class)) {
+				throw ex;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Deferring pre-instantiation of singleton '" + beanName + "': " + ex);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Group the non-lazy singletons among the given beans by the dependencies
+	 * declared in their merged bean definitions: depends-on relationships,
+	 * factory beans and bean references in constructor arguments and properties.
+	 * Beans that are (transitively) connected end up in the same group.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @return the groups of bean names, each in registration order
+	 */
+	private Collection<List<String>> groupByDeclaredDependencies(List<String> beanNames) {
+		Map<String, String> representatives = new HashMap<>(beanNames.size());
+		List<String> candidates = new ArrayList<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				candidates.add(beanName);
+				Set<String> dependencies = new LinkedHashSet<>();
+				collectDeclaredDependencies(bd, dependencies);
+				for (String dependency : dependencies) {
+					String rep1 = findRepresentative(representatives, beanName);
+					String rep2 = findRepresentative(representatives, dependency);
+					if (!rep1.equals(rep2)) {
+						representatives.put(rep2, rep1);
+					}
+				}
+			}
+		}
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : candidates) {
+			groups.computeIfAbsent(findRepresentative(representatives, beanName), key -> new ArrayList<>())
+					.add(beanName);
+		}
+		return groups.values();
+	}
+
+	private static String findRepresentative(Map<String, String> representatives, String beanName) {
+		String representative = beanName;
+		String next;
+		while ((next = representatives.get(representative)) != null) {
+			representative = next;
+		}
+		if (!representative.equals(beanName)) {
+			// Path compression for subsequent lookups.
+			representatives.put(beanName, representative);
+		}
+		return representative;
+	}
+
+	private void collectDeclaredDependencies(BeanDefinition bd, Set<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				dependencies.add(transformedBeanName(dependency));
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(transformedBeanName(bd.getFactoryBeanName()));
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+				collectReferencedBeanNames(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+				collectReferencedBeanNames(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectReferencedBeanNames(pv.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void collectReferencedBeanNames(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof BeanReference) {
+			dependencies.add(transformedBeanName(((BeanReference) value).getBeanName()));
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDeclaredDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDeclaredDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferencedBeanNames(element, dependencies);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferencedBeanNames(entry.getKey(), dependencies);
+				collectReferencedBeanNames(entry.getValue(), dependencies);
 			}
 		}
 	}
@@ -968,6 +1376,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				this.beanDefinitionNames.add(beanName);
 				removeManualSingletonName(beanName);
 			}
+			this.beanTypeIndex.beanDefinitionAdded(beanName);
 			this.frozenBeanDefinitionNames = null;
 		}
 
@@ -1000,6 +1409,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			// Still in startup registration phase
 			this.beanDefinitionNames.remove(beanName);
 		}
+		this.beanTypeIndex.beanDefinitionRemoved(beanName);
 		this.frozenBeanDefinitionNames = null;
 
 		resetBeanDefinition(beanName);
@@ -1019,6 +1429,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected void resetBeanDefinition(String beanName) {
 		// Remove the merged bean definition for the given bean, if already created.
 		clearMergedBeanDefinition(beanName);
+		this.beanTypeIndex.unindex(beanName);
 
 		// Remove corresponding bean from singleton cache, if any. Shouldn't usually
 		// be necessary, rather just meant for overriding a context's default beans
@@ -1060,10 +1471,30 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		updateIndexedBeanType(beanName, singletonObject);
+	}
+
+	@Override
+	protected Object getEarlyBeanReference(String beanName, RootBeanDefinition mbd, Object bean) {
+		Object exposedObject = super.getEarlyBeanReference(beanName, mbd, bean);
+		updateIndexedBeanType(beanName, exposedObject);
+		return exposedObject;
+	}
+
 	@Override
 	public void destroySingletons() {
+		CompletableFuture<Void> backgroundPreInstantiation = this.backgroundPreInstantiation;
+		if (backgroundPreInstantiation != null) {
+			// Stop the background pre-instantiation first, waiting for the singletons in creation.
+			backgroundPreInstantiation.cancel(false);
+			this.backgroundPreInstantiation = null;
+		}
 		super.destroySingletons();
 		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
+		this.beanTypeIndex.clear();
 		clearByTypeCache();
 	}
 
@@ -1071,6 +1502,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void destroySingleton(String beanName) {
 		super.destroySingleton(beanName);
 		removeManualSingletonName(beanName);
+		this.beanTypeIndex.unindex(beanName);
 		clearByTypeCache();
 	}
 
@@ -1998,6 +2430,44 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Completion of a background pre-instantiation of singletons, switching off
+	 * parallel singleton creation once all background tasks are done.
+	 * <p>Cancelling it stops the instantiation of further singletons and waits
+	 * for the background tasks to finish the singletons in creation.
+	 */
+	private class BackgroundPreInstantiation extends CompletableFuture<Void> {
+
+		private final CompletableFuture<Void> tasks;
+
+		public BackgroundPreInstantiation(CompletableFuture<Void> tasks) {
+			this.tasks = tasks;
+			tasks.whenComplete((result, ex) -> {
+				setParallelSingletonCreation(false);
+				if (ex != null) {
+					completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ?
+							ex.getCause() : ex);
+				}
+				else {
+					complete(null);
+				}
+			});
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			backgroundPreInstantiationCancelled = true;
+			try {
+				this.tasks.join();
+			}
+			catch (CancellationException | CompletionException ex) {
+				// Reported through this future, unless cancelled before completion.
+			}
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+
+
 	/**
 	 * An {@link org.springframework.core.OrderComparator.OrderSourceProvider} implementation
 	 * that is aware of the bean metadata of the instances to sort.
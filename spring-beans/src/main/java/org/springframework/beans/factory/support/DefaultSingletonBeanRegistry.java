@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,14 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -90,6 +92,24 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Threads creating a singleton during parallel creation: bean name to creating thread. */
+	private final Map<String, Thread> singletonCreationThreads = new HashMap<>(16);
+
+	/** Threads waiting for a singleton created by another thread: thread to awaited bean name. */
+	private final Map<Thread, String> singletonWaitingThreads = new HashMap<>(16);
+
+	/** Threads creating singletons in the background, giving way to other threads on collisions. */
+	private final Set<Thread> backgroundCreationThreads = Collections.newSetFromMap(new ConcurrentHashMap<>(8));
+
+	/** Background threads asked to abandon their current singleton creation. */
+	private final Set<Thread> yieldingThreads = new HashSet<>(8);
+
+	/** Names of singletons in parallel creation whose bean instance has been created already. */
+	private final Set<String> instantiatedSingletonsInCreation = new HashSet<>(16);
+
+	/** Flag that indicates whether singletons may currently be created by several threads. */
+	private volatile boolean parallelSingletonCreation = false;
+
 	/** Names of beans currently excluded from in creation checks. */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
@@ -208,6 +228,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		 */
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
 			synchronized (this.singletonObjects) {
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread != null && creationThread != Thread.currentThread()) {
+					// Never expose an early reference to a bean that another thread is creating.
+					return null;
+				}
 				/**
 				 * 尝试去第二级缓存中获取对象（二级缓存中的对象是一个早期对象）
 				 * 何为早期对象：就是bean刚刚调用了构造方法，还来不及给bean的属性进行赋值的对象 就是早期对象
@@ -255,6 +280,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.parallelSingletonCreation) {
+			return getSingletonInParallel(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			//获取单例的bean
 			Object singletonObject = this.singletonObjects.get(beanName);
@@ -315,6 +343,303 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for parallel singleton
+	 * creation: the singleton factory is invoked outside of the singleton mutex, with
+	 * other threads asking for the same singleton waiting for its completion.
+	 * <p>A thread never waits for a singleton if the creating thread is (directly or
+	 * transitively) waiting for a singleton of the current thread. Instead, the early
+	 * reference to the singleton is returned, resolving the circular reference as in
+	 * sequential creation: the creating thread does not proceed before the current
+	 * thread is done with its creation. If no early reference is available yet,
+	 * see {@link #resolveCircularWait}.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton with
+	 * @return the registered singleton object
+	 * @see #setParallelSingletonCreation
+	 */
+	private Object getSingletonInParallel(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		boolean claimed = false;
+		synchronized (this.singletonObjects) {
+			while (!claimed) {
+				Object singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+				if (this.singletonsCurrentlyInDestruction) {
+					throw new BeanCreationNotAllowedException(beanName,
+							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+				}
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread == null) {
+					this.singletonCreationThreads.put(beanName, currentThread);
+					claimed = true;
+				}
+				else if (creationThread == currentThread) {
+					// Circular reference within the current thread: proceed as in sequential
+					// creation, with beforeSingletonCreation rejecting it if necessary.
+					break;
+				}
+				else {
+					if (isWaitingFor(creationThread, currentThread)) {
+						// The creating thread waits for us: resolve the circular reference
+						// through its early reference, as within a single thread.
+						Object earlyReference = getEarlySingletonReference(beanName);
+						if (earlyReference != null) {
+							return earlyReference;
+						}
+						resolveCircularWait(beanName, creationThread, currentThread);
+					}
+					this.singletonWaitingThreads.put(currentThread, beanName);
+					try {
+						this.singletonObjects.wait();
+					}
+					catch (InterruptedException ex) {
+						currentThread.interrupt();
+						throw new BeanCreationException(beanName,
+								"Interrupted while waiting for singleton creation in thread '" + creationThread.getName() + "'");
+					}
+					finally {
+						this.singletonWaitingThreads.remove(currentThread);
+					}
+					if (this.yieldingThreads.remove(currentThread)) {
+						// Another thread waits for a singleton of ours: give way to it.
+						throw new SingletonCreationCollisionException(beanName, creationThread);
+					}
+				}
+			}
+		}
+
+		try {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "' in thread '" +
+						currentThread.getName() + "'");
+			}
+			beforeSingletonCreation(beanName);
+			Object singletonObject;
+			boolean newSingleton = false;
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
+				}
+			}
+			finally {
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+			return singletonObject;
+		}
+		finally {
+			if (claimed) {
+				synchronized (this.singletonObjects) {
+					this.singletonCreationThreads.remove(beanName);
+					this.instantiatedSingletonsInCreation.remove(beanName);
+					this.singletonObjects.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given thread is (directly or transitively) waiting
+	 * for a singleton created by the target thread.
+	 * <p>To be called within the singleton mutex.
+	 * @param thread the thread to check
+	 * @param targetThread the thread that might be waited for
+	 */
+	private boolean isWaitingFor(Thread thread, Thread targetThread) {
+		Set<Thread> visitedThreads = new HashSet<>();
+		Thread threadToCheck = thread;
+		while (visitedThreads.add(threadToCheck)) {
+			String awaitedBeanName = this.singletonWaitingThreads.get(threadToCheck);
+			if (awaitedBeanName == null) {
+				return false;
+			}
+			Thread creationThread = this.singletonCreationThreads.get(awaitedBeanName);
+			if (creationThread == null) {
+				return false;
+			}
+			if (creationThread == targetThread) {
+				return true;
+			}
+			threadToCheck = creationThread;
+		}
+		return false;
+	}
+
+	/**
+	 * Return the early reference to the given singleton, if its bean instance
+	 * has been exposed for resolving circular references already.
+	 * <p>To be called within the singleton mutex.
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference, or {@code null} if none available
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Resolve a wait of the current thread for a singleton created by a thread
+	 * which is (directly or transitively) waiting for the current thread, in case
+	 * of no early reference being available for the singleton itself.
+	 * <p>If another thread in the cycle waits for a singleton with an early
+	 * reference, it gets woken up to proceed with that reference. Otherwise, a
+	 * thread whose singletons in creation have not been instantiated yet gives
+	 * way, background threads first, so that no bean instance gets created twice.
+	 * <p>To be called within the singleton mutex, before the current thread waits.
+	 * @param beanName the name of the bean that the current thread asks for
+	 * @param creationThread the thread creating that bean
+	 * @param currentThread the current thread
+	 * @throws SingletonCreationCollisionException if the current thread has to give way
+	 * @throws BeanCurrentlyInCreationException if no thread can give way
+	 */
+	private void resolveCircularWait(String beanName, Thread creationThread, Thread currentThread) {
+		List<Thread> cycle = new ArrayList<>();
+		cycle.add(currentThread);
+		Thread threadToCheck = creationThread;
+		while (threadToCheck != currentThread) {
+			cycle.add(threadToCheck);
+			String awaitedBeanName = this.singletonWaitingThreads.get(threadToCheck);
+			Assert.state(awaitedBeanName != null, "Thread in singleton creation cycle is not waiting");
+			if (this.earlySingletonObjects.containsKey(awaitedBeanName) ||
+					this.singletonFactories.containsKey(awaitedBeanName)) {
+				this.singletonObjects.notifyAll();
+				return;
+			}
+			threadToCheck = this.singletonCreationThreads.get(awaitedBeanName);
+		}
+
+		Thread yieldingThread = null;
+		for (Thread thread : cycle) {
+			if (this.yieldingThreads.contains(thread)) {
+				// Already giving way
+				return;
+			}
+		}
+		for (Thread thread : cycle) {
+			if (!hasInstantiatedSingletonsInCreation(thread) && (yieldingThread == null ||
+					(this.backgroundCreationThreads.contains(thread) &&
+							!this.backgroundCreationThreads.contains(yieldingThread)))) {
+				yieldingThread = thread;
+			}
+		}
+		if (yieldingThread == null ||
+				!(this.backgroundCreationThreads.isEmpty() || this.backgroundCreationThreads.contains(yieldingThread))) {
+			throw new BeanCurrentlyInCreationException(beanName, "Singleton bean is currently in creation in thread '" +
+					creationThread.getName() + "' which is waiting for the current thread: circular reference " +
+					"between threads cannot be resolved without instantiating a bean twice");
+		}
+		if (yieldingThread == currentThread) {
+			throw new SingletonCreationCollisionException(beanName, creationThread);
+		}
+		this.yieldingThreads.add(yieldingThread);
+		this.singletonObjects.notifyAll();
+	}
+
+	/**
+	 * Determine whether any singleton created by the given thread has been
+	 * instantiated already.
+	 * <p>To be called within the singleton mutex.
+	 * @param thread the thread to check
+	 */
+	private boolean hasInstantiatedSingletonsInCreation(Thread thread) {
+		for (Map.Entry<String, Thread> entry : this.singletonCreationThreads.entrySet()) {
+			if (entry.getValue() == thread && this.instantiatedSingletonsInCreation.contains(entry.getKey())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Callback once the bean instance of the given singleton has been created,
+	 * before its properties get populated.
+	 * <p>During parallel singleton creation, this marks the singleton as not to be
+	 * abandoned any more, since abandoning it would instantiate the bean twice.
+	 * @param beanName the name of the singleton
+	 * @since 5.3
+	 * @see #setParallelSingletonCreation
+	 */
+	protected void singletonInstantiated(String beanName) {
+		if (this.parallelSingletonCreation) {
+			synchronized (this.singletonObjects) {
+				this.instantiatedSingletonsInCreation.add(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Run the given task in the current thread as a background singleton creation:
+	 * during parallel singleton creation, a background thread gives way to other
+	 * threads if both wait for a singleton that the other one is creating, e.g.
+	 * when the application asks for a singleton while it is being warmed up.
+	 * @param task the task creating singletons, to fail with a
+	 * {@link SingletonCreationCollisionException} if it had to give way
+	 * @since 5.3
+	 * @see #setParallelSingletonCreation
+	 */
+	protected void runInBackground(Runnable task) {
+		Thread currentThread = Thread.currentThread();
+		this.backgroundCreationThreads.add(currentThread);
+		try {
+			task.run();
+		}
+		finally {
+			this.backgroundCreationThreads.remove(currentThread);
+			synchronized (this.singletonObjects) {
+				this.yieldingThreads.remove(currentThread);
+			}
+		}
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads concurrently.
+	 * <p>In parallel mode, singleton factories are invoked outside of the singleton
+	 * mutex, and early singleton references are only exposed to the thread that
+	 * is creating the corresponding singleton, or to a thread that the creating
+	 * thread is waiting for.
+	 * <p>Must only be switched while no singleton creation is in progress.
+	 * @param parallelSingletonCreation whether to allow parallel singleton creation
+	 * @since 5.3
+	 */
+	protected void setParallelSingletonCreation(boolean parallelSingletonCreation) {
+		this.parallelSingletonCreation = parallelSingletonCreation;
+		if (!parallelSingletonCreation) {
+			synchronized (this.singletonObjects) {
+				this.instantiatedSingletonsInCreation.clear();
+			}
+		}
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads concurrently.
+	 * @since 5.3
+	 */
+	protected boolean isParallelSingletonCreation() {
+		return this.parallelSingletonCreation;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.GeneratedInvoker;
+import org.springframework.beans.GeneratedInvokerFactory;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+
+/**
+ * Object instantiation strategy that calls constructors and factory methods
+ * through classes generated with ASM instead of reflection, falling back to
+ * reflection for members that cannot be called from a generated class (such
+ * as private constructors, see {@link GeneratedInvokerFactory}).
+ *
+ * <p>The generated instantiator is registered on the {@link RootBeanDefinition},
+ * so that further instances of the same bean (typically prototypes) are created
+ * without any lookup. Generating a class costs more than a single reflective
+ * call though: for singletons, this strategy mostly pays off by keeping the
+ * reflection infrastructure out of the instantiation path.
+ *
+ * <p>Method Injection is supported through CGLIB subclasses, as with the
+ * {@link CglibSubclassingInstantiationStrategy} this class extends.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see GeneratedInvokerFactory#GENERATED_INVOKERS_PROPERTY_NAME
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class GeneratedInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	@Override
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		GeneratedInvoker instantiator = (ctor.getParameterCount() == args.length ? getInstantiator(bd, ctor) : null);
+		if (instantiator == null) {
+			return super.instantiateClass(bd, ctor, args);
+		}
+		try {
+			Object instance = instantiator.invoke(null, args);
+			if (instance == null) {
+				throw new IllegalStateException("Generated instantiator returned null");
+			}
+			return instance;
+		}
+		catch (Throwable ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
+		}
+	}
+
+	@Override
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean, Method factoryMethod,
+			Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		GeneratedInvoker instantiator = (factoryMethod.getParameterCount() == args.length ?
+				getInstantiator(bd, factoryMethod) : null);
+		if (instantiator == null) {
+			return super.invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
+		}
+		try {
+			return instantiator.invoke(factoryBean, args);
+		}
+		catch (Throwable ex) {
+			throw new InvocationTargetException(ex);
+		}
+	}
+
+	@Nullable
+	private GeneratedInvoker getInstantiator(RootBeanDefinition bd, Executable executable) {
+		CachedInstantiator cached = bd.generatedInstantiator;
+		if (cached != null && cached.executable.equals(executable)) {
+			return cached.instantiator;
+		}
+		GeneratedInvoker instantiator;
+		if (executable instanceof Constructor) {
+			// Kotlin constructors with optional parameters are handled by BeanUtils
+			Class<?> clazz = executable.getDeclaringClass();
+			instantiator = (KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(clazz) ? null :
+					GeneratedInvokerFactory.forConstructor((Constructor<?>) executable));
+		}
+		else {
+			instantiator = GeneratedInvokerFactory.forMethod((Method) executable);
+		}
+		bd.generatedInstantiator = new CachedInstantiator(executable, instantiator);
+		return instantiator;
+	}
+
+
+	/**
+	 * Generated instantiator for a specific constructor or factory method,
+	 * or {@code null} if the latter has to be invoked through reflection.
+	 */
+	static final class CachedInstantiator {
+
+		final Executable executable;
+
+		@Nullable
+		final GeneratedInvoker instantiator;
+
+		CachedInstantiator(Executable executable, @Nullable GeneratedInvoker instantiator) {
+			this.executable = executable;
+			this.instantiator = instantiator;
+		}
+	}
+
+}
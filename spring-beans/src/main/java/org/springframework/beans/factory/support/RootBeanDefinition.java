@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import org.springframework.util.Assert;
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @see GenericBeanDefinition
  * @see ChildBeanDefinition
  */
@@ -63,6 +64,9 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	/** Determines if the definition needs to be re-merged. */
 	volatile boolean stale;
 
+	/** Determines if the instantiation metadata has been released after singleton creation. */
+	volatile boolean instantiationMetadataReleased;
+
 	boolean allowCaching = true;
 
 	boolean isFactoryMethodUnique = false;
@@ -93,6 +97,10 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	@Nullable
 	Executable resolvedConstructorOrFactoryMethod;
 
+	/** Package-visible field for caching a generated instantiator, see {@link GeneratedInstantiationStrategy}. */
+	@Nullable
+	volatile GeneratedInstantiationStrategy.CachedInstantiator generatedInstantiator;
+
 	/** Package-visible field that marks the constructor arguments as resolved. */
 	boolean constructorArgumentsResolved = false;
 
@@ -393,6 +401,15 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 		this.isFactoryMethodUnique = false;
 	}
 
+	/**
+	 * Return whether the factory method name refers to a non-overloaded method.
+	 * @since 5.3
+	 * @see #setUniqueFactoryMethodName
+	 */
+	public boolean isFactoryMethodUnique() {
+		return this.isFactoryMethodUnique;
+	}
+
 	/**
 	 * Check whether the given candidate qualifies as a factory method.
 	 */
@@ -466,6 +483,32 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 		}
 	}
 
+	/**
+	 * Release the metadata that is only needed for creating a bean instance:
+	 * constructor argument values, property values, resolved constructor
+	 * arguments and externally managed members. Type-related caches are kept,
+	 * so that this definition remains usable for type matching.
+	 * <p>A released definition gets re-merged before any further instantiation.
+	 * @since 5.3
+	 * @see AbstractBeanFactory#setReleaseMergedBeanDefinitionMetadata
+	 */
+	void releaseInstantiationMetadata() {
+		synchronized (this.constructorArgumentLock) {
+			this.constructorArgumentsResolved = false;
+			this.resolvedConstructorArguments = null;
+			this.preparedConstructorArguments = null;
+			this.generatedInstantiator = null;
+		}
+		synchronized (this.postProcessingLock) {
+			this.postProcessed = false;
+			this.externallyManagedConfigMembers = null;
+			this.externallyManagedInitMethods = null;
+			this.externallyManagedDestroyMethods = null;
+		}
+		clearValues();
+		this.instantiationMetadataReleased = true;
+	}
+
 
 	@Override
 	public RootBeanDefinition cloneBeanDefinition() {
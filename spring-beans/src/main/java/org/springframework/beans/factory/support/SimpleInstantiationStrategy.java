@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,7 @@ import org.springframework.util.StringUtils;
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @since 1.1
  */
 public class SimpleInstantiationStrategy implements InstantiationStrategy {
@@ -84,7 +85,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(bd, constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -114,7 +115,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					return null;
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(bd, ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
@@ -151,7 +152,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 			Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
-				Object result = factoryMethod.invoke(factoryBean, args);
+				Object result = invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
 				if (result == null) {
 					result = new NullBean();
 				}
@@ -186,4 +187,40 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Create a new instance with the given constructor, without Method Injection.
+	 * <p>The default implementation delegates to
+	 * {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * @param bd the bean definition
+	 * @param ctor the constructor to use
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the bean cannot be instantiated
+	 * @since 5.3
+	 */
+	protected Object instantiateClass(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
+	/**
+	 * Invoke the given factory method.
+	 * <p>The default implementation delegates to {@link Method#invoke}, with the
+	 * factory method having been made accessible already.
+	 * @param bd the bean definition
+	 * @param factoryBean the factory bean instance, or {@code null} for a static
+	 * factory method
+	 * @param factoryMethod the factory method to invoke
+	 * @param args the factory method arguments to apply
+	 * @return the result of the factory method (may be {@code null})
+	 * @throws IllegalAccessException if the factory method is not accessible
+	 * @throws InvocationTargetException if the factory method threw an exception
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean, Method factoryMethod,
+			Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
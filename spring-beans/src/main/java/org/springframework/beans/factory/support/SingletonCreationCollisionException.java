@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.BeanCreationException;
+
+/**
+ * Internal exception thrown by {@link DefaultSingletonBeanRegistry} during
+ * parallel singleton creation if waiting for a singleton created by another
+ * thread would lead to a deadlock that no early singleton reference resolves.
+ * Only thrown in a thread that has not instantiated any of its singletons in
+ * creation yet; propagated through the creation of those singletons, to be
+ * retried once the parallel phase has completed.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see DefaultListableBeanFactory#preInstantiateSingletons()
+ */
+@SuppressWarnings("serial")
+class SingletonCreationCollisionException extends BeanCreationException {
+
+	public SingletonCreationCollisionException(String beanName, Thread creationThread) {
+		super(beanName, "Singleton bean is currently in creation in thread '" + creationThread.getName() +
+				"' which is waiting for a singleton created by the current thread");
+	}
+
+}
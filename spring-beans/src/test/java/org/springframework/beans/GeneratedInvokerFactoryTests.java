@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link GeneratedInvokerFactory}.
+ *
+ * @author Tan Jiquan
+ */
+class GeneratedInvokerFactoryTests {
+
+	@Test
+	void constructorInvoker() throws Throwable {
+		Constructor<Sample> ctor = Sample.class.getDeclaredConstructor(String.class, int.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forConstructor(ctor);
+		assertThat(invoker).isNotNull();
+		assertThat(invoker.getClass().getPackage()).isEqualTo(Sample.class.getPackage());
+		Sample sample = (Sample) invoker.invoke(null, new Object[] {"test", 42});
+		assertThat(sample.name).isEqualTo("test");
+		assertThat(sample.age).isEqualTo(42);
+	}
+
+	@Test
+	void constructorInvokerWithNullPrimitiveArgument() throws Throwable {
+		Constructor<Sample> ctor = Sample.class.getDeclaredConstructor(String.class, int.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forConstructor(ctor);
+		Sample sample = (Sample) invoker.invoke(null, new Object[] {null, null});
+		assertThat(sample.name).isNull();
+		assertThat(sample.age).isEqualTo(0);
+	}
+
+	@Test
+	void constructorInvokerIsCached() throws Exception {
+		Constructor<Sample> ctor = Sample.class.getDeclaredConstructor(String.class, int.class);
+		assertThat(GeneratedInvokerFactory.forConstructor(ctor)).isSameAs(GeneratedInvokerFactory.forConstructor(ctor));
+	}
+
+	@Test
+	void invokerClassIsReusedOnceCacheIsCleared() throws Exception {
+		Constructor<Sample> ctor = Sample.class.getDeclaredConstructor(String.class, int.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forConstructor(ctor);
+		GeneratedInvokerFactory.clearCache();
+		GeneratedInvoker other = GeneratedInvokerFactory.forConstructor(ctor);
+		assertThat(other).isNotSameAs(invoker);
+		assertThat(other.getClass()).isSameAs(invoker.getClass());
+		assertThat(GeneratedInvokerFactory.forMethod(Sample.class.getDeclaredMethod("getAge")).getClass())
+				.isNotSameAs(invoker.getClass());
+	}
+
+	@Test
+	void privateConstructorIsNotSupported() throws Exception {
+		Constructor<Sample> ctor = Sample.class.getDeclaredConstructor();
+		assertThat(GeneratedInvokerFactory.forConstructor(ctor)).isNull();
+	}
+
+	@Test
+	void abstractClassConstructorIsNotSupported() throws Exception {
+		Constructor<AbstractSample> ctor = AbstractSample.class.getDeclaredConstructor();
+		assertThat(GeneratedInvokerFactory.forConstructor(ctor)).isNull();
+	}
+
+	@Test
+	void jdkConstructorIsNotSupported() throws Exception {
+		assertThat(GeneratedInvokerFactory.forConstructor(Object.class.getConstructor())).isNull();
+	}
+
+	@Test
+	void instanceMethodInvoker() throws Throwable {
+		Method method = Sample.class.getDeclaredMethod("describe", String.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		assertThat(invoker).isNotNull();
+		assertThat(invoker.invoke(new Sample("test", 42), new Object[] {"Mr. "})).isEqualTo("Mr. test");
+	}
+
+	@Test
+	void primitiveReturnValueIsBoxed() throws Throwable {
+		Method method = Sample.class.getDeclaredMethod("getAge");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		assertThat(invoker.invoke(new Sample("test", 42), new Object[0])).isEqualTo(42);
+	}
+
+	@Test
+	void voidMethodReturnsNull() throws Throwable {
+		Method method = Sample.class.getDeclaredMethod("setAge", int.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		Sample sample = new Sample("test", 42);
+		assertThat(invoker.invoke(sample, new Object[] {43})).isNull();
+		assertThat(sample.age).isEqualTo(43);
+	}
+
+	@Test
+	void methodInvokerWithNullPrimitiveArgument() throws Exception {
+		Method method = Sample.class.getDeclaredMethod("setAge", int.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		Sample sample = new Sample("test", 42);
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(sample, new Object[] {null}));
+		assertThat(sample.age).isEqualTo(42);
+	}
+
+	@Test
+	void staticMethodInvoker() throws Throwable {
+		Method method = Sample.class.getDeclaredMethod("create", String.class);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		assertThat(((Sample) invoker.invoke(null, new Object[] {"test"})).name).isEqualTo("test");
+	}
+
+	@Test
+	void interfaceMethodInvoker() throws Throwable {
+		Method method = Supplier.class.getMethod("get");
+		assertThat(GeneratedInvokerFactory.forMethod(method)).isNull();
+		method = SampleSupplier.class.getMethod("get");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		assertThat(invoker.invoke((SampleSupplier) () -> "test", new Object[0])).isEqualTo("test");
+	}
+
+	@Test
+	void exceptionIsPropagated() throws Exception {
+		Method method = Sample.class.getDeclaredMethod("fail");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forMethod(method);
+		assertThat(invoker).isNotNull();
+		assertThatIOException().isThrownBy(() -> invoker.invoke(new Sample("test", 42), new Object[0]))
+				.withMessage("test");
+	}
+
+	@Test
+	void fieldAssignment() throws Throwable {
+		Field field = Sample.class.getDeclaredField("name");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldAssignment(field);
+		Sample sample = new Sample("test", 42);
+		assertThat(invoker.invoke(sample, new Object[] {"other"})).isNull();
+		assertThat(sample.name).isEqualTo("other");
+	}
+
+	@Test
+	void fieldAssignmentWithNullPrimitiveValue() throws Exception {
+		Field field = Sample.class.getDeclaredField("age");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldAssignment(field);
+		Sample sample = new Sample("test", 42);
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(sample, new Object[] {null}));
+		assertThat(sample.age).isEqualTo(42);
+	}
+
+	@Test
+	void privateAndFinalFieldsAreNotSupported() throws Exception {
+		assertThat(GeneratedInvokerFactory.forFieldAssignment(Sample.class.getDeclaredField("secret"))).isNull();
+		assertThat(GeneratedInvokerFactory.forFieldAssignment(Sample.class.getDeclaredField("id"))).isNull();
+	}
+
+	@Test
+	void fieldRead() throws Throwable {
+		Field field = Sample.class.getDeclaredField("name");
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldRead(field);
+		assertThat(invoker).isNotNull().isNotSameAs(GeneratedInvokerFactory.forFieldAssignment(field));
+		assertThat(invoker.invoke(new Sample("test", 42), new Object[0])).isEqualTo("test");
+	}
+
+	@Test
+	void primitiveAndFinalFieldRead() throws Throwable {
+		Sample sample = new Sample("test", 42);
+		GeneratedInvoker invoker = GeneratedInvokerFactory.forFieldRead(Sample.class.getDeclaredField("age"));
+		assertThat(invoker.invoke(sample, new Object[0])).isEqualTo(42);
+		invoker = GeneratedInvokerFactory.forFieldRead(Sample.class.getDeclaredField("id"));
+		assertThat(invoker.invoke(sample, new Object[0])).isEqualTo(1L);
+		assertThat(GeneratedInvokerFactory.forFieldRead(Sample.class.getDeclaredField("secret"))).isNull();
+	}
+
+
+	static class Sample {
+
+		final long id = 1L;
+
+		String name;
+
+		int age;
+
+		private String secret;
+
+		private Sample() {
+		}
+
+		Sample(String name, int age) {
+			this.name = name;
+			this.age = age;
+		}
+
+		static Sample create(String name) {
+			return new Sample(name, 0);
+		}
+
+		String describe(String prefix) {
+			return prefix + this.name;
+		}
+
+		int getAge() {
+			return this.age;
+		}
+
+		void setAge(int age) {
+			this.age = age;
+		}
+
+		void fail() throws IOException {
+			throw new IOException("test");
+		}
+	}
+
+
+	abstract static class AbstractSample {
+	}
+
+
+	interface SampleSupplier {
+
+		String get();
+	}
+
+}
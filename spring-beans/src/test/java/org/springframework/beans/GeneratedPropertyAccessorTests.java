@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.propertyeditors.StringTrimmerEditor;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BeanWrapperImpl} and {@link DirectFieldAccessor} with
+ * {@link AbstractNestablePropertyAccessor#setGeneratedAccessors generated accessors}.
+ *
+ * @author Tan Jiquan
+ */
+class GeneratedPropertyAccessorTests {
+
+	@Test
+	void setAndGetBeanProperties() {
+		TestBean target = new TestBean();
+		BeanWrapperImpl bw = new BeanWrapperImpl(target);
+		bw.setGeneratedAccessors(true);
+		bw.setPropertyValue("name", "Rod");
+		bw.setPropertyValue("age", 42);
+		bw.setPropertyValue("jedi", true);
+		assertThat(target.getName()).isEqualTo("Rod");
+		assertThat(target.getAge()).isEqualTo(42);
+		assertThat(target.isJedi()).isTrue();
+		assertThat(bw.getPropertyValue("name")).isEqualTo("Rod");
+		assertThat(bw.getPropertyValue("age")).isEqualTo(42);
+	}
+
+	@Test
+	void setNestedAndIndexedBeanProperties() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		target.setStringArray(new String[] {"a", "b"});
+		BeanWrapperImpl bw = new BeanWrapperImpl(target);
+		bw.setGeneratedAccessors(true);
+		bw.setPropertyValue("spouse.name", "Kerry");
+		bw.setPropertyValue("stringArray[1]", "c");
+		assertThat(target.getSpouse().getName()).isEqualTo("Kerry");
+		assertThat(bw.getPropertyValue("spouse.name")).isEqualTo("Kerry");
+		assertThat(bw.getPropertyValue("stringArray[1]")).isEqualTo("c");
+		assertThat(((BeanWrapperImpl) bw.getPropertyAccessorForPropertyPath("spouse.name")).isGeneratedAccessors()).isTrue();
+	}
+
+	@Test
+	void conversionAppliedForDifferentType() {
+		TestBean target = new TestBean();
+		BeanWrapperImpl bw = new BeanWrapperImpl(target);
+		bw.setGeneratedAccessors(true);
+		bw.setPropertyValue("age", "42");
+		bw.setPropertyValue("myFloat", 1);
+		assertThat(target.getAge()).isEqualTo(42);
+		assertThat(target.getMyFloat()).isEqualTo(1f);
+	}
+
+	@Test
+	void customEditorAppliedForSameType() {
+		TestBean target = new TestBean();
+		BeanWrapperImpl bw = new BeanWrapperImpl(target);
+		bw.setGeneratedAccessors(true);
+		bw.registerCustomEditor(String.class, new StringTrimmerEditor(true));
+		bw.setPropertyValue("name", "  Rod  ");
+		assertThat(target.getName()).isEqualTo("Rod");
+	}
+
+	@Test
+	void setterExceptionExposedAsMethodInvocationException() {
+		BeanWrapperImpl bw = new BeanWrapperImpl(new TestBean());
+		bw.setGeneratedAccessors(true);
+		assertThatExceptionOfType(MethodInvocationException.class)
+				.isThrownBy(() -> bw.setPropertyValue("touchy", "."))
+				.withCauseExactlyInstanceOf(Exception.class);
+	}
+
+	@Test
+	void nullForPrimitivePropertyRejected() {
+		BeanWrapperImpl bw = new BeanWrapperImpl(new TestBean());
+		bw.setGeneratedAccessors(true);
+		assertThatExceptionOfType(TypeMismatchException.class).isThrownBy(() -> bw.setPropertyValue("age", null));
+	}
+
+	@Test
+	void setAndGetFields() {
+		FieldBean target = new FieldBean();
+		DirectFieldAccessor accessor = new DirectFieldAccessor(target);
+		accessor.setGeneratedAccessors(true);
+		accessor.setPropertyValue("name", "Juergen");
+		accessor.setPropertyValue("count", "3");
+		assertThat(target.name).isEqualTo("Juergen");
+		assertThat(target.count).isEqualTo(3);
+		assertThat(accessor.getPropertyValue("count")).isEqualTo(3);
+		assertThat(accessor.getPropertyValue("id")).isEqualTo("fixed");
+	}
+
+	@Test
+	void privateFieldFallsBackToReflection() {
+		FieldBean target = new FieldBean();
+		DirectFieldAccessor accessor = new DirectFieldAccessor(target);
+		accessor.setGeneratedAccessors(true);
+		accessor.setPropertyValue("secret", "s3cr3t");
+		assertThat(accessor.getPropertyValue("secret")).isEqualTo("s3cr3t");
+	}
+
+
+	static class FieldBean {
+
+		final String id = "fixed";
+
+		String name;
+
+		int count;
+
+		private String secret;
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.BeanInfo;
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.SpringProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SimpleBeanInfoFactory}.
+ *
+ * @author Tan Jiquan
+ */
+class SimpleBeanInfoFactoryTests {
+
+	@AfterEach
+	void resetFlag() {
+		SpringProperties.setProperty(SimpleBeanInfoFactory.SIMPLE_BEANINFO_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	void disabledByDefault() throws IntrospectionException {
+		assertThat(new SimpleBeanInfoFactory().getBeanInfo(TestBean.class)).isNull();
+	}
+
+	@Test
+	void enabledThroughFlag() throws IntrospectionException {
+		SpringProperties.setFlag(SimpleBeanInfoFactory.SIMPLE_BEANINFO_PROPERTY_NAME);
+		BeanInfo beanInfo = new SimpleBeanInfoFactory().getBeanInfo(TestBean.class);
+		assertThat(beanInfo).isNotNull();
+		assertThat(beanInfo.getBeanDescriptor().getBeanClass()).isEqualTo(TestBean.class);
+		assertSameProperties(beanInfo.getPropertyDescriptors(), Introspector.getBeanInfo(TestBean.class));
+	}
+
+	@Test
+	void basicPropertiesSameAsIntrospector() throws IntrospectionException {
+		assertSameAsIntrospector(TestBean.class);
+		assertSameAsIntrospector(BooleanBean.class);
+		assertSameAsIntrospector(IndexedBean.class);
+		assertSameAsIntrospector(StringHolder.class);
+		assertSameAsIntrospector(NamedBean.class);
+	}
+
+	@Test
+	void nonVoidSetterNotSupported() {
+		assertThat(PropertyDescriptorUtils.determineBasicProperties(FluentBean.class)).isNull();
+	}
+
+	@Test
+	void overloadedSetterNotSupported() {
+		assertThat(PropertyDescriptorUtils.determineBasicProperties(OverloadedBean.class)).isNull();
+	}
+
+	@Test
+	void inconsistentAccessorsNotSupported() {
+		assertThat(PropertyDescriptorUtils.determineBasicProperties(MismatchedBean.class)).isNull();
+	}
+
+	private static void assertSameAsIntrospector(Class<?> beanClass) throws IntrospectionException {
+		List<PropertyDescriptor> pds = (List<PropertyDescriptor>) PropertyDescriptorUtils.determineBasicProperties(beanClass);
+		assertThat(pds).isNotNull();
+		assertSameProperties(pds.toArray(new PropertyDescriptor[0]),
+				Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO));
+	}
+
+	private static void assertSameProperties(PropertyDescriptor[] pds, BeanInfo expected) {
+		PropertyDescriptor[] expectedPds = expected.getPropertyDescriptors();
+		assertThat(pds).hasSameSizeAs(expectedPds);
+		for (int i = 0; i < pds.length; i++) {
+			PropertyDescriptor pd = pds[i];
+			PropertyDescriptor expectedPd = expectedPds[i];
+			assertThat(pd.getName()).isEqualTo(expectedPd.getName());
+			assertThat(pd.getPropertyType()).isEqualTo(expectedPd.getPropertyType());
+			assertThat(pd.getReadMethod()).isEqualTo(expectedPd.getReadMethod());
+			assertThat(pd.getWriteMethod()).isEqualTo(expectedPd.getWriteMethod());
+			assertThat(pd instanceof IndexedPropertyDescriptor).isEqualTo(expectedPd instanceof IndexedPropertyDescriptor);
+			if (pd instanceof IndexedPropertyDescriptor) {
+				IndexedPropertyDescriptor ipd = (IndexedPropertyDescriptor) pd;
+				IndexedPropertyDescriptor expectedIpd = (IndexedPropertyDescriptor) expectedPd;
+				assertThat(ipd.getIndexedReadMethod()).isEqualTo(expectedIpd.getIndexedReadMethod());
+				assertThat(ipd.getIndexedWriteMethod()).isEqualTo(expectedIpd.getIndexedWriteMethod());
+			}
+		}
+	}
+
+
+	public static class BooleanBean {
+
+		public boolean isActive() {
+			return true;
+		}
+
+		public boolean getActive() {
+			return true;
+		}
+
+		public void setActive(boolean active) {
+		}
+
+		public Boolean getEnabled() {
+			return true;
+		}
+
+		public void setURL(String url) {
+		}
+
+		public void setX(int x) {
+		}
+	}
+
+
+	public static class IndexedBean {
+
+		public String[] getNames() {
+			return null;
+		}
+
+		public void setNames(String[] names) {
+		}
+
+		public String getNames(int index) {
+			return null;
+		}
+
+		public void setNames(int index, String name) {
+		}
+
+		public int getSizes(int index) {
+			return 0;
+		}
+	}
+
+
+	public static class Holder<T> {
+
+		public T getValue() {
+			return null;
+		}
+
+		public void setValue(T value) {
+		}
+	}
+
+
+	public static class StringHolder extends Holder<String> {
+	}
+
+
+	public interface NamedBean {
+
+		String getName();
+
+		void setName(String name);
+	}
+
+
+	public static class FluentBean {
+
+		public FluentBean setName(String name) {
+			return this;
+		}
+	}
+
+
+	public static class OverloadedBean {
+
+		public void setValue(String value) {
+		}
+
+		public void setValue(Integer value) {
+		}
+	}
+
+
+	public static class MismatchedBean {
+
+		public Object getValue() {
+			return null;
+		}
+
+		public void setValue(String value) {
+		}
+	}
+
+}
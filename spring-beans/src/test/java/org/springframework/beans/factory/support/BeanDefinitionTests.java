@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,14 @@ package org.springframework.beans.factory.support;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.testfixture.beans.TestBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  */
 public class BeanDefinitionTests {
 
@@ -179,4 +181,52 @@ public class BeanDefinitionTests {
 		assertThat(bd.getQualifiedElement()).isEqualTo(getClass());
 	}
 
+	@Test
+	void beanDefinitionEqualityWithLazyCollections() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		RootBeanDefinition otherBd = new RootBeanDefinition(TestBean.class);
+		otherBd.getConstructorArgumentValues();
+		otherBd.getPropertyValues();
+		otherBd.getMethodOverrides();
+		assertThat(bd).isEqualTo(otherBd);
+		assertThat(otherBd).isEqualTo(bd);
+		assertThat(bd.hashCode()).isEqualTo(otherBd.hashCode());
+		assertThat(bd.hasMethodOverrides()).isFalse();
+		assertThat(bd.getQualifiers()).isEmpty();
+		assertThat(bd.hasQualifier(String.class.getName())).isFalse();
+		assertThat(bd.attributeNames()).isEmpty();
+
+		bd.addQualifier(new AutowireCandidateQualifier(String.class, "value"));
+		assertThat(bd).isNotEqualTo(otherBd);
+		assertThat(bd.hasQualifier(String.class.getName())).isTrue();
+		otherBd.copyQualifiersFrom(bd);
+		assertThat(bd).isEqualTo(otherBd);
+	}
+
+	@Test
+	void releaseMergedBeanDefinitionMetadataAfterSingletonCreation() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setReleaseMergedBeanDefinitionMetadata(true);
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "myName");
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		lbf.registerBeanDefinition("test", bd);
+		lbf.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+
+		TestBean test = (TestBean) lbf.getBean("test");
+		assertThat(test.getName()).isEqualTo("myName");
+		assertThat(test.getSpouse()).isSameAs(lbf.getBean("spouse"));
+		RootBeanDefinition mbd = (RootBeanDefinition) lbf.getMergedBeanDefinition("test");
+		assertThat(mbd.hasPropertyValues()).isFalse();
+		assertThat(lbf.isTypeMatch("test", TestBean.class)).isTrue();
+		assertThat(lbf.getBean("test")).isSameAs(test);
+		assertThat(bd.getPropertyValues().size()).isEqualTo(2);
+
+		lbf.destroySingletons();
+		TestBean recreated = (TestBean) lbf.getBean("test");
+		assertThat(recreated).isNotSameAs(test);
+		assertThat(recreated.getName()).isEqualTo("myName");
+		assertThat(recreated.getSpouse()).isSameAs(lbf.getBean("spouse"));
+	}
+
 }
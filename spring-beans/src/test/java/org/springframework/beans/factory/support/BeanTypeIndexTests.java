@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanTypeIndex} and its use for by-type lookups
+ * in {@link DefaultListableBeanFactory}.
+ *
+ * @author Tan Jiquan
+ */
+class BeanTypeIndexTests {
+
+	private final BeanTypeIndex index = new BeanTypeIndex();
+
+	private final List<String> beanNames = Arrays.asList("a", "b", "c");
+
+
+	@Test
+	void unindexedBeansAreCandidatesForAnyType() {
+		assertThat(this.index.getCandidateNames(Runnable.class, this.beanNames)).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void indexedBeansAreCandidatesForTheirSupertypesOnly() {
+		this.index.index("a", Thread.class);
+		this.index.index("c", String.class);
+
+		assertThat(this.index.getCandidateNames(Runnable.class, this.beanNames)).containsExactly("a", "b");
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("b", "c");
+		assertThat(this.index.getCandidateNames(Serializable.class, this.beanNames)).containsExactly("b", "c");
+	}
+
+	@Test
+	void addedBeanDefinitionIsAppendedToCachedCandidates() {
+		this.index.index("a", Thread.class);
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("b", "c");
+
+		this.index.beanDefinitionAdded("d");
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("b", "c", "d");
+	}
+
+	@Test
+	void removedBeanDefinitionIsRemovedFromCachedCandidates() {
+		this.index.index("a", Thread.class);
+		this.index.index("c", String.class);
+		assertThat(this.index.getCandidateNames(Runnable.class, this.beanNames)).containsExactly("a", "b");
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("b", "c");
+
+		this.index.beanDefinitionRemoved("a");
+		this.index.beanDefinitionRemoved("b");
+		List<String> noBeanNames = Collections.emptyList();
+		assertThat(this.index.getCandidateNames(Runnable.class, noBeanNames)).isEmpty();
+		assertThat(this.index.getCandidateNames(CharSequence.class, noBeanNames)).containsExactly("c");
+	}
+
+	@Test
+	void changedTypeInvalidatesAffectedCandidates() {
+		this.index.index("a", Thread.class);
+		this.index.index("b", Thread.class);
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("c");
+		assertThat(this.index.getCandidateNames(Callable.class, this.beanNames)).containsExactly("c");
+
+		this.index.index("a", String.class);
+		this.index.unindex("b");
+		assertThat(this.index.getCandidateNames(CharSequence.class, this.beanNames)).containsExactly("a", "b", "c");
+		assertThat(this.index.getCandidateNames(Callable.class, this.beanNames)).containsExactly("b", "c");
+	}
+
+	@Test
+	void lookupByTypeIndexesBeanClasses() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("thread", new RootBeanDefinition(Thread.class));
+		bf.registerBeanDefinition("factoryBean", new RootBeanDefinition(StringFactoryBean.class));
+		bf.registerBeanDefinition("string", new RootBeanDefinition(String.class));
+
+		assertThat(bf.getBeanNamesForType(Runnable.class)).containsExactly("thread");
+		assertThat(bf.getBeanNamesForType(CharSequence.class)).containsExactly("factoryBean", "string");
+		assertThat(bf.getBeanNamesForType(ResolvableType.forClass(Comparable.class))).containsExactly("factoryBean", "string");
+		assertThat(bf.getBeanNamesForType(FactoryBean.class)).containsExactly("&factoryBean");
+	}
+
+	@Test
+	void lookupByTypeConsidersLaterRegistrations() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("thread", new RootBeanDefinition(Thread.class));
+		bf.registerBeanDefinition("string", new RootBeanDefinition(String.class));
+		assertThat(bf.getBeanNamesForType(CharSequence.class)).containsExactly("string");
+
+		bf.registerBeanDefinition("builder", new RootBeanDefinition(StringBuilder.class));
+		assertThat(bf.getBeanNamesForType(CharSequence.class)).containsExactly("string", "builder");
+
+		bf.registerBeanDefinition("thread", new RootBeanDefinition(StringBuffer.class));
+		assertThat(bf.getBeanNamesForType(CharSequence.class)).containsExactly("thread", "string", "builder");
+
+		bf.removeBeanDefinition("string");
+		assertThat(bf.getBeanNamesForType(CharSequence.class)).containsExactly("thread", "builder");
+	}
+
+	@Test
+	void lookupByTypeConsidersProxiedSingletons() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("thread", new RootBeanDefinition(Thread.class));
+		bf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Callable.class},
+						(proxy, method, args) -> null);
+			}
+		});
+		assertThat(bf.getBeanNamesForType(Thread.class)).containsExactly("thread");
+		assertThat(bf.getBeanNamesForType(Callable.class)).isEmpty();
+
+		bf.getBean("thread");
+		assertThat(bf.getBeanNamesForType(Thread.class)).isEmpty();
+		assertThat(bf.getBeanNamesForType(Callable.class)).containsExactly("thread");
+
+		bf.destroySingleton("thread");
+		assertThat(bf.getBeanNamesForType(Thread.class)).containsExactly("thread");
+	}
+
+
+	public static class StringFactoryBean implements FactoryBean<String> {
+
+		@Override
+		public String getObject() {
+			return "value";
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return String.class;
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GeneratedInstantiationStrategy}.
+ *
+ * @author Tan Jiquan
+ */
+class GeneratedInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy());
+	}
+
+
+	@Test
+	void defaultConstructor() {
+		this.beanFactory.registerBeanDefinition("component", new RootBeanDefinition(Component.class));
+		assertThat(this.beanFactory.getBean("component")).isInstanceOf(Component.class);
+		assertThat(getMergedBeanDefinition("component").generatedInstantiator.instantiator).isNotNull();
+	}
+
+	@Test
+	void autowiredConstructor() {
+		this.beanFactory.registerBeanDefinition("component", new RootBeanDefinition(Component.class));
+		RootBeanDefinition bd = new RootBeanDefinition(Service.class);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("service", bd);
+		Service service = this.beanFactory.getBean(Service.class);
+		assertThat(service.component).isSameAs(this.beanFactory.getBean("component"));
+		assertThat(this.beanFactory.getBean(Service.class)).isNotSameAs(service);
+		assertThat(getMergedBeanDefinition("service").generatedInstantiator.instantiator).isNotNull();
+	}
+
+	@Test
+	void staticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("createStatic");
+		this.beanFactory.registerBeanDefinition("component", bd);
+		assertThat(this.beanFactory.getBean("component")).isInstanceOf(Component.class);
+		assertThat(getMergedBeanDefinition("component").generatedInstantiator.instantiator).isNotNull();
+	}
+
+	@Test
+	void instanceFactoryMethod() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(Factory.class));
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("create");
+		this.beanFactory.registerBeanDefinition("component", bd);
+		assertThat(this.beanFactory.getBean("component")).isInstanceOf(Component.class);
+	}
+
+	@Test
+	void nullFromFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("createNull");
+		this.beanFactory.registerBeanDefinition("component", bd);
+		assertThat(this.beanFactory.getBean("component")).isInstanceOf(NullBean.class);
+	}
+
+	@Test
+	void privateConstructorFallsBackToReflection() {
+		this.beanFactory.registerBeanDefinition("private", new RootBeanDefinition(PrivateComponent.class));
+		assertThat(this.beanFactory.getBean("private")).isInstanceOf(PrivateComponent.class);
+		assertThat(getMergedBeanDefinition("private").generatedInstantiator.instantiator).isNull();
+	}
+
+	@Test
+	void constructorException() {
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingComponent.class));
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(() ->
+				this.beanFactory.getBean("failing"))
+			.withRootCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void generatedInjection() {
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setGeneratedInjection(true);
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+		this.beanFactory.registerBeanDefinition("component", new RootBeanDefinition(Component.class));
+		this.beanFactory.registerBeanDefinition("client", new RootBeanDefinition(Client.class));
+		Client client = this.beanFactory.getBean(Client.class);
+		assertThat(client.component).isSameAs(this.beanFactory.getBean("component"));
+		assertThat(client.methodComponent).isSameAs(this.beanFactory.getBean("component"));
+		assertThat(client.privateComponent).isSameAs(this.beanFactory.getBean("component"));
+	}
+
+	private RootBeanDefinition getMergedBeanDefinition(String beanName) {
+		return (RootBeanDefinition) this.beanFactory.getMergedBeanDefinition(beanName);
+	}
+
+
+	static class Component {
+	}
+
+
+	static class Service {
+
+		final Component component;
+
+		Service(Component component) {
+			this.component = component;
+		}
+	}
+
+
+	static class Factory {
+
+		static Component createStatic() {
+			return new Component();
+		}
+
+		static Component createNull() {
+			return null;
+		}
+
+		Component create() {
+			return new Component();
+		}
+	}
+
+
+	static class PrivateComponent {
+
+		private PrivateComponent() {
+		}
+	}
+
+
+	static class FailingComponent {
+
+		FailingComponent() {
+			throw new IllegalStateException("test");
+		}
+	}
+
+
+	static class Client {
+
+		@Autowired
+		Component component;
+
+		@Autowired
+		private Component privateComponent;
+
+		Component methodComponent;
+
+		@Autowired
+		void setComponent(Component component) {
+			this.methodComponent = component;
+		}
+	}
+
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for parallel and background singleton pre-instantiation
+ * in {@link DefaultListableBeanFactory}.
+ *
+ * @author Tan Jiquan
+ */
+class ParallelPreInstantiationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private ExecutorService executor;
+
+
+	@BeforeEach
+	void setup() {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.beanFactory.setBootstrapExecutor(this.executor);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void independentSingletonsAreInstantiatedConcurrently() {
+		CountDownLatch latch = new CountDownLatch(2);
+		registerBean("bean1", LatchBean.class, latch);
+		registerBean("bean2", LatchBean.class, latch);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		LatchBean bean1 = this.beanFactory.getBean("bean1", LatchBean.class);
+		LatchBean bean2 = this.beanFactory.getBean("bean2", LatchBean.class);
+		assertThat(bean1.concurrent).isTrue();
+		assertThat(bean2.concurrent).isTrue();
+		assertThat(bean1.thread).isNotSameAs(bean2.thread);
+		assertThat(bean1.thread).isNotSameAs(Thread.currentThread());
+		assertThat(this.beanFactory.isParallelSingletonCreation()).isFalse();
+	}
+
+	@Test
+	void declaredDependenciesAreInstantiatedInSameThread() {
+		RootBeanDefinition bd1 = new RootBeanDefinition(ThreadBean.class);
+		bd1.setDependsOn("bean2");
+		this.beanFactory.registerBeanDefinition("bean1", bd1);
+		this.beanFactory.registerBeanDefinition("bean2", new RootBeanDefinition(ThreadBean.class));
+		RootBeanDefinition bd3 = new RootBeanDefinition(ThreadBean.class);
+		bd3.getPropertyValues().add("other", new RuntimeBeanReference("bean2"));
+		this.beanFactory.registerBeanDefinition("bean3", bd3);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		ThreadBean bean1 = this.beanFactory.getBean("bean1", ThreadBean.class);
+		ThreadBean bean2 = this.beanFactory.getBean("bean2", ThreadBean.class);
+		ThreadBean bean3 = this.beanFactory.getBean("bean3", ThreadBean.class);
+		assertThat(bean1.thread).isSameAs(bean2.thread);
+		assertThat(bean3.thread).isSameAs(bean2.thread);
+		assertThat(bean3.other).isSameAs(bean2);
+	}
+
+	@Test
+	void circularReferenceAcrossThreadsIsResolved() {
+		CountDownLatch latch = new CountDownLatch(2);
+		AtomicInteger instances = new AtomicInteger();
+		RootBeanDefinition bdA = new RootBeanDefinition(CircularBeanA.class);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(instances);
+		bdA.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("a", bdA);
+		RootBeanDefinition bdB = new RootBeanDefinition(CircularBeanB.class);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(instances);
+		bdB.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("b", bdB);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		CircularBeanA a = this.beanFactory.getBean(CircularBeanA.class);
+		CircularBeanB b = this.beanFactory.getBean(CircularBeanB.class);
+		assertThat(a.getB()).isSameAs(b);
+		assertThat(b.getA()).isSameAs(a);
+		assertThat(a.thread).isNotSameAs(b.thread);
+		assertThat(instances.get()).isEqualTo(2);
+	}
+
+	@Test
+	void constructorCircularReferenceAcrossThreadsFails() {
+		RootBeanDefinition bdA = new RootBeanDefinition(ConstructorCircularBeanA.class);
+		bdA.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("a", bdA);
+		RootBeanDefinition bdB = new RootBeanDefinition(ConstructorCircularBeanB.class);
+		bdB.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("b", bdB);
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+				this.beanFactory::preInstantiateSingletons)
+				.satisfies(ex -> assertThat(ex.contains(BeanCurrentlyInCreationException.class)).isTrue());
+		assertThat(this.beanFactory.isParallelSingletonCreation()).isFalse();
+	}
+
+	@Test
+	void smartInitializingSingletonsAreInvokedInCallingThread() {
+		List<String> callbacks = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(SmartBean.class);
+			bd.getConstructorArgumentValues().addGenericArgumentValue("bean" + i);
+			bd.getConstructorArgumentValues().addGenericArgumentValue(callbacks);
+			this.beanFactory.registerBeanDefinition("bean" + i, bd);
+		}
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertThat(callbacks).containsExactly("bean0", "bean1", "bean2", "bean3",
+				"bean4", "bean5", "bean6", "bean7");
+		for (int i = 0; i < 8; i++) {
+			assertThat(this.beanFactory.getBean("bean" + i, SmartBean.class).callbackThread)
+					.isSameAs(Thread.currentThread());
+		}
+	}
+
+	@Test
+	void creationFailureIsPropagated() {
+		this.beanFactory.registerBeanDefinition("bean1", new RootBeanDefinition(ThreadBean.class));
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+				this.beanFactory::preInstantiateSingletons)
+				.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		assertThat(this.beanFactory.isParallelSingletonCreation()).isFalse();
+	}
+
+	@Test
+	void backgroundInstantiationDoesNotBlockCaller() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		List<String> callbacks = new CopyOnWriteArrayList<>();
+		registerBean("gate", GateBean.class, gate, new CountDownLatch(1));
+		registerBean("smart", SmartBean.class, "smart", callbacks);
+
+		CompletableFuture<Void> future = this.beanFactory.preInstantiateSingletonsInBackground(this.executor);
+		assertThat(future.isDone()).isFalse();
+		gate.countDown();
+		future.get(10, TimeUnit.SECONDS);
+
+		assertThat(this.beanFactory.getBean("gate", GateBean.class).thread).isNotSameAs(Thread.currentThread());
+		assertThat(callbacks).containsExactly("smart");
+		assertThat(this.beanFactory.getBean("smart", SmartBean.class).callbackThread)
+				.isNotSameAs(Thread.currentThread());
+		assertThat(this.beanFactory.isParallelSingletonCreation()).isFalse();
+	}
+
+	@Test
+	void destroySingletonsStopsBackgroundInstantiation() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		List<String> callbacks = new CopyOnWriteArrayList<>();
+		registerBean("gate", GateBean.class, gate, started);
+		registerBean("smart", SmartBean.class, "smart", callbacks);
+
+		CompletableFuture<Void> future = this.beanFactory.preInstantiateSingletonsInBackground(this.executor);
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		Thread destroyThread = new Thread(this.beanFactory::destroySingletons);
+		destroyThread.start();
+		awaitWaiting(destroyThread);
+		assertThat(destroyThread.isAlive()).isTrue();
+		gate.countDown();
+		destroyThread.join(10000);
+
+		assertThat(destroyThread.isAlive()).isFalse();
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(callbacks).isEmpty();
+		assertThat(this.beanFactory.containsSingleton("gate")).isFalse();
+	}
+
+	@Test
+	void onDemandRequestWaitsForBackgroundCreation() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		registerBean("gate", GateBean.class, gate, started);
+
+		CompletableFuture<Void> future = this.beanFactory.preInstantiateSingletonsInBackground(this.executor);
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		AtomicReference<Object> requested = new AtomicReference<>();
+		Thread requestThread = new Thread(() -> requested.set(this.beanFactory.getBean("gate")));
+		requestThread.start();
+		awaitWaiting(requestThread);
+		gate.countDown();
+		requestThread.join(10000);
+		future.get(10, TimeUnit.SECONDS);
+
+		GateBean bean = this.beanFactory.getBean("gate", GateBean.class);
+		assertThat(requested.get()).isSameAs(bean);
+		assertThat(bean.thread).isNotSameAs(requestThread);
+	}
+
+	@Test
+	void onDemandRequestResolvesCircularReferenceWithBackgroundCreation() throws Exception {
+		CountDownLatch aClaimed = new CountDownLatch(1);
+		CountDownLatch bReady = new CountDownLatch(1);
+		AtomicReference<Thread> backgroundThread = new AtomicReference<>();
+		AtomicInteger instances = new AtomicInteger();
+		RootBeanDefinition bdA = new RootBeanDefinition(YieldingBeanA.class);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(aClaimed);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(bReady);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(backgroundThread);
+		bdA.getConstructorArgumentValues().addGenericArgumentValue(instances);
+		bdA.getPropertyValues().add("b", new RuntimeBeanReference("b"));
+		bdA.setLazyInit(true);
+		this.beanFactory.registerBeanDefinition("a", bdA);
+		RootBeanDefinition bdB = new RootBeanDefinition(YieldingBeanB.class);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(aClaimed);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(bReady);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(backgroundThread);
+		bdB.getConstructorArgumentValues().addGenericArgumentValue(instances);
+		bdB.getPropertyValues().add("a", new RuntimeBeanReference("a"));
+		this.beanFactory.registerBeanDefinition("b", bdB);
+
+		CompletableFuture<Void> future = this.beanFactory.preInstantiateSingletonsInBackground(this.executor);
+		YieldingBeanA a = this.beanFactory.getBean("a", YieldingBeanA.class);
+		future.get(10, TimeUnit.SECONDS);
+
+		YieldingBeanB b = this.beanFactory.getBean("b", YieldingBeanB.class);
+		assertThat(a.b).isSameAs(b);
+		assertThat(b.a).isSameAs(a);
+		assertThat(b.thread).isSameAs(backgroundThread.get());
+		assertThat(instances.get()).isEqualTo(2);
+	}
+
+	private void registerBean(String beanName, Class<?> beanClass, Object... args) {
+		RootBeanDefinition bd = new RootBeanDefinition(beanClass);
+		for (Object arg : args) {
+			bd.getConstructorArgumentValues().addGenericArgumentValue(arg);
+		}
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+	private static void awaitWaiting(Thread thread) throws InterruptedException {
+		for (int i = 0; i < 1000 && thread.getState() != Thread.State.WAITING; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+
+	static class ThreadBean {
+
+		final Thread thread = Thread.currentThread();
+
+		ThreadBean other;
+
+		public void setOther(ThreadBean other) {
+			this.other = other;
+		}
+	}
+
+
+	static class LatchBean {
+
+		final Thread thread = Thread.currentThread();
+
+		final boolean concurrent;
+
+		public LatchBean(CountDownLatch latch) throws InterruptedException {
+			latch.countDown();
+			this.concurrent = latch.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+
+	static class CircularBeanA {
+
+		final Thread thread = Thread.currentThread();
+
+		private CircularBeanB b;
+
+		public CircularBeanA(CountDownLatch latch, AtomicInteger instances) throws InterruptedException {
+			instances.incrementAndGet();
+			latch.countDown();
+			latch.await(10, TimeUnit.SECONDS);
+		}
+
+		public CircularBeanB getB() {
+			return this.b;
+		}
+
+		public void setB(CircularBeanB b) {
+			this.b = b;
+		}
+	}
+
+
+	static class CircularBeanB {
+
+		final Thread thread = Thread.currentThread();
+
+		private CircularBeanA a;
+
+		public CircularBeanB(CountDownLatch latch, AtomicInteger instances) throws InterruptedException {
+			instances.incrementAndGet();
+			latch.countDown();
+			latch.await(10, TimeUnit.SECONDS);
+		}
+
+		public CircularBeanA getA() {
+			return this.a;
+		}
+
+		public void setA(CircularBeanA a) {
+			this.a = a;
+		}
+	}
+
+
+	static class ConstructorCircularBeanA {
+
+		public ConstructorCircularBeanA(ConstructorCircularBeanB b) {
+		}
+	}
+
+
+	static class ConstructorCircularBeanB {
+
+		public ConstructorCircularBeanB(ConstructorCircularBeanA a) {
+		}
+	}
+
+
+	static class SmartBean implements SmartInitializingSingleton {
+
+		private final String name;
+
+		private final List<String> callbacks;
+
+		Thread callbackThread;
+
+		public SmartBean(String name, List<String> callbacks) {
+			this.name = name;
+			this.callbacks = callbacks;
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.callbackThread = Thread.currentThread();
+			this.callbacks.add(this.name);
+		}
+	}
+
+
+	static class GateBean {
+
+		final Thread thread = Thread.currentThread();
+
+		public GateBean(CountDownLatch gate, CountDownLatch started) throws InterruptedException {
+			started.countDown();
+			gate.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+
+	static class YieldingBeanA {
+
+		YieldingBeanB b;
+
+		public YieldingBeanA(CountDownLatch aClaimed, CountDownLatch bReady, AtomicReference<Thread> backgroundThread,
+				AtomicInteger instances) throws InterruptedException {
+
+			instances.incrementAndGet();
+			aClaimed.countDown();
+			bReady.await(10, TimeUnit.SECONDS);
+			// Let the background thread wait for this bean before asking for its bean.
+			awaitWaiting(backgroundThread.get());
+		}
+
+		public void setB(YieldingBeanB b) {
+			this.b = b;
+		}
+	}
+
+
+	static class YieldingBeanB {
+
+		final Thread thread = Thread.currentThread();
+
+		YieldingBeanA a;
+
+		public YieldingBeanB(CountDownLatch aClaimed, CountDownLatch bReady, AtomicReference<Thread> backgroundThread,
+				AtomicInteger instances) throws InterruptedException {
+
+			instances.incrementAndGet();
+			backgroundThread.compareAndSet(null, Thread.currentThread());
+			aClaimed.await(10, TimeUnit.SECONDS);
+			bReady.countDown();
+		}
+
+		public void setA(YieldingBeanA a) {
+			this.a = a;
+		}
+	}
+
+
+	static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+}
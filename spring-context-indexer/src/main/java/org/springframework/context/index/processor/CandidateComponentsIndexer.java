@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,8 +40,14 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>As of 5.3, the attributes of each indexed class (annotated injection and
+ * lifecycle members declared by the class, {@code @Bean} method signatures,
+ * scope, lazy and primary flags) are written alongside, so that they don't
+ * have to be introspected at runtime.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @since 5.0
  */
 public class CandidateComponentsIndexer implements Processor {
@@ -57,6 +63,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private ComponentAttributesProvider attributesProvider;
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
@@ -77,6 +85,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.attributesProvider = new ComponentAttributesProvider(this.typeHelper);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -117,7 +126,8 @@ public class CandidateComponentsIndexer implements Processor {
 		Set<String> stereotypes = new LinkedHashSet<>();
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
-			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes,
+					this.attributesProvider.getAttributes(element)));
 		}
 	}
 
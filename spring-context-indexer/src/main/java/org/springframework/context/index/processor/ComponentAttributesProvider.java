@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Extract the component attributes that are otherwise discovered at runtime
+ * through reflection: the fields, methods and constructors carrying injection
+ * and lifecycle annotations, the signatures of the {@code @Bean} methods as
+ * well as the {@code @Scope}, {@code @Lazy} and {@code @Primary} declarations.
+ *
+ * <p>Members are recorded in declaration order: fields by name, methods and
+ * constructors by their signature, e.g. {@code setName(java.lang.String)}.
+ * Only the members declared by the class itself are recorded. Inherited
+ * members are not, as the superclass may come from another archive that can
+ * change independently: the runtime introspects each superclass on its own.
+ * Injection and lifecycle members are always recorded for classes, an empty
+ * value meaning that the class declares no such member at all.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ */
+class ComponentAttributesProvider {
+
+	static final String INJECTION = "injection";
+
+	static final String LIFECYCLE = "lifecycle";
+
+	static final String BEAN_METHODS = "beanMethods";
+
+	static final String SCOPE = "scope";
+
+	static final String LAZY = "lazy";
+
+	static final String PRIMARY = "primary";
+
+	private static final Set<String> INJECTION_ANNOTATIONS = new HashSet<>(Arrays.asList(
+			"org.springframework.beans.factory.annotation.Autowired",
+			"org.springframework.beans.factory.annotation.Value",
+			"org.springframework.beans.factory.annotation.Lookup",
+			"javax.inject.Inject",
+			"javax.annotation.Resource",
+			"javax.ejb.EJB",
+			"javax.xml.ws.WebServiceRef"));
+
+	private static final Set<String> LIFECYCLE_ANNOTATIONS = new HashSet<>(Arrays.asList(
+			"javax.annotation.PostConstruct",
+			"javax.annotation.PreDestroy"));
+
+	private static final String BEAN_ANNOTATION = "org.springframework.context.annotation.Bean";
+
+	private static final String SCOPE_ANNOTATION = "org.springframework.context.annotation.Scope";
+
+	private static final String LAZY_ANNOTATION = "org.springframework.context.annotation.Lazy";
+
+	private static final String PRIMARY_ANNOTATION = "org.springframework.context.annotation.Primary";
+
+	private final TypeHelper typeHelper;
+
+
+	ComponentAttributesProvider(TypeHelper typeHelper) {
+		this.typeHelper = typeHelper;
+	}
+
+
+	/**
+	 * Return the attributes of the specified element, or an empty map if the
+	 * element is not a class.
+	 */
+	public Map<String, String> getAttributes(Element element) {
+		if (element.getKind() != ElementKind.CLASS) {
+			return Collections.emptyMap();
+		}
+		Set<String> injection = new LinkedHashSet<>();
+		Set<String> lifecycle = new LinkedHashSet<>();
+		Set<String> beanMethods = new LinkedHashSet<>();
+		for (Element member : element.getEnclosedElements()) {
+			ElementKind kind = member.getKind();
+			if (kind != ElementKind.FIELD && kind != ElementKind.METHOD && kind != ElementKind.CONSTRUCTOR) {
+				continue;
+			}
+			String signature = getSignature(member);
+			if (isAnnotated(member, INJECTION_ANNOTATIONS, new HashSet<>())) {
+				injection.add(signature);
+			}
+			if (isAnnotated(member, LIFECYCLE_ANNOTATIONS, new HashSet<>())) {
+				lifecycle.add(signature);
+			}
+			if (kind == ElementKind.METHOD && findAnnotation(member, BEAN_ANNOTATION) != null) {
+				beanMethods.add(signature);
+			}
+		}
+
+		Map<String, String> attributes = new LinkedHashMap<>();
+		attributes.put(INJECTION, String.join(",", injection));
+		attributes.put(LIFECYCLE, String.join(",", lifecycle));
+		if (!beanMethods.isEmpty()) {
+			attributes.put(BEAN_METHODS, String.join(",", beanMethods));
+		}
+		AnnotationMirror scope = findAnnotation(element, SCOPE_ANNOTATION);
+		if (scope != null) {
+			String scopeName = getStringValue(scope, "value");
+			if (scopeName == null) {
+				scopeName = getStringValue(scope, "scopeName");
+			}
+			if (scopeName != null) {
+				attributes.put(SCOPE, scopeName);
+			}
+		}
+		AnnotationMirror lazy = findAnnotation(element, LAZY_ANNOTATION);
+		if (lazy != null) {
+			String value = getStringValue(lazy, "value");
+			attributes.put(LAZY, (value != null ? value : "true"));
+		}
+		if (findAnnotation(element, PRIMARY_ANNOTATION) != null) {
+			attributes.put(PRIMARY, "true");
+		}
+		return attributes;
+	}
+
+	/**
+	 * Return the name of the specified field, or the name of the specified
+	 * method or constructor followed by its erased parameter types.
+	 */
+	private String getSignature(Element member) {
+		String name = member.getSimpleName().toString();
+		if (!(member instanceof ExecutableElement)) {
+			return name;
+		}
+		List<String> parameterTypes = new ArrayList<>();
+		for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+			parameterTypes.add(this.typeHelper.getErasedType(parameter.asType()));
+		}
+		return name + "(" + String.join(",", parameterTypes) + ")";
+	}
+
+	private boolean isAnnotated(Element element, Set<String> annotationTypes, Set<Element> seen) {
+		for (AnnotationMirror annotation : this.typeHelper.getAllAnnotationMirrors(element)) {
+			if (annotationTypes.contains(this.typeHelper.getType(annotation))) {
+				return true;
+			}
+			Element annotationElement = annotation.getAnnotationType().asElement();
+			if (!isJavaLangAnnotation(annotationElement) && seen.add(annotationElement) &&
+					isAnnotated(annotationElement, annotationTypes, seen)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private AnnotationMirror findAnnotation(Element element, String annotationType) {
+		return findAnnotation(element, annotationType, new HashSet<>());
+	}
+
+	private AnnotationMirror findAnnotation(Element element, String annotationType, Set<Element> seen) {
+		for (AnnotationMirror annotation : this.typeHelper.getAllAnnotationMirrors(element)) {
+			if (annotationType.equals(this.typeHelper.getType(annotation))) {
+				return annotation;
+			}
+		}
+		for (AnnotationMirror annotation : this.typeHelper.getAllAnnotationMirrors(element)) {
+			Element annotationElement = annotation.getAnnotationType().asElement();
+			if (!isJavaLangAnnotation(annotationElement) && seen.add(annotationElement)) {
+				AnnotationMirror metaAnnotation = findAnnotation(annotationElement, annotationType, seen);
+				if (metaAnnotation != null) {
+					return metaAnnotation;
+				}
+			}
+		}
+		return null;
+	}
+
+	private boolean isJavaLangAnnotation(Element annotationElement) {
+		return this.typeHelper.getType(annotationElement).startsWith("java.lang.annotation.");
+	}
+
+	private String getStringValue(AnnotationMirror annotation, String attributeName) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attributeName)) {
+				String value = String.valueOf(entry.getValue().getValue());
+				return (value.isEmpty() ? null : value);
+			}
+		}
+		return null;
+	}
+
+}
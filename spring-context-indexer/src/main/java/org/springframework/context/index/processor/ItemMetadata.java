@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 
 package org.springframework.context.index.processor;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -34,10 +37,17 @@ class ItemMetadata {
 
 	private final Set<String> stereotypes;
 
+	private final Map<String, String> attributes;
+
 
 	public ItemMetadata(String type, Set<String> stereotypes) {
+		this(type, stereotypes, Collections.emptyMap());
+	}
+
+	public ItemMetadata(String type, Set<String> stereotypes, Map<String, String> attributes) {
 		this.type = type;
 		this.stereotypes = new HashSet<>(stereotypes);
+		this.attributes = new LinkedHashMap<>(attributes);
 	}
 
 
@@ -49,4 +59,13 @@ class ItemMetadata {
 		return this.stereotypes;
 	}
 
+	/**
+	 * Return the additional attributes of the type, keyed by attribute name.
+	 * @since 5.3
+	 * @see ComponentAttributesProvider
+	 */
+	public Map<String, String> getAttributes() {
+		return this.attributes;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,12 +28,15 @@ import javax.tools.StandardLocation;
  * Store {@link CandidateComponentsMetadata} on the filesystem.
  *
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 5.0
  */
 class MetadataStore {
 
 	static final String METADATA_PATH = "META-INF/spring.components";
 
+	static final String ATTRIBUTES_PATH = "META-INF/spring.components.metadata";
+
 	private final ProcessingEnvironment environment;
 
 
@@ -43,20 +46,33 @@ class MetadataStore {
 
 
 	public CandidateComponentsMetadata readMetadata() {
+		CandidateComponentsMetadata metadata;
 		try {
-			return readMetadata(getMetadataResource().openInputStream());
+			metadata = readMetadata(getMetadataResource(METADATA_PATH).openInputStream());
 		}
 		catch (IOException ex) {
 			// Failed to read metadata -> ignore.
 			return null;
 		}
+		try (InputStream in = getMetadataResource(ATTRIBUTES_PATH).openInputStream()) {
+			return PropertiesMarshaller.readAttributes(metadata, in);
+		}
+		catch (IOException ex) {
+			// No attributes from a previous build -> index stereotypes only.
+			return metadata;
+		}
 	}
 
 	public void writeMetadata(CandidateComponentsMetadata metadata) throws IOException {
 		if (!metadata.getItems().isEmpty()) {
-			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+			try (OutputStream outputStream = createMetadataResource(METADATA_PATH).openOutputStream()) {
 				PropertiesMarshaller.write(metadata, outputStream);
 			}
+			if (metadata.getItems().stream().anyMatch(item -> !item.getAttributes().isEmpty())) {
+				try (OutputStream outputStream = createMetadataResource(ATTRIBUTES_PATH).openOutputStream()) {
+					PropertiesMarshaller.writeAttributes(metadata, outputStream);
+				}
+			}
 		}
 	}
 
@@ -70,12 +86,12 @@ class MetadataStore {
 		}
 	}
 
-	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject getMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
-	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject createMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
 }
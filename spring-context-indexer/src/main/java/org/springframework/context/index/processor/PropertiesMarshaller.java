@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -29,10 +32,17 @@ import java.util.Set;
  *
  * @author Stephane Nicoll
  * @author Vedran Pavic
+ * @author Tan Jiquan
  * @since 5.0
  */
 abstract class PropertiesMarshaller {
 
+	/**
+	 * The separator between the type and the attribute name in the keys of the
+	 * attributes file, e.g. {@code com.example.MyService/injection}.
+	 */
+	static final String ATTRIBUTE_SEPARATOR = "/";
+
 	public static void write(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
 		Properties props = new SortedProperties(true);
 		metadata.getItems().forEach(m -> props.put(m.getType(), String.join(",", m.getStereotypes())));
@@ -50,4 +60,44 @@ abstract class PropertiesMarshaller {
 		return result;
 	}
 
+	/**
+	 * Write the {@link ItemMetadata#getAttributes() attributes} of the specified
+	 * metadata, one {@code type/attribute=value} entry per attribute.
+	 * @since 5.3
+	 */
+	public static void writeAttributes(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		Properties props = new SortedProperties(true);
+		metadata.getItems().forEach(m -> m.getAttributes().forEach((name, value) ->
+				props.put(m.getType() + ATTRIBUTE_SEPARATOR + name, value)));
+		props.store(out, null);
+	}
+
+	/**
+	 * Read the attributes written by {@link #writeAttributes} and merge them
+	 * into the items of the specified metadata.
+	 * @since 5.3
+	 */
+	public static CandidateComponentsMetadata readAttributes(CandidateComponentsMetadata metadata, InputStream in)
+			throws IOException {
+
+		Properties props = new Properties();
+		props.load(in);
+		Map<String, Map<String, String>> attributes = new HashMap<>();
+		props.forEach((key, value) -> {
+			String entry = (String) key;
+			int index = entry.lastIndexOf(ATTRIBUTE_SEPARATOR);
+			if (index != -1) {
+				attributes.computeIfAbsent(entry.substring(0, index), type -> new LinkedHashMap<>())
+						.put(entry.substring(index + 1), (String) value);
+			}
+		});
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		for (ItemMetadata item : metadata.getItems()) {
+			Map<String, String> itemAttributes = attributes.get(item.getType());
+			result.add(itemAttributes != null ?
+					new ItemMetadata(item.getType(), item.getStereotypes(), itemAttributes) : item);
+		}
+		return result;
+	}
+
 }
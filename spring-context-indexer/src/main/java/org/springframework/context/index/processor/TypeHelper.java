@@ -73,6 +73,14 @@ class TypeHelper {
 		return type.toString();
 	}
 
+	/**
+	 * Return the name of the erasure of the specified type, e.g. the bound of
+	 * a type variable, as accepted by {@code ClassUtils.forName}.
+	 */
+	public String getErasedType(TypeMirror type) {
+		return getType(this.types.erasure(type));
+	}
+
 	private String getQualifiedName(Element element) {
 		if (element instanceof QualifiedNameable) {
 			return ((QualifiedNameable) element).getQualifiedName().toString();
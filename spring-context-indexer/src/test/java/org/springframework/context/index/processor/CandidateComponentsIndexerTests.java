@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,9 +35,11 @@ import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
+import org.springframework.context.index.sample.SampleBeanMethodsComponent;
 import org.springframework.context.index.sample.SampleComponent;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.sample.SampleMembersComponent;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
 import org.springframework.context.index.sample.SampleNonStaticEmbedded;
@@ -62,6 +64,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Tests for {@link CandidateComponentsIndexer}.
@@ -212,6 +215,70 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(2);
 	}
 
+	@Test
+	void attributesWithoutMembers() {
+		CandidateComponentsMetadata metadata = compile(SampleComponent.class);
+		assertThat(metadata.getItems()).hasSize(1);
+		assertThat(metadata.getItems().get(0).getAttributes()).containsOnly(
+				entry(ComponentAttributesProvider.INJECTION, ""),
+				entry(ComponentAttributesProvider.LIFECYCLE, ""));
+	}
+
+	@Test
+	void attributesWithMembers() {
+		CandidateComponentsMetadata metadata = compile(SampleMembersComponent.class);
+		ItemMetadata item = metadata.getItems().stream()
+				.filter(candidate -> candidate.getType().equals(SampleMembersComponent.class.getName()))
+				.findFirst().orElse(null);
+		assertThat(item).isNotNull();
+		assertThat(item.getAttributes()).containsOnly(
+				entry(ComponentAttributesProvider.INJECTION, "service,name," +
+						"<init>(org.springframework.context.index.sample.SampleRepository)," +
+						"setController(org.springframework.context.index.sample.SampleController)"),
+				entry(ComponentAttributesProvider.LIFECYCLE, "init()"));
+	}
+
+	@Test
+	void attributesWithBeanMethodSignatures() {
+		CandidateComponentsMetadata metadata = compile(SampleBeanMethodsComponent.class);
+		assertThat(metadata.getItems()).hasSize(1);
+		assertThat(metadata.getItems().get(0).getAttributes()).containsEntry(
+				ComponentAttributesProvider.BEAN_METHODS,
+				"sampleBean(),sampleService(java.util.List,int[])");
+	}
+
+	@Test
+	void attributesWithScope() {
+		CandidateComponentsMetadata metadata = compile(SampleBeanMethodsComponent.class);
+		assertThat(metadata.getItems().get(0).getAttributes()).containsEntry(
+				ComponentAttributesProvider.SCOPE, "prototype");
+	}
+
+	@Test
+	void attributesWithLazy() {
+		CandidateComponentsMetadata metadata = compile(SampleBeanMethodsComponent.class);
+		assertThat(metadata.getItems().get(0).getAttributes()).containsEntry(
+				ComponentAttributesProvider.LAZY, "true");
+	}
+
+	@Test
+	void attributesWithPrimary() {
+		CandidateComponentsMetadata metadata = compile(SampleBeanMethodsComponent.class);
+		assertThat(metadata.getItems().get(0).getAttributes()).containsEntry(
+				ComponentAttributesProvider.PRIMARY, "true");
+	}
+
+	@Test
+	void attributesWithoutBeanMethodsScopeLazyOrPrimary() {
+		CandidateComponentsMetadata metadata = compile(SampleMembersComponent.class);
+		ItemMetadata item = metadata.getItems().stream()
+				.filter(candidate -> candidate.getType().equals(SampleMembersComponent.class.getName()))
+				.findFirst().orElse(null);
+		assertThat(item).isNotNull();
+		assertThat(item.getAttributes()).doesNotContainKeys(ComponentAttributesProvider.BEAN_METHODS,
+				ComponentAttributesProvider.SCOPE, ComponentAttributesProvider.LAZY, ComponentAttributesProvider.PRIMARY);
+	}
+
 	@Test
 	void embeddedNonStaticCandidateAreIgnored() {
 		CandidateComponentsMetadata metadata = compile(SampleNonStaticEmbedded.class);
@@ -246,9 +313,15 @@ class CandidateComponentsIndexerTests {
 
 	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation) {
 		File metadataFile = new File(outputLocation, MetadataStore.METADATA_PATH);
+		File attributesFile = new File(outputLocation, MetadataStore.ATTRIBUTES_PATH);
 		if (metadataFile.isFile()) {
 			try (FileInputStream fileInputStream = new FileInputStream(metadataFile)) {
 				CandidateComponentsMetadata metadata = PropertiesMarshaller.read(fileInputStream);
+				if (attributesFile.isFile()) {
+					try (FileInputStream attributesInputStream = new FileInputStream(attributesFile)) {
+						metadata = PropertiesMarshaller.readAttributes(metadata, attributesInputStream);
+					}
+				}
 				return metadata;
 			}
 			catch (IOException ex) {
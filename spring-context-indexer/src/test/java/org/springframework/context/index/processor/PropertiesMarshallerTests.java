@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,11 +21,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Tests for {@link PropertiesMarshaller}.
@@ -63,6 +65,28 @@ public class PropertiesMarshallerTests {
 		assertThat(contents.split(System.lineSeparator())).containsExactly("com.a=type", "com.b=type", "com.c=type");
 	}
 
+	@Test
+	public void readWriteAttributes() throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.add(new ItemMetadata("com.foo", Collections.singleton("first"),
+				Collections.singletonMap("injection", "bar,baz")));
+		metadata.add(createItem("com.bar", "first"));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.writeAttributes(metadata, outputStream);
+		String contents = new String(outputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+		assertThat(contents.split(System.lineSeparator())).containsExactly("com.foo/injection=bar,baz");
+
+		CandidateComponentsMetadata stereotypes = new CandidateComponentsMetadata();
+		stereotypes.add(createItem("com.foo", "first"));
+		stereotypes.add(createItem("com.bar", "first"));
+		CandidateComponentsMetadata readMetadata = PropertiesMarshaller.readAttributes(
+				stereotypes, new ByteArrayInputStream(outputStream.toByteArray()));
+		assertThat(readMetadata.getItems()).hasSize(2);
+		assertThat(readMetadata.getItems().get(0).getAttributes()).containsOnly(entry("injection", "bar,baz"));
+		assertThat(readMetadata.getItems().get(1).getAttributes()).isEmpty();
+	}
+
 	private static ItemMetadata createItem(String type, String... stereotypes) {
 		return new ItemMetadata(type, new HashSet<>(Arrays.asList(stereotypes)));
 	}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate for {@link Component} with {@code @Bean} methods and
+ * scope, lazy and primary declarations.
+ *
+ * @author Tan Jiquan
+ */
+@Component
+@Scope("prototype")
+@Lazy
+@Primary
+public class SampleBeanMethodsComponent {
+
+	@Bean
+	public String sampleBean() {
+		return "sample";
+	}
+
+	@Bean
+	public SampleService sampleService(List<SampleRepository> repositories, int[] weights) {
+		return null;
+	}
+
+	public String notBean() {
+		return "not";
+	}
+
+}
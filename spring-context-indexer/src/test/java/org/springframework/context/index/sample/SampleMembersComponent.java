@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate for {@link Component} with injection and lifecycle members,
+ * some of them inherited from a base class that is not indexed.
+ *
+ * @author Tan Jiquan
+ */
+@Component
+public class SampleMembersComponent extends AbstractMembersComponent {
+
+	@Autowired
+	private SampleService service;
+
+	@Value("${sample.name}")
+	private String name;
+
+	private String notInjected;
+
+	@Inject
+	public SampleMembersComponent(SampleRepository repository) {
+	}
+
+	@Inject
+	public void setController(SampleController controller) {
+	}
+
+	@PostConstruct
+	public void init() {
+	}
+
+	public void notAnnotated() {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,16 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
@@ -29,11 +36,17 @@ import org.springframework.util.Assert;
  * Spring {@link org.springframework.cache.Cache} adapter implementation
  * on top of a Caffeine {@link com.github.benmanes.caffeine.cache.Cache} instance.
  *
- * <p>Requires Caffeine 2.1 or higher.
+ * <p>May also be backed by a Caffeine {@link AsyncCache}, with the
+ * {@link #retrieve(Object)} and {@link #retrieve(Object, Supplier)} operations
+ * going to the asynchronous API and all other operations going to its
+ * {@link AsyncCache#synchronous() synchronous view}.
+ *
+ * <p>Requires Caffeine 2.1 or higher, and 2.7 or higher for an {@link AsyncCache}.
  *
  * @author Ben Manes
  * @author Juergen Hoeller
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 4.3
  */
 public class CaffeineCache extends AbstractValueAdaptingCache {
@@ -42,6 +55,9 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 
 	private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
 
+	@Nullable
+	private final AsyncCache<Object, Object> asyncCache;
+
 
 	/**
 	 * Create a {@link CaffeineCache} instance with the specified name and the
@@ -69,6 +85,25 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		Assert.notNull(cache, "Cache must not be null");
 		this.name = name;
 		this.cache = cache;
+		this.asyncCache = null;
+	}
+
+	/**
+	 * Create a {@link CaffeineCache} instance with the specified name and the
+	 * given internal {@link AsyncCache} to use.
+	 * @param name the name of the cache
+	 * @param cache the backing Caffeine AsyncCache instance
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @since 5.3
+	 */
+	public CaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(cache, "Cache must not be null");
+		this.name = name;
+		this.cache = cache.synchronous();
+		this.asyncCache = cache;
 	}
 
 
@@ -82,6 +117,19 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return this.cache;
 	}
 
+	/**
+	 * Return the internal Caffeine AsyncCache.
+	 * @throws IllegalStateException if no AsyncCache is available
+	 * @since 5.3
+	 * @see #CaffeineCache(String, AsyncCache, boolean)
+	 * @see CaffeineCacheManager#setAsyncCacheMode
+	 */
+	public final AsyncCache<Object, Object> getAsyncCache() {
+		Assert.state(this.asyncCache != null,
+				"No Caffeine AsyncCache available: set CaffeineCacheManager.setAsyncCacheMode(true)");
+		return this.asyncCache;
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper get(Object key) {
@@ -99,6 +147,54 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return (T) fromStoreValue(this.cache.get(key, new LoadFunction(valueLoader)));
 	}
 
+	/**
+	 * This implementation retrieves all entries through Caffeine's
+	 * {@link LoadingCache#getAll} if backed by a {@link LoadingCache}
+	 * (consistent with {@link #get(Object)}), and through
+	 * {@link com.github.benmanes.caffeine.cache.Cache#getAllPresent} otherwise.
+	 */
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = (this.cache instanceof LoadingCache ?
+				((LoadingCache<Object, Object>) this.cache).getAll(keys) : this.cache.getAllPresent(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		storeValues.forEach((key, storeValue) -> result.put(key, toValueWrapper(storeValue)));
+		return result;
+	}
+
+	/**
+	 * This implementation retrieves the entry through Caffeine's asynchronous API
+	 * if backed by an {@link AsyncCache}. An entry that was still being loaded
+	 * and whose load failed is not present after all, so the returned future
+	 * completes with {@code null} rather than with the failure of that load.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key);
+		}
+		CompletableFuture<Object> result = (this.asyncCache instanceof AsyncLoadingCache ?
+				((AsyncLoadingCache<Object, Object>) this.asyncCache).get(key) : this.asyncCache.getIfPresent(key));
+		return (result != null ? result.handle((value, ex) -> (ex == null ? toValueWrapper(value) : null)) : null);
+	}
+
+	/**
+	 * This implementation coalesces concurrent loads for the same key
+	 * through Caffeine's {@link AsyncCache#get(Object, java.util.function.BiFunction)}
+	 * if backed by an {@link AsyncCache}.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key, valueLoader);
+		}
+		return this.asyncCache.get(key, (k, executor) -> valueLoader.get().thenApply(this::toStoreValue))
+				.thenApply(value -> (T) fromStoreValue(value));
+	}
+
 	@Override
 	@Nullable
 	protected Object lookup(Object key) {
@@ -110,6 +206,17 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	/**
+	 * This implementation stores all entries through a single
+	 * {@link com.github.benmanes.caffeine.cache.Cache#putAll} call.
+	 */
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeValues.put(key, toStoreValue(value)));
+		this.cache.putAll(storeValues);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable final Object value) {
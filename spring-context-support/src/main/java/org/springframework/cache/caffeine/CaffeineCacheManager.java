@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
@@ -45,12 +46,17 @@ import org.springframework.util.ObjectUtils;
  * A {@link CaffeineSpec}-compliant expression value can also be applied
  * via the {@link #setCacheSpecification "cacheSpecification"} bean property.
  *
+ * <p>In {@link #setAsyncCacheMode async cache mode}, caches are backed by a
+ * Caffeine {@link AsyncCache}, for non-blocking and coalesced
+ * {@link Cache#retrieve(Object) retrieve} operations.
+ *
  * <p>Requires Caffeine 2.1 or higher.
  *
  * @author Ben Manes
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 4.3
  * @see CaffeineCache
  */
@@ -67,6 +73,8 @@ public class CaffeineCacheManager implements CacheManager {
 
 	private boolean allowNullValues = true;
 
+	private boolean asyncCacheMode = false;
+
 
 	/**
 	 * Construct a dynamic CaffeineCacheManager,
@@ -171,6 +179,36 @@ public class CaffeineCacheManager implements CacheManager {
 	}
 
 
+	/**
+	 * Set the common cache type that this cache manager builds to async.
+	 * This applies to {@link #setCacheNames} as well as on-demand caches.
+	 * <p>Default is "false", building synchronous Caffeine caches. Switch this
+	 * to "true" for {@link Cache#retrieve(Object)} and
+	 * {@link Cache#retrieve(Object, java.util.function.Supplier)} to be backed
+	 * by Caffeine's {@link AsyncCache}, e.g. for caching {@code CompletableFuture}
+	 * and reactive methods with non-blocking lookups and coalesced loads.
+	 * <p>Note that Caffeine does not support weak or soft values in that mode.
+	 * @since 5.3
+	 * @see #createAsyncCaffeineCache
+	 * @see com.github.benmanes.caffeine.cache.Caffeine#buildAsync()
+	 */
+	public void setAsyncCacheMode(boolean asyncCacheMode) {
+		if (this.asyncCacheMode != asyncCacheMode) {
+			this.asyncCacheMode = asyncCacheMode;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Return whether this cache manager builds its caches on top of
+	 * Caffeine's {@link AsyncCache}.
+	 * @since 5.3
+	 */
+	public boolean isAsyncCacheMode() {
+		return this.asyncCacheMode;
+	}
+
+
 	@Override
 	public Collection<String> getCacheNames() {
 		return Collections.unmodifiableSet(this.cacheMap.keySet());
@@ -189,6 +227,9 @@ public class CaffeineCacheManager implements CacheManager {
 	 * @return the Spring CaffeineCache adapter (or a decorator thereof)
 	 */
 	protected Cache createCaffeineCache(String name) {
+		if (this.asyncCacheMode) {
+			return new CaffeineCache(name, createAsyncCaffeineCache(name), isAllowNullValues());
+		}
 		return new CaffeineCache(name, createNativeCaffeineCache(name), isAllowNullValues());
 	}
 
@@ -206,6 +247,22 @@ public class CaffeineCacheManager implements CacheManager {
 		}
 	}
 
+	/**
+	 * Create a native Caffeine AsyncCache instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the native Caffeine AsyncCache instance
+	 * @since 5.3
+	 * @see #setAsyncCacheMode
+	 */
+	protected AsyncCache<Object, Object> createAsyncCaffeineCache(String name) {
+		if (this.cacheLoader != null) {
+			return this.cacheBuilder.buildAsync(this.cacheLoader);
+		}
+		else {
+			return this.cacheBuilder.buildAsync();
+		}
+	}
+
 	private void doSetCaffeine(Caffeine<Object, Object> cacheBuilder) {
 		if (!ObjectUtils.nullSafeEquals(this.cacheBuilder, cacheBuilder)) {
 			this.cacheBuilder = cacheBuilder;
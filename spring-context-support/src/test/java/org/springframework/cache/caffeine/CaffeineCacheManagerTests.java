@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
@@ -26,6 +28,7 @@ import org.springframework.cache.CacheManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -194,6 +197,35 @@ public class CaffeineCacheManagerTests {
 			.withMessageContaining("I only know ping");
 	}
 
+	@Test
+	public void asyncCacheMode() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertThatIllegalStateException().isThrownBy(() -> ((CaffeineCache) cache1).getAsyncCache());
+
+		cm.setAsyncCacheMode(true);
+		assertThat(cm.isAsyncCacheMode()).isTrue();
+		CaffeineCache cache1x = (CaffeineCache) cm.getCache("c1");
+		assertThat(cache1x).isNotSameAs(cache1);
+		assertThat(cache1x.getAsyncCache()).isNotNull();
+
+		cache1x.put("key1", "value1");
+		assertThat(cache1x.retrieve("key1").join().get()).isEqualTo("value1");
+		assertThat(cache1x.retrieve("key2", () -> CompletableFuture.completedFuture("value2")).join())
+				.isEqualTo("value2");
+		assertThat(cache1x.get("key2").get()).isEqualTo("value2");
+	}
+
+	@Test
+	public void asyncCacheModeWithCacheLoader() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		cm.setAsyncCacheMode(true);
+		cm.setCacheLoader(key -> "pong");
+		Cache cache1 = cm.getCache("c1");
+		assertThat(cache1.retrieve("ping").join().get()).isEqualTo("pong");
+		assertThat(cache1.get("ping").get()).isEqualTo("pong");
+	}
+
 	@SuppressWarnings("unchecked")
 	private CacheLoader<Object, Object> mockCacheLoader() {
 		return mock(CacheLoader.class);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,4 +82,57 @@ public class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<Caffeine
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testRetrieveWithAsyncCache() {
+		CaffeineCache asyncCache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+
+		String key = createRandomKey();
+		assertThat(asyncCache.retrieve(key)).isNull();
+
+		asyncCache.put(key, null);
+		Cache.ValueWrapper wrapper = asyncCache.retrieve(key).join();
+		assertThat(wrapper).isNotNull();
+		assertThat(wrapper.get()).isNull();
+		assertThat(asyncCache.getAsyncCache().getIfPresent(key)).isNotNull();
+	}
+
+	@Test
+	public void testRetrieveCoalescesConcurrentLoadsWithAsyncCache() {
+		CaffeineCache asyncCache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+
+		String key = createRandomKey();
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<Object> pending = new CompletableFuture<>();
+		CompletableFuture<Object> first = asyncCache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<Object> second = asyncCache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(asyncCache.retrieve(key)).isNotNull();
+
+		pending.complete("george");
+		assertThat(first.join()).isEqualTo("george");
+		assertThat(second.join()).isEqualTo("george");
+		assertThat(counter.get()).isEqualTo(1);
+		assertThat(asyncCache.get(key).get()).isEqualTo("george");
+	}
+
+	@Test
+	public void testRetrieveWithFailedInFlightLoad() {
+		CaffeineCache asyncCache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+
+		String key = createRandomKey();
+		CompletableFuture<Object> pending = new CompletableFuture<>();
+		CompletableFuture<Object> loading = asyncCache.retrieve(key, () -> pending);
+		CompletableFuture<Cache.ValueWrapper> inFlight = asyncCache.retrieve(key);
+		assertThat(inFlight).isNotNull();
+
+		pending.completeExceptionally(new IllegalStateException("load failed"));
+		assertThat(loading.isCompletedExceptionally()).isTrue();
+		assertThat(inFlight.join()).isNull();
+	}
+
 }
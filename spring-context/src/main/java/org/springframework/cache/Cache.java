@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -30,6 +35,7 @@ import org.springframework.lang.Nullable;
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 3.1
  */
 public interface Cache {
@@ -100,6 +106,94 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The returned map only contains entries for the keys that this cache
+	 * holds a mapping for, each cached value (which may be {@code null} itself)
+	 * being contained in a {@link ValueWrapper}. Keys without a mapping are
+	 * simply absent from the returned map.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Cache providers with a native bulk operation are encouraged to
+	 * override it, retrieving all entries in a single round trip.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map of the entries found for the given keys (never {@code null})
+	 * @since 5.3
+	 * @see #get(Object)
+	 * @see #putAll(Map)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				result.put(key, valueWrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key,
+	 * wrapped in a {@link CompletableFuture}. This operation should not block
+	 * but may return a completed {@link CompletableFuture} if the corresponding
+	 * value is immediately available.
+	 * <p>Returns {@code null} if the cache contains no mapping for this key;
+	 * otherwise, the cached value (which may be {@code null} itself) will
+	 * be provided in a {@link ValueWrapper} on completion of the future.
+	 * A future completing with {@code null} indicates that an entry which
+	 * was still being computed turned out not to be present after all.
+	 * <p>The default implementation delegates to {@link #get(Object)},
+	 * returning an already completed future. Cache providers with an
+	 * asynchronous API are encouraged to override it.
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which this cache maps the specified key, contained
+	 * within a {@link CompletableFuture} of a {@link ValueWrapper} which may also
+	 * hold a cached {@code null} value. A straight {@code null} being returned
+	 * means that the cache contains no mapping for this key.
+	 * @since 5.3
+	 * @see #retrieve(Object, Supplier)
+	 */
+	@Nullable
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		ValueWrapper valueWrapper = get(key);
+		return (valueWrapper != null ? CompletableFuture.completedFuture(valueWrapper) : null);
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from {@code valueLoader} if necessary. This is the asynchronous
+	 * counterpart of {@link #get(Object, Callable)}, for values which become
+	 * available through a {@link CompletableFuture}.
+	 * <p>If possible, implementations should ensure that the loading operation
+	 * is coalesced so that the specified {@code valueLoader} is only called
+	 * once in case of concurrent access on the same key, with all callers
+	 * sharing the outcome of that single load.
+	 * <p>If the {@code valueLoader} fails, the returned future completes
+	 * exceptionally with the same exception, and no value is stored.
+	 * <p>The default implementation delegates to {@link #retrieve(Object)}
+	 * and {@link #put(Object, Object)}, without coalescing concurrent loads.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the provider of a future for the value to be cached
+	 * @return the value to which this cache maps the specified key,
+	 * contained within a {@link CompletableFuture}
+	 * @since 5.3
+	 * @see #retrieve(Object)
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		Supplier<CompletableFuture<T>> loadAndPut = () -> valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+		CompletableFuture<ValueWrapper> cached = retrieve(key);
+		if (cached == null) {
+			return loadAndPut.get();
+		}
+		return cached.thenCompose(valueWrapper -> (valueWrapper != null ?
+				CompletableFuture.completedFuture((T) valueWrapper.get()) : loadAndPut.get()));
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +208,23 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate the specified values with their keys in this cache.
+	 * <p>Like {@link #put(Object, Object)}, the actual registration may be
+	 * performed in an asynchronous or deferred fashion.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Cache providers with a native bulk operation are
+	 * encouraged to override it, storing all entries in a single round trip.
+	 * @param entries the keys and values to be associated with each other
+	 * (values may be {@code null})
+	 * @since 5.3
+	 * @see #put(Object, Object)
+	 * @see #getAll(Collection)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
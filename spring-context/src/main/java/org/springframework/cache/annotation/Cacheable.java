@@ -49,6 +49,7 @@ import org.springframework.core.annotation.AliasFor;
  * @author Phillip Webb
  * @author Stephane Nicoll
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 3.1
  * @see CacheConfig
  */
@@ -179,4 +180,38 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the values for the individual elements of a collection argument,
+	 * rather than the result of the invocation as a whole. The method has to
+	 * declare a single {@link java.util.Collection} parameter holding the keys
+	 * and to return a {@link java.util.Map} of the values for those keys.
+	 * <p>All keys are looked up at once through
+	 * {@link org.springframework.cache.Cache#getAll}. The method is then only
+	 * invoked with a collection of the keys that have not been found, if any;
+	 * the entries it returns are stored through
+	 * {@link org.springframework.cache.Cache#putAll} and merged with the cache
+	 * hits. Keys missing from the returned map are not cached. Bulk caching
+	 * leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #key()} and {@link #keyGenerator()} are not supported: each
+	 * element of the collection is used as a cache key as-is. For the same
+	 * reason, a default {@link org.springframework.cache.interceptor.KeyGenerator}
+	 * configured globally (e.g. through
+	 * {@link CachingConfigurer#keyGenerator()}) does not apply to bulk
+	 * operations</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * The {@link #unless()} expression is evaluated against each individual
+	 * value returned by the method, exposed as {@code #result}.
+	 * <p>Note that invoking the method with the cache misses only requires the
+	 * cache interceptor to be able to change the arguments of the invocation,
+	 * as is the case with proxy-based caching. Otherwise the method is invoked
+	 * with all keys, still benefiting from bulk cache access.
+	 * @since 5.3
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
@@ -108,6 +108,8 @@ public interface CachingConfigurer {
 	 * }
 	 * </pre>
 	 * See @{@link EnableCaching} for more complete examples.
+	 * <p>The key generator is not used for {@link Cacheable#bulk() bulk}
+	 * operations, which use each element of their collection argument as key.
 	 */
 	@Nullable
 	KeyGenerator keyGenerator();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,14 @@ package org.springframework.cache.concurrent;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
 import org.springframework.core.serializer.support.SerializationDelegate;
@@ -44,6 +49,7 @@ import org.springframework.util.Assert;
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 3.1
  */
 public class ConcurrentMapCache extends AbstractValueAdaptingCache {
@@ -55,6 +61,9 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	@Nullable
 	private final SerializationDelegate serialization;
 
+	/** Values currently being loaded through {@link #retrieve(Object, Supplier)}, keyed by cache key. */
+	private final ConcurrentMap<Object, CompletableFuture<Object>> loadingFutures = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new ConcurrentMapCache with the specified name.
@@ -151,11 +160,87 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		}));
 	}
 
+	/**
+	 * This implementation coalesces concurrent loads for the same key,
+	 * calling the given {@code valueLoader} only once until its future
+	 * has completed and the value has been stored.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		Object storeValue = lookup(key);
+		if (storeValue != null) {
+			return CompletableFuture.completedFuture((T) fromStoreValue(storeValue));
+		}
+		CompletableFuture<Object> loading = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.loadingFutures.putIfAbsent(key, loading);
+		if (existing != null) {
+			// Concurrent misses share the same load
+			return existing.thenApply(value -> (T) value);
+		}
+		storeValue = lookup(key);
+		if (storeValue != null) {
+			// Another load completed before this one got registered
+			completeLoading(key, loading, fromStoreValue(storeValue), null);
+		}
+		else {
+			try {
+				valueLoader.get().whenComplete((value, ex) -> {
+					if (ex == null) {
+						try {
+							this.store.put(key, toStoreValue(value));
+						}
+						catch (Throwable putEx) {
+							ex = putEx;
+						}
+					}
+					completeLoading(key, loading, value, ex);
+				});
+			}
+			catch (Throwable ex) {
+				completeLoading(key, loading, null, ex);
+			}
+		}
+		return loading.thenApply(value -> (T) value);
+	}
+
+	private void completeLoading(Object key, CompletableFuture<Object> loading,
+			@Nullable Object value, @Nullable Throwable ex) {
+
+		this.loadingFutures.remove(key, loading);
+		if (ex != null) {
+			loading.completeExceptionally(ex);
+		}
+		else {
+			loading.complete(value);
+		}
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Object storeValue = this.store.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.store.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		// Convert all values first, storing no entry at all if any conversion fails
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeValues.put(key, toStoreValue(value)));
+		this.store.putAll(storeValues);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,15 +21,24 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -44,6 +53,9 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +81,22 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} (or {@link CompletionStage})
+ * or, with Reactor on the classpath, a reactive type known to the
+ * {@link ReactiveAdapterRegistry} cache the value they asynchronously resolve
+ * to rather than the returned object itself: the emitted element for a
+ * {@code Mono}, or the collected {@code List} of elements for a {@code Flux}.
+ * Cache lookups then go through {@link Cache#retrieve(Object)}, and a
+ * {@code @Cacheable(sync=true)} method goes through
+ * {@link Cache#retrieve(Object, Supplier)} so that concurrent misses for the
+ * same key share a single invocation and subscription.
+ *
+ * <p>A {@code @Cacheable(bulk=true)} method caches the entries of the {@code Map}
+ * it returns for the elements of its collection argument individually, going
+ * through {@link Cache#getAll} and {@link Cache#putAll} and invoking the method
+ * for the cache misses only. The elements are used as cache keys as-is, without
+ * going through the {@link KeyGenerator}.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -78,15 +106,30 @@ import org.springframework.util.function.SupplierUtils;
  * @author Phillip Webb
  * @author Sam Brannen
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 3.1
  */
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	/**
+	 * Reactor present on the classpath?
+	 */
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+	private static final AsyncResultAdapter completionStageAdapter = new CompletionStageResultAdapter();
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
+	private final Map<Method, Optional<AsyncResultAdapter>> asyncResultAdapterCache = new ConcurrentHashMap<>(256);
+
+	@Nullable
+	private final ReactiveCachingHandler reactiveCachingHandler;
+
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
@@ -103,6 +146,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	private boolean initialized = false;
 
 
+	protected CacheAspectSupport() {
+		this.reactiveCachingHandler = (reactorPresent ? new ReactiveCachingHandler() : null);
+	}
+
+
 	/**
 	 * Configure this aspect with the given error handler, key generator and cache resolver/manager
 	 * suppliers, applying the corresponding default if a supplier is not resolvable.
@@ -151,7 +199,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	/**
 	 * Set the default {@link KeyGenerator} that this cache aspect should delegate to
 	 * if no specific key generator has been set for the operation.
-	 * <p>The default is a {@link SimpleKeyGenerator}.
+	 * <p>The default is a {@link SimpleKeyGenerator}. It does not apply to
+	 * {@code @Cacheable(bulk=true)} operations, which use each element of their
+	 * collection argument as key.
 	 */
 	public void setKeyGenerator(KeyGenerator keyGenerator) {
 		this.keyGenerator = SingletonSupplier.of(keyGenerator);
@@ -330,6 +380,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	 */
 	protected void clearMetadataCache() {
 		this.metadataCache.clear();
+		this.asyncResultAdapterCache.clear();
 		this.evaluator.clear();
 	}
 
@@ -342,7 +393,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (cacheOperationSource != null) {
 				Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
 				if (!CollectionUtils.isEmpty(operations)) {
-					return execute(invoker, method,
+					return execute(invoker, method, args,
 							new CacheOperationContexts(operations, method, args, target, targetClass));
 				}
 			}
@@ -370,13 +421,32 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 	@Nullable
-	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+	private Object execute(final CacheOperationInvoker invoker, Method method, Object[] args,
+			CacheOperationContexts contexts) {
+
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBulk(invoker, method, args, context);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				AsyncResultAdapter asyncAdapter = getAsyncResultAdapter(method);
+				if (asyncAdapter != null) {
+					// Concurrent misses get coalesced into a single method invocation by the cache
+					return asyncAdapter.fromFuture(() -> cache.retrieve(key, () -> invokeAsync(invoker, asyncAdapter)));
+				}
 				try {
 					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
 				}
@@ -397,6 +467,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
 				CacheOperationExpressionEvaluator.NO_RESULT);
 
+		// Cache the asynchronously resolved value for CompletableFuture and reactive return types
+		AsyncResultAdapter asyncAdapter = getAsyncResultAdapter(method);
+		if (asyncAdapter != null) {
+			return asyncAdapter.fromFuture(() -> executeAsync(invoker, contexts, asyncAdapter));
+		}
+
 		// Check if we have a cached item matching the conditions
 		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
 
@@ -435,6 +511,169 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Process a {@code @Cacheable(bulk=true)} operation: look up all elements of
+	 * the collection argument at once, invoke the method for the cache misses only
+	 * (by temporarily replacing the argument) and merge its result with the hits.
+	 */
+	@Nullable
+	private Object executeBulk(CacheOperationInvoker invoker, Method method, Object[] args,
+			CacheOperationContext context) {
+
+		Object keysArgument = args[0];
+		if (keysArgument == null) {
+			return invokeOperation(invoker);
+		}
+		Set<Object> keys = new LinkedHashSet<>((Collection<?>) keysArgument);
+		if (keys.contains(null)) {
+			throw new IllegalArgumentException("Null key in collection argument for bulk cache operation " +
+					context.metadata.operation);
+		}
+
+		// Check the caches one after the other for the keys not found so far
+		Map<Object, Object> cacheHits = new LinkedHashMap<>(keys.size());
+		Set<Object> misses = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (misses.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> found = doGetAll(cache, misses);
+			for (Map.Entry<Object, Cache.ValueWrapper> entry : found.entrySet()) {
+				if (misses.remove(entry.getKey())) {
+					cacheHits.put(entry.getKey(), entry.getValue().get());
+				}
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cache entries for " + cacheHits.size() + " of " + keys.size() +
+					" keys found in cache(s) " + context.getCacheNames());
+		}
+
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!misses.isEmpty()) {
+			// Invoke the method with the missing keys only
+			Collection<Object> missesArgument = CollectionFactory.createCollection(
+					method.getParameterTypes()[0], misses.size());
+			missesArgument.addAll(misses);
+			args[0] = missesArgument;
+			Object returnValue;
+			try {
+				returnValue = invokeOperation(invoker);
+			}
+			finally {
+				args[0] = keysArgument;
+			}
+			if (returnValue != null) {
+				loaded = (Map<?, ?>) returnValue;
+			}
+
+			Map<Object, Object> cacheValues = new LinkedHashMap<>(loaded.size());
+			for (Map.Entry<?, ?> entry : loaded.entrySet()) {
+				if (entry.getKey() != null && context.canPutToCache(entry.getValue())) {
+					cacheValues.put(entry.getKey(), entry.getValue());
+				}
+			}
+			if (!cacheValues.isEmpty()) {
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, cacheValues);
+				}
+			}
+		}
+
+		// Merge in the order of the requested keys
+		Map<Object, Object> result = CollectionFactory.createMap(method.getReturnType(), keys.size());
+		for (Object key : keys) {
+			if (loaded.containsKey(key)) {
+				result.put(key, loaded.get(key));
+			}
+			else if (cacheHits.containsKey(key)) {
+				result.put(key, cacheHits.get(key));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Asynchronous variant of the non-synchronized cache operation processing,
+	 * operating on the value that the return value of the method resolves to.
+	 */
+	private CompletableFuture<Object> executeAsync(
+			CacheOperationInvoker invoker, CacheOperationContexts contexts, AsyncResultAdapter asyncAdapter) {
+
+		// Check if we have a cached item matching the conditions
+		return findCachedItemAsync(contexts.get(CacheableOperation.class)).thenCompose(cacheHit -> {
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			CompletableFuture<Object> cacheValue;
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				// If there are no put requests, just use the cache hit
+				cacheValue = CompletableFuture.completedFuture(cacheHit.get());
+			}
+			else {
+				// Invoke the method if we don't have a cache hit
+				cacheValue = invokeAsync(invoker, asyncAdapter);
+			}
+
+			return cacheValue.thenApply(value -> {
+				// Collect any explicit @CachePuts
+				collectPutRequests(contexts.get(CachePutOperation.class), value, cachePutRequests);
+
+				// Process any collected put requests, either from @CachePut or a @Cacheable miss
+				for (CachePutRequest cachePutRequest : cachePutRequests) {
+					cachePutRequest.apply(value);
+				}
+
+				// Process any late evictions
+				processCacheEvicts(contexts.get(CacheEvictOperation.class), false, value);
+				return value;
+			});
+		});
+	}
+
+	/**
+	 * Invoke the underlying operation and resolve its asynchronous return value.
+	 * <p>An exception thrown by a method returning a {@link CompletionStage}
+	 * propagates as a {@link CacheOperationInvoker.ThrowableWrapper}, while it is
+	 * turned into a failed future for reactive return types.
+	 */
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<Object> invokeAsync(CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter) {
+		try {
+			return (CompletableFuture<Object>) asyncAdapter.toFuture(invokeOperation(invoker));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			if (asyncAdapter == completionStageAdapter) {
+				throw ex;
+			}
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex.getOriginal());
+			return failed;
+		}
+	}
+
+	/**
+	 * Determine the {@link AsyncResultAdapter} for the return type of the given method.
+	 * @return the adapter, or {@code null} if the return value is to be cached as-is
+	 */
+	@Nullable
+	private AsyncResultAdapter getAsyncResultAdapter(Method method) {
+		return this.asyncResultAdapterCache.computeIfAbsent(method, key -> {
+			Class<?> returnType = method.getReturnType();
+			if (CompletionStage.class.isAssignableFrom(returnType)) {
+				// Only return types that a CompletableFuture can be assigned to
+				return (returnType.isAssignableFrom(CompletableFuture.class) ?
+						Optional.of(completionStageAdapter) : Optional.empty());
+			}
+			return Optional.ofNullable(this.reactiveCachingHandler != null ?
+					this.reactiveCachingHandler.getAdapter(returnType) : null);
+		}).orElse(null);
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -530,6 +769,48 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return null;
 	}
 
+	/**
+	 * Asynchronously find a cached item only for {@link CacheableOperation}
+	 * that passes the condition, trying one context after the other.
+	 * @param contexts the cacheable operations
+	 * @return a future for the {@link Cache.ValueWrapper} holding the cached item,
+	 * completing with {@code null} if none is found
+	 */
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		CompletableFuture<Cache.ValueWrapper> result = CompletableFuture.completedFuture(null);
+		for (CacheOperationContext context : contexts) {
+			result = result.thenCompose(cacheHit ->
+					(cacheHit != null ? CompletableFuture.completedFuture(cacheHit) : findInCachesAsync(context)));
+		}
+		return result;
+	}
+
+	private CompletableFuture<Cache.ValueWrapper> findInCachesAsync(CacheOperationContext context) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		if (!isConditionPassing(context, result)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Object key = generateKey(context, result);
+		CompletableFuture<Cache.ValueWrapper> cached = CompletableFuture.completedFuture(null);
+		for (Cache cache : context.getCaches()) {
+			cached = cached.thenCompose(cacheHit -> {
+				if (cacheHit != null) {
+					return CompletableFuture.completedFuture(cacheHit);
+				}
+				CompletableFuture<Cache.ValueWrapper> retrieved = doRetrieve(cache, key);
+				return (retrieved != null ? retrieved : CompletableFuture.completedFuture(null));
+			});
+		}
+		if (logger.isTraceEnabled()) {
+			cached = cached.thenApply(cacheHit -> {
+				logger.trace((cacheHit != null ? "Cache entry for key '" + key + "' found" :
+						"No cache entry for key '" + key + "'") + " in cache(s) " + context.getCacheNames());
+				return cacheHit;
+			});
+		}
+		return cached;
+	}
+
 	/**
 	 * Collect the {@link CachePutRequest} for all {@link CacheOperation} using
 	 * the specified result item.
@@ -588,6 +869,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final MultiValueMap<Class<? extends CacheOperation>, CacheOperationContext> contexts;
 
+		private final boolean bulk;
+
 		private final boolean sync;
 
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
@@ -597,6 +880,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			for (CacheOperation op : operations) {
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
+			this.bulk = determineBulkFlag(method);
 			this.sync = determineSyncFlag(method);
 		}
 
@@ -605,10 +889,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return (result != null ? result : Collections.emptyList());
 		}
 
+		public boolean isBulk() {
+			return this.bulk;
+		}
+
 		public boolean isSynchronized() {
 			return this.sync;
 		}
 
+		private boolean determineBulkFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (bulkEnabled) {
+				if (this.contexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				if (cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+				}
+				if (method.getParameterCount() != 1 || !Collection.class.isAssignableFrom(method.getParameterTypes()[0])) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) requires a single Collection parameter on '" + method + "'");
+				}
+				if (!Map.class.isAssignableFrom(method.getReturnType())) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) requires a Map return type on '" + method + "'");
+				}
+				CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) does not support sync attribute on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getKey()) || StringUtils.hasText(operation.getKeyGenerator())) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) does not support key or keyGenerator attribute on '" + operation + "'");
+				}
+				return true;
+			}
+			return false;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -868,4 +1199,118 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+
+	/**
+	 * Adapter between an asynchronous return type and a {@link CompletableFuture}
+	 * for the value to cache.
+	 */
+	private interface AsyncResultAdapter {
+
+		/**
+		 * Resolve the value to cache from the given return value.
+		 */
+		CompletableFuture<?> toFuture(@Nullable Object returnValue);
+
+		/**
+		 * Adapt a future for the cached or resolved value to the return type.
+		 * @param futureSupplier the supplier of the future, to be called
+		 * lazily if supported by the return type
+		 */
+		Object fromFuture(Supplier<? extends CompletableFuture<?>> futureSupplier);
+	}
+
+
+	/**
+	 * Adapter for methods returning a {@link CompletableFuture} or {@link CompletionStage}.
+	 * <p>An exception thrown by the method before returning a future is rethrown
+	 * to the caller if it surfaces right away, as for any other method, and
+	 * otherwise fails the returned future with the original exception.
+	 */
+	private static class CompletionStageResultAdapter implements AsyncResultAdapter {
+
+		@Override
+		public CompletableFuture<?> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ? ((CompletionStage<?>) returnValue).toCompletableFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<? extends CompletableFuture<?>> futureSupplier) {
+			CompletableFuture<?> future = futureSupplier.get();
+			if (future.isDone()) {
+				CacheOperationInvoker.ThrowableWrapper invocationFailure =
+						getInvocationFailure(future.handle((value, ex) -> ex).join());
+				if (invocationFailure != null) {
+					throw invocationFailure;
+				}
+				return future;
+			}
+			CompletableFuture<Object> result = new CompletableFuture<>();
+			future.whenComplete((value, ex) -> {
+				if (ex == null) {
+					result.complete(value);
+				}
+				else {
+					CacheOperationInvoker.ThrowableWrapper invocationFailure = getInvocationFailure(ex);
+					result.completeExceptionally(invocationFailure != null ? invocationFailure.getOriginal() : ex);
+				}
+			});
+			return result;
+		}
+
+		@Nullable
+		private static CacheOperationInvoker.ThrowableWrapper getInvocationFailure(@Nullable Throwable ex) {
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			return (cause instanceof CacheOperationInvoker.ThrowableWrapper ?
+					(CacheOperationInvoker.ThrowableWrapper) cause : null);
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 */
+	private static class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		public AsyncResultAdapter getAdapter(Class<?> returnType) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() ? new ReactiveResultAdapter(adapter) : null);
+		}
+	}
+
+
+	/**
+	 * Adapter for methods returning a reactive type, caching the single value
+	 * or the {@code List} of values emitted by the returned publisher.
+	 * The cache lookup is deferred until subscription.
+	 */
+	private static class ReactiveResultAdapter implements AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		public ReactiveResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Override
+		public CompletableFuture<?> toFuture(@Nullable Object returnValue) {
+			if (returnValue == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Publisher<?> publisher = this.adapter.toPublisher(returnValue);
+			return (this.adapter.isMultiValue() ? Flux.from(publisher).collectList().toFuture() :
+					Mono.from(publisher).toFuture());
+		}
+
+		@Override
+		public Object fromFuture(Supplier<? extends CompletableFuture<?>> futureSupplier) {
+			Mono<?> mono = Mono.defer(() -> Mono.fromFuture(futureSupplier.get()));
+			return this.adapter.fromPublisher(this.adapter.isMultiValue() ?
+					mono.flatMapMany(value -> Flux.fromIterable((Iterable<?>) value)) : mono);
+		}
+	}
+
 }
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinitionReader;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Conventions;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bean definition reader for snapshots written by {@link BeanDefinitionSnapshotWriter}
+ * at build time, registering the captured bean definitions as-is: without parsing
+ * configuration classes, scanning the classpath or reading class files via ASM.
+ *
+ * <p>Typically used against a plain
+ * {@link org.springframework.context.support.GenericApplicationContext}:
+ *
+ * <pre class="code">
+ * GenericApplicationContext ctx = new GenericApplicationContext();
+ * new BeanDefinitionSnapshotReader(ctx).loadBeanDefinitions(new ClassPathResource("app.snapshot"));
+ * ctx.refresh();
+ * </pre>
+ *
+ * <p>The snapshot records the active profiles it was written for, as well as the
+ * environment properties and classes that conditions evaluated at that point;
+ * loading it against an environment with different active profiles, property
+ * values or classes fails since conditional registrations would not match. Import metadata for {@link ImportAware}
+ * configuration classes is restored lazily on first access.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see BeanDefinitionSnapshotWriter
+ */
+public class BeanDefinitionSnapshotReader extends AbstractBeanDefinitionReader {
+
+	/**
+	 * Attribute marking a bean definition as restored from a snapshot, letting
+	 * {@link ConfigurationClassPostProcessor} skip it as a configuration candidate.
+	 */
+	static final String SNAPSHOT_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(BeanDefinitionSnapshotReader.class, "snapshot");
+
+	static final int MAGIC = 0x53424453;
+
+	static final int VERSION = 2;
+
+	static final byte NULL = 0;
+
+	static final byte STRING = 1;
+
+	static final byte TYPED_STRING = 2;
+
+	static final byte BEAN_REFERENCE = 3;
+
+	static final byte BEAN_NAME_REFERENCE = 4;
+
+	static final byte BOOLEAN = 5;
+
+	static final byte INTEGER = 6;
+
+	static final byte LONG = 7;
+
+	static final byte CLASS = 8;
+
+	static final byte INNER_BEAN = 9;
+
+	static final byte LIST = 10;
+
+	static final byte SET = 11;
+
+	static final byte MAP = 12;
+
+	static final byte PROPERTIES = 13;
+
+	static final byte STRING_ARRAY = 14;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public BeanDefinitionSnapshotReader(BeanDefinitionRegistry registry) {
+		super(registry);
+	}
+
+
+	/**
+	 * Load bean definitions from the specified snapshot.
+	 * @param resource the resource descriptor for the snapshot
+	 * @return the number of bean definitions found
+	 * @throws BeanDefinitionStoreException in case of loading errors
+	 * or if the snapshot does not match the active profiles or condition inputs
+	 */
+	@Override
+	public int loadBeanDefinitions(Resource resource) throws BeanDefinitionStoreException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Loading bean definition snapshot from " + resource);
+		}
+		try (InputStream is = resource.getInputStream()) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new BeanDefinitionStoreException(resource.getDescription(),
+						"Not a bean definition snapshot or unsupported snapshot version");
+			}
+			checkProfiles(resource, readStringArray(in));
+			checkConditionInputs(resource, in);
+
+			Map<String, String> importingClasses = new ConcurrentHashMap<>();
+			int importCount = in.readInt();
+			for (int i = 0; i < importCount; i++) {
+				importingClasses.put(in.readUTF(), in.readUTF());
+			}
+			registerImportRegistry(importingClasses);
+
+			BeanDefinitionRegistry registry = getRegistry();
+			int beanCount = in.readInt();
+			for (int i = 0; i < beanCount; i++) {
+				BeanDefinitionHolder holder = readBeanDefinitionHolder(in);
+				holder.getBeanDefinition().setAttribute(SNAPSHOT_ATTRIBUTE, Boolean.TRUE);
+				registry.registerBeanDefinition(holder.getBeanName(), holder.getBeanDefinition());
+				for (String alias : holder.getAliases()) {
+					registry.registerAlias(holder.getBeanName(), alias);
+				}
+			}
+			return beanCount;
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException(
+					"IOException reading bean definition snapshot from " + resource, ex);
+		}
+	}
+
+	private void checkProfiles(Resource resource, String[] snapshotProfiles) {
+		Set<String> expected = new HashSet<>(Arrays.asList(snapshotProfiles));
+		Set<String> actual = new HashSet<>(Arrays.asList(getEnvironment().getActiveProfiles()));
+		if (!expected.equals(actual)) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					"Bean definition snapshot has been written for active profiles " + expected +
+					" but the current environment has active profiles " + actual);
+		}
+	}
+
+	private void checkConditionInputs(Resource resource, DataInputStream in) throws IOException {
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			String name = in.readUTF();
+			String value = readNullableString(in);
+			if (!ObjectUtils.nullSafeEquals(value, getEnvironment().getProperty(name))) {
+				throw new BeanDefinitionStoreException(resource.getDescription(),
+						"Bean definition snapshot has been written for a different value of property '" +
+						name + "' evaluated by a condition");
+			}
+		}
+		int placeholderCount = in.readInt();
+		for (int i = 0; i < placeholderCount; i++) {
+			String text = in.readUTF();
+			String value = in.readUTF();
+			if (!value.equals(getEnvironment().resolvePlaceholders(text))) {
+				throw new BeanDefinitionStoreException(resource.getDescription(),
+						"Bean definition snapshot has been written for a different resolution of '" +
+						text + "' evaluated by a condition");
+			}
+		}
+		int classCount = in.readInt();
+		for (int i = 0; i < classCount; i++) {
+			String className = in.readUTF();
+			boolean present = in.readBoolean();
+			if (present != ClassUtils.isPresent(className, getBeanClassLoader())) {
+				throw new BeanDefinitionStoreException(resource.getDescription(),
+						"Bean definition snapshot has been written with class [" + className + "] " +
+						(present ? "present" : "absent") + " on the classpath, as evaluated by a condition");
+			}
+		}
+	}
+
+	private void registerImportRegistry(Map<String, String> importingClasses) {
+		if (importingClasses.isEmpty()) {
+			return;
+		}
+		BeanDefinitionRegistry registry = getRegistry();
+		SingletonBeanRegistry sbr = null;
+		if (registry instanceof SingletonBeanRegistry) {
+			sbr = (SingletonBeanRegistry) registry;
+		}
+		else if (registry instanceof ConfigurableApplicationContext) {
+			sbr = ((ConfigurableApplicationContext) registry).getBeanFactory();
+		}
+		String beanName = ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME;
+		if (sbr != null && !sbr.containsSingleton(beanName)) {
+			sbr.registerSingleton(beanName, new SnapshotImportRegistry(importingClasses, getBeanClassLoader()));
+		}
+	}
+
+	private BeanDefinitionHolder readBeanDefinitionHolder(DataInputStream in) throws IOException {
+		String beanName = in.readUTF();
+		String[] aliases = readStringArray(in);
+		return new BeanDefinitionHolder(readBeanDefinition(in), beanName, aliases);
+	}
+
+	private AbstractBeanDefinition readBeanDefinition(DataInputStream in) throws IOException {
+		String parentName = readNullableString(in);
+		boolean beanMethod = in.readBoolean();
+		AbstractBeanDefinition bd;
+		if (parentName != null) {
+			bd = new GenericBeanDefinition();
+			bd.setParentName(parentName);
+		}
+		else if (beanMethod) {
+			bd = new BeanMethodDefinition();
+		}
+		else {
+			bd = new RootBeanDefinition();
+		}
+
+		bd.setBeanClassName(readNullableString(in));
+		bd.setScope(in.readUTF());
+		bd.setAbstract(in.readBoolean());
+		byte lazyInit = in.readByte();
+		if (lazyInit != NULL) {
+			bd.setLazyInit(lazyInit == 1);
+		}
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		String[] dependsOn = readStringArray(in);
+		bd.setDependsOn(dependsOn.length > 0 ? dependsOn : null);
+		bd.setAutowireCandidate(in.readBoolean());
+		bd.setPrimary(in.readBoolean());
+		int qualifierCount = in.readInt();
+		for (int i = 0; i < qualifierCount; i++) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(in.readUTF());
+			int attributeCount = in.readInt();
+			for (int j = 0; j < attributeCount; j++) {
+				qualifier.setAttribute(in.readUTF(), readValue(in));
+			}
+			bd.addQualifier(qualifier);
+		}
+		bd.setNonPublicAccessAllowed(in.readBoolean());
+		bd.setLenientConstructorResolution(in.readBoolean());
+		bd.setFactoryBeanName(readNullableString(in));
+		String factoryMethodName = readNullableString(in);
+		boolean uniqueFactoryMethod = in.readBoolean();
+		if (factoryMethodName != null) {
+			if (uniqueFactoryMethod && bd instanceof RootBeanDefinition) {
+				((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+			}
+			else {
+				bd.setFactoryMethodName(factoryMethodName);
+			}
+		}
+		int overrideCount = in.readInt();
+		for (int i = 0; i < overrideCount; i++) {
+			bd.getMethodOverrides().addOverride(new LookupOverride(in.readUTF(), readNullableString(in)));
+		}
+		bd.setInitMethodName(readNullableString(in));
+		bd.setEnforceInitMethod(in.readBoolean());
+		bd.setDestroyMethodName(readNullableString(in));
+		bd.setEnforceDestroyMethod(in.readBoolean());
+		bd.setSynthetic(in.readBoolean());
+		bd.setRole(in.readInt());
+		bd.setDescription(readNullableString(in));
+		bd.setResourceDescription(readNullableString(in));
+
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		int indexedCount = in.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = in.readInt();
+			cav.addIndexedArgumentValue(index, readValueHolder(in));
+		}
+		int genericCount = in.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cav.addGenericArgumentValue(readValueHolder(in));
+		}
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			bd.getPropertyValues().add(in.readUTF(), readValue(in));
+		}
+		int attributeCount = in.readInt();
+		for (int i = 0; i < attributeCount; i++) {
+			bd.setAttribute(in.readUTF(), readValue(in));
+		}
+		if (in.readBoolean()) {
+			((RootBeanDefinition) bd).setDecoratedDefinition(readBeanDefinitionHolder(in));
+		}
+		return bd;
+	}
+
+	private ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream in) throws IOException {
+		Object value = readValue(in);
+		String type = readNullableString(in);
+		String name = readNullableString(in);
+		return new ConstructorArgumentValues.ValueHolder(value, type, name);
+	}
+
+	@Nullable
+	private Object readValue(DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return in.readUTF();
+			case TYPED_STRING:
+				String value = readNullableString(in);
+				String targetTypeName = readNullableString(in);
+				return (targetTypeName != null ? new TypedStringValue(value, targetTypeName) : new TypedStringValue(value));
+			case BEAN_REFERENCE:
+				String beanName = in.readUTF();
+				return new RuntimeBeanReference(beanName, in.readBoolean());
+			case BEAN_NAME_REFERENCE:
+				return new RuntimeBeanNameReference(in.readUTF());
+			case BOOLEAN:
+				return in.readBoolean();
+			case INTEGER:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case CLASS:
+				return new TypedStringValue(in.readUTF(), Class.class);
+			case INNER_BEAN:
+				return readBeanDefinitionHolder(in);
+			case LIST:
+				ManagedList<Object> list = new ManagedList<>();
+				list.setElementTypeName(readNullableString(in));
+				list.setMergeEnabled(in.readBoolean());
+				int listSize = in.readInt();
+				for (int i = 0; i < listSize; i++) {
+					list.add(readValue(in));
+				}
+				return list;
+			case SET:
+				ManagedSet<Object> set = new ManagedSet<>();
+				set.setElementTypeName(readNullableString(in));
+				set.setMergeEnabled(in.readBoolean());
+				int setSize = in.readInt();
+				for (int i = 0; i < setSize; i++) {
+					set.add(readValue(in));
+				}
+				return set;
+			case MAP:
+				ManagedMap<Object, Object> map = new ManagedMap<>();
+				map.setKeyTypeName(readNullableString(in));
+				map.setValueTypeName(readNullableString(in));
+				map.setMergeEnabled(in.readBoolean());
+				int entryCount = in.readInt();
+				for (int i = 0; i < entryCount; i++) {
+					map.put(readValue(in), readValue(in));
+				}
+				return map;
+			case PROPERTIES:
+				ManagedProperties props = new ManagedProperties();
+				props.setMergeEnabled(in.readBoolean());
+				int propCount = in.readInt();
+				for (int i = 0; i < propCount; i++) {
+					props.put(readValue(in), readValue(in));
+				}
+				return props;
+			case STRING_ARRAY:
+				return readStringArray(in);
+			default:
+				throw new IOException("Unknown value tag in bean definition snapshot: " + tag);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static String[] readStringArray(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		String[] array = new String[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = in.readUTF();
+		}
+		return array;
+	}
+
+
+	/**
+	 * {@link RootBeanDefinition} for a {@link Bean @Bean} method restored from a snapshot,
+	 * only considering {@code @Bean}-annotated methods as factory methods like the
+	 * definitions originally registered for configuration classes.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition {
+
+		BeanMethodDefinition() {
+		}
+
+		private BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting the importing
+	 * class on demand only.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = importingClasses;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			return AnnotationMetadata.introspect(ClassUtils.resolveClassName(importingClass, this.classLoader));
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
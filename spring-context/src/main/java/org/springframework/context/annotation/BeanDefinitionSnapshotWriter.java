@@ -0,0 +1,465 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.MethodOverride;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.BEAN_NAME_REFERENCE;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.BEAN_REFERENCE;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.BOOLEAN;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.CLASS;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.INNER_BEAN;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.INTEGER;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.LIST;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.LONG;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.MAGIC;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.MAP;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.NULL;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.PROPERTIES;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.SET;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.STRING;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.STRING_ARRAY;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.TYPED_STRING;
+import static org.springframework.context.annotation.BeanDefinitionSnapshotReader.VERSION;
+
+/**
+ * Build-time tool capturing the bean definitions of an application context after
+ * configuration class parsing and component scanning, for restoring them at runtime
+ * through a {@link BeanDefinitionSnapshotReader} without repeating that work.
+ *
+ * <p>The given context gets prepared via
+ * {@link GenericApplicationContext#refreshForBeanDefinitionSnapshot()}: only
+ * {@link org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor
+ * BeanDefinitionRegistryPostProcessors} are applied, so placeholders remain
+ * unresolved and no application bean gets instantiated. Bean definitions that
+ * cannot be described declaratively, e.g. ones with an instance supplier or with
+ * arbitrary objects as property values, are rejected with an exception.
+ *
+ * <p>Can also be run as a command line tool, with the snapshot file as first
+ * argument followed by the names of the configuration classes to register:
+ * <pre class="code">
+ * java org.springframework.context.annotation.BeanDefinitionSnapshotWriter app.snapshot com.example.AppConfig
+ * </pre>
+ * Active profiles get picked up from the {@code spring.profiles.active} system
+ * property as usual; the runtime environment has to activate the same profiles.
+ *
+ * <p>The inputs of the {@link Condition Conditions} evaluated while preparing
+ * the context are recorded as well: environment properties and placeholders
+ * resolved through the {@link ConditionContext} and classes looked up through
+ * its ClassLoader. The runtime environment has to resolve them the same way.
+ * Conditions evaluated when registering classes with the given context, before
+ * the snapshot gets written, are not covered.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see BeanDefinitionSnapshotReader
+ */
+public class BeanDefinitionSnapshotWriter {
+
+	private final GenericApplicationContext context;
+
+	/** Index for naming anonymous inner bean definitions deterministically. */
+	private int innerBeanIndex;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotWriter for the given context.
+	 * @param context the context to capture, with its configuration classes or
+	 * other bean definitions registered but not refreshed yet
+	 */
+	public BeanDefinitionSnapshotWriter(GenericApplicationContext context) {
+		Assert.notNull(context, "GenericApplicationContext must not be null");
+		this.context = context;
+	}
+
+
+	/**
+	 * Prepare the context and write a snapshot of its bean definitions to the given file.
+	 * @param file the target file
+	 * @throws IOException in case of I/O errors
+	 */
+	public void write(File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Prepare the context and write a snapshot of its bean definitions to the given stream.
+	 * @param out the target stream (left open)
+	 * @throws IOException in case of I/O errors
+	 * @throws IllegalStateException if a bean definition cannot be captured
+	 */
+	public void write(OutputStream out) throws IOException {
+		ConditionInputRecorder conditionInputs = ConditionInputRecorder.start();
+		try {
+			this.context.refreshForBeanDefinitionSnapshot();
+		}
+		finally {
+			ConditionInputRecorder.stop();
+		}
+		this.innerBeanIndex = 0;
+		DefaultListableBeanFactory beanFactory = this.context.getDefaultListableBeanFactory();
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+
+		DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		writeStringArray(dos, this.context.getEnvironment().getActiveProfiles());
+		writeConditionInputs(dos, conditionInputs);
+
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		if (beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			ImportRegistry importRegistry = (ImportRegistry)
+					beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+			for (String beanName : beanNames) {
+				String className = beanFactory.getBeanDefinition(beanName).getBeanClassName();
+				if (className != null && importRegistry != null) {
+					AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+					if (importingClass != null) {
+						importingClasses.put(className, importingClass.getClassName());
+					}
+				}
+			}
+		}
+		dos.writeInt(importingClasses.size());
+		for (Map.Entry<String, String> entry : importingClasses.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeUTF(entry.getValue());
+		}
+
+		dos.writeInt(beanNames.length);
+		for (String beanName : beanNames) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+			writeBeanDefinitionHolder(dos, new BeanDefinitionHolder(bd, beanName, beanFactory.getAliases(beanName)));
+		}
+		dos.flush();
+	}
+
+	private void writeConditionInputs(DataOutputStream out, ConditionInputRecorder conditionInputs)
+			throws IOException {
+
+		Map<String, String> properties = conditionInputs.getProperties();
+		out.writeInt(properties.size());
+		for (Map.Entry<String, String> entry : properties.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeNullableString(out, entry.getValue());
+		}
+		Map<String, String> placeholders = conditionInputs.getPlaceholders();
+		out.writeInt(placeholders.size());
+		for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+		Map<String, Boolean> classes = conditionInputs.getClasses();
+		out.writeInt(classes.size());
+		for (Map.Entry<String, Boolean> entry : classes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeBoolean(entry.getValue());
+		}
+	}
+
+	private void writeBeanDefinitionHolder(DataOutputStream out, BeanDefinitionHolder holder) throws IOException {
+		out.writeUTF(holder.getBeanName());
+		writeStringArray(out, holder.getAliases() != null ? holder.getAliases() : new String[0]);
+		writeBeanDefinition(out, holder.getBeanName(), holder.getBeanDefinition());
+	}
+
+	private void writeBeanDefinition(DataOutputStream out, String beanName, BeanDefinition beanDefinition)
+			throws IOException {
+
+		if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' since it is not an AbstractBeanDefinition: " + beanDefinition);
+		}
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+		if (bd.getInstanceSupplier() != null) {
+			throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+					"' with an instance supplier: register it programmatically at runtime instead");
+		}
+
+		writeNullableString(out, bd.getParentName());
+		out.writeBoolean(bd instanceof AnnotatedBeanDefinition &&
+				((AnnotatedBeanDefinition) bd).getFactoryMethodMetadata() != null);
+		writeNullableString(out, bd.getBeanClassName());
+		out.writeUTF(bd.getScope());
+		out.writeBoolean(bd.isAbstract());
+		Boolean lazyInit = bd.getLazyInit();
+		out.writeByte(lazyInit == null ? NULL : (lazyInit ? 1 : 2));
+		out.writeInt(bd.getAutowireMode());
+		out.writeInt(bd.getDependencyCheck());
+		writeStringArray(out, bd.getDependsOn() != null ? bd.getDependsOn() : new String[0]);
+		out.writeBoolean(bd.isAutowireCandidate());
+		out.writeBoolean(bd.isPrimary());
+		Set<AutowireCandidateQualifier> qualifiers = bd.getQualifiers();
+		out.writeInt(qualifiers.size());
+		for (AutowireCandidateQualifier qualifier : qualifiers) {
+			out.writeUTF(qualifier.getTypeName());
+			String[] attributeNames = qualifier.attributeNames();
+			out.writeInt(attributeNames.length);
+			for (String attributeName : attributeNames) {
+				out.writeUTF(attributeName);
+				writeValue(out, beanName, qualifier.getAttribute(attributeName));
+			}
+		}
+		out.writeBoolean(bd.isNonPublicAccessAllowed());
+		out.writeBoolean(bd.isLenientConstructorResolution());
+		writeNullableString(out, bd.getFactoryBeanName());
+		writeNullableString(out, bd.getFactoryMethodName());
+		out.writeBoolean(bd instanceof RootBeanDefinition && ((RootBeanDefinition) bd).isFactoryMethodUnique());
+		Set<MethodOverride> overrides = (bd.hasMethodOverrides() ?
+				bd.getMethodOverrides().getOverrides() : Collections.emptySet());
+		out.writeInt(overrides.size());
+		for (MethodOverride override : overrides) {
+			if (!(override instanceof LookupOverride)) {
+				throw new IllegalStateException("Cannot capture method override " + override +
+						" in bean definition '" + beanName + "': only lookup methods are supported");
+			}
+			out.writeUTF(override.getMethodName());
+			writeNullableString(out, ((LookupOverride) override).getBeanName());
+		}
+		writeNullableString(out, bd.getInitMethodName());
+		out.writeBoolean(bd.isEnforceInitMethod());
+		writeNullableString(out, bd.getDestroyMethodName());
+		out.writeBoolean(bd.isEnforceDestroyMethod());
+		out.writeBoolean(bd.isSynthetic());
+		out.writeInt(bd.getRole());
+		writeNullableString(out, bd.getDescription());
+		writeNullableString(out, bd.getResourceDescription());
+
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		Map<Integer, ConstructorArgumentValues.ValueHolder> indexed = cav.getIndexedArgumentValues();
+		out.writeInt(indexed.size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexed.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeValueHolder(out, beanName, entry.getValue());
+		}
+		List<ConstructorArgumentValues.ValueHolder> generic = cav.getGenericArgumentValues();
+		out.writeInt(generic.size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : generic) {
+			writeValueHolder(out, beanName, valueHolder);
+		}
+		PropertyValue[] pvs = bd.getPropertyValues().getPropertyValues();
+		out.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			out.writeUTF(pv.getName());
+			writeValue(out, beanName, pv.getValue());
+		}
+
+		// Only simple attributes are carried over: anything else is metadata
+		// for the parsing phase that is not needed at runtime.
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		for (String attributeName : bd.attributeNames()) {
+			Object value = bd.getAttribute(attributeName);
+			if (value instanceof String || value instanceof Boolean ||
+					value instanceof Integer || value instanceof Long) {
+				attributes.put(attributeName, value);
+			}
+		}
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, beanName, entry.getValue());
+		}
+
+		BeanDefinitionHolder decorated = (bd instanceof RootBeanDefinition && bd.getParentName() == null ?
+				((RootBeanDefinition) bd).getDecoratedDefinition() : null);
+		out.writeBoolean(decorated != null);
+		if (decorated != null) {
+			writeBeanDefinitionHolder(out, decorated);
+		}
+	}
+
+	private void writeValueHolder(DataOutputStream out, String beanName,
+			ConstructorArgumentValues.ValueHolder valueHolder) throws IOException {
+
+		writeValue(out, beanName, valueHolder.getValue());
+		writeNullableString(out, valueHolder.getType());
+		writeNullableString(out, valueHolder.getName());
+	}
+
+	private void writeValue(DataOutputStream out, String beanName, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			out.writeByte(TYPED_STRING);
+			writeNullableString(out, typedValue.getValue());
+			writeNullableString(out, typedValue.hasTargetType() ?
+					typedValue.getTargetType().getName() : typedValue.getTargetTypeName());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			out.writeByte(BEAN_REFERENCE);
+			out.writeUTF(reference.getBeanName());
+			out.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			out.writeByte(BEAN_NAME_REFERENCE);
+			out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Class) {
+			out.writeByte(CLASS);
+			out.writeUTF(((Class<?>) value).getName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			out.writeByte(INNER_BEAN);
+			writeBeanDefinitionHolder(out, (BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			out.writeByte(INNER_BEAN);
+			// Name by position rather than identity, for a reproducible snapshot
+			writeBeanDefinitionHolder(out, new BeanDefinitionHolder((BeanDefinition) value,
+					beanName + "#" + this.innerBeanIndex++));
+		}
+		else if (value instanceof List) {
+			out.writeByte(LIST);
+			writeNullableString(out, value instanceof ManagedList ? ((ManagedList<?>) value).getElementTypeName() : null);
+			out.writeBoolean(value instanceof ManagedList && ((ManagedList<?>) value).isMergeEnabled());
+			writeElements(out, beanName, (List<?>) value);
+		}
+		else if (value instanceof Set) {
+			out.writeByte(SET);
+			writeNullableString(out, value instanceof ManagedSet ? ((ManagedSet<?>) value).getElementTypeName() : null);
+			out.writeBoolean(value instanceof ManagedSet && ((ManagedSet<?>) value).isMergeEnabled());
+			writeElements(out, beanName, (Set<?>) value);
+		}
+		else if (value instanceof Properties) {
+			out.writeByte(PROPERTIES);
+			out.writeBoolean(value instanceof ManagedProperties && ((ManagedProperties) value).isMergeEnabled());
+			writeEntries(out, beanName, (Properties) value);
+		}
+		else if (value instanceof Map) {
+			out.writeByte(MAP);
+			ManagedMap<?, ?> managedMap = (value instanceof ManagedMap ? (ManagedMap<?, ?>) value : null);
+			writeNullableString(out, managedMap != null ? managedMap.getKeyTypeName() : null);
+			writeNullableString(out, managedMap != null ? managedMap.getValueTypeName() : null);
+			out.writeBoolean(managedMap != null && managedMap.isMergeEnabled());
+			writeEntries(out, beanName, (Map<?, ?>) value);
+		}
+		else if (value instanceof String[]) {
+			out.writeByte(STRING_ARRAY);
+			writeStringArray(out, (String[]) value);
+		}
+		else {
+			throw new IllegalStateException("Cannot capture value of type [" + value.getClass().getName() +
+					"] in bean definition '" + beanName + "'");
+		}
+	}
+
+	private void writeElements(DataOutputStream out, String beanName, Collection<?> elements) throws IOException {
+		out.writeInt(elements.size());
+		for (Object element : elements) {
+			writeValue(out, beanName, element);
+		}
+	}
+
+	private void writeEntries(DataOutputStream out, String beanName, Map<?, ?> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeValue(out, beanName, entry.getKey());
+			writeValue(out, beanName, entry.getValue());
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static void writeStringArray(DataOutputStream out, String[] array) throws IOException {
+		out.writeInt(array.length);
+		for (String element : array) {
+			out.writeUTF(element);
+		}
+	}
+
+
+	/**
+	 * Write a snapshot for the given configuration classes.
+	 * @param args the target file, followed by the fully-qualified names of
+	 * the configuration classes to register
+	 * @throws IllegalArgumentException if not enough arguments have been given
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			throw new IllegalArgumentException(
+					"Usage: BeanDefinitionSnapshotWriter <snapshot file> <configuration class>...");
+		}
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		for (int i = 1; i < args.length; i++) {
+			context.register(ClassUtils.forName(args[i], context.getClassLoader()));
+		}
+		new BeanDefinitionSnapshotWriter(context).write(new File(args[0]));
+	}
+
+}
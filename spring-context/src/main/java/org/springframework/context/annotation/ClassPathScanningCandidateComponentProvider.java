@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,6 +38,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -79,6 +82,7 @@ import org.springframework.util.ClassUtils;
  * @author Ramnivas Laddad
  * @author Chris Beams
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 2.5
  * @see org.springframework.core.type.classreading.MetadataReaderFactory
  * @see org.springframework.core.type.AnnotationMetadata
@@ -89,6 +93,18 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that instructs Spring to read the class files found during
+	 * classpath scanning in parallel: "spring.context.scanning.parallel".
+	 * <p>The default is "false". Consider switching this flag to "true" for
+	 * large classpaths; see {@link #setParallelScanning} for details.
+	 * @since 5.3
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.context.scanning.parallel";
+
+	/** Maximum number of resources to read per fork-join subtask. */
+	private static final int PARALLEL_SCANNING_BATCH_SIZE = 16;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -98,6 +114,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	private final List<TypeFilter> excludeFilters = new LinkedList<>();
 
+	private boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 	@Nullable
 	private Environment environment;
 
@@ -162,6 +180,28 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set whether to read and parse the class files of a base package in parallel,
+	 * using the common {@link ForkJoinPool}.
+	 * <p>Include and exclude filters as well as {@code @Conditional} evaluation
+	 * still run on the calling thread, in classpath order, so the resulting
+	 * candidates are the same as for sequential scanning.
+	 * <p>Default is "false", unless the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * flag has been set.
+	 * @since 5.3
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether class files get read and parsed in parallel.
+	 * @since 5.3
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -421,13 +461,24 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			// Read class file metadata in parallel; filters and conditions still get
+			// evaluated on the calling thread, in classpath order
+			Object[] prefetched = (this.parallelScanning && resources.length > 1 ?
+					readMetadataInParallel(resources) : null);
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				Object result = (prefetched != null ? prefetched[i] : null);
+				if (result instanceof Throwable) {
+					throw new BeanDefinitionStoreException(
+							"Failed to read candidate component class: " + resource, (Throwable) result);
+				}
+				if (prefetched != null ? result != null : resource.isReadable()) {
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (result != null ? (MetadataReader) result :
+								getMetadataReaderFactory().getMetadataReader(resource));
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setResource(resource);
@@ -469,6 +520,21 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	}
 
 
+	/**
+	 * Read the metadata for the given resources on the common {@link ForkJoinPool}.
+	 * @param resources the resources to read
+	 * @return an array aligned with the given resources, containing a
+	 * {@link MetadataReader}, the {@link Throwable} thrown on reading,
+	 * or {@code null} for a resource that is not readable
+	 */
+	private Object[] readMetadataInParallel(Resource[] resources) {
+		Object[] results = new Object[resources.length];
+		ForkJoinPool.commonPool().invoke(
+				new MetadataReadingTask(getMetadataReaderFactory(), resources, results, 0, resources.length));
+		return results;
+	}
+
+
 	/**
 	 * Resolve the specified base package into a pattern specification for
 	 * the package search path.
@@ -541,4 +607,56 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	/**
+	 * Fork-join task that reads the metadata of a range of resources,
+	 * splitting the range in halves down to {@link #PARALLEL_SCANNING_BATCH_SIZE}.
+	 */
+	@SuppressWarnings("serial")
+	private static class MetadataReadingTask extends RecursiveAction {
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		private final Resource[] resources;
+
+		private final Object[] results;
+
+		private final int from;
+
+		private final int to;
+
+		MetadataReadingTask(MetadataReaderFactory metadataReaderFactory,
+				Resource[] resources, Object[] results, int from, int to) {
+
+			this.metadataReaderFactory = metadataReaderFactory;
+			this.resources = resources;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= PARALLEL_SCANNING_BATCH_SIZE) {
+				for (int i = this.from; i < this.to; i++) {
+					Resource resource = this.resources[i];
+					try {
+						if (resource.isReadable()) {
+							this.results[i] = this.metadataReaderFactory.getMetadataReader(resource);
+						}
+					}
+					catch (Throwable ex) {
+						this.results[i] = ex;
+					}
+				}
+			}
+			else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(
+						new MetadataReadingTask(this.metadataReaderFactory, this.resources, this.results, this.from, middle),
+						new MetadataReadingTask(this.metadataReaderFactory, this.resources, this.results, middle, this.to));
+			}
+		}
+	}
+
 }
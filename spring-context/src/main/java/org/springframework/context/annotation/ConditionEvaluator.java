@@ -100,12 +100,13 @@ class ConditionEvaluator {
 
 		AnnotationAwareOrderComparator.sort(conditions);
 
+		ConditionContext context = ConditionInputRecorder.recordingContextFor(this.context);
 		for (Condition condition : conditions) {
 			ConfigurationPhase requiredPhase = null;
 			if (condition instanceof ConfigurationCondition) {
 				requiredPhase = ((ConfigurationCondition) condition).getConfigurationPhase();
 			}
-			if ((requiredPhase == null || requiredPhase == phase) && !condition.matches(this.context, metadata)) {
+			if ((requiredPhase == null || requiredPhase == phase) && !condition.matches(context, metadata)) {
 				return true;
 			}
 		}
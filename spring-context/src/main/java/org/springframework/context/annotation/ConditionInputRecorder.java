@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Records the inputs that {@link Condition Conditions} evaluate on the current
+ * thread: the environment properties and placeholders they resolve and the
+ * classes they look up through the {@link ConditionContext}. Used by
+ * {@link BeanDefinitionSnapshotWriter} for rejecting a snapshot at runtime
+ * if any of these inputs differs.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see ConditionEvaluator
+ */
+final class ConditionInputRecorder {
+
+	private static final ThreadLocal<ConditionInputRecorder> currentRecorder =
+			new NamedThreadLocal<>("Current condition input recorder");
+
+
+	/** Resolved values of the environment properties read, keyed by property name. */
+	private final Map<String, String> properties = new TreeMap<>();
+
+	/** Resolved values of the placeholders read, keyed by the text to resolve. */
+	private final Map<String, String> placeholders = new TreeMap<>();
+
+	/** Presence of the classes looked up, keyed by class name. */
+	private final Map<String, Boolean> classes = new TreeMap<>();
+
+
+	private ConditionInputRecorder() {
+	}
+
+
+	/**
+	 * Start recording condition inputs on the current thread.
+	 * @return the recorder to retrieve the inputs from
+	 */
+	static ConditionInputRecorder start() {
+		ConditionInputRecorder recorder = new ConditionInputRecorder();
+		currentRecorder.set(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Stop recording condition inputs on the current thread.
+	 */
+	static void stop() {
+		currentRecorder.remove();
+	}
+
+	/**
+	 * Return the given context, or a context recording its inputs if
+	 * condition inputs are currently being recorded on this thread.
+	 */
+	static ConditionContext recordingContextFor(ConditionContext context) {
+		ConditionInputRecorder recorder = currentRecorder.get();
+		return (recorder != null ? recorder.new RecordingConditionContext(context) : context);
+	}
+
+
+	/**
+	 * Return the recorded environment properties, with their values at the time of recording.
+	 */
+	Map<String, String> getProperties() {
+		return Collections.unmodifiableMap(this.properties);
+	}
+
+	/**
+	 * Return the recorded placeholder texts, with their resolved values at the time of recording.
+	 */
+	Map<String, String> getPlaceholders() {
+		return Collections.unmodifiableMap(this.placeholders);
+	}
+
+	/**
+	 * Return the recorded class names, with whether they were present.
+	 */
+	Map<String, Boolean> getClasses() {
+		return Collections.unmodifiableMap(this.classes);
+	}
+
+	private Environment recordingEnvironment(Environment environment) {
+		List<Class<?>> interfaces = new ArrayList<>();
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(environment.getClass())) {
+			if (Modifier.isPublic(ifc.getModifiers())) {
+				interfaces.add(ifc);
+			}
+		}
+		return (Environment) Proxy.newProxyInstance(environment.getClass().getClassLoader(),
+				ClassUtils.toClassArray(interfaces), new RecordingEnvironmentHandler(environment));
+	}
+
+
+	/**
+	 * {@link ConditionContext} recording the inputs read through its
+	 * environment and class loader.
+	 */
+	private class RecordingConditionContext implements ConditionContext {
+
+		private final ConditionContext context;
+
+		private final Environment environment;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		RecordingConditionContext(ConditionContext context) {
+			this.context = context;
+			this.environment = recordingEnvironment(context.getEnvironment());
+			ClassLoader classLoader = context.getClassLoader();
+			this.classLoader = (classLoader != null ? new RecordingClassLoader(classLoader) : null);
+		}
+
+		@Override
+		public BeanDefinitionRegistry getRegistry() {
+			return this.context.getRegistry();
+		}
+
+		@Override
+		@Nullable
+		public ConfigurableListableBeanFactory getBeanFactory() {
+			return this.context.getBeanFactory();
+		}
+
+		@Override
+		public Environment getEnvironment() {
+			return this.environment;
+		}
+
+		@Override
+		public ResourceLoader getResourceLoader() {
+			return this.context.getResourceLoader();
+		}
+
+		@Override
+		@Nullable
+		public ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+	}
+
+
+	/**
+	 * Handler for an {@link Environment} proxy recording the properties
+	 * and placeholders resolved through it.
+	 */
+	private class RecordingEnvironmentHandler implements InvocationHandler {
+
+		private final Environment environment;
+
+		RecordingEnvironmentHandler(Environment environment) {
+			this.environment = environment;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, @Nullable Object[] args) throws Throwable {
+			String methodName = method.getName();
+			if (methodName.equals("equals") && args != null && args.length == 1) {
+				return (proxy == args[0]);
+			}
+			if (methodName.equals("hashCode") && method.getParameterCount() == 0) {
+				return System.identityHashCode(proxy);
+			}
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				String key = (String) args[0];
+				if (methodName.equals("containsProperty") || methodName.equals("getProperty") ||
+						methodName.equals("getRequiredProperty")) {
+					properties.put(key, this.environment.getProperty(key));
+				}
+				else if (methodName.equals("resolvePlaceholders") || methodName.equals("resolveRequiredPlaceholders")) {
+					placeholders.put(key, this.environment.resolvePlaceholders(key));
+				}
+			}
+			try {
+				return method.invoke(this.environment, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+
+	/**
+	 * ClassLoader recording the classes looked up through it, delegating
+	 * the actual loading to the original ClassLoader.
+	 */
+	private class RecordingClassLoader extends ClassLoader {
+
+		RecordingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			try {
+				Class<?> clazz = super.loadClass(name, resolve);
+				classes.put(name, Boolean.TRUE);
+				return clazz;
+			}
+			catch (ClassNotFoundException ex) {
+				classes.put(name, Boolean.FALSE);
+				throw ex;
+			}
+		}
+	}
+
+}
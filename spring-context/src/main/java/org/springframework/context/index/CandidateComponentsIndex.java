@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,15 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,18 +47,32 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>As of 5.3, the index also exposes the attributes of the indexed components that
+ * are defined in {@code META-INF/spring.components.metadata}, see
+ * {@link #getComponentAttribute(String, String)}.
+ *
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 5.0
  */
 public class CandidateComponentsIndex {
 
 	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
 
+	private static final String ATTRIBUTE_SEPARATOR = "/";
+
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, String> attributes;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> attributes) {
 		this.index = parseIndex(content);
+		this.attributes = parseAttributes(attributes);
 	}
 
 
@@ -76,6 +94,62 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the value of the specified attribute of an indexed component.
+	 * @param type the fully qualified name of the component
+	 * @param attributeName the name of the attribute, e.g. {@code injection}
+	 * @return the value of the attribute, or {@code null} if it is not
+	 * recorded for the specified {@code type}
+	 * @since 5.3
+	 */
+	@Nullable
+	public String getComponentAttribute(String type, String attributeName) {
+		return this.attributes.get(type + ATTRIBUTE_SEPARATOR + attributeName);
+	}
+
+	/**
+	 * Return the members declared by an indexed component that belong to the
+	 * specified category, e.g. the fields and methods carrying an injection
+	 * annotation. Inherited members are not included.
+	 * <p>Fields are identified by their name, methods and constructors by their
+	 * name followed by their parenthesized, comma-separated parameter types,
+	 * e.g. {@code setName(java.lang.String)}.
+	 * @param type the fully qualified name of the component
+	 * @param category the member category, e.g. {@code injection} or {@code lifecycle}
+	 * @return the members in declaration order (possibly empty if the component
+	 * has no such member), or {@code null} if the category is not recorded for
+	 * the specified {@code type}
+	 * @since 5.3
+	 */
+	@Nullable
+	public Set<String> getAnnotatedMembers(String type, String category) {
+		String members = getComponentAttribute(type, category);
+		if (members == null) {
+			return null;
+		}
+		if (members.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<>();
+		int start = 0;
+		int depth = 0;
+		for (int i = 0; i < members.length(); i++) {
+			char c = members.charAt(i);
+			if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (c == ',' && depth == 0) {
+				result.add(members.substring(start, i));
+				start = i + 1;
+			}
+		}
+		result.add(members.substring(start));
+		return result;
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +163,14 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, String> parseAttributes(List<Properties> content) {
+		Map<String, String> attributes = new HashMap<>();
+		for (Properties entry : content) {
+			entry.forEach((key, value) -> attributes.put((String) key, (String) value));
+		}
+		return attributes;
+	}
+
 	private static class Entry {
 		private final String type;
 		private final String packageName;
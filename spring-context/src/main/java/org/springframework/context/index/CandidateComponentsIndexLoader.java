@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ import org.springframework.util.ConcurrentReferenceHashMap;
  * Candidate components index loading mechanism for internal use within the framework.
  *
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 5.0
  */
 public final class CandidateComponentsIndexLoader {
@@ -47,6 +48,14 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the attributes of the indexed components.
+	 * <p>Can be present in multiple JAR files, next to the
+	 * {@value #COMPONENTS_RESOURCE_LOCATION} file it relates to.
+	 * @since 5.3
+	 */
+	public static final String COMPONENT_ATTRIBUTES_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -100,17 +109,16 @@ public final class CandidateComponentsIndexLoader {
 			if (!urls.hasMoreElements()) {
 				return null;
 			}
-			List<Properties> result = new ArrayList<>();
-			while (urls.hasMoreElements()) {
-				URL url = urls.nextElement();
-				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
-				result.add(properties);
-			}
+			List<Properties> result = loadProperties(urls);
 			if (logger.isDebugEnabled()) {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			if (totalCount == 0) {
+				return null;
+			}
+			List<Properties> attributes = loadProperties(classLoader.getResources(COMPONENT_ATTRIBUTES_RESOURCE_LOCATION));
+			return new CandidateComponentsIndex(result, attributes);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -118,4 +126,14 @@ public final class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static List<Properties> loadProperties(Enumeration<URL> urls) throws IOException {
+		List<Properties> result = new ArrayList<>();
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+			result.add(properties);
+		}
+		return result;
+	}
+
 }
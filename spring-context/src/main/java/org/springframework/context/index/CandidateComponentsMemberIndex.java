@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.AnnotatedMemberIndex;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link AnnotatedMemberIndex} implementation backed by the attributes that the
+ * {@code spring-context-indexer} records for indexed components.
+ *
+ * <p>Registered through {@code META-INF/spring.factories}. Classes that are not
+ * part of the {@link CandidateComponentsIndex} of their class loader (or whose
+ * index has been generated without attributes) are not covered, as well as any
+ * class if the index is ignored altogether.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see CandidateComponentsIndexLoader#COMPONENT_ATTRIBUTES_RESOURCE_LOCATION
+ */
+public class CandidateComponentsMemberIndex implements AnnotatedMemberIndex {
+
+	@Override
+	@Nullable
+	public Set<String> getAnnotatedMembers(Class<?> clazz, String category) {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(clazz.getClassLoader());
+		return (index != null ? index.getAnnotatedMembers(clazz.getName(), category) : null);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
@@ -46,6 +50,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.ApplicationStartupAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.context.EnvironmentAware;
@@ -77,7 +82,10 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -221,6 +229,16 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/** Application startup metrics. */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
+	/** Whether to instantiate the non-lazy singletons in the background after refresh. */
+	private boolean backgroundWarmUp = false;
+
+	/** Completion of the background warm-up started by the last refresh, if any. */
+	@Nullable
+	private volatile CompletableFuture<Void> warmUpCompletion;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -329,6 +347,62 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return new StandardEnvironment();
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "applicationStartup should not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
+	/**
+	 * Specify whether to instantiate the non-lazy singletons in the background,
+	 * letting {@link #refresh()} return as soon as the bean factory is set up.
+	 * <p>Singletons are then instantiated on the
+	 * {@linkplain ConfigurableApplicationContext#BOOTSTRAP_EXECUTOR_BEAN_NAME
+	 * bootstrap executor}, if any, or on a dedicated pool of daemon threads
+	 * otherwise. Singletons that the application asks for in the meantime get
+	 * created on demand, in coordination with the warm-up: a request for a
+	 * singleton that the warm-up is creating waits for it to complete.
+	 * <p>Note that {@code SmartInitializingSingleton} callbacks run in a warm-up
+	 * thread as well, once all singletons have been instantiated.
+	 * <p>As with a failure within {@code refresh()}, a singleton that cannot be
+	 * created closes the context. Closing the context in turn stops the warm-up,
+	 * waiting for the singletons in creation before destroying the beans.
+	 * <p>Default is "false", instantiating all singletons within {@code refresh()}.
+	 * @since 5.3
+	 * @see #getWarmUpCompletion()
+	 * @see ConfigurableListableBeanFactory#preInstantiateSingletonsInBackground
+	 */
+	public void setBackgroundWarmUp(boolean backgroundWarmUp) {
+		this.backgroundWarmUp = backgroundWarmUp;
+	}
+
+	/**
+	 * Return whether to instantiate the non-lazy singletons in the background.
+	 * @since 5.3
+	 */
+	public boolean isBackgroundWarmUp() {
+		return this.backgroundWarmUp;
+	}
+
+	/**
+	 * Return the completion of the background warm-up started by the last
+	 * refresh, e.g. for a readiness check that waits for all singletons.
+	 * @return the future completing once all singletons have been instantiated
+	 * (exceptionally if one of them could not be created), or {@code null}
+	 * if the context has not been refreshed with background warm-up
+	 * @since 5.3
+	 * @see #setBackgroundWarmUp
+	 */
+	@Nullable
+	public CompletableFuture<Void> getWarmUpCompletion() {
+		return this.warmUpCompletion;
+	}
+
 	/**
 	 * Return this context's internal bean factory as AutowireCapableBeanFactory,
 	 * if already available.
@@ -515,6 +589,8 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
+			StartupStep contextRefresh = this.applicationStartup.start("spring.context.refresh");
+
 			// Prepare this context for refreshing.
 			//1、准备刷新上下文环境
 			prepareRefresh();
@@ -528,10 +604,14 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			prepareBeanFactory(beanFactory);
 
 			try {
+				// Traverse each jar once for all classpath scans during this refresh.
+				setCacheJarEntries(true);
+
 				// Allows post-processing of the bean factory in context subclasses.
 				// 4、留给子类去实现该接口
 				postProcessBeanFactory(beanFactory);
 
+				StartupStep beanPostProcess = this.applicationStartup.start("spring.context.beans.post-process");
 				// Invoke factory processors registered as beans in the context.
 				// 5、调用bean工厂的后置处理器
 				invokeBeanFactoryPostProcessors(beanFactory);
@@ -539,6 +619,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// Register bean processors that intercept bean creation.
 				// 6、调用bean的后置处理器
 				registerBeanPostProcessors(beanFactory);
+				beanPostProcess.end();
 
 				// Initialize message source for this context.
 				// 7、初始化国际化资源处理器
@@ -559,7 +640,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// Instantiate all remaining (non-lazy-init) singletons.
 				// 11、实例化我们剩余的单实例bean，这一步就是为容器放Bean， 比如 service、component注解的bean
 				//     放入到一级缓存池（单例缓存池）  singletonObjects 的Map中
+				StartupStep singletonsInstantiation = this.applicationStartup.start("spring.context.singletons.instantiate");
 				finishBeanFactoryInitialization(beanFactory);
+				singletonsInstantiation.end();
 
 				// Last step: publish corresponding event.
 				// 12、最后容器刷新，发布刷新事件，spring cloud 也是从这里启动的
@@ -583,9 +666,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			}
 
 			finally {
+				// Jar entries only get cached for classpath scanning during refresh.
+				setCacheJarEntries(false);
+
 				// Reset common introspection caches in Spring's core, since we
 				// might not ever need metadata for singleton beans anymore...
 				resetCommonCaches();
+				contextRefresh.end();
 			}
 		}
 	}
@@ -670,6 +757,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		beanFactory.ignoreDependencyInterface(ApplicationEventPublisherAware.class);
 		beanFactory.ignoreDependencyInterface(MessageSourceAware.class);
 		beanFactory.ignoreDependencyInterface(ApplicationContextAware.class);
+		beanFactory.ignoreDependencyInterface(ApplicationStartupAware.class);
 
 		// BeanFactory interface not registered as resolvable type in a plain factory.
 		// MessageSource registered (and found for autowiring) as a bean.
@@ -698,6 +786,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		if (!beanFactory.containsLocalBean(SYSTEM_ENVIRONMENT_BEAN_NAME)) {
 			beanFactory.registerSingleton(SYSTEM_ENVIRONMENT_BEAN_NAME, getEnvironment().getSystemEnvironment());
 		}
+		if (!beanFactory.containsLocalBean(APPLICATION_STARTUP_BEAN_NAME)) {
+			beanFactory.registerSingleton(APPLICATION_STARTUP_BEAN_NAME, getApplicationStartup());
+		}
 	}
 
 	/**
@@ -868,6 +959,12 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 					beanFactory.getBean(CONVERSION_SERVICE_BEAN_NAME, ConversionService.class));
 		}
 
+		// Initialize bootstrap executor for parallel singleton pre-instantiation, if any.
+		if (beanFactory.containsBean(BOOTSTRAP_EXECUTOR_BEAN_NAME) &&
+				beanFactory.isTypeMatch(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class)) {
+			beanFactory.setBootstrapExecutor(beanFactory.getBean(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class));
+		}
+
 		// Register a default embedded value resolver if no bean post-processor
 		// (such as a PropertyPlaceholderConfigurer bean) registered any before:
 		// at this point, primarily for resolution in annotation attribute values.
@@ -888,7 +985,46 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		beanFactory.freezeConfiguration();
 
 		// Instantiate all remaining (non-lazy-init) singletons.
-		beanFactory.preInstantiateSingletons();
+		if (isBackgroundWarmUp()) {
+			startWarmUp(beanFactory);
+		}
+		else {
+			beanFactory.preInstantiateSingletons();
+		}
+	}
+
+	/**
+	 * Start instantiating all remaining (non-lazy-init) singletons in the background.
+	 * @param beanFactory the bean factory of this context
+	 * @see #setBackgroundWarmUp
+	 */
+	private void startWarmUp(ConfigurableListableBeanFactory beanFactory) {
+		Executor executor = beanFactory.getBootstrapExecutor();
+		ExecutorService warmUpExecutor = null;
+		if (executor == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("warm-up-");
+			threadFactory.setDaemon(true);
+			warmUpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+			executor = warmUpExecutor;
+		}
+		ExecutorService executorToShutdown = warmUpExecutor;
+		CompletableFuture<Void> warmUpCompletion = beanFactory.preInstantiateSingletonsInBackground(executor);
+		this.warmUpCompletion = warmUpCompletion;
+		warmUpCompletion.whenComplete((result, ex) -> {
+			if (executorToShutdown != null) {
+				executorToShutdown.shutdown();
+			}
+			if (ex != null) {
+				if (!this.closed.get()) {
+					// As with a failure within refresh(), do not leave a partially initialized context behind.
+					logger.error("Background warm-up of singletons failed - closing " + getDisplayName(), ex);
+					close();
+				}
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("Completed background warm-up of singletons for " + getDisplayName());
+			}
+		});
 	}
 
 	/**
@@ -922,6 +1058,26 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		this.active.set(false);
 	}
 
+	/**
+	 * Clear context-level resource caches, including the jar entries cached
+	 * by this context's {@link PathMatchingResourcePatternResolver}.
+	 * @since 5.3
+	 * @see PathMatchingResourcePatternResolver#clearCache()
+	 */
+	@Override
+	public void clearResourceCaches() {
+		super.clearResourceCaches();
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			((PathMatchingResourcePatternResolver) this.resourcePatternResolver).clearCache();
+		}
+	}
+
+	private void setCacheJarEntries(boolean cacheJarEntries) {
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			((PathMatchingResourcePatternResolver) this.resourcePatternResolver).setCacheJarEntries(cacheJarEntries);
+		}
+	}
+
 	/**
 	 * Reset Spring's common reflection metadata caches, in particular the
 	 * {@link ReflectionUtils}, {@link AnnotationUtils}, {@link ResolvableType}
@@ -1020,6 +1176,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 
 			LiveBeansView.unregisterApplicationContext(this);
 
+			// Stop the background warm-up of singletons first, if still in progress,
+			// waiting for the singletons in creation.
+			CompletableFuture<Void> warmUpCompletion = this.warmUpCompletion;
+			if (warmUpCompletion != null) {
+				warmUpCompletion.cancel(false);
+			}
+
 			try {
 				// Publish shutdown event.
 				publishEvent(new ContextClosedEvent(this));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -158,6 +159,12 @@ public class GenericApplicationContext extends AbstractApplicationContext implem
 		this.beanFactory.setParentBeanFactory(getInternalParentBeanFactory());
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		super.setApplicationStartup(applicationStartup);
+		this.beanFactory.setApplicationStartup(applicationStartup);
+	}
+
 	/**
 	 * Set whether it should be allowed to override bean definitions by registering
 	 * a different definition with the same name, automatically replacing the former.
@@ -311,6 +318,28 @@ public class GenericApplicationContext extends AbstractApplicationContext implem
 		return this.beanFactory;
 	}
 
+	/**
+	 * Complete the bean definitions of this context without refreshing it: that is,
+	 * apply all {@link org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor
+	 * BeanDefinitionRegistryPostProcessors} (e.g. configuration class parsing and
+	 * component scanning) but neither regular bean factory post-processors nor
+	 * the instantiation of any application beans.
+	 * <p>Meant for build-time tooling which captures the resulting bean definitions,
+	 * e.g. {@link org.springframework.context.annotation.BeanDefinitionSnapshotWriter}.
+	 * This context cannot be refreshed afterwards.
+	 * @throws IllegalStateException if this context has been refreshed already
+	 * @since 5.3
+	 * @see #refresh()
+	 */
+	public void refreshForBeanDefinitionSnapshot() throws IllegalStateException {
+		prepareRefresh();
+		obtainFreshBeanFactory();
+		prepareBeanFactory(this.beanFactory);
+		postProcessBeanFactory(this.beanFactory);
+		PostProcessorRegistrationDelegate.invokeBeanDefinitionRegistryPostProcessors(
+				this.beanFactory, getBeanFactoryPostProcessors());
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry
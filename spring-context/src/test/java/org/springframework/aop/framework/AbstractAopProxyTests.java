@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -860,6 +860,22 @@ public abstract class AbstractAopProxyTests {
 		assertThat(advised.getAdvisors().length).isEqualTo(0);
 	}
 
+	@Test
+	void testFrozenProxyWithExposedProxy() {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		ProxyFactory pc = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		pc.addAdvice(nop);
+		pc.setExposeProxy(true);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+		assertThat(proxied.getAge()).isEqualTo(21);
+		proxied.setAge(22);
+		assertThat(target.getAge()).isEqualTo(22);
+		assertThat(nop.getCount()).isEqualTo(2);
+	}
+
 	@Test
 	public void testUseAsHashKey() {
 		TestBean target1 = new TestBean();
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.testfixture.interceptor.NopInterceptor;
 import org.springframework.beans.testfixture.beans.IOther;
 import org.springframework.beans.testfixture.beans.ITestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
@@ -35,6 +36,7 @@ import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Chris Beams
+ * @author Tan Jiquan
  * @since 13.03.2003
  */
 @SuppressWarnings("serial")
@@ -149,6 +151,24 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 	}
 
 
+	@Test
+	void testFrozenProxyFallsBackToAdvisedChainOnceUnfrozen() {
+		TestBean target = new TestBean();
+		ProxyFactory pc = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		pc.addAdvice(nop);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+		proxied.getAge();
+		assertThat(nop.getCount()).isEqualTo(1);
+
+		pc.setFrozen(false);
+		pc.removeAdvice(nop);
+		proxied.getAge();
+		assertThat(nop.getCount()).isEqualTo(1);
+	}
+
+
 	public interface Foo {
 
 		Bar getBarThis();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,10 @@ package org.springframework.cache.concurrent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -116,6 +118,41 @@ public class ConcurrentMapCacheTests
 			.withMessageContaining("Some garbage");
 	}
 
+	@Test
+	public void testRetrieveCoalescesConcurrentLoads() {
+		String key = createRandomKey();
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<Object> pending = new CompletableFuture<>();
+
+		CompletableFuture<Object> first = this.cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<Object> second = this.cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+
+		pending.complete("george");
+		assertThat(first.join()).isEqualTo("george");
+		assertThat(second.join()).isEqualTo("george");
+		assertThat(counter.get()).isEqualTo(1);
+		assertThat(this.cache.get(key).get()).isEqualTo("george");
+	}
+
+	@Test
+	public void testRetrieveLoadsAgainAfterFailure() {
+		String key = createRandomKey();
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("Expected exception"));
+
+		assertThat(this.cache.retrieve(key, () -> failed)).isCompletedExceptionally();
+		assertThat(this.cache.retrieve(key, () -> CompletableFuture.completedFuture("george")).join())
+				.isEqualTo("george");
+	}
+
 
 	private ConcurrentMapCache createCacheWithStoreByValue() {
 		return new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true,
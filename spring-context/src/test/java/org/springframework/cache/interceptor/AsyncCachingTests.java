@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for caching methods returning a {@link CompletableFuture} or a
+ * reactive type.
+ *
+ * @author Tan Jiquan
+ */
+class AsyncCachingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private AsyncService service;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(AsyncService.class);
+	}
+
+	@AfterEach
+	void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	void cacheCompletableFutureValue() {
+		Long first = this.service.future("key").join();
+		Long second = this.service.future("key").join();
+		assertThat(second).isEqualTo(first);
+		assertThat(this.service.invocations()).isEqualTo(1);
+		// The completed value gets cached, not the future itself
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	void cacheCompletableFutureDoesNotCacheFailure() {
+		CompletableFuture<Long> failed = this.service.failingFuture("key");
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(failed::join)
+				.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(this.cache.get("key")).isNull();
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(() -> this.service.failingFuture("key").join());
+		assertThat(this.service.invocations()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheCompletableFuturePropagatesExceptionThrownBeforeReturningFuture() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> this.service.throwingFuture("key"));
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> this.service.throwingFutureSync("key"));
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.service.invocations()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheCompletableFutureSyncCoalescesPendingInvocations() {
+		CompletableFuture<Long> first = this.service.pendingFuture("key");
+		CompletableFuture<Long> second = this.service.pendingFuture("key");
+		assertThat(first).isNotDone();
+		assertThat(this.service.invocations()).isEqualTo(1);
+
+		this.service.pending.complete(42L);
+		assertThat(first.join()).isEqualTo(42L);
+		assertThat(second.join()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+		assertThat(this.service.pendingFuture("key").join()).isEqualTo(42L);
+		assertThat(this.service.invocations()).isEqualTo(1);
+	}
+
+	@Test
+	void cachePutAndEvictWithCompletableFuture() {
+		Long value = this.service.future("key").join();
+		Long updated = this.service.update("key").join();
+		assertThat(updated).isNotEqualTo(value);
+		assertThat(this.cache.get("key").get()).isEqualTo(updated);
+
+		this.service.evict("key").join();
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	void cacheMonoValue() {
+		Mono<Long> mono = this.service.mono("key");
+		// No invocation before subscription
+		assertThat(this.cache.get("key")).isNull();
+
+		Long first = mono.block();
+		Long second = this.service.mono("key").block();
+		assertThat(second).isEqualTo(first);
+		assertThat(this.service.invocations()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	void cacheFluxValues() {
+		List<Long> first = this.service.flux("key").collectList().block();
+		List<Long> second = this.service.flux("key").collectList().block();
+		assertThat(first).hasSize(2);
+		assertThat(second).isEqualTo(first);
+		assertThat(this.service.invocations()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class AsyncService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		final CompletableFuture<Long> pending = new CompletableFuture<>();
+
+		int invocations() {
+			return this.counter.get();
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> future(Object key) {
+			return CompletableFuture.completedFuture((long) this.counter.incrementAndGet());
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> failingFuture(Object key) {
+			this.counter.incrementAndGet();
+			CompletableFuture<Long> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new IllegalStateException("test"));
+			return failed;
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> throwingFuture(Object key) {
+			this.counter.incrementAndGet();
+			throw new IllegalArgumentException("test");
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> throwingFutureSync(Object key) {
+			this.counter.incrementAndGet();
+			throw new IllegalArgumentException("test");
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> pendingFuture(Object key) {
+			this.counter.incrementAndGet();
+			return this.pending;
+		}
+
+		@CachePut
+		public CompletableFuture<Long> update(Object key) {
+			return CompletableFuture.completedFuture(100L + this.counter.incrementAndGet());
+		}
+
+		@CacheEvict
+		public CompletableFuture<Void> evict(Object key) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Cacheable
+		public Mono<Long> mono(Object key) {
+			return Mono.fromSupplier(() -> (long) this.counter.incrementAndGet());
+		}
+
+		@Cacheable
+		public Flux<Long> flux(Object key) {
+			long value = this.counter.incrementAndGet();
+			return Flux.fromIterable(Arrays.asList(value, value + 1));
+		}
+	}
+
+}
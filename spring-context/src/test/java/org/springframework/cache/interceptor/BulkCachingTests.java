@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ *
+ * @author Tan Jiquan
+ */
+class BulkCachingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private BulkService service;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(BulkService.class);
+	}
+
+	@AfterEach
+	void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	void invokesMethodForMissesOnly() {
+		this.cache.put(2L, "cached-2");
+
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertThat(result).hasSize(3);
+		assertThat(new ArrayList<>(result.keySet())).containsExactly(1L, 2L, 3L);
+		assertThat(result.get(2L)).isEqualTo("cached-2");
+		assertThat(this.service.invocations).hasSize(1);
+		assertThat(this.service.invocations.get(0)).containsExactly(1L, 3L);
+		assertThat(this.cache.get(1L).get()).isEqualTo("value-1");
+		assertThat(this.cache.get(3L).get()).isEqualTo("value-3");
+	}
+
+	@Test
+	void doesNotInvokeMethodForHitsOnly() {
+		this.service.findAll(Arrays.asList(1L, 2L));
+		Map<Long, String> result = this.service.findAll(Arrays.asList(2L, 1L, 2L));
+		assertThat(new ArrayList<>(result.keySet())).containsExactly(2L, 1L);
+		assertThat(this.service.invocations).hasSize(1);
+	}
+
+	@Test
+	void keysMissingFromResultAreNotCached() {
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 404L));
+		assertThat(result).hasSize(1).containsKeys(1L);
+		assertThat(this.cache.get(404L)).isNull();
+
+		this.service.findAll(Arrays.asList(1L, 404L));
+		assertThat(this.service.invocations).hasSize(2);
+		assertThat(this.service.invocations.get(1)).containsExactly(404L);
+	}
+
+	@Test
+	void unlessIsEvaluatedPerValue() {
+		this.service.findAllUnlessEmpty(Arrays.asList(1L, 0L));
+		assertThat(this.cache.get(1L).get()).isEqualTo("value-1");
+		assertThat(this.cache.get(0L)).isNull();
+	}
+
+	@Test
+	void conditionNotPassingInvokesMethodWithAllKeys() {
+		this.cache.put(1L, "cached-1");
+		Map<Long, String> result = this.service.findAllIfFew(Arrays.asList(1L, 2L, 3L));
+		assertThat(result.get(1L)).isEqualTo("value-1");
+		assertThat(this.service.invocations.get(0)).containsExactly(1L, 2L, 3L);
+		assertThat(this.cache.get(2L)).isNull();
+	}
+
+	@Test
+	void nullKeyIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				this.service.findAll(Arrays.asList(1L, null)));
+	}
+
+	@Test
+	void invalidSignatureIsRejected() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.findOne(1L))
+			.withMessageContaining("@Cacheable(bulk=true) requires a single Collection parameter");
+	}
+
+	@Test
+	void keyAttributeIsRejected() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.findAllWithKey(Arrays.asList(1L, 2L)))
+			.withMessageContaining("@Cacheable(bulk=true) does not support key or keyGenerator attribute");
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public BulkService bulkService() {
+			return new BulkService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class BulkService {
+
+		final List<List<Long>> invocations = new ArrayList<>();
+
+		@Cacheable(bulk = true)
+		public Map<Long, String> findAll(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(bulk = true, unless = "#result.isEmpty()")
+		public Map<Long, String> findAllUnlessEmpty(Collection<Long> ids) {
+			Map<Long, String> result = load(ids);
+			result.replace(0L, "");
+			return result;
+		}
+
+		@Cacheable(bulk = true, condition = "#p0.size() < 3")
+		public Map<Long, String> findAllIfFew(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(bulk = true)
+		public Map<Long, String> findOne(Long id) {
+			return load(Arrays.asList(id));
+		}
+
+		@Cacheable(bulk = true, key = "#p0")
+		public Map<Long, String> findAllWithKey(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id != 404L) {
+					result.put(id, "value-" + id);
+				}
+			}
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.annotation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.AnnotatedMemberIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.annotation.InitDestroyAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the use of an {@link AnnotatedMemberIndex} by the annotation
+ * post-processors: the members declared by an indexed class are resolved from
+ * the ones reported by the index, while any class of the hierarchy that is not
+ * indexed (or whose index entry cannot be resolved) is introspected as usual.
+ *
+ * @author Tan Jiquan
+ */
+class AnnotatedMemberIndexTests {
+
+	private final Map<String, Set<String>> index = new HashMap<>();
+
+
+	@Test
+	void autowiredAnnotationBeanPostProcessor() {
+		index(IndexedBean.class, AnnotatedMemberIndex.INJECTION, "indexedField",
+				"setIndexedMethod(" + TestBean.class.getName() + ")");
+		DefaultListableBeanFactory bf = createBeanFactory();
+		bf.addBeanPostProcessor(createAutowiredAnnotationBeanPostProcessor(bf));
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedField).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.indexedMethodArgument).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.omittedField).isNull();
+		assertThat(bean.baseField).isSameAs(bf.getBean("testBean"));
+	}
+
+	@Test
+	void autowiredAnnotationBeanPostProcessorWithEmptyIndexEntry() {
+		index(IndexedBean.class, AnnotatedMemberIndex.INJECTION);
+		DefaultListableBeanFactory bf = createBeanFactory();
+		bf.addBeanPostProcessor(createAutowiredAnnotationBeanPostProcessor(bf));
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedField).isNull();
+		assertThat(bean.indexedMethodArgument).isNull();
+		assertThat(bean.omittedField).isNull();
+		assertThat(bean.baseField).isSameAs(bf.getBean("testBean"));
+	}
+
+	@Test
+	void autowiredAnnotationBeanPostProcessorWithUnresolvableIndexEntry() {
+		index(IndexedBean.class, AnnotatedMemberIndex.INJECTION, "indexedField", "removedField");
+		DefaultListableBeanFactory bf = createBeanFactory();
+		bf.addBeanPostProcessor(createAutowiredAnnotationBeanPostProcessor(bf));
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedField).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.indexedMethodArgument).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.omittedField).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.baseField).isSameAs(bf.getBean("testBean"));
+	}
+
+	@Test
+	void initDestroyAnnotationBeanPostProcessor() {
+		index(IndexedBean.class, AnnotatedMemberIndex.LIFECYCLE, "indexedInit()", "indexedDestroy()");
+		DefaultListableBeanFactory bf = createBeanFactory();
+		InitDestroyAnnotationBeanPostProcessor bpp = new InitDestroyAnnotationBeanPostProcessor() {
+			@Override
+			protected Set<String> getIndexedMembers(Class<?> clazz, String category) {
+				return lookup(clazz, category);
+			}
+		};
+		bpp.setInitAnnotationType(PostConstruct.class);
+		bpp.setDestroyAnnotationType(PreDestroy.class);
+		bf.addBeanPostProcessor(bpp);
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedInitCalled).isTrue();
+		assertThat(bean.omittedInitCalled).isFalse();
+		assertThat(bean.baseInitCalled).isTrue();
+		bf.destroySingletons();
+		assertThat(bean.indexedDestroyCalled).isTrue();
+	}
+
+	@Test
+	void commonAnnotationBeanPostProcessor() {
+		index(IndexedBean.class, AnnotatedMemberIndex.INJECTION, "indexedResource");
+		index(IndexedBean.class, AnnotatedMemberIndex.LIFECYCLE, "indexedInit()");
+		DefaultListableBeanFactory bf = createBeanFactory();
+		CommonAnnotationBeanPostProcessor bpp = new CommonAnnotationBeanPostProcessor() {
+			@Override
+			protected Set<String> getIndexedMembers(Class<?> clazz, String category) {
+				return lookup(clazz, category);
+			}
+		};
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedResource).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.omittedResource).isNull();
+		assertThat(bean.baseResource).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.indexedInitCalled).isTrue();
+		assertThat(bean.omittedInitCalled).isFalse();
+		assertThat(bean.baseInitCalled).isTrue();
+	}
+
+	@Test
+	void commonAnnotationBeanPostProcessorWithoutIndex() {
+		DefaultListableBeanFactory bf = createBeanFactory();
+		CommonAnnotationBeanPostProcessor bpp = new CommonAnnotationBeanPostProcessor() {
+			@Override
+			protected Set<String> getIndexedMembers(Class<?> clazz, String category) {
+				return lookup(clazz, category);
+			}
+		};
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+
+		IndexedBean bean = bf.getBean(IndexedBean.class);
+		assertThat(bean.indexedResource).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.omittedResource).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.baseResource).isSameAs(bf.getBean("testBean"));
+		assertThat(bean.indexedInitCalled).isTrue();
+		assertThat(bean.omittedInitCalled).isTrue();
+		assertThat(bean.baseInitCalled).isTrue();
+	}
+
+
+	private AutowiredAnnotationBeanPostProcessor createAutowiredAnnotationBeanPostProcessor(
+			DefaultListableBeanFactory bf) {
+
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor() {
+			@Override
+			protected Set<String> getIndexedMembers(Class<?> clazz) {
+				return lookup(clazz, AnnotatedMemberIndex.INJECTION);
+			}
+		};
+		bpp.setBeanFactory(bf);
+		return bpp;
+	}
+
+	private DefaultListableBeanFactory createBeanFactory() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		bf.registerBeanDefinition("indexedBean", new RootBeanDefinition(IndexedBean.class));
+		return bf;
+	}
+
+	private void index(Class<?> clazz, String category, String... members) {
+		this.index.put(clazz.getName() + "/" + category, new LinkedHashSet<>(Arrays.asList(members)));
+	}
+
+	@Nullable
+	private Set<String> lookup(Class<?> clazz, String category) {
+		return this.index.get(clazz.getName() + "/" + category);
+	}
+
+
+	static class UnindexedBase {
+
+		@Autowired
+		TestBean baseField;
+
+		@Resource
+		TestBean baseResource;
+
+		boolean baseInitCalled;
+
+		@PostConstruct
+		void baseInit() {
+			this.baseInitCalled = true;
+		}
+	}
+
+
+	static class IndexedBean extends UnindexedBase {
+
+		@Autowired
+		TestBean indexedField;
+
+		@Autowired
+		TestBean omittedField;
+
+		@Resource
+		TestBean indexedResource;
+
+		@Resource
+		TestBean omittedResource;
+
+		TestBean indexedMethodArgument;
+
+		boolean indexedInitCalled;
+
+		boolean omittedInitCalled;
+
+		boolean indexedDestroyCalled;
+
+		@Autowired
+		void setIndexedMethod(TestBean testBean) {
+			this.indexedMethodArgument = testBean;
+		}
+
+		@PostConstruct
+		void indexedInit() {
+			this.indexedInitCalled = true;
+		}
+
+		@PostConstruct
+		void omittedInit() {
+			this.omittedInitCalled = true;
+		}
+
+		@PreDestroy
+		void indexedDestroy() {
+			this.indexedDestroyCalled = true;
+		}
+	}
+
+}
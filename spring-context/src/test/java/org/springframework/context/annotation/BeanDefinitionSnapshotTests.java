@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshotWriter} and {@link BeanDefinitionSnapshotReader}.
+ *
+ * @author Tan Jiquan
+ */
+class BeanDefinitionSnapshotTests {
+
+	@Test
+	void restoreConfigurationClassBeans() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		GenericApplicationContext context = restore(source);
+		context.refresh();
+
+		assertThat(context.getBean(Greeter.class).greet()).isEqualTo("Hello snapshot");
+		assertThat(context.getBean("greeter")).isSameAs(context.getBean("greeterAlias"));
+		assertThat(context.getBeanDefinition("greeter")).isNotInstanceOf(AnnotatedBeanDefinition.class);
+		AnnotationMetadata importMetadata = context.getBean(ImportedConfig.class).importMetadata;
+		assertThat(importMetadata).isNotNull();
+		assertThat(importMetadata.getClassName()).isEqualTo(SnapshotConfig.class.getName());
+		context.close();
+	}
+
+	@Test
+	void restoreProgrammaticBeanDefinition() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		RootBeanDefinition bd = new RootBeanDefinition(Greeter.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, new RuntimeBeanReference("message"));
+		ManagedList<Object> suffixes = new ManagedList<>();
+		suffixes.add("!");
+		suffixes.add(new TypedStringValue("?"));
+		bd.getPropertyValues().add("suffixes", suffixes);
+		bd.setLazyInit(true);
+		source.registerBeanDefinition("excitedGreeter", bd);
+		GenericApplicationContext context = restore(source);
+		context.refresh();
+
+		assertThat(context.getBeanDefinition("excitedGreeter").isLazyInit()).isTrue();
+		assertThat(context.getBean("excitedGreeter", Greeter.class).greet()).isEqualTo("Hello snapshot!?");
+		context.close();
+	}
+
+	@Test
+	void restoreFullConfigurationClassWithEnhancement() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(FullSnapshotConfig.class);
+		GenericApplicationContext context = restore(source);
+		String configBeanName = "beanDefinitionSnapshotTests.FullSnapshotConfig";
+		assertThat(context.getBeanDefinition(configBeanName).getAttribute(
+				ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE))
+				.isEqualTo(ConfigurationClassUtils.CONFIGURATION_CLASS_FULL);
+		context.refresh();
+
+		assertThat(ClassUtils.isCglibProxy(context.getBean(FullSnapshotConfig.class))).isTrue();
+		// Inter-bean method call goes through the enhanced configuration class
+		assertThat(context.getBean("greeter", Greeter.class).message).isSameAs(context.getBean("message"));
+		context.close();
+	}
+
+	@Test
+	void writeReproducibleInnerBeanNames() throws IOException {
+		RootBeanDefinition bd = new RootBeanDefinition(Greeter.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0,
+				BeanDefinitionBuilder.genericBeanDefinition(String.class).addConstructorArgValue("Hi").getBeanDefinition());
+
+		GenericApplicationContext first = new GenericApplicationContext();
+		first.registerBeanDefinition("greeter", bd);
+		ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(first).write(out1);
+
+		GenericApplicationContext second = new GenericApplicationContext();
+		second.registerBeanDefinition("greeter", bd.cloneBeanDefinition());
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(second).write(out2);
+
+		assertThat(out2.toByteArray()).isEqualTo(out1.toByteArray());
+	}
+
+	@Test
+	void rejectDifferentActiveProfiles() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(source).write(out);
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.getEnvironment().setActiveProfiles("other");
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				new BeanDefinitionSnapshotReader(context).loadBeanDefinitions(new ByteArrayResource(out.toByteArray())));
+	}
+
+	@Test
+	void rejectDifferentPropertyEvaluatedByCondition() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		setGreetingEnabled(source, "true");
+		source.register(ConditionalConfig.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(source).write(out);
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		setGreetingEnabled(context, "true");
+		new BeanDefinitionSnapshotReader(context).loadBeanDefinitions(new ByteArrayResource(out.toByteArray()));
+		context.refresh();
+		assertThat(context.getBean("message")).isEqualTo("Hello condition");
+		context.close();
+
+		GenericApplicationContext flipped = new GenericApplicationContext();
+		setGreetingEnabled(flipped, "false");
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				new BeanDefinitionSnapshotReader(flipped).loadBeanDefinitions(new ByteArrayResource(out.toByteArray())))
+				.withMessageContaining("greeting.enabled");
+	}
+
+	@Test
+	void rejectInstanceSupplier() {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.registerBean("greeter", Greeter.class, () -> new Greeter("Hi"));
+		assertThatIllegalStateException().isThrownBy(() ->
+				new BeanDefinitionSnapshotWriter(source).write(new ByteArrayOutputStream()));
+	}
+
+
+	private static void setGreetingEnabled(GenericApplicationContext context, String enabled) {
+		context.getEnvironment().getPropertySources().addFirst(
+				new MapPropertySource("test", Collections.singletonMap("greeting.enabled", enabled)));
+	}
+
+	private static GenericApplicationContext restore(GenericApplicationContext source) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(source).write(out);
+		GenericApplicationContext context = new GenericApplicationContext();
+		new BeanDefinitionSnapshotReader(context).loadBeanDefinitions(new ByteArrayResource(out.toByteArray()));
+		return context;
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Import(ImportedConfig.class)
+	static class SnapshotConfig {
+
+		@Bean
+		String message() {
+			return "Hello snapshot";
+		}
+
+		@Bean({"greeter", "greeterAlias"})
+		Greeter greeter(String message) {
+			return new Greeter(message);
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class ConditionalConfig {
+
+		@Bean
+		@Conditional(GreetingEnabledCondition.class)
+		String message() {
+			return "Hello condition";
+		}
+	}
+
+
+	static class GreetingEnabledCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return context.getEnvironment().getProperty("greeting.enabled", Boolean.class, false);
+		}
+	}
+
+
+	@Configuration
+	static class FullSnapshotConfig {
+
+		@Bean
+		String message() {
+			return new String("Hello enhanced");
+		}
+
+		@Bean
+		Greeter greeter() {
+			return new Greeter(message());
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	static class Greeter {
+
+		private final String message;
+
+		private List<String> suffixes;
+
+		Greeter(String message) {
+			this.message = message;
+		}
+
+		public void setSuffixes(List<String> suffixes) {
+			this.suffixes = suffixes;
+		}
+
+		String greet() {
+			return (this.suffixes != null ? this.message + String.join("", this.suffixes) : this.message);
+		}
+	}
+
+}
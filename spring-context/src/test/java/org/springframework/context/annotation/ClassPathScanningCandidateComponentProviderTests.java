@@ -18,6 +18,8 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -48,6 +50,7 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.RegexPatternTypeFilter;
@@ -63,6 +66,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * @author Juergen Hoeller
  * @author Chris Beams
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  */
 public class ClassPathScanningCandidateComponentProviderTests {
 
@@ -83,6 +87,32 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, ScannedGenericBeanDefinition.class);
 	}
 
+	@Test
+	void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelScanning(true);
+		testDefault(provider, ScannedGenericBeanDefinition.class);
+	}
+
+	@Test
+	void parallelScanKeepsSequentialOrder() {
+		ClassLoader classLoader = CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader());
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		provider.setMetadataReaderFactory(new CachingMetadataReaderFactory(classLoader));
+		List<String> expected = beanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+
+		ClassPathScanningCandidateComponentProvider parallelProvider =
+				new ClassPathScanningCandidateComponentProvider(true);
+		parallelProvider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		parallelProvider.setMetadataReaderFactory(new CachingMetadataReaderFactory(classLoader));
+		parallelProvider.setParallelScanning(true);
+		assertThat(parallelProvider.isParallelScanning()).isTrue();
+		assertThat(beanClassNames(parallelProvider.findCandidateComponents(TEST_BASE_PACKAGE))).isEqualTo(expected);
+	}
+
 	@Test
 	public void defaultsWithIndex() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -510,6 +540,14 @@ public class ClassPathScanningCandidateComponentProviderTests {
 	}
 
 
+	private List<String> beanClassNames(Set<BeanDefinition> candidates) {
+		List<String> beanClassNames = new ArrayList<>();
+		for (BeanDefinition candidate : candidates) {
+			beanClassNames.add(candidate.getBeanClassName());
+		}
+		return beanClassNames;
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			if (beanClass.getName().equals(candidate.getBeanClassName())) {
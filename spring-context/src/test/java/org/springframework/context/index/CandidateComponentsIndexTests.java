@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,6 +80,32 @@ public class CandidateComponentsIndexTests {
 				.contains("com.example.Foo");
 	}
 
+	@Test
+	public void getComponentAttributes() {
+		Properties attributes = new Properties();
+		attributes.put("com.example.Foo/injection", "bar,baz");
+		attributes.put("com.example.Foo/lifecycle", "");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(attributes));
+		assertThat(index.getComponentAttribute("com.example.Foo", "injection")).isEqualTo("bar,baz");
+		assertThat(index.getComponentAttribute("com.example.Foo", "unknown")).isNull();
+		assertThat(index.getAnnotatedMembers("com.example.Foo", "injection")).containsExactly("bar", "baz");
+		assertThat(index.getAnnotatedMembers("com.example.Foo", "lifecycle")).isEmpty();
+		assertThat(index.getAnnotatedMembers("com.example.Bar", "injection")).isNull();
+	}
+
+	@Test
+	public void getAnnotatedMembersWithSignatures() {
+		Properties attributes = new Properties();
+		attributes.put("com.example.Foo/injection", "bar,<init>(java.lang.String,int),setBaz(java.util.List),qux()");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(attributes));
+		assertThat(index.getAnnotatedMembers("com.example.Foo", "injection")).containsExactly(
+				"bar", "<init>(java.lang.String,int)", "setBaz(java.util.List)", "qux()");
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
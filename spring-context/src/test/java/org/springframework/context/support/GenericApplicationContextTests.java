@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,25 @@
 
 package org.springframework.context.support;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.util.ObjectUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -201,6 +213,102 @@ public class GenericApplicationContextTests {
 		assertThat(context.getBeansOfType(BeanC.class).values().iterator().next()).isSameAs(context.getBean(BeanC.class));
 	}
 
+	@Test
+	public void refreshRecordsStartupSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.registerBean("b", BeanB.class, BeanB::new);
+		context.registerBean("startupAware", StartupAwareBean.class, StartupAwareBean::new);
+		context.refresh();
+
+		assertThat(context.getBeanFactory().getApplicationStartup()).isSameAs(applicationStartup);
+		assertThat(context.getBean(ConfigurableApplicationContext.APPLICATION_STARTUP_BEAN_NAME)).isSameAs(applicationStartup);
+		assertThat(context.getBean(StartupAwareBean.class).applicationStartup).isSameAs(applicationStartup);
+		assertThat(applicationStartup.getBufferedSteps()).extracting(StartupStep::getName).contains(
+				"spring.context.refresh", "spring.context.beans.post-process",
+				"spring.context.singletons.instantiate", "spring.beans.instantiate");
+		assertThat(applicationStartup.getBufferedSteps().stream()
+				.filter(step -> step.getName().equals("spring.beans.instantiate"))
+				.flatMap(step -> StreamSupport.stream(step.getTags().spliterator(), false))
+				.anyMatch(tag -> tag.getKey().equals("beanName") && tag.getValue().equals("startupAware"))).isTrue();
+	}
+
+	@Test
+	public void refreshWithBackgroundWarmUp() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setBackgroundWarmUp(true);
+		context.registerBean("b", BeanB.class, () -> {
+			try {
+				latch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new BeanB();
+		});
+		context.registerBean("c", BeanC.class, BeanC::new);
+		context.refresh();
+
+		CompletableFuture<Void> warmUp = context.getWarmUpCompletion();
+		assertThat(warmUp).isNotNull();
+		assertThat(warmUp.isDone()).isFalse();
+		assertThat(context.getBean(BeanC.class)).isNotNull();
+		latch.countDown();
+		warmUp.get(10, TimeUnit.SECONDS);
+		assertThat(context.getBean(BeanB.class).applicationContext).isSameAs(context);
+		context.close();
+	}
+
+	@Test
+	public void closeStopsBackgroundWarmUp() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setBackgroundWarmUp(true);
+		context.registerBean("b", BeanB.class, () -> {
+			try {
+				latch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new BeanB();
+		});
+		context.refresh();
+
+		CompletableFuture<Void> warmUp = context.getWarmUpCompletion();
+		Thread closeThread = new Thread(context::close);
+		closeThread.start();
+		for (int i = 0; i < 1000 && closeThread.getState() != Thread.State.WAITING; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(closeThread.isAlive()).isTrue();
+		latch.countDown();
+		closeThread.join(10000);
+		assertThat(closeThread.isAlive()).isFalse();
+		assertThat(warmUp.isCancelled()).isTrue();
+		assertThat(context.isActive()).isFalse();
+	}
+
+	@Test
+	public void backgroundWarmUpFailureClosesContext() throws Exception {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setBackgroundWarmUp(true);
+		context.registerBean("b", BeanB.class, () -> {
+			throw new IllegalStateException("test");
+		});
+		context.refresh();
+
+		CompletableFuture<Void> warmUp = context.getWarmUpCompletion();
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> warmUp.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(BeanCreationException.class);
+		for (int i = 0; i < 1000 && context.isActive(); i++) {
+			Thread.sleep(10);
+		}
+		assertThat(context.isActive()).isFalse();
+	}
+
 
 	static class BeanA {
 
@@ -228,4 +336,14 @@ public class GenericApplicationContextTests {
 
 	static class BeanC {}
 
+	static class StartupAwareBean implements ApplicationStartupAware {
+
+		ApplicationStartup applicationStartup;
+
+		@Override
+		public void setApplicationStartup(ApplicationStartup applicationStartup) {
+			this.applicationStartup = applicationStartup;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,13 @@
 
 package org.springframework.context.testfixture.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.cache.Cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Stephane Nicoll
@@ -89,6 +95,39 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testCacheGetAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		assertThat(cache.getAll(Arrays.asList(key1, key2, key3))).isEmpty();
+
+		cache.put(key1, "george");
+		cache.put(key3, null);
+		Map<Object, Cache.ValueWrapper> entries = cache.getAll(Arrays.asList(key1, key2, key3));
+		assertThat(entries).hasSize(2).containsKeys(key1, key3);
+		assertThat(entries.get(key1).get()).isEqualTo("george");
+		assertThat(entries.get(key3).get()).isNull();
+	}
+
+	@Test
+	public void testCachePutAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "george");
+		entries.put(key2, null);
+		cache.putAll(entries);
+
+		assertThat(cache.get(key1).get()).isEqualTo("george");
+		assertThat(cache.get(key2)).isNotNull();
+		assertThat(cache.get(key2).get()).isNull();
+	}
+
 	@Test
 	public void testCacheRemove() throws Exception {
 		T cache = getCache();
@@ -208,6 +247,48 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		results.forEach(r -> assertThat(r).isEqualTo(1)); // Only one method got invoked
 	}
 
+	@Test
+	public void testCacheRetrieve() {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		assertThat(cache.retrieve(key)).isNull();
+
+		cache.put(key, "george");
+		CompletableFuture<Cache.ValueWrapper> retrieved = cache.retrieve(key);
+		assertThat(retrieved).isNotNull();
+		assertThat(retrieved.join().get()).isEqualTo("george");
+	}
+
+	@Test
+	public void testCacheRetrieveWithValueLoader() {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<Object> loaded = cache.retrieve(key, () -> CompletableFuture.completedFuture("george"));
+		assertThat(loaded.join()).isEqualTo("george");
+		assertThat(cache.get(key).get()).isEqualTo("george");
+
+		CompletableFuture<Object> cached = cache.retrieve(key, () -> {
+			throw new IllegalStateException("Should not have been invoked");
+		});
+		assertThat(cached.join()).isEqualTo("george");
+	}
+
+	@Test
+	public void testCacheRetrieveWithFailingValueLoader() {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new UnsupportedOperationException("Expected exception"));
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(() ->
+				cache.retrieve(key, () -> failed).join())
+			.withCauseInstanceOf(UnsupportedOperationException.class);
+		assertThat((Object) cache.get(key)).isNull();
+	}
+
 	protected String createRandomKey() {
 		return UUID.randomUUID().toString();
 	}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for the {@link ResolvableType} factory methods, which are
+ * backed by a shared cache.
+ *
+ * <p>Class, field, method parameter and {@link MethodParameter} lookups are
+ * expected to be allocation-free once cached: run with {@code -prof gc} and
+ * check that {@code gc.alloc.rate.norm} is (close to) 0 B/op for these.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public ResolvableType forClass() {
+		return ResolvableType.forClass(Sample.class);
+	}
+
+	@Benchmark
+	public ResolvableType forClassWithGenerics() {
+		return ResolvableType.forClassWithGenerics(Map.class, String.class, Integer.class);
+	}
+
+	@Benchmark
+	public ResolvableType forField(BenchmarkData data) {
+		return ResolvableType.forField(data.field);
+	}
+
+	@Benchmark
+	public ResolvableType forMethodParameter(BenchmarkData data) {
+		return ResolvableType.forMethodParameter(data.methodParameter);
+	}
+
+	@Benchmark
+	public ResolvableType forMethodParameterByIndex(BenchmarkData data) {
+		return ResolvableType.forMethodParameter(data.method, 0);
+	}
+
+	@Benchmark
+	public ResolvableType forMethodReturnType(BenchmarkData data) {
+		return ResolvableType.forMethodReturnType(data.method);
+	}
+
+	@Benchmark
+	public Class<?> resolveGeneric(BenchmarkData data) {
+		return ResolvableType.forField(data.field).resolveGeneric(0);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public Field field;
+
+		public Method method;
+
+		public MethodParameter methodParameter;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.field = ReflectionUtils.findField(Sample.class, "values");
+			this.method = ReflectionUtils.findMethod(Sample.class, "setValues", List.class);
+			this.methodParameter = new MethodParameter(this.method, 0);
+		}
+	}
+
+
+	static class Sample {
+
+		private List<String> values;
+
+		public void setValues(List<String> values) {
+			this.values = values;
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link MergedAnnotations} lookups on classes and methods,
+ * including attribute aliasing through meta-annotations and synthesis.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@Benchmark
+	public boolean isPresentOnClass() {
+		return MergedAnnotations.from(AnnotatedService.class, SearchStrategy.TYPE_HIERARCHY)
+				.isPresent(Component.class);
+	}
+
+	@Benchmark
+	public Object getAttributeFromClass() {
+		return MergedAnnotations.from(AnnotatedService.class, SearchStrategy.TYPE_HIERARCHY)
+				.get(Component.class).getString("value");
+	}
+
+	@Benchmark
+	public Object synthesizeFromMethod(BenchmarkData data) {
+		return MergedAnnotations.from(data.method, SearchStrategy.TYPE_HIERARCHY)
+				.get(Component.class).synthesize();
+	}
+
+	@Benchmark
+	public Object findMergedAnnotation(BenchmarkData data) {
+		return AnnotatedElementUtils.findMergedAnnotation(data.method, Component.class);
+	}
+
+	@Benchmark
+	public Object missingAnnotation(BenchmarkData data) {
+		return AnnotatedElementUtils.findMergedAnnotation(data.method, Deprecated.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.method = ReflectionUtils.findMethod(AnnotatedService.class, "handle");
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@interface Component {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Component
+	@interface Service {
+
+		@AliasFor(annotation = Component.class)
+		String value() default "";
+	}
+
+
+	interface ServiceContract {
+
+		@Service("contract")
+		void handle();
+	}
+
+
+	@Service("sample")
+	static class AnnotatedService implements ServiceContract {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
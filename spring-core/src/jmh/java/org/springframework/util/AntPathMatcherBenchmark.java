@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for matching request paths against patterns with {@link AntPathMatcher}.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@Benchmark
+	public void matchAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (String path : data.requestPaths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndSortPatterns(BenchmarkData data, Blackhole bh) {
+		for (String path : data.requestPaths) {
+			List<String> matches = new ArrayList<>();
+			for (String pattern : data.patterns) {
+				if (data.pathMatcher.match(pattern, path)) {
+					matches.add(pattern);
+				}
+			}
+			matches.sort(data.pathMatcher.getPatternComparator(path));
+			bh.consume(matches);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public AntPathMatcher pathMatcher;
+
+		public List<String> patterns = new ArrayList<>();
+
+		public List<String> requestPaths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+			this.patterns.add("/");
+			this.patterns.add("/resources/**");
+			this.patterns.add("/static/*.css");
+			this.patterns.add("/api/projects");
+			this.patterns.add("/api/projects/{project}");
+			this.patterns.add("/api/projects/{project}/releases");
+			this.patterns.add("/api/projects/{project}/releases/{version}");
+			this.patterns.add("/api/projects/{project}/releases/{version}/**");
+			this.patterns.add("/api/users/{id:[0-9]+}");
+			this.patterns.add("/api/users/{id}/avatar.{ext}");
+			this.patterns.add("/**");
+			this.requestPaths.add("/");
+			this.requestPaths.add("/resources/js/app.js");
+			this.requestPaths.add("/static/main.css");
+			this.requestPaths.add("/api/projects/spring-framework/releases");
+			this.requestPaths.add("/api/projects/spring-framework/releases/5.2.5.RELEASE/docs");
+			this.requestPaths.add("/api/users/1234");
+			this.requestPaths.add("/api/users/john/avatar.png");
+			this.requestPaths.add("/unknown/path/for/fallback");
+		}
+	}
+
+}
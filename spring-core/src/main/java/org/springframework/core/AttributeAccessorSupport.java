@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,19 +32,26 @@ import org.springframework.util.StringUtils;
  *
  * @author Rob Harrop
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @since 2.0
  */
 @SuppressWarnings("serial")
 public abstract class AttributeAccessorSupport implements AttributeAccessor, Serializable {
 
-	/** Map with String keys and Object values. */
-	private final Map<String, Object> attributes = new LinkedHashMap<>();
+	private static final String[] NO_ATTRIBUTE_NAMES = new String[0];
+
+	/** Map with String keys and Object values, allocated on first attribute. */
+	@Nullable
+	private Map<String, Object> attributes;
 
 
 	@Override
 	public void setAttribute(String name, @Nullable Object value) {
 		Assert.notNull(name, "Name must not be null");
 		if (value != null) {
+			if (this.attributes == null) {
+				this.attributes = new LinkedHashMap<>(4);
+			}
 			this.attributes.put(name, value);
 		}
 		else {
@@ -56,25 +63,26 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
 	@Nullable
 	public Object getAttribute(String name) {
 		Assert.notNull(name, "Name must not be null");
-		return this.attributes.get(name);
+		return (this.attributes != null ? this.attributes.get(name) : null);
 	}
 
 	@Override
 	@Nullable
 	public Object removeAttribute(String name) {
 		Assert.notNull(name, "Name must not be null");
-		return this.attributes.remove(name);
+		return (this.attributes != null ? this.attributes.remove(name) : null);
 	}
 
 	@Override
 	public boolean hasAttribute(String name) {
 		Assert.notNull(name, "Name must not be null");
-		return this.attributes.containsKey(name);
+		return (this.attributes != null && this.attributes.containsKey(name));
 	}
 
 	@Override
 	public String[] attributeNames() {
-		return StringUtils.toStringArray(this.attributes.keySet());
+		return (this.attributes != null && !this.attributes.isEmpty() ?
+				StringUtils.toStringArray(this.attributes.keySet()) : NO_ATTRIBUTE_NAMES);
 	}
 
 
@@ -93,13 +101,22 @@ public abstract class AttributeAccessorSupport implements AttributeAccessor, Ser
 
 	@Override
 	public boolean equals(@Nullable Object other) {
-		return (this == other || (other instanceof AttributeAccessorSupport &&
-				this.attributes.equals(((AttributeAccessorSupport) other).attributes)));
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof AttributeAccessorSupport)) {
+			return false;
+		}
+		Map<String, Object> otherAttributes = ((AttributeAccessorSupport) other).attributes;
+		if (this.attributes == null || this.attributes.isEmpty()) {
+			return (otherAttributes == null || otherAttributes.isEmpty());
+		}
+		return this.attributes.equals(otherAttributes);
 	}
 
 	@Override
 	public int hashCode() {
-		return this.attributes.hashCode();
+		return (this.attributes != null ? this.attributes.hashCode() : 0);
 	}
 
 }
@@ -98,6 +98,10 @@ public class MethodParameter {
 	@Nullable
 	private volatile MethodParameter nestedMethodParameter;
 
+	/** The {@link ResolvableType} for the current nesting level, cached by {@link ResolvableType}. */
+	@Nullable
+	volatile ResolvableType resolvableType;
+
 
 	/**
 	 * Create a new {@code MethodParameter} for the given method, with nesting level 1.
@@ -274,6 +278,7 @@ public class MethodParameter {
 	@Deprecated
 	public void increaseNestingLevel() {
 		this.nestingLevel++;
+		this.resolvableType = null;
 	}
 
 	/**
@@ -286,6 +291,7 @@ public class MethodParameter {
 	public void decreaseNestingLevel() {
 		getTypeIndexesPerLevel().remove(this.nestingLevel);
 		this.nestingLevel--;
+		this.resolvableType = null;
 	}
 
 	/**
@@ -317,6 +323,7 @@ public class MethodParameter {
 	@Deprecated
 	public void setTypeIndexForCurrentLevel(int typeIndex) {
 		getTypeIndexesPerLevel().put(this.nestingLevel, typeIndex);
+		this.resolvableType = null;
 	}
 
 	/**
@@ -455,6 +462,7 @@ public class MethodParameter {
 	void setContainingClass(Class<?> containingClass) {
 		this.containingClass = containingClass;
 		this.parameterType = null;
+		this.resolvableType = null;
 	}
 
 	/**
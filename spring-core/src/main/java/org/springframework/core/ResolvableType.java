@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.core;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
@@ -70,6 +71,7 @@ import org.springframework.util.StringUtils;
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Stephane Nicoll
+ * @author Tan Jiquan
  * @since 4.0
  * @see #forField(Field)
  * @see #forMethodParameter(Method, int)
@@ -94,6 +96,18 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	/** Cache of plain class types, looked up without allocating a key. */
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/** Cache of field types, looked up without allocating a key. */
+	private static final ConcurrentReferenceHashMap<Field, ResolvableType> fieldCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/** Cache of return type (index 0) and parameter types per method or constructor. */
+	private static final ConcurrentReferenceHashMap<Executable, ResolvableType[]> executableCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed.
@@ -124,14 +138,17 @@ public class ResolvableType implements Serializable {
 	@Nullable
 	private Class<?> resolved;
 
+	// Lazily derived state: not serialized, since cached instances may be shared
+	// and their derived types may not be serializable
+
 	@Nullable
-	private volatile ResolvableType superType;
+	private transient volatile ResolvableType superType;
 
 	@Nullable
-	private volatile ResolvableType[] interfaces;
+	private transient volatile ResolvableType[] interfaces;
 
 	@Nullable
-	private volatile ResolvableType[] generics;
+	private transient volatile ResolvableType[] generics;
 
 
 	/**
@@ -992,7 +1009,13 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> classToUse = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(classToUse);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(classToUse);
+			classCache.put(classToUse, resolvableType);
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1112,7 +1135,12 @@ public class ResolvableType implements Serializable {
 	 */
 	public static ResolvableType forField(Field field) {
 		Assert.notNull(field, "Field must not be null");
-		return forType(null, new FieldTypeProvider(field), null);
+		ResolvableType resolvableType = fieldCache.get(field);
+		if (resolvableType == null) {
+			resolvableType = forType(null, new FieldTypeProvider(field), null);
+			fieldCache.put(field, resolvableType);
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1188,7 +1216,7 @@ public class ResolvableType implements Serializable {
 	 */
 	public static ResolvableType forConstructorParameter(Constructor<?> constructor, int parameterIndex) {
 		Assert.notNull(constructor, "Constructor must not be null");
-		return forMethodParameter(new MethodParameter(constructor, parameterIndex));
+		return forExecutableParameter(constructor, parameterIndex);
 	}
 
 	/**
@@ -1218,7 +1246,7 @@ public class ResolvableType implements Serializable {
 	 */
 	public static ResolvableType forMethodReturnType(Method method) {
 		Assert.notNull(method, "Method must not be null");
-		return forMethodParameter(new MethodParameter(method, -1));
+		return forExecutableParameter(method, -1);
 	}
 
 	/**
@@ -1246,7 +1274,30 @@ public class ResolvableType implements Serializable {
 	 */
 	public static ResolvableType forMethodParameter(Method method, int parameterIndex) {
 		Assert.notNull(method, "Method must not be null");
-		return forMethodParameter(new MethodParameter(method, parameterIndex));
+		return forExecutableParameter(method, parameterIndex);
+	}
+
+	/**
+	 * Return a {@link ResolvableType} for the specified parameter (or return type,
+	 * for index -1) of the given method or constructor, using the shared cache
+	 * of executable types.
+	 */
+	private static ResolvableType forExecutableParameter(Executable executable, int parameterIndex) {
+		int slot = parameterIndex + 1;
+		ResolvableType[] resolvableTypes = executableCache.get(executable);
+		if (resolvableTypes != null && slot >= 0 && slot < resolvableTypes.length) {
+			ResolvableType resolvableType = resolvableTypes[slot];
+			if (resolvableType != null) {
+				return resolvableType;
+			}
+		}
+		ResolvableType resolvableType = forMethodParameter(MethodParameter.forExecutable(executable, parameterIndex));
+		// Copy on write, publishing the updated array through the cache
+		ResolvableType[] newResolvableTypes = (resolvableTypes != null ? resolvableTypes.clone() :
+				new ResolvableType[executable.getParameterCount() + 1]);
+		newResolvableTypes[slot] = resolvableType;
+		executableCache.put(executable, newResolvableTypes);
+		return resolvableType;
 	}
 
 	/**
@@ -1323,9 +1374,21 @@ public class ResolvableType implements Serializable {
 	static ResolvableType forMethodParameter(
 			MethodParameter methodParameter, @Nullable Type targetType, int nestingLevel) {
 
+		// The type for the parameter's own nesting level is kept on the MethodParameter instance
+		boolean cacheable = (targetType == null && nestingLevel == methodParameter.getNestingLevel());
+		if (cacheable) {
+			ResolvableType resolvableType = methodParameter.resolvableType;
+			if (resolvableType != null) {
+				return resolvableType;
+			}
+		}
 		ResolvableType owner = forType(methodParameter.getContainingClass()).as(methodParameter.getDeclaringClass());
-		return forType(targetType, new MethodParameterTypeProvider(methodParameter), owner.asVariableResolver()).
-				getNested(nestingLevel, methodParameter.typeIndexesPerLevel);
+		ResolvableType resolvableType = forType(targetType, new MethodParameterTypeProvider(methodParameter),
+				owner.asVariableResolver()).getNested(nestingLevel, methodParameter.typeIndexesPerLevel);
+		if (cacheable) {
+			methodParameter.resolvableType = resolvableType;
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1410,13 +1473,16 @@ public class ResolvableType implements Serializable {
 		}
 
 		// For simple Class references, build the wrapper right away -
-		// no expensive resolution necessary, so not worth caching...
+		// no expensive resolution necessary, so only shared for plain classes...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
-		// Purge empty entries on access since we don't have a clean-up thread or the like.
-		cache.purgeUnreferencedEntries();
+		// Empty entries get purged on access to their cache segment, without
+		// scanning all segments on every lookup.
 
 		// Check the cache - we may have a ResolvableType which has been resolved before...
 		ResolvableType resultType = new ResolvableType(type, typeProvider, variableResolver);
@@ -1435,6 +1501,9 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		fieldCache.clear();
+		executableCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
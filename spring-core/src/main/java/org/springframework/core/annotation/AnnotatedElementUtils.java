@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,19 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.annotation.MergedAnnotation.Adapt;
 import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.MultiValueMap;
 
 /**
@@ -84,6 +87,7 @@ import org.springframework.util.MultiValueMap;
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 4.0
  * @see AliasFor
  * @see AnnotationAttributes
@@ -92,6 +96,26 @@ import org.springframework.util.MultiValueMap;
  */
 public abstract class AnnotatedElementUtils {
 
+	/**
+	 * Cache marker for a merged annotation lookup without result.
+	 */
+	private static final Object NO_MERGED_ANNOTATION = new Object();
+
+	/**
+	 * Maximum number of entries in the merged annotation cache.
+	 */
+	private static final int MERGED_ANNOTATION_CACHE_LIMIT = 1024;
+
+	/**
+	 * Bounded cache for fully merged and synthesized annotation lookups, keyed by
+	 * element, annotation type(s) and search strategy. Only lookups on classes
+	 * and members are cached, consistent with the declared annotation cache
+	 * in {@link AnnotationsScanner}.
+	 */
+	private static final ConcurrentLruCache<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+			new ConcurrentLruCache<>(MERGED_ANNOTATION_CACHE_LIMIT, AnnotatedElementUtils::searchMergedAnnotations);
+
+
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
 	 * typically for use with other methods on {@link AnnotatedElementUtils}.
@@ -334,9 +358,7 @@ public abstract class AnnotatedElementUtils {
 			return element.getDeclaredAnnotation(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return getAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		return getMergedAnnotation(element, annotationType, SearchStrategy.INHERITED_ANNOTATIONS);
 	}
 
 	/**
@@ -387,9 +409,7 @@ public abstract class AnnotatedElementUtils {
 	public static Set<Annotation> getAllMergedAnnotations(AnnotatedElement element,
 			Set<Class<? extends Annotation>> annotationTypes) {
 
-		return getAnnotations(element).stream()
-				.filter(MergedAnnotationPredicates.typeIn(annotationTypes))
-				.collect(MergedAnnotationCollectors.toAnnotationSet());
+		return getAllMergedAnnotations(element, annotationTypes, SearchStrategy.INHERITED_ANNOTATIONS);
 	}
 
 	/**
@@ -629,9 +649,7 @@ public abstract class AnnotatedElementUtils {
 			return element.getDeclaredAnnotation(annotationType);
 		}
 		// Exhaustive retrieval of merged annotations...
-		return findAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		return getMergedAnnotation(element, annotationType, SearchStrategy.TYPE_HIERARCHY);
 	}
 
 	/**
@@ -678,10 +696,7 @@ public abstract class AnnotatedElementUtils {
 	 * @see #findAllMergedAnnotations(AnnotatedElement, Class)
 	 */
 	public static Set<Annotation> findAllMergedAnnotations(AnnotatedElement element, Set<Class<? extends Annotation>> annotationTypes) {
-		return findAnnotations(element).stream()
-				.filter(MergedAnnotationPredicates.typeIn(annotationTypes))
-				.sorted(highAggregateIndexesFirst())
-				.collect(MergedAnnotationCollectors.toAnnotationSet());
+		return getAllMergedAnnotations(element, annotationTypes, SearchStrategy.TYPE_HIERARCHY);
 	}
 
 	/**
@@ -749,6 +764,65 @@ public abstract class AnnotatedElementUtils {
 				.collect(MergedAnnotationCollectors.toAnnotationSet());
 	}
 
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static <A extends Annotation> A getMergedAnnotation(
+			AnnotatedElement element, Class<A> annotationType, SearchStrategy searchStrategy) {
+
+		if (element instanceof Class || element instanceof Member) {
+			Object result = mergedAnnotationCache.get(
+					new MergedAnnotationCacheKey(element, annotationType, searchStrategy));
+			return (result != NO_MERGED_ANNOTATION ? (A) result : null);
+		}
+		return searchMergedAnnotation(element, annotationType, searchStrategy);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<Annotation> getAllMergedAnnotations(AnnotatedElement element,
+			Set<Class<? extends Annotation>> annotationTypes, SearchStrategy searchStrategy) {
+
+		if (element instanceof Class || element instanceof Member) {
+			// Defensive copies: the cache key must not change, and callers may modify the result
+			Object result = mergedAnnotationCache.get(
+					new MergedAnnotationCacheKey(element, new LinkedHashSet<>(annotationTypes), searchStrategy));
+			return new LinkedHashSet<>((Set<Annotation>) result);
+		}
+		return searchAllMergedAnnotations(element, annotationTypes, searchStrategy);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object searchMergedAnnotations(MergedAnnotationCacheKey key) {
+		if (key.annotationTypes instanceof Class) {
+			Annotation annotation = searchMergedAnnotation(
+					key.element, (Class<? extends Annotation>) key.annotationTypes, key.searchStrategy);
+			return (annotation != null ? annotation : NO_MERGED_ANNOTATION);
+		}
+		return searchAllMergedAnnotations(
+				key.element, (Set<Class<? extends Annotation>>) key.annotationTypes, key.searchStrategy);
+	}
+
+	@Nullable
+	private static <A extends Annotation> A searchMergedAnnotation(
+			AnnotatedElement element, Class<A> annotationType, SearchStrategy searchStrategy) {
+
+		return MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none())
+				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
+				.synthesize(MergedAnnotation::isPresent).orElse(null);
+	}
+
+	private static Set<Annotation> searchAllMergedAnnotations(AnnotatedElement element,
+			Set<Class<? extends Annotation>> annotationTypes, SearchStrategy searchStrategy) {
+
+		Stream<MergedAnnotation<Annotation>> annotations =
+				MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none()).stream()
+						.filter(MergedAnnotationPredicates.typeIn(annotationTypes));
+		if (searchStrategy == SearchStrategy.TYPE_HIERARCHY) {
+			// Find semantics: annotations on the element itself first
+			annotations = annotations.sorted(highAggregateIndexesFirst());
+		}
+		return annotations.collect(MergedAnnotationCollectors.toAnnotationSet());
+	}
+
 	private static MergedAnnotations getAnnotations(AnnotatedElement element) {
 		return MergedAnnotations.from(element, SearchStrategy.INHERITED_ANNOTATIONS, RepeatableContainers.none());
 	}
@@ -792,6 +866,54 @@ public abstract class AnnotatedElementUtils {
 				Adapt.values(classValuesAsString, nestedAnnotationsAsMap));
 	}
 
+	/**
+	 * Clear the internal merged annotation result cache.
+	 * @since 5.3
+	 * @see AnnotationUtils#clearCache()
+	 */
+	static void clearCache() {
+		mergedAnnotationCache.clear();
+	}
+
+
+	/**
+	 * Cache key for merged annotation lookups, either for a single annotation
+	 * type or for a set of annotation types.
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		final AnnotatedElement element;
+
+		final Object annotationTypes;
+
+		final SearchStrategy searchStrategy;
+
+		MergedAnnotationCacheKey(AnnotatedElement element, Object annotationTypes, SearchStrategy searchStrategy) {
+			this.element = element;
+			this.annotationTypes = annotationTypes;
+			this.searchStrategy = searchStrategy;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) && this.annotationTypes.equals(otherKey.annotationTypes) &&
+					this.searchStrategy == otherKey.searchStrategy);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.element.hashCode() * 31 + this.annotationTypes.hashCode()) * 31 +
+					this.searchStrategy.hashCode();
+		}
+	}
+
 
 	/**
 	 * Adapted {@link AnnotatedElement} that hold specific annotations.
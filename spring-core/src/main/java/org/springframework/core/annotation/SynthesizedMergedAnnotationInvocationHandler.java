@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -37,6 +38,7 @@ import org.springframework.util.ReflectionUtils;
  *
  * @author Sam Brannen
  * @author Phillip Webb
+ * @author Tan Jiquan
  * @since 5.2
  * @param <A> the annotation type
  * @see Annotation
@@ -50,6 +52,9 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 
 	private final AttributeMethods attributes;
 
+	/** Resolved attribute values, indexed like {@link #attributes}. */
+	private final AtomicReferenceArray<Object> valueCache;
+
 	@Nullable
 	private volatile Integer hashCode;
 
@@ -61,6 +66,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		this.annotation = annotation;
 		this.type = type;
 		this.attributes = AttributeMethods.forAnnotationType(type);
+		this.valueCache = new AtomicReferenceArray<>(this.attributes.size());
 	}
 
 
@@ -78,8 +84,9 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		if (isAnnotationTypeMethod(method)) {
 			return this.type;
 		}
-		if (this.attributes.indexOf(method.getName()) != -1) {
-			return getAttributeValue(method);
+		int index = this.attributes.indexOf(method.getName());
+		if (index != -1) {
+			return cloneArray(getAttributeValue(index));
 		}
 		throw new AnnotationConfigurationException(String.format(
 				"Method [%s] is unsupported for synthesized annotation type [%s]", method, this.type));
@@ -102,7 +109,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		}
 		for (int i = 0; i < this.attributes.size(); i++) {
 			Method attribute = this.attributes.get(i);
-			Object thisValue = getAttributeValue(attribute);
+			Object thisValue = getAttributeValue(i);
 			Object otherValue = ReflectionUtils.invokeMethod(attribute, other);
 			if (!ObjectUtils.nullSafeEquals(thisValue, otherValue)) {
 				return false;
@@ -127,7 +134,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		int hashCode = 0;
 		for (int i = 0; i < this.attributes.size(); i++) {
 			Method attribute = this.attributes.get(i);
-			Object value = getAttributeValue(attribute);
+			Object value = getAttributeValue(i);
 			hashCode += (127 * attribute.getName().hashCode()) ^ getValueHashCode(value);
 		}
 		return hashCode;
@@ -166,12 +173,54 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		return value.hashCode();
 	}
 
-	private Object getAttributeValue(Method method) {
-		String name = method.getName();
-		Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
-		return this.annotation.getValue(name, type).orElseThrow(
-				() -> new NoSuchElementException("No value found for attribute named '" + name +
-						"' in merged annotation " + this.annotation.getType().getName()));
+	private Object getAttributeValue(int index) {
+		Object value = this.valueCache.get(index);
+		if (value == null) {
+			Method method = this.attributes.get(index);
+			String name = method.getName();
+			Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
+			value = this.annotation.getValue(name, type).orElseThrow(
+					() -> new NoSuchElementException("No value found for attribute named '" + name +
+							"' in merged annotation " + this.annotation.getType().getName()));
+			this.valueCache.set(index, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Clone the provided array, ensuring that the original component type is retained.
+	 * Non-array values are returned as-is, since they are immutable.
+	 * @param value the attribute value to clone if necessary
+	 */
+	private Object cloneArray(Object value) {
+		if (value instanceof boolean[]) {
+			return ((boolean[]) value).clone();
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		if (value instanceof char[]) {
+			return ((char[]) value).clone();
+		}
+		if (value instanceof double[]) {
+			return ((double[]) value).clone();
+		}
+		if (value instanceof float[]) {
+			return ((float[]) value).clone();
+		}
+		if (value instanceof int[]) {
+			return ((int[]) value).clone();
+		}
+		if (value instanceof long[]) {
+			return ((long[]) value).clone();
+		}
+		if (value instanceof short[]) {
+			return ((short[]) value).clone();
+		}
+		if (value instanceof Object[]) {
+			return ((Object[]) value).clone();
+		}
+		return value;
 	}
 
 	@SuppressWarnings("unchecked")
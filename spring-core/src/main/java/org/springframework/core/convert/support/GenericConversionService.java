@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -27,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -58,6 +60,7 @@ import org.springframework.util.StringUtils;
  * @author Chris Beams
  * @author Phillip Webb
  * @author David Haraburda
+ * @author Tan Jiquan
  * @since 3.0
  */
 public class GenericConversionService implements ConfigurableConversionService {
@@ -78,6 +81,15 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/** Converter handles by raw class pair: source class -> (target class -> ConverterHandle or NO_MATCH). */
+	private final Map<Class<?>, Map<Class<?>, Object>> converterHandleCache = new ConcurrentReferenceHashMap<>(64);
+
+	/**
+	 * Whether the Class-based conversion methods may use converter handles,
+	 * that is, whether the TypeDescriptor-based variants are not overridden.
+	 */
+	private final boolean converterHandlesApplicable = !overridesTypeDescriptorConversion(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +144,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return true;
+		}
+		if (this.converterHandlesApplicable) {
+			return (getConverterHandle(sourceType, targetType) != null);
+		}
+		return canConvert(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
 	}
 
 	@Override
@@ -171,6 +188,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.converterHandlesApplicable) {
+			ConverterHandle handle = getConverterHandle(source.getClass(), targetType);
+			if (handle != null) {
+				return (T) handle.convert(source);
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -212,6 +235,43 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Return a precompiled {@link ConverterHandle} for the given raw source and
+	 * target classes, or {@code null} if no suitable converter is available.
+	 * <p>Handles are cached per class pair without creating any lookup key, so
+	 * callers converting between plain, non-generic types may either call this
+	 * method on every conversion or keep the returned handle around. A handle
+	 * reflects the converters registered at the time it was obtained; it does
+	 * not see converters added or removed afterwards.
+	 * @param sourceType the source class to convert from
+	 * @param targetType the target class to convert to
+	 * @return the converter handle, or {@code null} if no converter matches
+	 * @since 5.3
+	 * @see #getConverter(TypeDescriptor, TypeDescriptor)
+	 */
+	@Nullable
+	public ConverterHandle getConverterHandle(Class<?> sourceType, Class<?> targetType) {
+		Assert.notNull(sourceType, "Source type to convert from cannot be null");
+		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		Map<Class<?>, Object> handles = this.converterHandleCache.get(sourceType);
+		Object handle = (handles != null ? handles.get(targetType) : null);
+		if (handle == null) {
+			TypeDescriptor sourceTypeDesc = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetTypeDesc = TypeDescriptor.valueOf(targetType);
+			GenericConverter converter = getConverter(sourceTypeDesc, targetTypeDesc);
+			handle = (converter != null ? new ConverterHandle(sourceTypeDesc, targetTypeDesc, converter) : NO_MATCH);
+			if (handles == null) {
+				handles = new ConcurrentHashMap<>(8);
+				Map<Class<?>, Object> existing = this.converterHandleCache.putIfAbsent(sourceType, handles);
+				if (existing != null) {
+					handles = existing;
+				}
+			}
+			handles.put(targetType, handle);
+		}
+		return (handle != NO_MATCH ? (ConverterHandle) handle : null);
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -304,6 +364,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.converterHandleCache.clear();
 	}
 
 	@Nullable
@@ -336,6 +397,91 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 	}
 
+	/**
+	 * Determine whether the given subclass overrides the TypeDescriptor-based
+	 * {@code canConvert} or {@code convert} method, in which case the Class-based
+	 * variants have to delegate to them rather than use converter handles.
+	 */
+	private static boolean overridesTypeDescriptorConversion(Class<?> clazz) {
+		if (clazz == GenericConversionService.class || clazz == DefaultConversionService.class) {
+			return false;
+		}
+		Method canConvert = ClassUtils.getMethodIfAvailable(clazz, "canConvert",
+				TypeDescriptor.class, TypeDescriptor.class);
+		Method convert = ClassUtils.getMethodIfAvailable(clazz, "convert",
+				Object.class, TypeDescriptor.class, TypeDescriptor.class);
+		return (canConvert == null || canConvert.getDeclaringClass() != GenericConversionService.class ||
+				convert == null || convert.getDeclaringClass() != GenericConversionService.class);
+	}
+
+
+	/**
+	 * A converter resolved once for a fixed pair of raw source and target classes,
+	 * ready to be invoked repeatedly without any further converter lookup.
+	 * @since 5.3
+	 * @see GenericConversionService#getConverterHandle(Class, Class)
+	 */
+	public final class ConverterHandle {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		private final GenericConverter converter;
+
+		private ConverterHandle(TypeDescriptor sourceType, TypeDescriptor targetType, GenericConverter converter) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+
+		/**
+		 * Return the source type this handle converts from.
+		 */
+		public TypeDescriptor getSourceType() {
+			return this.sourceType;
+		}
+
+		/**
+		 * Return the target type this handle converts to.
+		 */
+		public TypeDescriptor getTargetType() {
+			return this.targetType;
+		}
+
+		/**
+		 * Return whether conversion can be bypassed, i.e. whether source objects
+		 * are returned unchanged.
+		 * @see GenericConversionService#canBypassConvert(TypeDescriptor, TypeDescriptor)
+		 */
+		public boolean isNoOp() {
+			return (this.converter == NO_OP_CONVERTER);
+		}
+
+		/**
+		 * Convert the given source object to the target type of this handle.
+		 * @param source the source object to convert (may be {@code null})
+		 * @return the converted object
+		 * @throws ConversionException if a conversion exception occurred
+		 * @throws IllegalArgumentException if the source object is not an
+		 * instance of the source type of this handle
+		 */
+		@Nullable
+		public Object convert(@Nullable Object source) {
+			if (source != null && !this.sourceType.getObjectType().isInstance(source)) {
+				throw new IllegalArgumentException("Source to convert from must be an instance of [" +
+						this.sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
+			}
+			Object result = ConversionUtils.invokeConverter(this.converter, source, this.sourceType, this.targetType);
+			return handleResult(this.sourceType, this.targetType, result);
+		}
+
+		@Override
+		public String toString() {
+			return this.sourceType + " -> " + this.targetType + " : " + this.converter;
+		}
+	}
+
 
 	/**
 	 * Adapts a {@link Converter} to a {@link GenericConverter}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import org.springframework.util.StringUtils;
  *
  * @author Chris Beams
  * @author Juergen Hoeller
+ * @author Tan Jiquan
  * @since 3.1
  * @see ConfigurableEnvironment
  * @see StandardEnvironment
@@ -109,8 +110,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
-			new PropertySourcesPropertyResolver(this.propertySources);
+	private final ConfigurablePropertyResolver propertyResolver;
 
 
 	/**
@@ -121,6 +121,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 	 * @see #customizePropertySources(MutablePropertySources)
 	 */
 	public AbstractEnvironment() {
+		this.propertyResolver = createPropertyResolver(this.propertySources);
 		customizePropertySources(this.propertySources);
 	}
 
@@ -203,6 +204,31 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 	protected void customizePropertySources(MutablePropertySources propertySources) {
 	}
 
+	/**
+	 * Factory method used to create the {@link ConfigurablePropertyResolver}
+	 * instance used by the Environment.
+	 * <p>The default implementation returns a {@link PropertySourcesPropertyResolver}.
+	 * Subclasses may return an {@link IndexedPropertySourcesPropertyResolver} instead
+	 * for large property source hierarchies. The same instance variable restrictions
+	 * as for {@link #customizePropertySources} apply.
+	 * @param propertySources the property sources to resolve against
+	 * @since 5.3
+	 * @see #getPropertyResolver()
+	 */
+	protected ConfigurablePropertyResolver createPropertyResolver(MutablePropertySources propertySources) {
+		return new PropertySourcesPropertyResolver(propertySources);
+	}
+
+	/**
+	 * Return the {@link ConfigurablePropertyResolver} being used by the
+	 * {@link Environment}.
+	 * @since 5.3
+	 * @see #createPropertyResolver(MutablePropertySources)
+	 */
+	protected final ConfigurablePropertyResolver getPropertyResolver() {
+		return this.propertyResolver;
+	}
+
 	/**
 	 * Return the set of reserved default profile names. This implementation returns
 	 * {@value #RESERVED_DEFAULT_PROFILE_NAME}. Subclasses may override in order to
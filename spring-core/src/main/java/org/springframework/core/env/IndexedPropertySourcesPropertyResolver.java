@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link PropertySourcesPropertyResolver} variant that keeps a merged key index
+ * across the {@link EnumerablePropertySource enumerable} property sources, so that
+ * a lookup only consults the property sources which may actually hold the key
+ * instead of walking the entire {@link PropertySources} hierarchy.
+ *
+ * <p>Property sources that cannot be indexed (see {@link #isIndexable}) are still
+ * consulted for every key, in their original order of precedence. The index is
+ * rebuilt automatically whenever property sources are added, removed or replaced.
+ * The key sets of indexed property sources are assumed to be stable, though:
+ * if properties get added to or removed from such a source after the index has
+ * been built, {@link #invalidateIndex()} needs to be called.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @see AbstractEnvironment#createPropertyResolver(MutablePropertySources)
+ */
+public class IndexedPropertySourcesPropertyResolver extends PropertySourcesPropertyResolver {
+
+	@Nullable
+	private final PropertySources propertySources;
+
+	@Nullable
+	private volatile PropertySourceIndex index;
+
+
+	/**
+	 * Create a new resolver against the given property sources.
+	 * @param propertySources the set of {@link PropertySource} objects to use
+	 */
+	public IndexedPropertySourcesPropertyResolver(@Nullable PropertySources propertySources) {
+		super(propertySources);
+		this.propertySources = propertySources;
+	}
+
+
+	/**
+	 * Discard the current key index, rebuilding it on the next property lookup.
+	 * <p>To be called after the key set of an indexed property source has changed.
+	 */
+	public void invalidateIndex() {
+		this.index = null;
+	}
+
+	/**
+	 * Determine whether the given property source can be indexed by its
+	 * {@link EnumerablePropertySource#getPropertyNames() property names}.
+	 * <p>The default implementation accepts {@link MapPropertySource} instances
+	 * except for the {@link SystemEnvironmentPropertySource}, which also resolves
+	 * variants of the given property names, and the
+	 * {@linkplain StandardEnvironment#SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME system
+	 * properties}, which are commonly modified at runtime. Subclasses may accept
+	 * any other {@code EnumerablePropertySource} which only contains properties
+	 * under the names it enumerates.
+	 * @param propertySource the property source to check
+	 * @return {@code true} if the property source can be indexed
+	 */
+	protected boolean isIndexable(PropertySource<?> propertySource) {
+		return (propertySource instanceof MapPropertySource &&
+				!(propertySource instanceof SystemEnvironmentPropertySource) &&
+				!StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME.equals(propertySource.getName()));
+	}
+
+	@Override
+	public boolean containsProperty(String key) {
+		if (this.propertySources != null) {
+			for (PropertySource<?> propertySource : getIndex(this.propertySources).getCandidates(key)) {
+				if (propertySource.containsProperty(key)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@Nullable
+	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		if (this.propertySources != null) {
+			for (PropertySource<?> propertySource : getIndex(this.propertySources).getCandidates(key)) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Searching for key '" + key + "' in PropertySource '" +
+							propertySource.getName() + "'");
+				}
+				Object value = propertySource.getProperty(key);
+				if (value != null) {
+					if (resolveNestedPlaceholders && value instanceof String) {
+						value = resolveNestedPlaceholders((String) value);
+					}
+					logKeyFound(key, propertySource, value);
+					return convertValueIfNecessary(value, targetValueType);
+				}
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Could not find key '" + key + "' in any property source");
+		}
+		return null;
+	}
+
+	private PropertySourceIndex getIndex(PropertySources propertySources) {
+		PropertySourceIndex index = this.index;
+		if (index == null || !index.isCurrent(propertySources)) {
+			index = buildIndex(propertySources);
+			this.index = index;
+		}
+		return index;
+	}
+
+	private PropertySourceIndex buildIndex(PropertySources propertySources) {
+		List<PropertySource<?>> snapshot = new ArrayList<>();
+		List<PropertySource<?>> unindexed = new ArrayList<>();
+		Map<String, List<PropertySource<?>>> candidates = new HashMap<>();
+		for (PropertySource<?> propertySource : propertySources) {
+			snapshot.add(propertySource);
+			if (propertySource instanceof EnumerablePropertySource && isIndexable(propertySource)) {
+				for (String name : ((EnumerablePropertySource<?>) propertySource).getPropertyNames()) {
+					candidates.computeIfAbsent(name, key -> new ArrayList<>(unindexed)).add(propertySource);
+				}
+			}
+			else {
+				// Non-indexable sources take part in every lookup, in their original order
+				unindexed.add(propertySource);
+				for (List<PropertySource<?>> candidatesForKey : candidates.values()) {
+					candidatesForKey.add(propertySource);
+				}
+			}
+		}
+		Map<String, PropertySource<?>[]> candidateArrays = new HashMap<>(candidates.size());
+		candidates.forEach((key, candidatesForKey) -> candidateArrays.put(key, toArray(candidatesForKey)));
+		return new PropertySourceIndex(toArray(snapshot), candidateArrays, toArray(unindexed));
+	}
+
+	private static PropertySource<?>[] toArray(List<PropertySource<?>> propertySources) {
+		return propertySources.toArray(new PropertySource<?>[0]);
+	}
+
+
+	/**
+	 * Snapshot of the property sources at index time, together with the
+	 * property sources to consult per key.
+	 */
+	private static final class PropertySourceIndex {
+
+		private final PropertySource<?>[] propertySources;
+
+		private final Map<String, PropertySource<?>[]> candidates;
+
+		private final PropertySource<?>[] unindexed;
+
+		PropertySourceIndex(PropertySource<?>[] propertySources,
+				Map<String, PropertySource<?>[]> candidates, PropertySource<?>[] unindexed) {
+
+			this.propertySources = propertySources;
+			this.candidates = candidates;
+			this.unindexed = unindexed;
+		}
+
+		/**
+		 * Check whether the given property sources still contain exactly the
+		 * same property source instances, in the same order, as at index time.
+		 */
+		boolean isCurrent(PropertySources propertySources) {
+			Iterator<PropertySource<?>> it = propertySources.iterator();
+			for (PropertySource<?> propertySource : this.propertySources) {
+				if (!it.hasNext() || it.next() != propertySource) {
+					return false;
+				}
+			}
+			return !it.hasNext();
+		}
+
+		PropertySource<?>[] getCandidates(String key) {
+			PropertySource<?>[] candidates = this.candidates.get(key);
+			return (candidates != null ? candidates : this.unindexed);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,7 +32,9 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -174,6 +176,7 @@ import org.springframework.util.StringUtils;
  * @author Marius Bogoevici
  * @author Costin Leau
  * @author Phillip Webb
+ * @author Tan Jiquan
  * @since 1.0.2
  * @see #CLASSPATH_ALL_URL_PREFIX
  * @see org.springframework.util.AntPathMatcher
@@ -205,6 +208,11 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private volatile boolean cacheJarEntries;
+
+	/** Entry names per jar file URL, in jar order, if {@link #cacheJarEntries} is on. */
+	private final Map<String, String[]> jarEntriesCache = new ConcurrentHashMap<>();
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -268,6 +276,39 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Specify whether to cache the entry names of each jar file, traversing
+	 * every jar only once for any number of patterns resolved against it.
+	 * <p>Default is "false". Intended for a bounded scanning phase such as an
+	 * application context refresh; switching it off clears the cache again.
+	 * @since 5.3
+	 * @see #clearCache()
+	 */
+	public void setCacheJarEntries(boolean cacheJarEntries) {
+		this.cacheJarEntries = cacheJarEntries;
+		if (!cacheJarEntries) {
+			this.jarEntriesCache.clear();
+		}
+	}
+
+	/**
+	 * Return whether the entry names of each jar file get cached.
+	 * @since 5.3
+	 */
+	public boolean isCacheJarEntries() {
+		return this.cacheJarEntries;
+	}
+
+	/**
+	 * Clear the local cache of jar file entries, traversing each jar file
+	 * again on the next pattern resolution.
+	 * @since 5.3
+	 * @see #setCacheJarEntries
+	 */
+	public void clearCache() {
+		this.jarEntriesCache.clear();
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -645,9 +686,7 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
+			for (String entryPath : getJarEntryNames(jarFileUrl, jarFile)) {
 				if (entryPath.startsWith(rootEntryPath)) {
 					String relativePath = entryPath.substring(rootEntryPath.length());
 					if (getPathMatcher().match(subPattern, relativePath)) {
@@ -664,6 +703,35 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Return the names of all entries in the given jar file, in jar order,
+	 * traversing the jar only once for all root directories within it
+	 * if {@link #setCacheJarEntries jar entry caching} is on.
+	 * @param jarFileUrl the URL of the jar file, used as cache key
+	 * @param jarFile the jar file to traverse if not cached yet
+	 */
+	private String[] getJarEntryNames(String jarFileUrl, JarFile jarFile) {
+		boolean cache = this.cacheJarEntries;
+		String[] entryNames = (cache ? this.jarEntriesCache.get(jarFileUrl) : null);
+		if (entryNames == null) {
+			entryNames = new String[jarFile.size()];
+			int count = 0;
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				if (count == entryNames.length) {
+					entryNames = Arrays.copyOf(entryNames, count * 2 + 1);
+				}
+				entryNames[count++] = entries.nextElement().getName();
+			}
+			if (count < entryNames.length) {
+				entryNames = Arrays.copyOf(entryNames, count);
+			}
+			if (cache) {
+				this.jarEntriesCache.put(jarFileUrl, entryNames);
+			}
+		}
+		return entryNames;
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that keeps the most recently
+ * ended {@link StartupStep steps} in a fixed-size ring buffer.
+ *
+ * <p>Recording a step does not take any lock: once the buffer is full, the
+ * oldest steps are overwritten and counted as {@link #getDroppedStepCount() dropped}.
+ * Parent steps are tracked per thread, so steps started concurrently on
+ * different threads are attributed to the step currently active on their
+ * own thread.
+ *
+ * <p>The recorded steps can be retrieved with {@link #getBufferedSteps()} or
+ * written as JSON with {@link #writeJson(Writer)}, for example to find the
+ * slowest beans of a context without attaching a profiler:
+ * <pre class="code">
+ * BufferingApplicationStartup startup = new BufferingApplicationStartup(10000);
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * context.setApplicationStartup(startup);
+ * context.register(AppConfig.class);
+ * context.refresh();
+ * startup.writeJson(writer);
+ * </pre>
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final AtomicReferenceArray<BufferSlot> buffer;
+
+	private final AtomicLong writeIndex = new AtomicLong();
+
+	private final AtomicLong idGenerator = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentStep = new ThreadLocal<>();
+
+	private final Instant startTime = Instant.now();
+
+	@Nullable
+	private volatile Predicate<StartupStep> filter;
+
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup} keeping up to the
+	 * given number of steps.
+	 * @param capacity the maximum number of ended steps kept in the buffer
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be positive");
+		this.capacity = capacity;
+		this.buffer = new AtomicReferenceArray<>(capacity);
+	}
+
+
+	/**
+	 * Return the maximum number of steps kept in the buffer.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Specify a filter that ended steps need to match in order to be recorded,
+	 * e.g. {@code step -> step.getName().startsWith("spring.beans.")}.
+	 * <p>The filter is applied once a step has ended, so it can take the
+	 * step's tags into account.
+	 */
+	public void setFilter(@Nullable Predicate<StartupStep> filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * Return the instant at which this {@code ApplicationStartup} was created.
+	 */
+	public Instant getStartTime() {
+		return this.startTime;
+	}
+
+	@Override
+	public StartupStep start(String name) {
+		BufferedStartupStep parent = this.currentStep.get();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this, this.idGenerator.incrementAndGet(), name, parent);
+		this.currentStep.set(step);
+		return step;
+	}
+
+	private void record(BufferedStartupStep step) {
+		// Restore the parent as current step, also if nested steps were not ended
+		for (BufferedStartupStep current = this.currentStep.get(); current != null; current = current.parent) {
+			if (current == step) {
+				if (step.parent != null) {
+					this.currentStep.set(step.parent);
+				}
+				else {
+					this.currentStep.remove();
+				}
+				break;
+			}
+		}
+		Predicate<StartupStep> filter = this.filter;
+		if (filter == null || filter.test(step)) {
+			long index = this.writeIndex.getAndIncrement();
+			int position = (int) (index % this.capacity);
+			BufferSlot slot = new BufferSlot(index, step);
+			// Never replace a step written for a later index by a slower thread
+			BufferSlot existing = this.buffer.get(position);
+			while ((existing == null || existing.index < index) &&
+					!this.buffer.compareAndSet(position, existing, slot)) {
+				existing = this.buffer.get(position);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of steps that have been overwritten in the buffer
+	 * because its capacity was reached.
+	 */
+	public long getDroppedStepCount() {
+		return Math.max(0, this.writeIndex.get() - this.capacity);
+	}
+
+	/**
+	 * Return a snapshot of the steps currently held in the buffer, in the
+	 * order in which they ended.
+	 * <p>Steps that are being recorded concurrently may not be part of the
+	 * snapshot yet.
+	 */
+	public List<BufferedStartupStep> getBufferedSteps() {
+		long end = this.writeIndex.get();
+		long start = Math.max(0, end - this.capacity);
+		List<BufferedStartupStep> steps = new ArrayList<>((int) (end - start));
+		for (long index = start; index < end; index++) {
+			BufferSlot slot = this.buffer.get((int) (index % this.capacity));
+			// Skip slots not written yet for this index, or already overwritten
+			if (slot != null && slot.index == index) {
+				steps.add(slot.step);
+			}
+		}
+		return steps;
+	}
+
+	/**
+	 * Write the {@link #getBufferedSteps() buffered steps} as a JSON document
+	 * to the given {@code Writer}.
+	 * <p>Each step is rendered with its id, parent id, name, start time, duration
+	 * in nanoseconds and tags.
+	 * @param writer the writer to write to (not closed by this method)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeJson(Writer writer) throws IOException {
+		List<BufferedStartupStep> steps = getBufferedSteps();
+		writer.write("{\"startTime\":\"");
+		writer.write(this.startTime.toString());
+		writer.write("\",\"droppedSteps\":");
+		writer.write(Long.toString(getDroppedStepCount()));
+		writer.write(",\"steps\":[");
+		for (int i = 0; i < steps.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writeJson(steps.get(i), writer);
+		}
+		writer.write("]}");
+	}
+
+	/**
+	 * Return the {@link #getBufferedSteps() buffered steps} as a JSON document.
+	 * @see #writeJson(Writer)
+	 */
+	public String toJson() {
+		StringWriter writer = new StringWriter();
+		try {
+			writeJson(writer);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return writer.toString();
+	}
+
+	private void writeJson(BufferedStartupStep step, Writer writer) throws IOException {
+		writer.write("{\"id\":");
+		writer.write(Long.toString(step.getId()));
+		writer.write(",\"parentId\":");
+		Long parentId = step.getParentId();
+		writer.write(parentId != null ? parentId.toString() : "null");
+		writer.write(",\"name\":");
+		writeJsonString(step.getName(), writer);
+		writer.write(",\"startTime\":\"");
+		writer.write(step.getStartTime().toString());
+		writer.write("\",\"duration\":");
+		writer.write(Long.toString(step.getDuration().toNanos()));
+		writer.write(",\"tags\":{");
+		boolean first = true;
+		for (StartupStep.Tag tag : step.getTags()) {
+			if (!first) {
+				writer.write(',');
+			}
+			writeJsonString(tag.getKey(), writer);
+			writer.write(':');
+			writeJsonString(tag.getValue(), writer);
+			first = false;
+		}
+		writer.write("}}");
+	}
+
+	private static void writeJsonString(@Nullable String value, Writer writer) throws IOException {
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			switch (ch) {
+				case '"':
+					writer.write("\\\"");
+					break;
+				case '\\':
+					writer.write("\\\\");
+					break;
+				case '\n':
+					writer.write("\\n");
+					break;
+				case '\r':
+					writer.write("\\r");
+					break;
+				case '\t':
+					writer.write("\\t");
+					break;
+				default:
+					if (ch < 0x20) {
+						writer.write(String.format("\\u%04x", (int) ch));
+					}
+					else {
+						writer.write(ch);
+					}
+			}
+		}
+		writer.write('"');
+	}
+
+
+	/**
+	 * {@link StartupStep} recorded by a {@link BufferingApplicationStartup}.
+	 */
+	public static final class BufferedStartupStep implements StartupStep {
+
+		private final BufferingApplicationStartup applicationStartup;
+
+		private final long id;
+
+		private final String name;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final Instant startTime;
+
+		private final long startNanos;
+
+		private final BufferedTags tags = new BufferedTags();
+
+		private volatile long durationNanos = -1;
+
+		BufferedStartupStep(BufferingApplicationStartup applicationStartup, long id, String name,
+				@Nullable BufferedStartupStep parent) {
+
+			this.applicationStartup = applicationStartup;
+			this.id = id;
+			this.name = name;
+			this.parent = parent;
+			this.startTime = Instant.now();
+			this.startNanos = System.nanoTime();
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		/**
+		 * Return the instant at which this step started.
+		 */
+		public Instant getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the duration of this step, or {@link Duration#ZERO} if it
+		 * has not ended yet.
+		 */
+		public Duration getDuration() {
+			long duration = this.durationNanos;
+			return (duration >= 0 ? Duration.ofNanos(duration) : Duration.ZERO);
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			assertNotEnded();
+			this.tags.add(key, value);
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return this.tags;
+		}
+
+		@Override
+		public void end() {
+			assertNotEnded();
+			this.durationNanos = System.nanoTime() - this.startNanos;
+			this.applicationStartup.record(this);
+		}
+
+		private void assertNotEnded() {
+			Assert.state(this.durationNanos < 0, "StartupStep has already ended");
+		}
+
+		@Override
+		public String toString() {
+			return "StartupStep '" + this.name + "' [id=" + this.id + ", duration=" + getDuration() + "]";
+		}
+	}
+
+
+	/**
+	 * Buffer entry, holding a step along with the write index it was recorded at.
+	 */
+	private static final class BufferSlot {
+
+		final long index;
+
+		final BufferedStartupStep step;
+
+		BufferSlot(long index, BufferedStartupStep step) {
+			this.index = index;
+			this.step = step;
+		}
+	}
+
+
+	private static class BufferedTags implements StartupStep.Tags {
+
+		private List<StartupStep.Tag> tags = Collections.emptyList();
+
+		void add(String key, String value) {
+			if (this.tags.isEmpty()) {
+				this.tags = new ArrayList<>(2);
+			}
+			this.tags.add(new BufferedTag(key, value));
+		}
+
+		@Override
+		public Iterator<StartupStep.Tag> iterator() {
+			return Collections.unmodifiableList(this.tags).iterator();
+		}
+	}
+
+
+	private static class BufferedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		BufferedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
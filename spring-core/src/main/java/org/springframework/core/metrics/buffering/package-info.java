@@ -0,0 +1,10 @@
+/**
+ * {@link org.springframework.core.metrics.ApplicationStartup} implementation
+ * recording startup steps in an in-memory ring buffer.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.metrics.buffering;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
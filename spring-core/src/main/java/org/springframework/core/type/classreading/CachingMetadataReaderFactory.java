@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,17 @@
 
 package org.springframework.core.type.classreading;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.Nullable;
 
 /**
@@ -31,6 +34,10 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>Class metadata read from jar files may additionally be kept in a persistent
+ * cache directory, avoiding to parse the same class files again on every JVM start.
+ * See {@link #setPersistentCacheDirectory} and {@link #PERSISTENT_CACHE_PROPERTY_NAME}.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -40,10 +47,25 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	/** Default maximum number of entries for a local MetadataReader cache: 256. */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
+	/**
+	 * System property that specifies a directory for a persistent metadata cache
+	 * shared by all CachingMetadataReaderFactory instances, e.g.
+	 * {@code -Dspring.classreading.cache.dir=/var/cache/app}: {@value}.
+	 * <p>May alternatively be configured via a {@code spring.properties} file
+	 * in the root of the classpath.
+	 * @since 5.3
+	 * @see #setPersistentCacheDirectory
+	 */
+	public static final String PERSISTENT_CACHE_PROPERTY_NAME = "spring.classreading.cache.dir";
+
 	/** MetadataReader cache: either local or shared at the ResourceLoader level. */
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** Persistent cache for jar entries, shared per directory. */
+	@Nullable
+	private volatile PersistentMetadataCache persistentCache = getDefaultPersistentCache();
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -114,36 +136,74 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	/**
+	 * Specify a directory for persistently caching the metadata of classes in
+	 * jar files, with cache entries being validated against the size and
+	 * last-modified timestamp of each jar file.
+	 * <p>Newly read metadata is written to the directory on {@link #clearCache()}.
+	 * Default is the directory specified by {@link #PERSISTENT_CACHE_PROPERTY_NAME},
+	 * if any; {@code null} turns persistent caching off.
+	 * @since 5.3
+	 */
+	public void setPersistentCacheDirectory(@Nullable File directory) {
+		this.persistentCache = (directory != null ? PersistentMetadataCache.forDirectory(directory) : null);
+	}
+
+
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
 		if (this.metadataReaderCache instanceof ConcurrentMap) {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = readMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+			Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+			synchronized (cache) {
+				MetadataReader metadataReader = cache.get(resource);
+				if (metadataReader != null) {
+					return metadataReader;
 				}
-				return metadataReader;
+			}
+			// Read outside of the lock, allowing for concurrent scanning threads
+			MetadataReader metadataReader = readMetadataReader(resource);
+			synchronized (cache) {
+				MetadataReader existing = cache.putIfAbsent(resource, metadataReader);
+				return (existing != null ? existing : metadataReader);
 			}
 		}
 		else {
+			return readMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader readMetadataReader(Resource resource) throws IOException {
+		PersistentMetadataCache persistentCache = this.persistentCache;
+		if (persistentCache == null) {
 			return super.getMetadataReader(resource);
 		}
+		AnnotationMetadata metadata = persistentCache.get(resource, getResourceLoader().getClassLoader());
+		if (metadata != null) {
+			return new SimpleMetadataReader(resource, metadata);
+		}
+		MetadataReader metadataReader = super.getMetadataReader(resource);
+		persistentCache.put(resource, metadataReader.getAnnotationMetadata());
+		return metadataReader;
 	}
 
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * Pending entries for the persistent cache, if any, are written out at this point.
 	 */
 	public void clearCache() {
+		PersistentMetadataCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			persistentCache.flush();
+		}
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
 			synchronized (this.metadataReaderCache) {
 				this.metadataReaderCache.clear();
@@ -156,6 +216,13 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	@Nullable
+	private static PersistentMetadataCache getDefaultPersistentCache() {
+		String directory = SpringProperties.getProperty(PERSISTENT_CACHE_PROPERTY_NAME);
+		return (directory != null ? PersistentMetadataCache.forDirectory(new File(directory)) : null);
+	}
+
+
 	@SuppressWarnings("serial")
 	private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
 
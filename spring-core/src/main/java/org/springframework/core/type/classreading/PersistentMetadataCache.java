@@ -0,0 +1,620 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Persistent store for {@link SimpleAnnotationMetadata} of classes in jar files,
+ * shared per cache directory across {@link CachingMetadataReaderFactory} instances.
+ *
+ * <p>Each jar file gets its own cache file, identified by the jar's path and
+ * validated against a checksum of the jar's size and last-modified timestamp.
+ * Cache files are read on first access, with class metadata decoded on demand;
+ * newly read metadata is kept in memory until {@link #flush()} rewrites the
+ * affected cache files. Jars are validated again on first access after a flush,
+ * so modified jars do not serve stale metadata in subsequent scans.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ */
+final class PersistentMetadataCache {
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataCache.class);
+
+	private static final int MAGIC = 0x534d4443;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 24;
+
+	private static final String CACHE_FILE_SUFFIX = ".metadata";
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte BOOLEAN = 2;
+
+	private static final byte BYTE = 3;
+
+	private static final byte CHAR = 4;
+
+	private static final byte SHORT = 5;
+
+	private static final byte INT = 6;
+
+	private static final byte LONG = 7;
+
+	private static final byte FLOAT = 8;
+
+	private static final byte DOUBLE = 9;
+
+	private static final byte ENUM = 10;
+
+	private static final byte ANNOTATION = 11;
+
+	private static final byte ARRAY = 12;
+
+	private static final Map<File, PersistentMetadataCache> caches = new ConcurrentHashMap<>();
+
+
+	private final File directory;
+
+	private final Map<File, JarMetadata> jars = new ConcurrentHashMap<>();
+
+
+	private PersistentMetadataCache(File directory) {
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Return the shared cache for the given directory.
+	 */
+	static PersistentMetadataCache forDirectory(File directory) {
+		return caches.computeIfAbsent(directory.getAbsoluteFile(), PersistentMetadataCache::new);
+	}
+
+
+	/**
+	 * Return the cached metadata for the given class file resource.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 * @return the metadata, or {@code null} if not cached (or not a jar entry)
+	 */
+	@Nullable
+	AnnotationMetadata get(Resource resource, @Nullable ClassLoader classLoader) {
+		JarEntryKey key = JarEntryKey.of(resource);
+		if (key == null) {
+			return null;
+		}
+		byte[] data = getJarMetadata(key.jarFile).get(key.entryName);
+		if (data == null) {
+			return null;
+		}
+		try {
+			return decode(new DataInputStream(new ByteArrayInputStream(data)), classLoader);
+		}
+		catch (Exception ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring cached metadata for " + resource + ": " + ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the given metadata for the given class file resource, to be written on
+	 * the next {@link #flush()}. Metadata that cannot be encoded is silently skipped.
+	 * @param resource the class file resource
+	 * @param metadata the metadata read via ASM
+	 */
+	void put(Resource resource, AnnotationMetadata metadata) {
+		if (!(metadata instanceof SimpleAnnotationMetadata)) {
+			return;
+		}
+		JarEntryKey key = JarEntryKey.of(resource);
+		if (key == null) {
+			return;
+		}
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+			encode(new DataOutputStream(bos), (SimpleAnnotationMetadata) metadata);
+			getJarMetadata(key.jarFile).put(key.entryName, bos.toByteArray());
+		}
+		catch (Exception ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Not caching metadata for " + resource + ": " + ex);
+			}
+		}
+	}
+
+	/**
+	 * Write all pending metadata to the cache files, releasing the loaded cache files.
+	 */
+	void flush() {
+		for (Iterator<JarMetadata> it = this.jars.values().iterator(); it.hasNext();) {
+			it.next().flush();
+			it.remove();
+		}
+	}
+
+	private JarMetadata getJarMetadata(File jarFile) {
+		return this.jars.computeIfAbsent(jarFile, JarMetadata::new);
+	}
+
+
+	private static void encode(DataOutputStream out, SimpleAnnotationMetadata metadata) throws IOException {
+		out.writeUTF(metadata.getClassName());
+		out.writeInt(metadata.getAccess());
+		writeNullableString(out, metadata.getEnclosingClassName());
+		writeNullableString(out, metadata.getSuperClassName());
+		out.writeBoolean(metadata.getEnclosingClassName() != null && metadata.isIndependent());
+		writeStringArray(out, metadata.getInterfaceNames());
+		writeStringArray(out, metadata.getMemberClassNames());
+		writeAnnotations(out, metadata.getAnnotations());
+		MethodMetadata[] annotatedMethods = metadata.getAnnotatedMethods();
+		out.writeInt(annotatedMethods.length);
+		for (MethodMetadata method : annotatedMethods) {
+			SimpleMethodMetadata simpleMethod = (SimpleMethodMetadata) method;
+			MergedAnnotations annotations = simpleMethod.getAnnotations();
+			Object source = annotations.stream().findFirst().map(MergedAnnotation::getSource).orElse(null);
+			out.writeUTF(simpleMethod.getMethodName());
+			out.writeInt(simpleMethod.getAccess());
+			out.writeUTF(simpleMethod.getDeclaringClassName());
+			out.writeUTF(simpleMethod.getReturnTypeName());
+			out.writeUTF(source instanceof SimpleMethodMetadataReadingVisitor.Source ?
+					((SimpleMethodMetadataReadingVisitor.Source) source).getDescriptor() : "()V");
+			writeAnnotations(out, annotations);
+		}
+	}
+
+	private static AnnotationMetadata decode(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStringArray(in);
+		String[] memberClassNames = readStringArray(in);
+		MergedAnnotations annotations = readAnnotations(in, classLoader,
+				new SimpleAnnotationMetadataReadingVisitor.Source(className));
+		MethodMetadata[] annotatedMethods = new MethodMetadata[in.readInt()];
+		for (int i = 0; i < annotatedMethods.length; i++) {
+			String methodName = in.readUTF();
+			int methodAccess = in.readInt();
+			String declaringClassName = in.readUTF();
+			String returnTypeName = in.readUTF();
+			Object source = new SimpleMethodMetadataReadingVisitor.Source(declaringClassName, methodName, in.readUTF());
+			annotatedMethods[i] = new SimpleMethodMetadata(methodName, methodAccess, declaringClassName,
+					returnTypeName, readAnnotations(in, classLoader, source));
+		}
+		return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+	}
+
+	private static void writeAnnotations(DataOutputStream out, MergedAnnotations annotations) throws IOException {
+		List<MergedAnnotation<Annotation>> directAnnotations = new ArrayList<>();
+		annotations.stream().filter(MergedAnnotation::isDirectlyPresent).forEach(directAnnotations::add);
+		out.writeInt(directAnnotations.size());
+		for (MergedAnnotation<Annotation> annotation : directAnnotations) {
+			out.writeUTF(annotation.getType().getName());
+			writeAttributes(out, annotation.asMap(Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP));
+		}
+	}
+
+	private static MergedAnnotations readAnnotations(DataInputStream in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException {
+
+		int count = in.readInt();
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String typeName = in.readUTF();
+			Map<String, Object> attributes = readAttributes(in, classLoader);
+			Class<? extends Annotation> annotationType = resolveAnnotationType(typeName, classLoader);
+			if (annotationType != null) {
+				annotations.add(MergedAnnotation.of(classLoader, source, annotationType, attributes));
+			}
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static Class<? extends Annotation> resolveAnnotationType(String typeName,
+			@Nullable ClassLoader classLoader) {
+
+		try {
+			return (Class<? extends Annotation>) ClassUtils.forName(typeName, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// Skipped like an unresolvable annotation type when reading the class file
+			return null;
+		}
+	}
+
+	private static void writeAttributes(DataOutputStream out, Map<String, Object> attributes) throws IOException {
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, Object> readAttributes(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		int size = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(size);
+		for (int i = 0; i < size; i++) {
+			attributes.put(in.readUTF(), readValue(in, classLoader));
+		}
+		return attributes;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte(CHAR);
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INT);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Enum) {
+			out.writeByte(ENUM);
+			out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+			out.writeUTF(((Enum<?>) value).name());
+		}
+		else if (value instanceof Map) {
+			out.writeByte(ANNOTATION);
+			writeAttributes(out, (Map<String, Object>) value);
+		}
+		else if (value.getClass().isArray()) {
+			out.writeByte(ARRAY);
+			Class<?> componentType = value.getClass().getComponentType();
+			out.writeUTF(componentType.isEnum() || componentType.isPrimitive() || componentType == String.class ?
+					componentType.getName() : Object.class.getName());
+			int length = Array.getLength(value);
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, Array.get(value, i));
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation attribute value: " + value);
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return in.readUTF();
+			case BOOLEAN:
+				return in.readBoolean();
+			case BYTE:
+				return in.readByte();
+			case CHAR:
+				return in.readChar();
+			case SHORT:
+				return in.readShort();
+			case INT:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case FLOAT:
+				return in.readFloat();
+			case DOUBLE:
+				return in.readDouble();
+			case ENUM:
+				Class<? extends Enum> enumType = (Class<? extends Enum>)
+						ClassUtils.resolveClassName(in.readUTF(), classLoader);
+				return Enum.valueOf(enumType, in.readUTF());
+			case ANNOTATION:
+				return readAttributes(in, classLoader);
+			case ARRAY:
+				Class<?> componentType = ClassUtils.resolveClassName(in.readUTF(), classLoader);
+				Object array = Array.newInstance(componentType, in.readInt());
+				for (int i = 0; i < Array.getLength(array); i++) {
+					Array.set(array, i, readValue(in, classLoader));
+				}
+				return array;
+			default:
+				throw new IOException("Unknown value tag in metadata cache: " + tag);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String[] readStringArray(DataInputStream in) throws IOException {
+		String[] array = new String[in.readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = in.readUTF();
+		}
+		return array;
+	}
+
+	private static void writeStringArray(DataOutputStream out, String[] array) throws IOException {
+		out.writeInt(array.length);
+		for (String element : array) {
+			out.writeUTF(element);
+		}
+	}
+
+
+	/**
+	 * Jar file and entry name for a class file resource.
+	 */
+	private static final class JarEntryKey {
+
+		final File jarFile;
+
+		final String entryName;
+
+		private JarEntryKey(File jarFile, String entryName) {
+			this.jarFile = jarFile;
+			this.entryName = entryName;
+		}
+
+		@Nullable
+		static JarEntryKey of(Resource resource) {
+			try {
+				URL url = resource.getURL();
+				if (!ResourceUtils.isJarURL(url)) {
+					return null;
+				}
+				String urlFile = url.getFile();
+				int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+				URL jarFileUrl = ResourceUtils.extractJarFileURL(url);
+				if (separatorIndex == -1 || !ResourceUtils.isFileURL(jarFileUrl)) {
+					return null;
+				}
+				File jarFile = ResourceUtils.getFile(jarFileUrl).getAbsoluteFile();
+				return new JarEntryKey(jarFile, urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length()));
+			}
+			catch (IOException ex) {
+				return null;
+			}
+		}
+	}
+
+
+	/**
+	 * Cached metadata for a single jar file, backed by the content of its cache file.
+	 */
+	private final class JarMetadata {
+
+		private final File jarFile;
+
+		private final File cacheFile;
+
+		private final long jarLength;
+
+		private final long jarLastModified;
+
+		@Nullable
+		private ByteBuffer buffer;
+
+		private final Map<String, Integer> offsets = new HashMap<>();
+
+		private final Map<String, byte[]> pending = new LinkedHashMap<>();
+
+		JarMetadata(File jarFile) {
+			this.jarFile = jarFile;
+			String fileName = Integer.toHexString(jarFile.getPath().hashCode()) + "-" + jarFile.getName();
+			this.cacheFile = new File(PersistentMetadataCache.this.directory, fileName + CACHE_FILE_SUFFIX);
+			this.jarLength = jarFile.length();
+			this.jarLastModified = jarFile.lastModified();
+			load();
+		}
+
+		private void load() {
+			if (!this.cacheFile.isFile()) {
+				return;
+			}
+			try {
+				// Not memory-mapped, since a mapped file cannot be replaced on flush on Windows
+				ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.cacheFile.toPath()));
+				if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION ||
+						buffer.getLong() != this.jarLength || buffer.getLong() != this.jarLastModified) {
+					return;
+				}
+				while (buffer.hasRemaining()) {
+					byte[] name = new byte[buffer.getInt()];
+					buffer.get(name);
+					int length = buffer.getInt();
+					this.offsets.put(new String(name, StandardCharsets.UTF_8), buffer.position());
+					buffer.position(buffer.position() + length);
+				}
+				this.buffer = buffer;
+			}
+			catch (IOException | RuntimeException ex) {
+				this.offsets.clear();
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring unreadable metadata cache file " + this.cacheFile + ": " + ex);
+				}
+			}
+		}
+
+		@Nullable
+		synchronized byte[] get(String entryName) {
+			byte[] data = this.pending.get(entryName);
+			if (data != null) {
+				return data;
+			}
+			Integer offset = this.offsets.get(entryName);
+			if (offset == null || this.buffer == null) {
+				return null;
+			}
+			ByteBuffer buffer = this.buffer.duplicate();
+			data = new byte[buffer.getInt(offset - 4)];
+			buffer.position(offset);
+			buffer.get(data);
+			return data;
+		}
+
+		synchronized void put(String entryName, byte[] data) {
+			if (!this.offsets.containsKey(entryName)) {
+				this.pending.put(entryName, data);
+			}
+		}
+
+		synchronized void flush() {
+			if (this.pending.isEmpty()) {
+				return;
+			}
+			if (this.jarFile.length() != this.jarLength || this.jarFile.lastModified() != this.jarLastModified) {
+				// The jar changed since its cache file got loaded: pending metadata may be stale
+				this.pending.clear();
+				return;
+			}
+			File tempFile = null;
+			try {
+				File directory = PersistentMetadataCache.this.directory;
+				if (!directory.isDirectory() && !directory.mkdirs()) {
+					throw new IOException("Cannot create cache directory " + directory);
+				}
+				tempFile = File.createTempFile(this.jarFile.getName(), ".tmp", directory);
+				try (OutputStream os = new FileOutputStream(tempFile)) {
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+					out.writeInt(MAGIC);
+					out.writeInt(VERSION);
+					out.writeLong(this.jarLength);
+					out.writeLong(this.jarLastModified);
+					if (this.buffer != null) {
+						ByteBuffer existing = this.buffer.duplicate();
+						existing.position(HEADER_SIZE);
+						byte[] entries = new byte[existing.remaining()];
+						existing.get(entries);
+						out.write(entries);
+					}
+					for (Map.Entry<String, byte[]> entry : this.pending.entrySet()) {
+						byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+						out.writeInt(name.length);
+						out.write(name);
+						out.writeInt(entry.getValue().length);
+						out.write(entry.getValue());
+					}
+					out.flush();
+				}
+				try {
+					Files.move(tempFile.toPath(), this.cacheFile.toPath(),
+							StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				this.pending.clear();
+			}
+			catch (IOException ex) {
+				if (tempFile != null) {
+					tempFile.delete();
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to write metadata cache file " + this.cacheFile + ": " + ex);
+				}
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -74,6 +74,14 @@ final class SimpleAnnotationMetadata implements AnnotationMetadata {
 		this.annotations = annotations;
 	}
 
+	int getAccess() {
+		return this.access;
+	}
+
+	MethodMetadata[] getAnnotatedMethods() {
+		return this.annotatedMethods;
+	}
+
 	@Override
 	public String getClassName() {
 		return this.className;
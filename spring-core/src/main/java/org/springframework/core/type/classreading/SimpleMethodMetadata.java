@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,6 +51,10 @@ final class SimpleMethodMetadata implements MethodMetadata {
 	}
 
 
+	int getAccess() {
+		return this.access;
+	}
+
 	@Override
 	public String getMethodName() {
 		return this.methodName;
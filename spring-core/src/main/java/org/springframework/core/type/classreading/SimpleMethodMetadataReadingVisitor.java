@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -116,6 +116,10 @@ final class SimpleMethodMetadataReadingVisitor extends MethodVisitor {
 			this.descriptor = descriptor;
 		}
 
+		String getDescriptor() {
+			return this.descriptor;
+		}
+
 		@Override
 		public int hashCode() {
 			int result = 1;
@@ -0,0 +1,622 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache capacity.
+ *
+ * <p>This is a simplified, opinionated implementation of an LRU cache, inspired from
+ * <a href="https://github.com/ben-manes/concurrentlinkedhashmap">ConcurrentLinkedHashMap</a>.
+ *
+ * <p>Cached values are stored in a {@link ConcurrentHashMap}. Read operations
+ * never take a lock: accesses to existing entries are recorded in striped, lossy
+ * ring buffers and only replayed against the LRU ordering in batches. Writes are
+ * queued as well, with the buffered operations being applied under a lock that
+ * is only ever acquired with {@code tryLock()}, so that at most one caller at a
+ * time pays for the amortized reordering and eviction work.
+ *
+ * <p>As a consequence, the cache may temporarily exceed its capacity by the
+ * number of pending writes, and the eviction order is approximately rather than
+ * strictly LRU under concurrent access.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public final class ConcurrentLruCache<K, V> {
+
+	private final int capacity;
+
+	private final AtomicInteger currentSize = new AtomicInteger();
+
+	private final ConcurrentMap<K, Node<K, V>> cache;
+
+	private final Function<K, V> generator;
+
+	private final ReadOperations<K, V> readOperations;
+
+	private final WriteOperations writeOperations;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/*
+	 * Queue that contains all ACTIVE cache entries, ordered with least recently used entries first.
+	 * Only accessed while holding the eviction lock.
+	 */
+	private final EvictionQueue<K, V> evictionQueue = new EvictionQueue<>();
+
+	private final AtomicReference<DrainStatus> drainStatus = new AtomicReference<>(DrainStatus.IDLE);
+
+
+	/**
+	 * Create a new cache instance with the given capacity and generator function.
+	 * @param capacity the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int capacity, Function<K, V> generator) {
+		this(capacity, generator, 16);
+	}
+
+	private ConcurrentLruCache(int capacity, Function<K, V> generator, int concurrencyLevel) {
+		Assert.isTrue(capacity >= 0, "Capacity must be >= 0");
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be > 0");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.capacity = capacity;
+		this.cache = new ConcurrentHashMap<>(16, 0.75f, concurrencyLevel);
+		this.generator = generator;
+		this.readOperations = new ReadOperations<>(this.evictionQueue);
+		this.writeOperations = new WriteOperations();
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.capacity == 0) {
+			return this.generator.apply(key);
+		}
+		Node<K, V> node = this.cache.get(key);
+		if (node == null) {
+			V value = this.generator.apply(key);
+			return put(key, value);
+		}
+		processRead(node);
+		return node.getValue();
+	}
+
+	private V put(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		Node<K, V> node = new Node<>(key, new CacheEntry<>(value, CacheEntryState.ACTIVE));
+		Node<K, V> prior = this.cache.putIfAbsent(key, node);
+		if (prior == null) {
+			processWrite(new AddTask(node));
+			return value;
+		}
+		// Concurrently generated by another thread: keep the value that made it into the cache.
+		processRead(prior);
+		return prior.getValue();
+	}
+
+	private void processRead(Node<K, V> node) {
+		boolean drainRequested = this.readOperations.recordRead(node);
+		DrainStatus status = this.drainStatus.get();
+		if (status.shouldDrainBuffers(drainRequested)) {
+			drainOperations();
+		}
+	}
+
+	private void processWrite(Runnable task) {
+		this.writeOperations.add(task);
+		this.drainStatus.lazySet(DrainStatus.REQUIRED);
+		drainOperations();
+	}
+
+	private void drainOperations() {
+		if (this.evictionLock.tryLock()) {
+			try {
+				this.drainStatus.lazySet(DrainStatus.PROCESSING);
+				this.readOperations.drain();
+				this.writeOperations.drain();
+			}
+			finally {
+				this.drainStatus.compareAndSet(DrainStatus.PROCESSING, DrainStatus.IDLE);
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache.
+	 * @see #size()
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #capacity()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			Node<K, V> node;
+			while ((node = this.evictionQueue.poll()) != null) {
+				this.cache.remove(node.key, node);
+				markAsRemoved(node);
+			}
+			this.readOperations.clear();
+			this.writeOperations.drainAll();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present, {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		Node<K, V> node = this.cache.remove(key);
+		if (node == null) {
+			return false;
+		}
+		markForRemoval(node);
+		processWrite(new RemovalTask(node));
+		return true;
+	}
+
+	/*
+	 * Transition the node to the {@code pending removal} state, if the entry is still active.
+	 */
+	private void markForRemoval(Node<K, V> node) {
+		for (;;) {
+			CacheEntry<V> current = node.get();
+			if (!current.isActive()) {
+				return;
+			}
+			CacheEntry<V> pendingRemoval = new CacheEntry<>(current.value, CacheEntryState.PENDING_REMOVAL);
+			if (node.compareAndSet(current, pendingRemoval)) {
+				return;
+			}
+		}
+	}
+
+	/*
+	 * Transition the node to the {@code removed} state and decrement the current size.
+	 * Only called while holding the eviction lock.
+	 */
+	private void markAsRemoved(Node<K, V> node) {
+		for (;;) {
+			CacheEntry<V> current = node.get();
+			CacheEntry<V> removed = new CacheEntry<>(current.value, CacheEntryState.REMOVED);
+			if (node.compareAndSet(current, removed)) {
+				this.currentSize.lazySet(this.currentSize.get() - 1);
+				return;
+			}
+		}
+	}
+
+
+	/**
+	 * Write operation recorded when a new entry is added to the cache.
+	 */
+	private final class AddTask implements Runnable {
+
+		final Node<K, V> node;
+
+		AddTask(Node<K, V> node) {
+			this.node = node;
+		}
+
+		@Override
+		public void run() {
+			currentSize.lazySet(currentSize.get() + 1);
+			if (this.node.get().isActive()) {
+				evictionQueue.add(this.node);
+				evictEntries();
+			}
+		}
+
+		private void evictEntries() {
+			while (currentSize.get() > capacity) {
+				Node<K, V> node = evictionQueue.poll();
+				if (node == null) {
+					return;
+				}
+				cache.remove(node.key, node);
+				markAsRemoved(node);
+			}
+		}
+	}
+
+
+	/**
+	 * Write operation recorded when an entry is removed from the cache.
+	 */
+	private final class RemovalTask implements Runnable {
+
+		final Node<K, V> node;
+
+		RemovalTask(Node<K, V> node) {
+			this.node = node;
+		}
+
+		@Override
+		public void run() {
+			evictionQueue.remove(this.node);
+			markAsRemoved(this.node);
+		}
+	}
+
+
+	/**
+	 * Draining status for the read/write buffers.
+	 */
+	private enum DrainStatus {
+
+		/**
+		 * No drain operation currently running.
+		 */
+		IDLE {
+			@Override
+			boolean shouldDrainBuffers(boolean delayable) {
+				return !delayable;
+			}
+		},
+
+		/**
+		 * A drain operation is required due to a pending write modification.
+		 */
+		REQUIRED {
+			@Override
+			boolean shouldDrainBuffers(boolean delayable) {
+				return true;
+			}
+		},
+
+		/**
+		 * A drain operation is in progress.
+		 */
+		PROCESSING {
+			@Override
+			boolean shouldDrainBuffers(boolean delayable) {
+				return false;
+			}
+		};
+
+		/**
+		 * Determine whether the buffers should be drained.
+		 * @param delayable if a drain should be delayed until required
+		 * @return if a drain should be attempted
+		 */
+		abstract boolean shouldDrainBuffers(boolean delayable);
+	}
+
+
+	private enum CacheEntryState {
+
+		ACTIVE, PENDING_REMOVAL, REMOVED
+	}
+
+
+	private static final class CacheEntry<V> {
+
+		final V value;
+
+		final CacheEntryState state;
+
+		CacheEntry(V value, CacheEntryState state) {
+			this.value = value;
+			this.state = state;
+		}
+
+		boolean isActive() {
+			return (this.state == CacheEntryState.ACTIVE);
+		}
+	}
+
+
+	/**
+	 * Striped, lossy ring buffers recording read accesses to cache entries.
+	 */
+	private static final class ReadOperations<K, V> {
+
+		private static final int BUFFER_COUNT = detectNumberOfBuffers();
+
+		private static final int BUFFERS_MASK = BUFFER_COUNT - 1;
+
+		private static final int MAX_PENDING_OPERATIONS = 32;
+
+		private static final int MAX_DRAIN_COUNT = 2 * MAX_PENDING_OPERATIONS;
+
+		private static final int BUFFER_SIZE = 2 * MAX_DRAIN_COUNT;
+
+		private static final int BUFFER_INDEX_MASK = BUFFER_SIZE - 1;
+
+		/*
+		 * Number of operations recorded, for each buffer.
+		 */
+		private final AtomicLong[] recordedCount = new AtomicLong[BUFFER_COUNT];
+
+		/*
+		 * Number of operations read, for each buffer. Only accessed while holding the eviction lock.
+		 */
+		private final long[] readCount = new long[BUFFER_COUNT];
+
+		/*
+		 * Number of operations processed, for each buffer.
+		 */
+		private final AtomicLong[] processedCount = new AtomicLong[BUFFER_COUNT];
+
+		private final AtomicReferenceArray<Node<K, V>>[] buffers;
+
+		private final EvictionQueue<K, V> evictionQueue;
+
+		@SuppressWarnings("unchecked")
+		ReadOperations(EvictionQueue<K, V> evictionQueue) {
+			this.evictionQueue = evictionQueue;
+			this.buffers = new AtomicReferenceArray[BUFFER_COUNT];
+			for (int i = 0; i < BUFFER_COUNT; i++) {
+				this.buffers[i] = new AtomicReferenceArray<>(BUFFER_SIZE);
+				this.recordedCount[i] = new AtomicLong();
+				this.processedCount[i] = new AtomicLong();
+			}
+		}
+
+		private static int detectNumberOfBuffers() {
+			int availableProcessors = Runtime.getRuntime().availableProcessors();
+			int nextPowerOfTwo = 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(availableProcessors - 1));
+			return Math.min(4, nextPowerOfTwo);
+		}
+
+		private static int getBufferIndex() {
+			return ((int) Thread.currentThread().getId()) & BUFFERS_MASK;
+		}
+
+		/**
+		 * Record a read access to the given node.
+		 * @return {@code true} if draining the buffers may be delayed,
+		 * {@code false} if the buffer of the current thread is filling up
+		 */
+		boolean recordRead(Node<K, V> node) {
+			int bufferIndex = getBufferIndex();
+			AtomicLong counter = this.recordedCount[bufferIndex];
+			long writeCount = counter.get();
+			counter.lazySet(writeCount + 1);
+			int index = (int) (writeCount & BUFFER_INDEX_MASK);
+			this.buffers[bufferIndex].lazySet(index, node);
+			long pending = (writeCount - this.processedCount[bufferIndex].get());
+			return (pending < MAX_PENDING_OPERATIONS);
+		}
+
+		void drain() {
+			int start = (int) Thread.currentThread().getId();
+			int end = start + BUFFER_COUNT;
+			for (int i = start; i < end; i++) {
+				drainReadBuffer(i & BUFFERS_MASK);
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < BUFFER_COUNT; i++) {
+				AtomicReferenceArray<Node<K, V>> buffer = this.buffers[i];
+				for (int j = 0; j < BUFFER_SIZE; j++) {
+					buffer.lazySet(j, null);
+				}
+			}
+		}
+
+		private void drainReadBuffer(int bufferIndex) {
+			long writeCount = this.recordedCount[bufferIndex].get();
+			AtomicReferenceArray<Node<K, V>> buffer = this.buffers[bufferIndex];
+			for (int i = 0; i < MAX_DRAIN_COUNT; i++) {
+				int index = (int) (this.readCount[bufferIndex] & BUFFER_INDEX_MASK);
+				Node<K, V> node = buffer.get(index);
+				if (node == null) {
+					break;
+				}
+				buffer.lazySet(index, null);
+				this.evictionQueue.moveToBack(node);
+				this.readCount[bufferIndex]++;
+			}
+			this.processedCount[bufferIndex].lazySet(writeCount);
+		}
+	}
+
+
+	/**
+	 * Queue of pending write operations, applied while holding the eviction lock.
+	 */
+	private static final class WriteOperations {
+
+		private static final int DRAIN_THRESHOLD = 16;
+
+		private final Queue<Runnable> operations = new ConcurrentLinkedQueue<>();
+
+		void add(Runnable runnable) {
+			this.operations.add(runnable);
+		}
+
+		void drain() {
+			for (int i = 0; i < DRAIN_THRESHOLD; i++) {
+				Runnable task = this.operations.poll();
+				if (task == null) {
+					break;
+				}
+				task.run();
+			}
+		}
+
+		void drainAll() {
+			Runnable task;
+			while ((task = this.operations.poll()) != null) {
+				task.run();
+			}
+		}
+	}
+
+
+	/**
+	 * Cache entry, linked into the {@link EvictionQueue} while active.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Node<K, V> extends AtomicReference<CacheEntry<V>> {
+
+		final K key;
+
+		@Nullable
+		Node<K, V> prev;
+
+		@Nullable
+		Node<K, V> next;
+
+		Node(K key, CacheEntry<V> cacheEntry) {
+			super(cacheEntry);
+			this.key = key;
+		}
+
+		V getValue() {
+			return get().value;
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of cache entries, least recently used first.
+	 * Not thread-safe: only accessed while holding the eviction lock.
+	 */
+	private static final class EvictionQueue<K, V> {
+
+		@Nullable
+		Node<K, V> first;
+
+		@Nullable
+		Node<K, V> last;
+
+		@Nullable
+		Node<K, V> poll() {
+			Node<K, V> node = this.first;
+			if (node == null) {
+				return null;
+			}
+			Node<K, V> next = node.next;
+			node.next = null;
+			this.first = next;
+			if (next == null) {
+				this.last = null;
+			}
+			else {
+				next.prev = null;
+			}
+			return node;
+		}
+
+		void add(Node<K, V> node) {
+			if (!contains(node)) {
+				linkLast(node);
+			}
+		}
+
+		void moveToBack(Node<K, V> node) {
+			if (contains(node) && node != this.last) {
+				unlink(node);
+				linkLast(node);
+			}
+		}
+
+		void remove(Node<K, V> node) {
+			if (contains(node)) {
+				unlink(node);
+			}
+		}
+
+		private boolean contains(Node<K, V> node) {
+			return (node.prev != null || node.next != null || node == this.first);
+		}
+
+		private void linkLast(Node<K, V> node) {
+			Node<K, V> last = this.last;
+			this.last = node;
+			if (last == null) {
+				this.first = node;
+			}
+			else {
+				last.next = node;
+				node.prev = last;
+			}
+		}
+
+		private void unlink(Node<K, V> node) {
+			Node<K, V> prev = node.prev;
+			Node<K, V> next = node.next;
+			if (prev == null) {
+				this.first = next;
+			}
+			else {
+				prev.next = next;
+				node.prev = null;
+			}
+			if (next == null) {
+				this.last = prev;
+			}
+			else {
+				next.prev = prev;
+				node.next = null;
+			}
+		}
+	}
+
+}
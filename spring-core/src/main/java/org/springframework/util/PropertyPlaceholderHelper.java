@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -35,6 +37,7 @@ import org.springframework.lang.Nullable;
  *
  * @author Juergen Hoeller
  * @author Rob Harrop
+ * @author Tan Jiquan
  * @since 3.0
  */
 public class PropertyPlaceholderHelper {
@@ -61,6 +64,10 @@ public class PropertyPlaceholderHelper {
 
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	/** Cache of parsed placeholder templates, so that each string is scanned only once. */
+	private final ConcurrentLruCache<String, PlaceholderTemplate> templateCache =
+			new ConcurrentLruCache<>(256, this::parseTemplate);
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -127,66 +134,84 @@ public class PropertyPlaceholderHelper {
 	protected String parseStringValue(
 			String value, PlaceholderResolver placeholderResolver, @Nullable Set<String> visitedPlaceholders) {
 
-		int startIndex = value.indexOf(this.placeholderPrefix);
-		if (startIndex == -1) {
+		if (value.indexOf(this.placeholderPrefix) == -1) {
 			return value;
 		}
 
-		StringBuilder result = new StringBuilder(value);
-		while (startIndex != -1) {
-			int endIndex = findPlaceholderEndIndex(result, startIndex);
-			if (endIndex != -1) {
-				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				if (visitedPlaceholders == null) {
-					visitedPlaceholders = new HashSet<>(4);
-				}
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				// Now obtain the value for the fully resolved key...
-				String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-				if (propVal == null && this.valueSeparator != null) {
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-					if (separatorIndex != -1) {
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
-				if (propVal != null) {
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
-					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
+		PlaceholderTemplate template = this.templateCache.get(value);
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < template.placeholders.length; i++) {
+			result.append(template.literals[i]);
+			String placeholder = template.placeholders[i];
+			String originalPlaceholder = placeholder;
+			if (visitedPlaceholders == null) {
+				visitedPlaceholders = new HashSet<>(4);
+			}
+			if (!visitedPlaceholders.add(originalPlaceholder)) {
+				throw new IllegalArgumentException(
+						"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+			}
+			// Recursive invocation, parsing placeholders contained in the placeholder key.
+			placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
+			// Now obtain the value for the fully resolved key...
+			String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+			if (propVal == null && this.valueSeparator != null) {
+				int separatorIndex = placeholder.indexOf(this.valueSeparator);
+				if (separatorIndex != -1) {
+					String actualPlaceholder = placeholder.substring(0, separatorIndex);
+					String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+					propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+					if (propVal == null) {
+						propVal = defaultValue;
 					}
-					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
-				}
-				else if (this.ignoreUnresolvablePlaceholders) {
-					// Proceed with unprocessed value.
-					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
 				}
-				else {
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in value \"" + value + "\"");
+			}
+			if (propVal != null) {
+				// Recursive invocation, parsing placeholders contained in the
+				// previously resolved placeholder value.
+				propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+				result.append(propVal);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Resolved placeholder '" + placeholder + "'");
 				}
-				visitedPlaceholders.remove(originalPlaceholder);
+			}
+			else if (this.ignoreUnresolvablePlaceholders) {
+				// Proceed with unprocessed value.
+				result.append(this.placeholderPrefix).append(originalPlaceholder).append(this.placeholderSuffix);
 			}
 			else {
-				startIndex = -1;
+				throw new IllegalArgumentException("Could not resolve placeholder '" +
+						placeholder + "'" + " in value \"" + value + "\"");
 			}
+			visitedPlaceholders.remove(originalPlaceholder);
 		}
+		result.append(template.literals[template.placeholders.length]);
 		return result.toString();
 	}
 
+	/**
+	 * Split the given value into literal text and top-level placeholders,
+	 * following the same boundaries that {@link #parseStringValue} resolves.
+	 */
+	private PlaceholderTemplate parseTemplate(String value) {
+		List<String> literals = new ArrayList<>(4);
+		List<String> placeholders = new ArrayList<>(4);
+		int literalStart = 0;
+		int startIndex = value.indexOf(this.placeholderPrefix);
+		while (startIndex != -1) {
+			int endIndex = findPlaceholderEndIndex(value, startIndex);
+			if (endIndex == -1) {
+				break;
+			}
+			literals.add(value.substring(literalStart, startIndex));
+			placeholders.add(value.substring(startIndex + this.placeholderPrefix.length(), endIndex));
+			literalStart = endIndex + this.placeholderSuffix.length();
+			startIndex = value.indexOf(this.placeholderPrefix, literalStart);
+		}
+		literals.add(value.substring(literalStart));
+		return new PlaceholderTemplate(StringUtils.toStringArray(literals), StringUtils.toStringArray(placeholders));
+	}
+
 	private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
 		int index = startIndex + this.placeholderPrefix.length();
 		int withinNestedPlaceholder = 0;
@@ -212,6 +237,24 @@ public class PropertyPlaceholderHelper {
 	}
 
 
+	/**
+	 * Pre-parsed form of a value containing placeholders: literal text segments
+	 * interleaved with the raw content of its top-level placeholders.
+	 */
+	private static final class PlaceholderTemplate {
+
+		/** Literal segments, one more than there are placeholders. */
+		final String[] literals;
+
+		final String[] placeholders;
+
+		PlaceholderTemplate(String[] literals, String[] placeholders) {
+			this.literals = literals;
+			this.placeholders = placeholders;
+		}
+	}
+
+
 	/**
 	 * Strategy interface used to resolve replacement values for placeholders contained in Strings.
 	 */
@@ -1232,6 +1232,35 @@ class ResolvableTypeTests {
 		assertThat(deserializedNone).isSameAs(ResolvableType.NONE);
 	}
 
+	@Test
+	void forClassIsCached() {
+		assertThat(ResolvableType.forClass(List.class)).isSameAs(ResolvableType.forClass(List.class));
+		assertThat(ResolvableType.forClass(null)).isSameAs(ResolvableType.forClass(Object.class));
+		assertThat(ResolvableType.forType(List.class)).isSameAs(ResolvableType.forClass(List.class));
+	}
+
+	@Test
+	void forFieldAndMethodParameterAreCached() throws Exception {
+		Field field = Fields.class.getField("stringList");
+		assertThat(ResolvableType.forField(field)).isSameAs(ResolvableType.forField(field));
+		Method method = Methods.class.getMethod("charSequenceParameter", List.class);
+		assertThat(ResolvableType.forMethodParameter(method, 0)).isSameAs(ResolvableType.forMethodParameter(method, 0));
+		assertThat(ResolvableType.forMethodReturnType(method)).isNotSameAs(ResolvableType.forMethodParameter(method, 0));
+		MethodParameter methodParameter = new MethodParameter(method, 0);
+		assertThat(ResolvableType.forMethodParameter(methodParameter)).isSameAs(
+				ResolvableType.forMethodParameter(methodParameter));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void forMethodParameterWithChangedNestingLevel() throws Exception {
+		MethodParameter methodParameter = new MethodParameter(
+				Methods.class.getMethod("charSequenceParameter", List.class), 0);
+		assertThat(ResolvableType.forMethodParameter(methodParameter).resolve()).isEqualTo(List.class);
+		methodParameter.increaseNestingLevel();
+		assertThat(ResolvableType.forMethodParameter(methodParameter).resolve()).isEqualTo(CharSequence.class);
+	}
+
 	@Test
 	void canResolveVoid() throws Exception {
 		ResolvableType type = ResolvableType.forClass(void.class);
@@ -27,6 +27,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -800,6 +801,47 @@ class AnnotatedElementUtilsTests {
 		assertThat(testPropSource.value()).as("value").isEqualTo(propFiles);
 	}
 
+	@Test
+	void findMergedAnnotationResultIsCached() {
+		Class<?> element = AliasedComposedContextConfigAndTestPropSourceClass.class;
+		ContextConfig contextConfig = findMergedAnnotation(element, ContextConfig.class);
+		assertThat(contextConfig).isNotNull();
+		assertThat(findMergedAnnotation(element, ContextConfig.class)).isSameAs(contextConfig);
+		assertThat(getMergedAnnotation(element, ContextConfig.class)).isNotSameAs(contextConfig).isEqualTo(contextConfig);
+		assertThat(findMergedAnnotation(NonAnnotatedClass.class, ContextConfig.class)).isNull();
+		assertThat(findMergedAnnotation(NonAnnotatedClass.class, ContextConfig.class)).isNull();
+
+		AnnotationUtils.clearCache();
+		ContextConfig recomputed = findMergedAnnotation(element, ContextConfig.class);
+		assertThat(recomputed).isNotSameAs(contextConfig).isEqualTo(contextConfig);
+	}
+
+	@Test
+	void findAllMergedAnnotationsResultIsCached() {
+		Class<?> element = AliasedComposedContextConfigAndTestPropSourceClass.class;
+		Set<Class<? extends Annotation>> annotationTypes = new HashSet<>(asList(ContextConfig.class, TestPropSource.class));
+		Set<Annotation> annotations = findAllMergedAnnotations(element, annotationTypes);
+		assertThat(annotations).hasSize(2);
+		annotations.clear();
+		annotationTypes.remove(TestPropSource.class);
+
+		Set<Annotation> cached = findAllMergedAnnotations(element,
+				new HashSet<>(asList(ContextConfig.class, TestPropSource.class)));
+		assertThat(cached).hasSize(2);
+		assertThat(cached).contains(findMergedAnnotation(element, ContextConfig.class));
+		assertThat(findAllMergedAnnotations(element, annotationTypes)).hasSize(1);
+		assertThat(getAllMergedAnnotations(element, annotationTypes)).hasSize(1);
+	}
+
+	@Test
+	void findMergedAnnotationReturnsDefensiveCopiesOfArrayAttributes() {
+		Class<?> element = AliasedComposedContextConfigAndTestPropSourceClass.class;
+		ContextConfig contextConfig = findMergedAnnotation(element, ContextConfig.class);
+		contextConfig.locations()[0] = "modified.xml";
+		assertThat(contextConfig.locations()).isEqualTo(asArray("test.xml"));
+		assertThat(findMergedAnnotation(element, ContextConfig.class).value()).isEqualTo(asArray("test.xml"));
+	}
+
 	@Test
 	void findMergedAnnotationWithLocalAliasesThatConflictWithAttributesInMetaAnnotationByConvention() {
 		final String[] EMPTY = new String[0];
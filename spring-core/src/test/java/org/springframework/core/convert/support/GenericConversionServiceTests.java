@@ -628,6 +628,78 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void converterHandle() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(String.class, Integer.class);
+		assertThat(handle).isNotNull();
+		assertThat(handle.getSourceType()).isEqualTo(TypeDescriptor.valueOf(String.class));
+		assertThat(handle.getTargetType()).isEqualTo(TypeDescriptor.valueOf(Integer.class));
+		assertThat(handle.isNoOp()).isFalse();
+		assertThat(handle.convert("3")).isEqualTo(3);
+		assertThat(handle.convert(null)).isNull();
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isSameAs(handle);
+	}
+
+	@Test
+	void converterHandleForAssignableTypes() {
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(String.class, Object.class);
+		assertThat(handle).isNotNull();
+		assertThat(handle.isNoOp()).isTrue();
+		assertThat(handle.convert("test")).isEqualTo("test");
+	}
+
+	@Test
+	void converterHandleNotFound() {
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isNull();
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isFalse();
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("3", Integer.class));
+	}
+
+	@Test
+	void converterHandleInvalidatedOnConverterRegistration() {
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isNull();
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isNotNull();
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(3);
+		conversionService.removeConvertible(String.class, Number.class);
+		assertThat(conversionService.getConverterHandle(String.class, Integer.class)).isNull();
+	}
+
+	@Test
+	void converterHandleWithWrongSourceType() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(String.class, Integer.class);
+		assertThatIllegalArgumentException().isThrownBy(() -> handle.convert(3L));
+	}
+
+	@Test
+	void classBasedConversionHonorsOverriddenTypeDescriptorVariants() {
+		GenericConversionService service = new GenericConversionService() {
+			@Override
+			public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return (targetType.getType() == Integer.class || super.canConvert(sourceType, targetType));
+			}
+			@Override
+			@Nullable
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return (targetType.getType() == Integer.class ? 42 : super.convert(source, sourceType, targetType));
+			}
+		};
+		assertThat(service.canConvert(String.class, Integer.class)).isTrue();
+		assertThat(service.convert("3", Integer.class)).isEqualTo(42);
+		assertThat(service.convert("3", Object.class)).isEqualTo("3");
+	}
+
+	@Test
+	void converterHandleNullResultForPrimitiveTarget() {
+		conversionService.addConverter(String.class, Integer.class, source -> null);
+		GenericConversionService.ConverterHandle handle = conversionService.getConverterHandle(String.class, int.class);
+		assertThat(handle).isNotNull();
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() -> handle.convert("3"));
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
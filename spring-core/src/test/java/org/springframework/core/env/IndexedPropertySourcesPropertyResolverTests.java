@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.testfixture.env.MockPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IndexedPropertySourcesPropertyResolver}.
+ *
+ * @author Tan Jiquan
+ */
+class IndexedPropertySourcesPropertyResolverTests {
+
+	private final MutablePropertySources propertySources = new MutablePropertySources();
+
+	private final IndexedPropertySourcesPropertyResolver resolver =
+			new IndexedPropertySourcesPropertyResolver(this.propertySources);
+
+
+	@BeforeEach
+	void setUp() {
+		this.propertySources.addLast(new MockPropertySource("first").withProperty("foo", "first"));
+		this.propertySources.addLast(new MockPropertySource("second")
+				.withProperty("foo", "second").withProperty("bar", "second"));
+	}
+
+
+	@Test
+	void getPropertyHonorsPrecedence() {
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+		assertThat(this.resolver.getProperty("bar")).isEqualTo("second");
+		assertThat(this.resolver.getProperty("baz")).isNull();
+		assertThat(this.resolver.containsProperty("bar")).isTrue();
+		assertThat(this.resolver.containsProperty("baz")).isFalse();
+	}
+
+	@Test
+	void getPropertyWithUnindexedPropertySource() {
+		Map<String, Object> env = new HashMap<>();
+		env.put("FOO", "env");
+		env.put("BAZ_QUX", "env");
+		this.propertySources.addAfter("first", new SystemEnvironmentPropertySource("env", env));
+
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+		assertThat(this.resolver.getProperty("bar")).isEqualTo("second");
+		assertThat(this.resolver.getProperty("baz.qux")).isEqualTo("env");
+		assertThat(this.resolver.containsProperty("baz-qux")).isTrue();
+
+		this.propertySources.remove("first");
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("env");
+	}
+
+	@Test
+	void getPropertyWithNullValueInIndexedPropertySource() {
+		this.propertySources.addFirst(new MapPropertySource("nulls", Collections.singletonMap("foo", null)));
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+	}
+
+	@Test
+	void indexIsRebuiltOnPropertySourceChanges() {
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+
+		this.propertySources.addFirst(new MockPropertySource("zero").withProperty("foo", "zero"));
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("zero");
+
+		this.propertySources.replace("zero", new MockPropertySource("zero").withProperty("baz", "zero"));
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+		assertThat(this.resolver.getProperty("baz")).isEqualTo("zero");
+
+		this.propertySources.remove("first");
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("second");
+	}
+
+	@Test
+	void invalidateIndexAfterKeySetChange() {
+		MockPropertySource first = (MockPropertySource) this.propertySources.get("first");
+		assertThat(this.resolver.getProperty("baz")).isNull();
+
+		first.setProperty("baz", "first");
+		this.resolver.invalidateIndex();
+		assertThat(this.resolver.getProperty("baz")).isEqualTo("first");
+	}
+
+	@Test
+	void systemPropertiesAreNotIndexed() {
+		MockPropertySource systemProperties = new MockPropertySource(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME);
+		this.propertySources.addFirst(systemProperties);
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("first");
+
+		systemProperties.setProperty("foo", "system");
+		assertThat(this.resolver.getProperty("foo")).isEqualTo("system");
+	}
+
+	@Test
+	void resolveNestedPlaceholders() {
+		this.propertySources.addFirst(new MockPropertySource("placeholders").withProperty("baz", "${bar}-${foo}"));
+		assertThat(this.resolver.getProperty("baz")).isEqualTo("second-first");
+		assertThat(this.resolver.resolvePlaceholders("${baz:none}/${qux:none}")).isEqualTo("second-first/none");
+	}
+
+	@Test
+	void environmentWithIndexedPropertyResolver() {
+		ConfigurableEnvironment environment = new StandardEnvironment() {
+			@Override
+			protected ConfigurablePropertyResolver createPropertyResolver(MutablePropertySources propertySources) {
+				return new IndexedPropertySourcesPropertyResolver(propertySources);
+			}
+		};
+		environment.getPropertySources().addFirst(new MockPropertySource("test").withProperty("foo", "bar"));
+		assertThat(environment.getProperty("foo")).isEqualTo("bar");
+		assertThat(environment.getProperty("java.version")).isEqualTo(System.getProperty("java.version"));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,19 @@ package org.springframework.core.io.support;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
@@ -40,6 +47,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
  * @author Juergen Hoeller
  * @author Chris Beams
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 17.11.2004
  */
 class PathMatchingResourcePatternResolverTests {
@@ -129,6 +137,34 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(found).as("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar").isTrue();
 	}
 
+	@Test
+	void classpathStarWithPatternInJarForSeveralRootDirectories(@TempDir Path tempDir) throws IOException {
+		Path jar = tempDir.resolve("scan.jar");
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+			for (String name : new String[] {"a/", "a/One.txt", "b/", "b/Two.txt", "b/sub/", "b/sub/Three.txt", "a/Four.txt"}) {
+				out.putNextEntry(new JarEntry(name));
+				out.closeEntry();
+			}
+		}
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+			assertThat(resolver.isCacheJarEntries()).isFalse();
+			assertProtocolAndFilenames(resolver.getResources("classpath*:b/*.txt"), "jar", "Two.txt");
+
+			resolver.setCacheJarEntries(true);
+			assertProtocolAndFilenames(resolver.getResources("classpath*:a/**/*.txt"), "jar", "One.txt", "Four.txt");
+			// Resolved from the cached entries of the same jar file
+			assertProtocolAndFilenames(resolver.getResources("classpath*:b/**/*.txt"), "jar", "Two.txt", "Three.txt");
+			assertThat(resolver.getResources("classpath*:a/*.txt")[1].getFilename()).isEqualTo("Four.txt");
+
+			resolver.clearCache();
+			assertProtocolAndFilenames(resolver.getResources("classpath*:b/sub/*.txt"), "jar", "Three.txt");
+
+			resolver.setCacheJarEntries(false);
+			assertProtocolAndFilenames(resolver.getResources("classpath*:a/*.txt"), "jar", "One.txt", "Four.txt");
+		}
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
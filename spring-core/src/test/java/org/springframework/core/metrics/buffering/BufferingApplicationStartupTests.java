@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.BufferingApplicationStartup.BufferedStartupStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BufferingApplicationStartup}.
+ *
+ * @author Tan Jiquan
+ */
+class BufferingApplicationStartupTests {
+
+	@Test
+	void rejectsNonPositiveCapacity() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BufferingApplicationStartup(0));
+	}
+
+	@Test
+	void recordsEndedStepsWithTags() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep step = applicationStartup.start("spring.test.step").tag("beanName", "myBean");
+		assertThat(applicationStartup.getBufferedSteps()).isEmpty();
+		step.tag("beanType", () -> "com.example.MyBean").end();
+
+		List<BufferedStartupStep> steps = applicationStartup.getBufferedSteps();
+		assertThat(steps).hasSize(1);
+		BufferedStartupStep recorded = steps.get(0);
+		assertThat(recorded.getName()).isEqualTo("spring.test.step");
+		assertThat(recorded.getId()).isEqualTo(1L);
+		assertThat(recorded.getParentId()).isNull();
+		assertThat(recorded.getTags()).extracting(StartupStep.Tag::getKey).containsExactly("beanName", "beanType");
+		assertThat(recorded.getDuration().isNegative()).isFalse();
+	}
+
+	@Test
+	void rejectsChangesOnceEnded() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep step = applicationStartup.start("spring.test.step");
+		step.end();
+		assertThatIllegalStateException().isThrownBy(() -> step.tag("key", "value"));
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+	@Test
+	void tracksParentSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("spring.test.outer");
+		StartupStep inner = applicationStartup.start("spring.test.inner");
+		inner.end();
+		StartupStep sibling = applicationStartup.start("spring.test.sibling");
+		sibling.end();
+		outer.end();
+		StartupStep next = applicationStartup.start("spring.test.next");
+		next.end();
+
+		assertThat(inner.getParentId()).isEqualTo(outer.getId());
+		assertThat(sibling.getParentId()).isEqualTo(outer.getId());
+		assertThat(outer.getParentId()).isNull();
+		assertThat(next.getParentId()).isNull();
+		assertThat(applicationStartup.getBufferedSteps()).extracting(StartupStep::getName).containsExactly(
+				"spring.test.inner", "spring.test.sibling", "spring.test.outer", "spring.test.next");
+	}
+
+	@Test
+	void restoresParentStepWhenNestedStepIsNotEnded() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("spring.test.outer");
+		applicationStartup.start("spring.test.failed");
+		outer.end();
+		StartupStep next = applicationStartup.start("spring.test.next");
+		assertThat(next.getParentId()).isNull();
+	}
+
+	@Test
+	void tracksParentStepsPerThread() throws Exception {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("spring.test.outer");
+		AtomicReference<StartupStep> otherThreadStep = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			StartupStep step = applicationStartup.start("spring.test.other");
+			step.end();
+			otherThreadStep.set(step);
+		});
+		thread.start();
+		thread.join();
+		outer.end();
+		assertThat(otherThreadStep.get().getParentId()).isNull();
+	}
+
+	@Test
+	void overwritesOldestStepsWhenFull() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(3);
+		for (int i = 0; i < 5; i++) {
+			applicationStartup.start("spring.test.step" + i).end();
+		}
+		assertThat(applicationStartup.getDroppedStepCount()).isEqualTo(2L);
+		assertThat(applicationStartup.getBufferedSteps()).extracting(StartupStep::getName).containsExactly(
+				"spring.test.step2", "spring.test.step3", "spring.test.step4");
+	}
+
+	@Test
+	void drainsConsistentStepsWhileRecordingConcurrently() throws Exception {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(64);
+		int threadCount = 4;
+		int stepsPerThread = 20000;
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			String name = "spring.test.thread" + t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < stepsPerThread; i++) {
+					applicationStartup.start(name).end();
+				}
+			});
+			threads[t].start();
+		}
+		boolean running = true;
+		while (running) {
+			running = false;
+			for (Thread thread : threads) {
+				running |= thread.isAlive();
+			}
+			List<BufferedStartupStep> steps = applicationStartup.getBufferedSteps();
+			assertThat(steps.size()).isLessThanOrEqualTo(64);
+			// Steps of the same thread end in id order: a stale step would break that order
+			Map<String, Long> lastIds = new HashMap<>();
+			for (BufferedStartupStep step : steps) {
+				assertThat(step).isNotNull();
+				Long lastId = lastIds.put(step.getName(), step.getId());
+				assertThat(lastId == null || lastId < step.getId()).as("step order").isTrue();
+			}
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(applicationStartup.getBufferedSteps()).hasSize(64);
+		assertThat(applicationStartup.getDroppedStepCount()).isEqualTo(threadCount * stepsPerThread - 64L);
+	}
+
+	@Test
+	void appliesFilterOnEndedSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		applicationStartup.setFilter(step -> step.getName().startsWith("spring.beans."));
+		applicationStartup.start("spring.context.refresh").end();
+		applicationStartup.start("spring.beans.instantiate").end();
+		assertThat(applicationStartup.getBufferedSteps()).extracting(StartupStep::getName)
+				.containsExactly("spring.beans.instantiate");
+	}
+
+	@Test
+	void writesStepsAsJson() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("spring.test.outer");
+		applicationStartup.start("spring.test.inner").tag("beanName", "my\"bean\"\n").end();
+		outer.end();
+
+		String json = applicationStartup.toJson();
+		assertThat(json).startsWith("{\"startTime\":\"" + applicationStartup.getStartTime() + "\",\"droppedSteps\":0,\"steps\":[");
+		assertThat(json).contains("{\"id\":2,\"parentId\":1,\"name\":\"spring.test.inner\",\"startTime\":");
+		assertThat(json).contains("\"tags\":{\"beanName\":\"my\\\"bean\\\"\\n\"}}");
+		assertThat(json).contains("{\"id\":1,\"parentId\":null,\"name\":\"spring.test.outer\",\"startTime\":");
+		assertThat(json).endsWith("\"tags\":{}}]}");
+	}
+
+}
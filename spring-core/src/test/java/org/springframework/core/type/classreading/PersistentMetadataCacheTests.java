@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ResourceUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataCache}, running the common metadata
+ * tests against metadata restored from a cache file.
+ *
+ * @author Tan Jiquan
+ */
+class PersistentMetadataCacheTests extends AbstractAnnotationMetadataTests {
+
+	private static final AtomicInteger jarCounter = new AtomicInteger();
+
+	@TempDir
+	static File tempDir;
+
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			File cacheDir = new File(tempDir, "cache");
+			Resource resource = createJarResource(source);
+			CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+			factory.setPersistentCacheDirectory(cacheDir);
+			factory.getMetadataReader(resource);
+			factory.clearCache();
+			AnnotationMetadata metadata = PersistentMetadataCache.forDirectory(cacheDir)
+					.get(resource, ClassUtils.getDefaultClassLoader());
+			assertThat(metadata).isNotNull();
+			return metadata;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	void cachedMetadataUsedByFactory() throws Exception {
+		File cacheDir = new File(tempDir, "shared");
+		Resource resource = createJarResource(WithDirectAnnotations.class);
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setPersistentCacheDirectory(cacheDir);
+		AnnotationMetadata original = factory.getMetadataReader(resource).getAnnotationMetadata();
+		factory.clearCache();
+		assertThat(cacheDir.listFiles()).hasSize(1);
+
+		CachingMetadataReaderFactory restartedFactory = new CachingMetadataReaderFactory();
+		restartedFactory.setPersistentCacheDirectory(cacheDir);
+		AnnotationMetadata restored = restartedFactory.getMetadataReader(resource).getAnnotationMetadata();
+		assertThat(restored).isNotSameAs(original);
+		assertThat(restored.getAnnotationTypes()).isEqualTo(original.getAnnotationTypes());
+		assertThat(restored.getClassName()).isEqualTo(original.getClassName());
+	}
+
+	@Test
+	void modifiedJarInvalidatesCachedMetadata() throws Exception {
+		File cacheDir = new File(tempDir, "modified");
+		Resource resource = createJarResource(WithDirectAnnotations.class);
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setPersistentCacheDirectory(cacheDir);
+		factory.getMetadataReader(resource);
+		factory.clearCache();
+		PersistentMetadataCache cache = PersistentMetadataCache.forDirectory(cacheDir);
+		assertThat(cache.get(resource, ClassUtils.getDefaultClassLoader())).isNotNull();
+		cache.flush();
+
+		File jarFile = ResourceUtils.getFile(ResourceUtils.extractJarFileURL(resource.getURL()));
+		assertThat(jarFile.setLastModified(jarFile.lastModified() - 60000)).isTrue();
+		assertThat(cache.get(resource, ClassUtils.getDefaultClassLoader())).isNull();
+
+		CachingMetadataReaderFactory restartedFactory = new CachingMetadataReaderFactory();
+		restartedFactory.setPersistentCacheDirectory(cacheDir);
+		restartedFactory.getMetadataReader(resource);
+		restartedFactory.clearCache();
+		assertThat(cache.get(resource, ClassUtils.getDefaultClassLoader())).isNotNull();
+	}
+
+	@Test
+	void classFilesOutsideOfJarsNotCached() throws Exception {
+		File classFile = new File(tempDir, "TestClass.class");
+		FileCopyUtils.copy(readClassFile(TestClass.class), classFile);
+		Resource resource = new FileSystemResource(classFile);
+		PersistentMetadataCache cache = PersistentMetadataCache.forDirectory(new File(tempDir, "files"));
+		cache.put(resource, new SimpleMetadataReader(resource, ClassUtils.getDefaultClassLoader()).getAnnotationMetadata());
+		cache.flush();
+		assertThat(cache.get(resource, null)).isNull();
+	}
+
+
+	private static Resource createJarResource(Class<?> source) throws Exception {
+		String entryName = ClassUtils.convertClassNameToResourcePath(source.getName()) + ".class";
+		File jarFile = new File(tempDir, "test" + jarCounter.incrementAndGet() + ".jar");
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+			jar.putNextEntry(new JarEntry(entryName));
+			jar.write(readClassFile(source));
+			jar.closeEntry();
+		}
+		return new UrlResource("jar:" + jarFile.toURI() + "!/" + entryName);
+	}
+
+	private static byte[] readClassFile(Class<?> source) throws Exception {
+		String path = ClassUtils.convertClassNameToResourcePath(source.getName()) + ".class";
+		try (InputStream is = ClassUtils.getDefaultClassLoader().getResourceAsStream(path)) {
+			return FileCopyUtils.copyToByteArray(is);
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ *
+ * @author Tan Jiquan
+ */
+class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> key + "value");
+
+
+	@Test
+	void zeroCapacity() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, key -> key + "value");
+
+		assertThat(cache.capacity()).isZero();
+		assertThat(cache.size()).isZero();
+
+		assertThat(cache.get("k1")).isEqualTo("k1value");
+		assertThat(cache.size()).isZero();
+		assertThat(cache.contains("k1")).isFalse();
+	}
+
+	@Test
+	void getAndSize() {
+		assertThat(this.cache.capacity()).isEqualTo(2);
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k1")).isEqualTo("k1value");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.get("k2")).isEqualTo("k2value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.get("k3")).isEqualTo("k3value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void cachedValueIsReturned() {
+		AtomicInteger generated = new AtomicInteger();
+		ConcurrentLruCache<String, Object> cache = new ConcurrentLruCache<>(4, key -> {
+			generated.incrementAndGet();
+			return new Object();
+		});
+
+		Object value = cache.get("k1");
+		assertThat(cache.get("k1")).isSameAs(value);
+		assertThat(generated.get()).isEqualTo(1);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> key + "value");
+		cache.get("k1");
+		cache.get("k2");
+		// Enough reads to flush the read buffer of the current thread
+		for (int i = 0; i < 64; i++) {
+			cache.get("k1");
+		}
+		cache.get("k3");
+
+		assertThat(cache.contains("k1")).isTrue();
+		assertThat(cache.contains("k2")).isFalse();
+		assertThat(cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void removeAndClear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+
+		assertThat(this.cache.remove("k1")).isTrue();
+		assertThat(this.cache.remove("k1")).isFalse();
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.size()).isEqualTo(1);
+
+		this.cache.get("k3");
+		this.cache.get("k4");
+		assertThat(this.cache.size()).isEqualTo(2);
+
+		this.cache.clear();
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.contains("k3")).isFalse();
+		assertThat(this.cache.get("k3")).isEqualTo("k3value");
+		assertThat(this.cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentAccessRespectsCapacity() throws InterruptedException {
+		ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(32, String::valueOf);
+		int threadCount = 8;
+		CountDownLatch latch = new CountDownLatch(threadCount);
+		List<Thread> threads = new ArrayList<>(threadCount);
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			int offset = t;
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 10000; i++) {
+						int key = (i * 7 + offset) % 100;
+						if (!String.valueOf(key).equals(cache.get(key))) {
+							throw new IllegalStateException("Unexpected value for key " + key);
+						}
+					}
+				}
+				catch (Throwable ex) {
+					synchronized (failures) {
+						failures.add(ex);
+					}
+				}
+				finally {
+					latch.countDown();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		latch.await();
+
+		assertThat(failures).isEmpty();
+		// Further writes from the current thread drain all pending operations
+		for (int i = 1000; i < 1100; i++) {
+			cache.get(i);
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(32);
+	}
+
+}
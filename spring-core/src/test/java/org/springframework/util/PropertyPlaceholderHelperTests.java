@@ -108,4 +108,49 @@ class PropertyPlaceholderHelperTests {
 				helper.replacePlaceholders(text, props));
 	}
 
+	@Test
+	void sameTextWithDifferentProperties() {
+		String text = "foo=${foo},bar=${bar}";
+		Properties props = new Properties();
+		props.setProperty("foo", "bar");
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=bar,bar=${bar}");
+
+		props.setProperty("foo", "baz");
+		props.setProperty("bar", "${foo}");
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("foo=baz,bar=baz");
+	}
+
+	@Test
+	void unterminatedPlaceholderIsKept() {
+		String text = "${foo}-${bar";
+		Properties props = new Properties();
+		props.setProperty("foo", "x");
+		props.setProperty("bar", "y");
+
+		assertThat(this.helper.replacePlaceholders(text, props)).isEqualTo("x-${bar");
+	}
+
+	@Test
+	void defaultValue() {
+		String text = "${foo:one}/${bar:two}";
+		PropertyPlaceholderHelper helper = new PropertyPlaceholderHelper("${", "}", ":", false);
+		Properties props = new Properties();
+		assertThat(helper.replacePlaceholders(text, props)).isEqualTo("one/two");
+
+		props.setProperty("foo", "${bar:three}");
+		assertThat(helper.replacePlaceholders(text, props)).isEqualTo("three/two");
+	}
+
+	@Test
+	void circularReference() {
+		String text = "${foo}";
+		Properties props = new Properties();
+		props.setProperty("foo", "${bar}");
+		props.setProperty("bar", "${foo}");
+
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				this.helper.replacePlaceholders(text, props))
+			.withMessageContaining("Circular placeholder reference 'foo'");
+	}
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for SpEL expression evaluation, comparing the interpreted
+ * mode with the compiled mode for a set of representative expressions.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelEvaluationBenchmark {
+
+	@Benchmark
+	public Object propertyNavigation(BenchmarkData data) {
+		return data.propertyNavigation.getValue(data.context, data.root);
+	}
+
+	@Benchmark
+	public Object methodInvocation(BenchmarkData data) {
+		return data.methodInvocation.getValue(data.context, data.root);
+	}
+
+	@Benchmark
+	public Object arithmeticAndComparison(BenchmarkData data) {
+		return data.arithmeticAndComparison.getValue(data.context, data.root);
+	}
+
+	@Benchmark
+	public Object mapAccess(BenchmarkData data) {
+		return data.mapAccess.getValue(data.context, data.root);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public Expression propertyNavigation;
+
+		public Expression methodInvocation;
+
+		public Expression arithmeticAndComparison;
+
+		public Expression mapAccess;
+
+		public EvaluationContext context;
+
+		public Order root;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			SpelParserConfiguration configuration = new SpelParserConfiguration(
+					this.compilerMode, getClass().getClassLoader());
+			SpelExpressionParser parser = new SpelExpressionParser(configuration);
+			this.propertyNavigation = parser.parseExpression("customer.address.city");
+			this.methodInvocation = parser.parseExpression("customer.name.toUpperCase().substring(1, 3)");
+			this.arithmeticAndComparison = parser.parseExpression("quantity * unitPrice > 100 and quantity < 50");
+			this.mapAccess = parser.parseExpression("attributes['channel']");
+			this.context = new StandardEvaluationContext();
+			this.root = new Order();
+			// Evaluate twice so that IMMEDIATE mode has compiled each expression
+			for (int i = 0; i < 2; i++) {
+				this.propertyNavigation.getValue(this.context, this.root);
+				this.methodInvocation.getValue(this.context, this.root);
+				this.arithmeticAndComparison.getValue(this.context, this.root);
+				this.mapAccess.getValue(this.context, this.root);
+			}
+		}
+	}
+
+
+	public static class Order {
+
+		private final Customer customer = new Customer();
+
+		private final Map<String, String> attributes = new HashMap<>();
+
+		public Order() {
+			this.attributes.put("channel", "web");
+		}
+
+		public Customer getCustomer() {
+			return this.customer;
+		}
+
+		public int getQuantity() {
+			return 12;
+		}
+
+		public double getUnitPrice() {
+			return 9.99;
+		}
+
+		public Map<String, String> getAttributes() {
+			return this.attributes;
+		}
+	}
+
+
+	public static class Customer {
+
+		private final Address address = new Address();
+
+		public String getName() {
+			return "Spring";
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+	}
+
+
+	public static class Address {
+
+		public String getCity() {
+			return "Linz";
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for row mapping in {@link JdbcTemplate#query}, against an
+ * embedded HSQL database so that the driver overhead stays small.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateQueryBenchmark {
+
+	private static final String SELECT = "SELECT id, first_name, last_name, age FROM person";
+
+
+	@Benchmark
+	public List<Person> lambdaRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(SELECT, (rs, rowNum) ->
+				new Person(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+	}
+
+	@Benchmark
+	public List<Person> beanPropertyRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(SELECT, data.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<Person> newBeanPropertyRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(SELECT, BeanPropertyRowMapper.newInstance(Person.class));
+	}
+
+	@Benchmark
+	public Object columnMapRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.queryForList(SELECT);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"10", "1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BeanPropertyRowMapper<Person> beanPropertyRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.HSQL).generateUniqueName(true).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, " +
+					"first_name VARCHAR(50), last_name VARCHAR(50), age INTEGER)");
+			List<Object[]> rows = new ArrayList<>(this.rowCount);
+			for (int i = 0; i < this.rowCount; i++) {
+				rows.add(new Object[] {i, "First" + i, "Last" + i, i % 90});
+			}
+			this.jdbcTemplate.batchUpdate("INSERT INTO person VALUES (?, ?, ?, ?)", rows);
+			this.beanPropertyRowMapper = BeanPropertyRowMapper.newInstance(Person.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	public static class Person {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		public Person() {
+		}
+
+		public Person(long id, String firstName, String lastName, int age) {
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.age = age;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
@@ -130,6 +130,15 @@ public class NamedParameterJdbcTemplateTests {
 		assertThat(namedParameterTemplate.getJdbcTemplate().getDataSource()).isSameAs(dataSource);
 	}
 
+	@Test
+	public void testCacheLimit() {
+		assertThat(namedParameterTemplate.getCacheLimit()).isEqualTo(NamedParameterJdbcTemplate.DEFAULT_CACHE_LIMIT);
+		namedParameterTemplate.setCacheLimit(-1);
+		assertThat(namedParameterTemplate.getCacheLimit()).isEqualTo(-1);
+		assertThat(namedParameterTemplate.getParsedSql("SELECT * FROM T WHERE ID = :id").getParameterNames())
+				.containsExactly("id");
+	}
+
 	@Test
 	public void testExecute() throws SQLException {
 		given(preparedStatement.executeUpdate()).willReturn(1);
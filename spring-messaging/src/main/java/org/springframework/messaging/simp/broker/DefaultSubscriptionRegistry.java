@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,7 @@
 package org.springframework.messaging.simp.broker;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +40,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -106,6 +106,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.destinationCache.setCacheLimit(cacheLimit);
 	}
 
 	/**
@@ -249,109 +250,114 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	/**
 	 * A cache for destinations previously resolved via
 	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}.
+	 * <p>Look-ups go through a bounded {@link ConcurrentLruCache} without locking.
+	 * The subscriptions for a cached destination are resolved on first access and
+	 * replaced with updated copies on subscription changes, both under the update lock.
 	 */
 	private class DestinationCache {
 
-		/** Map from destination to {@code <sessionId, subscriptionId>} for fast look-ups. */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
-				new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
-
-		/** Map from destination to {@code <sessionId, subscriptionId>} with locking. */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
-					}
-				};
+		/** Bounded cache from destination to its resolved subscriptions, for fast look-ups. */
+		private volatile ConcurrentLruCache<String, CachedDestination> accessCache =
+				new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, CachedDestination::new);
+
+		/** Resolved destinations to keep up-to-date on subscription changes, guarded by the update lock. */
+		private final Map<String, CachedDestination> resolvedDestinations = new HashMap<>();
 
+		private final Object updateLock = new Object();
+
+
+		public void setCacheLimit(int cacheLimit) {
+			synchronized (this.updateLock) {
+				this.accessCache = new ConcurrentLruCache<>(Math.max(cacheLimit, 0), CachedDestination::new);
+				this.resolvedDestinations.clear();
+			}
+		}
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
+			ConcurrentLruCache<String, CachedDestination> cache = this.accessCache;
+			CachedDestination cachedDestination = cache.get(destination);
+			LinkedMultiValueMap<String, String> result = cachedDestination.subscriptions;
 			if (result == null) {
-				synchronized (this.updateCache) {
-					result = new LinkedMultiValueMap<>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription sub : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, sub.getId());
+				synchronized (this.updateLock) {
+					result = cachedDestination.subscriptions;
+					if (result == null) {
+						result = new LinkedMultiValueMap<>();
+						for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
+							for (String destinationPattern : info.getDestinations()) {
+								if (getPathMatcher().match(destinationPattern, destination)) {
+									for (Subscription sub : info.getSubscriptions(destinationPattern)) {
+										result.add(info.sessionId, sub.getId());
+									}
 								}
 							}
 						}
-					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
+						cachedDestination.subscriptions = result;
+						if (result.isEmpty()) {
+							// Do not keep destinations without subscribers around
+							cache.remove(destination);
+						}
+						else if (cache == this.accessCache && cache.contains(destination)) {
+							registerResolvedDestination(cachedDestination);
+						}
 					}
 				}
 			}
 			return result;
 		}
 
+		private void registerResolvedDestination(CachedDestination cachedDestination) {
+			this.resolvedDestinations.put(cachedDestination.destination, cachedDestination);
+			ConcurrentLruCache<String, CachedDestination> cache = this.accessCache;
+			if (this.resolvedDestinations.size() > 2 * cache.capacity()) {
+				// Stop tracking destinations that got evicted from the access cache
+				this.resolvedDestinations.keySet().removeIf(destination -> !cache.contains(destination));
+			}
+		}
+
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				this.updateCache.forEach((cachedDestination, subscriptions) -> {
-					if (getPathMatcher().match(destination, cachedDestination)) {
+			synchronized (this.updateLock) {
+				for (CachedDestination cachedDestination : this.resolvedDestinations.values()) {
+					if (getPathMatcher().match(destination, cachedDestination.destination)) {
+						LinkedMultiValueMap<String, String> subscriptions = cachedDestination.getResolvedSubscriptions();
 						// Subscription id's may also be populated via getSubscriptions()
 						List<String> subsForSession = subscriptions.get(sessionId);
 						if (subsForSession == null || !subsForSession.contains(subsId)) {
-							subscriptions.add(sessionId, subsId);
-							this.accessCache.put(cachedDestination, subscriptions.deepCopy());
+							LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+							updated.add(sessionId, subsId);
+							cachedDestination.subscriptions = updated;
 						}
 					}
-				});
+				}
 			}
 		}
 
 		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
-						if (subscriptions.isEmpty()) {
-							sessionMap.remove(sessionId);
-						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
+			synchronized (this.updateLock) {
+				for (CachedDestination cachedDestination : this.resolvedDestinations.values()) {
+					LinkedMultiValueMap<String, String> subscriptions = cachedDestination.getResolvedSubscriptions();
+					List<String> subsForSession = subscriptions.get(sessionId);
+					if (subsForSession != null && subsForSession.contains(subsId)) {
+						LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+						List<String> updatedSubsForSession = updated.get(sessionId);
+						updatedSubsForSession.remove(subsId);
+						if (updatedSubsForSession.isEmpty()) {
+							updated.remove(sessionId);
 						}
+						cachedDestination.subscriptions = updated;
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
 				}
 			}
 		}
 
 		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+			synchronized (this.updateLock) {
+				for (CachedDestination cachedDestination : this.resolvedDestinations.values()) {
+					LinkedMultiValueMap<String, String> subscriptions = cachedDestination.getResolvedSubscriptions();
+					if (subscriptions.containsKey(info.getSessionId())) {
+						LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+						updated.remove(info.getSessionId());
+						cachedDestination.subscriptions = updated;
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
 				}
 			}
 		}
@@ -363,6 +369,29 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	}
 
 
+	/**
+	 * Cached destination with its resolved subscriptions, replaced on subscription changes.
+	 */
+	private static final class CachedDestination {
+
+		final String destination;
+
+		/** Map from sessionId to subscriptionIds, {@code null} until resolved. */
+		@Nullable
+		volatile LinkedMultiValueMap<String, String> subscriptions;
+
+		CachedDestination(String destination) {
+			this.destination = destination;
+		}
+
+		LinkedMultiValueMap<String, String> getResolvedSubscriptions() {
+			LinkedMultiValueMap<String, String> subscriptions = this.subscriptions;
+			Assert.state(subscriptions != null, "Destination not resolved yet");
+			return subscriptions;
+		}
+	}
+
+
 	/**
 	 * Provide access to session subscriptions by sessionId.
 	 */
@@ -386,6 +386,18 @@ public class DefaultSubscriptionRegistryTests {
 		assertThat(actual.size()).as("Expected no elements " + actual).isEqualTo(0);
 	}
 
+	@Test
+	public void findSubscriptionsNoMatchesAreNotCached() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(this.registry.findSubscriptions(createMessage("/foo" + i))).isEmpty();
+		}
+		assertThat(this.registry.toString()).contains("cache[0 destination(s)]");
+
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/foo1"));
+		assertThat(this.registry.findSubscriptions(createMessage("/foo1")).size()).isEqualTo(1);
+		assertThat(this.registry.toString()).contains("cache[1 destination(s)]");
+	}
+
 	@Test  // SPR-12665
 	public void findSubscriptionsReturnsMapSafeToIterate() throws Exception {
 		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/foo"));
@@ -47,10 +47,10 @@ public class SpringTransactionAnnotationParser implements TransactionAnnotationP
 	@Override
 	@Nullable
 	public TransactionAttribute parseTransactionAnnotation(AnnotatedElement element) {
-		AnnotationAttributes attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(
-				element, Transactional.class, false, false);
-		if (attributes != null) {
-			return parseTransactionAnnotation(attributes);
+		// Goes through the merged annotation cache, unlike an attributes lookup
+		Transactional ann = AnnotatedElementUtils.findMergedAnnotation(element, Transactional.class);
+		if (ann != null) {
+			return parseTransactionAnnotation(ann);
 		}
 		else {
 			return null;
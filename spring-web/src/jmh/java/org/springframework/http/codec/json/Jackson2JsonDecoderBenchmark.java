@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder}, decoding a single JSON object
+ * to a {@code Mono} and a JSON array to a {@code Flux} of elements.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	@Benchmark
+	public Object decodeToMono(BenchmarkData data) {
+		DataBuffer buffer = data.bufferFactory.wrap(data.singleJson);
+		return data.decoder.decodeToMono(Mono.just(buffer), data.elementType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).block();
+	}
+
+	@Benchmark
+	public List<Object> decodeArrayToFlux(BenchmarkData data) {
+		DataBuffer buffer = data.bufferFactory.wrap(data.arrayJson);
+		return data.decoder.decode(Flux.just(buffer), data.elementType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public List<Object> decodeChunkedArrayToFlux(BenchmarkData data) {
+		Flux<DataBuffer> buffers = Flux.range(0, data.chunks.length)
+				.map(i -> data.bufferFactory.wrap(data.chunks[i]));
+		return data.decoder.decode(buffers, data.elementType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).collectList().block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"10", "1000"})
+		public int elementCount;
+
+		public Jackson2JsonDecoder decoder;
+
+		public DefaultDataBufferFactory bufferFactory;
+
+		public ResolvableType elementType;
+
+		public byte[] singleJson;
+
+		public byte[] arrayJson;
+
+		public byte[][] chunks;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.decoder = new Jackson2JsonDecoder();
+			this.decoder.setMaxInMemorySize(-1);
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.elementType = ResolvableType.forClass(Pojo.class);
+			String element = "{\"foo\":\"foofoofoofoo\",\"bar\":\"barbarbarbar\"}";
+			this.singleJson = element.getBytes(StandardCharsets.UTF_8);
+			StringBuilder array = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				array.append(i > 0 ? "," : "").append(element);
+			}
+			this.arrayJson = array.append("]").toString().getBytes(StandardCharsets.UTF_8);
+			int chunkSize = 256;
+			int chunkCount = (this.arrayJson.length + chunkSize - 1) / chunkSize;
+			this.chunks = new byte[chunkCount][];
+			for (int i = 0; i < chunkCount; i++) {
+				int from = i * chunkSize;
+				int length = Math.min(chunkSize, this.arrayJson.length - from);
+				this.chunks[i] = new byte[length];
+				System.arraycopy(this.arrayJson, from, this.chunks[i], 0, length);
+			}
+		}
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
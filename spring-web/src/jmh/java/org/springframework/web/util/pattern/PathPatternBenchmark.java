@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Benchmarks for matching request paths against parsed {@link PathPattern}s,
+ * using the same patterns and paths as {@code AntPathMatcherBenchmark}.
+ *
+ * @author Tan Jiquan
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@Benchmark
+	public void matchAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			for (PathPattern pattern : data.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseAndMatchAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (String path : data.rawRequestPaths) {
+			PathContainer pathContainer = PathContainer.parsePath(path);
+			for (PathPattern pattern : data.patterns) {
+				bh.consume(pattern.matches(pathContainer));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndExtract(BenchmarkData data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			for (PathPattern pattern : data.patterns) {
+				bh.consume(pattern.matchAndExtract(path));
+			}
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public List<PathPattern> patterns = new ArrayList<>();
+
+		public List<String> rawRequestPaths = new ArrayList<>();
+
+		public List<PathContainer> requestPaths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			this.patterns.add(parser.parse("/"));
+			this.patterns.add(parser.parse("/resources/**"));
+			this.patterns.add(parser.parse("/static/*.css"));
+			this.patterns.add(parser.parse("/api/projects"));
+			this.patterns.add(parser.parse("/api/projects/{project}"));
+			this.patterns.add(parser.parse("/api/projects/{project}/releases"));
+			this.patterns.add(parser.parse("/api/projects/{project}/releases/{version}"));
+			this.patterns.add(parser.parse("/api/projects/{project}/releases/{version}/**"));
+			this.patterns.add(parser.parse("/api/users/{id:[0-9]+}"));
+			this.patterns.add(parser.parse("/api/users/{id}/avatar.{ext}"));
+			this.patterns.add(parser.parse("/**"));
+			this.rawRequestPaths.add("/");
+			this.rawRequestPaths.add("/resources/js/app.js");
+			this.rawRequestPaths.add("/static/main.css");
+			this.rawRequestPaths.add("/api/projects/spring-framework/releases");
+			this.rawRequestPaths.add("/api/projects/spring-framework/releases/5.2.5.RELEASE/docs");
+			this.rawRequestPaths.add("/api/users/1234");
+			this.rawRequestPaths.add("/api/users/john/avatar.png");
+			this.rawRequestPaths.add("/unknown/path/for/fallback");
+			for (String path : this.rawRequestPaths) {
+				this.requestPaths.add(PathContainer.parsePath(path));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * A prefix tree over the segments of URL path patterns, returning the
+ * mappings whose patterns could possibly match a given lookup path in time
+ * proportional to the depth of the path rather than to the number of
+ * registered mappings.
+ *
+ * <p>Literal segments become keyed edges, segments with {@code *}, {@code ?}
+ * or a <code>{variable}</code> become a single-segment wildcard edge, and
+ * {@code **} as well as <code>{*variable}</code> become an edge consuming
+ * zero or more segments. The candidates returned are a superset of the
+ * actual matches for both {@link org.springframework.util.AntPathMatcher}
+ * (including its suffix and trailing slash variants as used by
+ * {@code @RequestMapping}) and {@link org.springframework.web.util.pattern.PathPattern}
+ * patterns: literal segments are compared ignoring case and surrounding
+ * whitespace, and mappings with patterns that cannot be indexed (no patterns,
+ * relative patterns, or a {@code /} within a variable) are always returned.
+ * Callers are therefore expected to match each candidate as before.
+ *
+ * <p>Candidates are returned in registration order. Not thread-safe:
+ * modifications must be guarded by the same lock as lookups.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ * @param <T> the mapping type
+ */
+public class PathPatternIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, Entry<T>> entries = new HashMap<>();
+
+	private final Set<Entry<T>> unindexedEntries = new LinkedHashSet<>();
+
+	private long sequence;
+
+
+	/**
+	 * Add the given mapping along with the patterns it is mapped to.
+	 * Adding a mapping that is already present has no effect.
+	 * @param mapping the mapping to add
+	 * @param patterns the URL path patterns of the mapping
+	 */
+	public void add(T mapping, Collection<String> patterns) {
+		if (this.entries.containsKey(mapping)) {
+			return;
+		}
+		Entry<T> entry = new Entry<>(mapping, this.sequence++);
+		List<String[]> tokenizedPatterns = tokenizePatterns(patterns);
+		if (tokenizedPatterns == null) {
+			this.unindexedEntries.add(entry);
+		}
+		else {
+			for (String[] tokens : tokenizedPatterns) {
+				Node<T> node = this.root;
+				for (String token : tokens) {
+					node = node.getOrCreateChild(token);
+				}
+				if (node.addEntry(entry)) {
+					entry.nodes.add(node);
+				}
+			}
+		}
+		this.entries.put(mapping, entry);
+	}
+
+	/**
+	 * Remove the given mapping.
+	 * @param mapping the mapping to remove
+	 */
+	public void remove(T mapping) {
+		Entry<T> entry = this.entries.remove(mapping);
+		if (entry != null) {
+			this.unindexedEntries.remove(entry);
+			for (Node<T> node : entry.nodes) {
+				node.entries.remove(entry);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of mappings in this index.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the mappings that could match the given lookup path.
+	 * @param lookupPath the lookup path, e.g. as returned from
+	 * {@link UrlPathHelper#getLookupPathForRequest}
+	 * @return the candidate mappings, in registration order
+	 */
+	public List<T> getCandidates(String lookupPath) {
+		return getCandidates(StringUtils.tokenizeToStringArray(lookupPath, PATH_SEPARATOR, false, true));
+	}
+
+	/**
+	 * Return the mappings that could match the given path, using the decoded
+	 * {@link PathContainer.PathSegment#valueToMatch() value to match} of each
+	 * path segment.
+	 * @param path the path, e.g. the path within the application
+	 * @return the candidate mappings, in registration order
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		List<PathContainer.Element> elements = path.elements();
+		List<String> tokens = new ArrayList<>(elements.size());
+		for (PathContainer.Element element : elements) {
+			if (element instanceof PathContainer.PathSegment) {
+				tokens.add(((PathContainer.PathSegment) element).valueToMatch());
+			}
+		}
+		return getCandidates(StringUtils.toStringArray(tokens));
+	}
+
+	private List<T> getCandidates(String[] pathTokens) {
+		Set<Entry<T>> result = new LinkedHashSet<>(this.unindexedEntries);
+		collect(this.root, pathTokens, 0, result);
+		if (result.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Entry<T>> sorted = new ArrayList<>(result);
+		if (sorted.size() > 1) {
+			sorted.sort((entry1, entry2) -> Long.compare(entry1.sequence, entry2.sequence));
+		}
+		List<T> candidates = new ArrayList<>(sorted.size());
+		for (Entry<T> entry : sorted) {
+			candidates.add(entry.mapping);
+		}
+		return candidates;
+	}
+
+	private void collect(Node<T> node, String[] tokens, int index, Set<Entry<T>> result) {
+		if (node.multiSegmentChild != null) {
+			for (int i = index; i <= tokens.length; i++) {
+				collect(node.multiSegmentChild, tokens, i, result);
+			}
+		}
+		if (index == tokens.length) {
+			result.addAll(node.entries);
+			// AntPathMatcher: "/a/*" also matches "/a/"
+			if (node.wildcardChild != null) {
+				result.addAll(node.wildcardChild.entries);
+			}
+			return;
+		}
+		String token = tokens[index];
+		if (!StringUtils.hasText(token)) {
+			// Blank segment, ignored by AntPathMatcher with trimTokens
+			collect(node, tokens, index + 1, result);
+		}
+		boolean last = isLastToken(tokens, index);
+		if (node.literalChildren != null) {
+			String key = normalize(token);
+			Node<T> child = node.literalChildren.get(key);
+			if (child != null) {
+				collect(child, tokens, index + 1, result);
+			}
+			if (last) {
+				// Suffix pattern match: "/a" as "/a.*" or "/a.json"
+				int dotIndex = key.indexOf('.', 1);
+				while (dotIndex != -1) {
+					child = node.literalChildren.get(key.substring(0, dotIndex));
+					if (child != null) {
+						result.addAll(child.entries);
+					}
+					dotIndex = key.indexOf('.', dotIndex + 1);
+				}
+			}
+		}
+		if (last && token.startsWith(".")) {
+			// Suffix pattern match: "/a/" as "/a/.*"
+			result.addAll(node.entries);
+		}
+		if (node.wildcardChild != null) {
+			collect(node.wildcardChild, tokens, index + 1, result);
+		}
+	}
+
+
+	private static boolean isLastToken(String[] tokens, int index) {
+		for (int i = index + 1; i < tokens.length; i++) {
+			if (StringUtils.hasText(tokens[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tokenize the given patterns, or return {@code null} if any of them
+	 * cannot be indexed.
+	 */
+	@Nullable
+	private static List<String[]> tokenizePatterns(Collection<String> patterns) {
+		if (patterns.isEmpty()) {
+			return null;
+		}
+		List<String[]> result = new ArrayList<>(patterns.size());
+		for (String pattern : patterns) {
+			if (!pattern.startsWith(PATH_SEPARATOR) || hasSeparatorInVariable(pattern)) {
+				return null;
+			}
+			String[] tokens = StringUtils.tokenizeToStringArray(pattern, PATH_SEPARATOR, false, true);
+			for (String token : tokens) {
+				if (!StringUtils.hasText(token)) {
+					return null;
+				}
+			}
+			result.add(tokens);
+		}
+		return result;
+	}
+
+	private static boolean hasSeparatorInVariable(String pattern) {
+		int depth = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '{') {
+				depth++;
+			}
+			else if (c == '}') {
+				depth--;
+			}
+			else if (c == '/' && depth > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isMultiSegmentToken(String token) {
+		return (token.equals("**") || token.startsWith("{*"));
+	}
+
+	private static boolean isWildcardToken(String token) {
+		return (token.indexOf('*') != -1 || token.indexOf('?') != -1 || token.indexOf('{') != -1);
+	}
+
+	/**
+	 * Normalize a literal segment such that segments that are equal when
+	 * trimmed and compared ignoring case map to the same key.
+	 */
+	private static String normalize(String token) {
+		String trimmed = token.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (fold(c) != c) {
+				char[] chars = trimmed.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = fold(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return trimmed;
+	}
+
+	private static char fold(char c) {
+		// Same as String.equalsIgnoreCase
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> literalChildren;
+
+		@Nullable
+		private Node<T> wildcardChild;
+
+		@Nullable
+		private Node<T> multiSegmentChild;
+
+		private final Set<Entry<T>> entries = new LinkedHashSet<>(2);
+
+		Node<T> getOrCreateChild(String token) {
+			if (isMultiSegmentToken(token)) {
+				if (this.multiSegmentChild == null) {
+					this.multiSegmentChild = new Node<>();
+				}
+				return this.multiSegmentChild;
+			}
+			if (isWildcardToken(token)) {
+				if (this.wildcardChild == null) {
+					this.wildcardChild = new Node<>();
+				}
+				return this.wildcardChild;
+			}
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<>();
+			}
+			return this.literalChildren.computeIfAbsent(normalize(token), key -> new Node<>());
+		}
+
+		boolean addEntry(Entry<T> entry) {
+			return this.entries.add(entry);
+		}
+	}
+
+
+	private static final class Entry<T> {
+
+		private final T mapping;
+
+		private final long sequence;
+
+		private final List<Node<T>> nodes = new ArrayList<>(1);
+
+		Entry(T mapping, long sequence) {
+			this.mapping = mapping;
+			this.sequence = sequence;
+		}
+	}
+
+}
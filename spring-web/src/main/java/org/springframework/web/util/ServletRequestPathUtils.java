@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility methods to parse the path of a Servlet request into a
+ * {@link RequestPath} once and to keep it in a request attribute, so that
+ * it can be matched against {@link org.springframework.web.util.pattern.PathPattern
+ * PathPatterns} repeatedly without decoding and tokenizing the path again.
+ *
+ * <p>The {@link RequestPath#pathWithinApplication() path within the application}
+ * excludes the context path and, for a prefix mapped Servlet such as
+ * {@code "/app/*"}, also the Servlet path, in line with the default
+ * {@link UrlPathHelper} lookup path.
+ *
+ * @author Tan Jiquan
+ * @since 5.3
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the {@link HttpServletRequest#getRequestURI() requestURI} of the
+	 * given request (or of the included request, during an include dispatch)
+	 * into a {@link RequestPath} and save it in the request attribute
+	 * {@link #PATH_ATTRIBUTE}, replacing any previously parsed path.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously parsed} request path, parsing
+	 * and caching it first if necessary.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath getOrParseAndCache(HttpServletRequest request) {
+		Object requestPath = request.getAttribute(PATH_ATTRIBUTE);
+		return (requestPath instanceof RequestPath ? (RequestPath) requestPath : parseAndCache(request));
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously parsed} request path.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path has not been parsed
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath requestPath = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(requestPath, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return requestPath;
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously parsed} request path.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Remove the request attribute {@link #PATH_ATTRIBUTE} that holds a
+	 * {@link #parseAndCache previously parsed} request path.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+
+	private static RequestPath parse(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		String contextPath;
+		String servletPath;
+		String pathInfo;
+		if (requestUri != null) {
+			contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+			servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+			pathInfo = (String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE);
+		}
+		else {
+			requestUri = request.getRequestURI();
+			contextPath = request.getContextPath();
+			servletPath = request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		return RequestPath.parse(requestUri, getApplicationPath(requestUri, contextPath, servletPath, pathInfo));
+	}
+
+	/**
+	 * Determine the encoded path to treat as the "context path" of the
+	 * {@link RequestPath}: the context path plus the Servlet path of a prefix
+	 * mapped Servlet, if it can be found in the encoded request URI.
+	 */
+	@Nullable
+	private static String getApplicationPath(String requestUri, @Nullable String contextPath,
+			@Nullable String servletPath, @Nullable String pathInfo) {
+
+		if (!StringUtils.hasLength(servletPath) || !StringUtils.hasLength(pathInfo)) {
+			return contextPath;
+		}
+		String applicationPath = (contextPath != null ? contextPath : "") +
+				UriUtils.encodePath(servletPath, StandardCharsets.UTF_8);
+		if (requestUri.startsWith(applicationPath) && requestUri.length() > applicationPath.length() &&
+				requestUri.charAt(applicationPath.length()) == '/') {
+			return applicationPath;
+		}
+		return contextPath;
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPatternIndex}.
+ *
+ * @author Tan Jiquan
+ */
+class PathPatternIndexTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"/", "/hotels", "/hotels/", "/hotels/{hotel}", "/hotels/{hotel}/bookings",
+			"/hotels/{hotel}/bookings/{booking}", "/hotels/*/rooms", "/hotels/**", "/static/**/*.css",
+			"/api/v1/users", "/api/v?/users/{id:\\d+}", "/api/**/health", "/Case/Sensitive", "/files.txt");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"", "/", "/hotels", "/hotels/", "/hotels/1", "/hotels/1/", "/hotels/1/bookings",
+			"/hotels/1/bookings/2", "/hotels/1/rooms", "/hotels/1/2/3", "/hotels.json", "/hotels/1.json",
+			"/hotels/.json", "/static/a/b/c.css", "/static/c.css", "/api/v1/users", "/api/v2/users/42",
+			"/api/health", "/api/a/b/health", "/case/sensitive", "/files.txt", "/files.txt.json", "/other");
+
+
+	@Test
+	void candidatesIncludeAntPathMatcherMatches() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		PATTERNS.forEach(pattern -> index.add(pattern, Collections.singleton(pattern)));
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		for (String path : PATHS) {
+			List<String> candidates = index.getCandidates(path);
+			for (String pattern : PATTERNS) {
+				boolean match = (pattern.equals(path) || pathMatcher.match(pattern, path) ||
+						pathMatcher.match(pattern + ".*", path) || pathMatcher.match(pattern + "/", path));
+				if (match) {
+					assertThat(candidates).as(pattern + " for " + path).contains(pattern);
+				}
+			}
+		}
+	}
+
+	@Test
+	void candidatesIncludeCaseInsensitiveAntPathMatcherMatches() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		PATTERNS.forEach(pattern -> index.add(pattern, Collections.singleton(pattern)));
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		for (String path : PATHS) {
+			List<String> candidates = index.getCandidates(path);
+			for (String pattern : PATTERNS) {
+				if (pathMatcher.match(pattern, path)) {
+					assertThat(candidates).as(pattern + " for " + path).contains(pattern);
+				}
+			}
+		}
+	}
+
+	@Test
+	void candidatesIncludePathPatternMatches() {
+		List<String> patterns = Arrays.asList(
+				"/hotels", "/hotels/{hotel}", "/hotels/{hotel}/bookings/{booking}", "/hotels/*/rooms",
+				"/hotels/**", "/files/{*path}", "/api/v?/users", "/a//b");
+		List<String> paths = Arrays.asList(
+				"/", "/hotels", "/hotels/", "/hotels/1", "/hotels/1/bookings/2", "/hotels/1/rooms",
+				"/hotels/1/2/3", "/files", "/files/a/b", "/api/v1/users", "/hotels;a=b/1", "/a//b", "/a/b");
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		patterns.forEach(pattern -> index.add(pattern, Collections.singleton(pattern)));
+		PathPatternParser parser = new PathPatternParser();
+		for (String path : paths) {
+			PathContainer container = PathContainer.parsePath(path);
+			List<String> candidates = index.getCandidates(container);
+			for (String pattern : patterns) {
+				PathPattern pathPattern = parser.parse(pattern);
+				if (pathPattern.matches(container)) {
+					assertThat(candidates).as(pattern + " for " + path).contains(pattern);
+				}
+			}
+		}
+	}
+
+	@Test
+	void candidatesAreNarrowedDown() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		PATTERNS.forEach(pattern -> index.add(pattern, Collections.singleton(pattern)));
+		assertThat(index.getCandidates("/api/v1/users")).containsExactly("/api/v1/users", "/api/v?/users/{id:\\d+}");
+		assertThat(index.getCandidates("/hotels/1/bookings/2")).containsExactly(
+				"/hotels/{hotel}/bookings/{booking}", "/hotels/**");
+		assertThat(index.getCandidates("/other")).isEmpty();
+	}
+
+	@Test
+	void candidatesInRegistrationOrder() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		index.add("c", Collections.singleton("/a/**"));
+		index.add("b", Collections.singleton("/a/{b}"));
+		index.add("a", Collections.singleton("/a/b"));
+		assertThat(index.getCandidates("/a/b")).containsExactly("c", "b", "a");
+	}
+
+	@Test
+	void unindexedMappingsAreAlwaysCandidates() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		index.add("none", Collections.emptySet());
+		index.add("relative", Collections.singleton("relative"));
+		index.add("separatorInVariable", Collections.singleton("/a/{b:.*/.*}"));
+		index.add("indexed", Collections.singleton("/indexed"));
+		assertThat(index.getCandidates("/other")).containsExactly("none", "relative", "separatorInVariable");
+	}
+
+	@Test
+	void multiplePatternsPerMapping() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		index.add("mapping", Arrays.asList("/a", "/b/{c}", "/a"));
+		assertThat(index.getCandidates("/a")).containsExactly("mapping");
+		assertThat(index.getCandidates("/b/c")).containsExactly("mapping");
+		assertThat(index.getCandidates("/c")).isEmpty();
+	}
+
+	@Test
+	void remove() {
+		PathPatternIndex<String> index = new PathPatternIndex<>();
+		index.add("a", Arrays.asList("/a", "/b"));
+		index.add("b", Collections.singleton("/a"));
+		index.add("c", Collections.emptySet());
+		assertThat(index.size()).isEqualTo(3);
+
+		index.remove("a");
+		index.remove("c");
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.getCandidates("/a")).containsExactly("b");
+		assertThat(index.getCandidates("/b")).isEmpty();
+	}
+
+}
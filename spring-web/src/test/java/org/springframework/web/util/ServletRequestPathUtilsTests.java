@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @author Tan Jiquan
+ */
+class ServletRequestPathUtilsTests {
+
+	@Test
+	void parseAndCache() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a/b%20c");
+		request.setContextPath("/app");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(requestPath.contextPath().value()).isEqualTo("/app");
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/a/b%20c");
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).isSameAs(requestPath);
+		assertThat(ServletRequestPathUtils.getOrParseAndCache(request)).isSameAs(requestPath);
+	}
+
+	@Test
+	void prefixMappedServlet() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/my%20servlet/a");
+		request.setContextPath("/app");
+		request.setServletPath("/my servlet");
+		request.setPathInfo("/a");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(requestPath.contextPath().value()).isEqualTo("/app/my%20servlet");
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/a");
+	}
+
+	@Test
+	void defaultServlet() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a");
+		request.setContextPath("/app");
+		request.setServletPath("/a");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/a");
+	}
+
+	@Test
+	void include() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/b");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/b");
+	}
+
+	@Test
+	void clearParsedRequestPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a");
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isFalse();
+		assertThatIllegalArgumentException().isThrownBy(() -> ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.parseAndCache(request);
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isTrue();
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isFalse();
+	}
+
+}
@@ -37,6 +37,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -47,6 +48,7 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.PathPatternIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -58,6 +60,7 @@ import org.springframework.web.server.ServerWebExchange;
  * @author Rossen Stoyanchev
  * @author Brian Clozel
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 5.0
  * @param <T> the mapping for a {@link HandlerMethod} containing the conditions
  * needed to match the handler method to an incoming request.
@@ -311,7 +314,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		if (isPatternIndexEnabled()) {
+			PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+			addMatchingMappings(this.mappingRegistry.getMappingsByPatternIndex(lookupPath), matches, exchange);
+		}
+		else {
+			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		}
 
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -422,6 +431,34 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected abstract T getMatchingMapping(T mapping, ServerWebExchange exchange);
 
+	/**
+	 * Extract and return the URL path patterns contained in the supplied mapping,
+	 * for use in the pattern index.
+	 * <p>The default implementation returns an empty set, in which case the
+	 * mapping is considered for every request.
+	 * @since 5.3
+	 * @see #isPatternIndexEnabled()
+	 */
+	protected Set<String> getMappingPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Whether to look up mappings through an index over the
+	 * {@link #getMappingPathPatterns mapping path patterns} rather than by
+	 * checking every registered mapping.
+	 * <p>The index returns candidates for {@code PathPattern} style patterns
+	 * matched against the path within the application, which are then matched
+	 * as usual. Subclasses may enable this if their mappings only match requests
+	 * with a path matched by one of their path patterns.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.3
+	 * @see PathPatternIndex
+	 */
+	protected boolean isPatternIndexEnabled() {
+		return false;
+	}
+
 	/**
 	 * Return a comparator for sorting matching mappings.
 	 * The returned comparator should sort 'better' matches higher.
@@ -443,6 +480,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<T, HandlerMethod> mappingLookup = new LinkedHashMap<>();
 
+		private final PathPatternIndex<T> patternIndex = new PathPatternIndex<>();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -455,6 +494,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return mappings with path patterns that could match the given path.
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getMappingsByPatternIndex(PathContainer path) {
+			return this.patternIndex.getCandidates(path);
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -484,6 +532,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				HandlerMethod handlerMethod = createHandlerMethod(handler, method);
 				validateMethodMapping(handlerMethod, mapping);
 				this.mappingLookup.put(mapping, handlerMethod);
+				this.patternIndex.add(mapping, getMappingPathPatterns(mapping));
 
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -517,6 +566,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				this.patternIndex.remove(definition.getMapping());
 				this.corsLookup.remove(definition.getHandlerMethod());
 			}
 			finally {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,30 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	}
 
 
+	/**
+	 * Get the URL path patterns associated with the supplied {@link RequestMappingInfo}.
+	 * @since 5.3
+	 */
+	@Override
+	protected Set<String> getMappingPathPatterns(RequestMappingInfo info) {
+		Set<PathPattern> patterns = info.getPatternsCondition().getPatterns();
+		Set<String> result = new LinkedHashSet<>(patterns.size());
+		for (PathPattern pattern : patterns) {
+			result.add(pattern.getPatternString());
+		}
+		return result;
+	}
+
+	/**
+	 * Look up mappings through the pattern index, given that the patterns of a
+	 * {@link RequestMappingInfo} must match for the mapping to match.
+	 * @since 5.3
+	 */
+	@Override
+	protected boolean isPatternIndexEnabled() {
+		return true;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
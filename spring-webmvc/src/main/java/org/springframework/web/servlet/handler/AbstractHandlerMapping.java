@@ -49,6 +49,7 @@ import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -61,6 +62,7 @@ import org.springframework.web.util.UrlPathHelper;
  *
  * @author Juergen Hoeller
  * @author Rossen Stoyanchev
+ * @author Tan Jiquan
  * @since 07.04.2003
  * @see #getHandlerInternal
  * @see #setDefaultHandler
@@ -80,6 +82,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -188,6 +193,45 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable the use of pre-parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} as an alternative to String pattern matching with the
+	 * {@link #setPathMatcher PathMatcher}. The request path is then parsed once
+	 * per lookup and kept in a request attribute through
+	 * {@link org.springframework.web.util.ServletRequestPathUtils}, rather than
+	 * being decoded and tokenized for every pattern check.
+	 * <p>Currently supported by
+	 * {@link org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping
+	 * RequestMappingHandlerMapping}. Suffix pattern matching does not apply in
+	 * this mode, while trailing slash matching is controlled by the parser.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.3
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.3
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Whether this handler mapping uses parsed {@code PathPatterns} rather
+	 * than String pattern matching with a {@code PathMatcher}.
+	 * @since 5.3
+	 * @see #setPatternParser(PathPatternParser)
+	 */
+	public boolean usesPathPatterns() {
+		return (this.patternParser != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
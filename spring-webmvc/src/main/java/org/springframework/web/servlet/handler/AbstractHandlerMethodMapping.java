@@ -43,6 +43,8 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -52,6 +54,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.PathPatternIndex;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -64,6 +68,7 @@ import org.springframework.web.servlet.HandlerMapping;
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @author Sam Brannen
+ * @author Tan Jiquan
  * @since 3.1
  * @param <T> the mapping for a {@link HandlerMethod} containing the conditions
  * needed to match the handler method to an incoming request.
@@ -379,8 +384,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		request.setAttribute(LOOKUP_PATH, lookupPath);
+		String lookupPath;
+		if (usesPathPatterns()) {
+			// Parse once, for matching against all PathPatterns
+			RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+			lookupPath = getUrlPathHelper().removeSemicolonContent(requestPath.pathWithinApplication().value());
+		}
+		else {
+			lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+			request.setAttribute(LOOKUP_PATH, lookupPath);
+		}
 		this.mappingRegistry.acquireReadLock();
 		try {
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -408,8 +421,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (isPatternIndexEnabled()) {
+				// Only go through mappings with patterns that could match...
+				List<T> candidates = (usesPathPatterns() ?
+						this.mappingRegistry.getMappingsByPatternIndex(
+								ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication()) :
+						this.mappingRegistry.getMappingsByPatternIndex(lookupPath));
+				addMatchingMappings(candidates, matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -522,6 +545,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+	/**
+	 * Whether to look up mappings without a direct URL match through an index
+	 * over the {@link #getMappingPathPatterns mapping path patterns} rather
+	 * than by checking every registered mapping.
+	 * <p>The index returns candidates for {@code AntPathMatcher} style patterns,
+	 * including suffix and trailing slash variants, matched against the lookup
+	 * path or, if {@link #usesPathPatterns()}, for {@code PathPattern} style
+	 * patterns matched against the parsed request path. The candidates are then
+	 * matched as usual. Subclasses may enable this if their mappings only match
+	 * requests with a path matched by one of their path patterns.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.3
+	 * @see PathPatternIndex
+	 */
+	protected boolean isPatternIndexEnabled() {
+		return false;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -554,6 +595,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternIndex<T> patternIndex = new PathPatternIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -577,6 +620,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return mappings with path patterns that could match the given URL path.
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getMappingsByPatternIndex(String urlPath) {
+			return this.patternIndex.getCandidates(urlPath);
+		}
+
+		/**
+		 * Return mappings with path patterns that could match the given parsed
+		 * path. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getMappingsByPatternIndex(PathContainer path) {
+			return this.patternIndex.getCandidates(path);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -622,6 +683,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				this.patternIndex.add(mapping, getMappingPathPatterns(mapping));
 
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -699,6 +761,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 						}
 					}
 				}
+				this.patternIndex.remove(definition.getMapping());
 
 				removeMappingName(definition);
 
@@ -28,24 +28,42 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>The patterns are either matched as Strings against the lookup path with
+ * a {@link PathMatcher}, or, if created with a {@link PathPatternParser},
+ * parsed into {@link PathPattern PathPatterns} once and matched against the
+ * request path parsed via {@link ServletRequestPathUtils}.
+ *
  * @author Rossen Stoyanchev
+ * @author Tan Jiquan
  * @since 3.1
  */
 public final class PatternsRequestCondition extends AbstractRequestCondition<PatternsRequestCondition> {
 
+	private static final UrlPathHelper defaultPathHelper = new UrlPathHelper();
+
+	private static final PathMatcher defaultPathMatcher = new AntPathMatcher();
+
+
 	private final Set<String> patterns;
 
+	@Nullable
+	private final Set<PathPattern> pathPatterns;
+
 	private final UrlPathHelper pathHelper;
 
 	private final PathMatcher pathMatcher;
@@ -121,6 +139,20 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Alternative constructor that parses the given patterns into
+	 * {@link PathPattern PathPatterns}, matched against the request path
+	 * {@link ServletRequestPathUtils#parseAndCache parsed} once per request.
+	 * Suffix pattern matching does not apply, while trailing slash matching
+	 * is controlled by the given parser.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.3
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(parsePatterns(prependLeadingSlash(Arrays.asList(patterns)), patternParser));
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -129,6 +161,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
+		this.pathPatterns = null;
 		this.pathHelper = urlPathHelper != null ? urlPathHelper : new UrlPathHelper();
 		this.pathMatcher = pathMatcher != null ? pathMatcher : new AntPathMatcher();
 		this.useSuffixPatternMatch = useSuffixPatternMatch;
@@ -149,6 +182,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	private PatternsRequestCondition(Set<String> patterns, PatternsRequestCondition other) {
 		this.patterns = patterns;
+		this.pathPatterns = null;
 		this.pathHelper = other.pathHelper;
 		this.pathMatcher = other.pathMatcher;
 		this.useSuffixPatternMatch = other.useSuffixPatternMatch;
@@ -156,6 +190,22 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		this.fileExtensions.addAll(other.fileExtensions);
 	}
 
+	/**
+	 * Private constructor for parsed patterns, also for use when combining and matching.
+	 */
+	private PatternsRequestCondition(Set<PathPattern> pathPatterns) {
+		Set<String> patterns = new LinkedHashSet<>(pathPatterns.size());
+		for (PathPattern pathPattern : pathPatterns) {
+			patterns.add(pathPattern.getPatternString());
+		}
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathPatterns = Collections.unmodifiableSet(pathPatterns);
+		this.pathHelper = defaultPathHelper;
+		this.pathMatcher = defaultPathMatcher;
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = false;
+	}
+
 
 	private static Set<String> prependLeadingSlash(Collection<String> patterns) {
 		if (patterns.isEmpty()) {
@@ -171,10 +221,30 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return result;
 	}
 
+	private static Set<PathPattern> parsePatterns(Set<String> patterns, PathPatternParser patternParser) {
+		Set<PathPattern> result = new LinkedHashSet<>(patterns.size());
+		for (String pattern : patterns) {
+			result.add(patternParser.parse(pattern));
+		}
+		return result;
+	}
+
 	public Set<String> getPatterns() {
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed patterns, if this condition was created with a
+	 * {@link PathPatternParser}.
+	 * @return the parsed patterns, or {@code null} if the patterns are
+	 * matched as Strings with a {@link PathMatcher}
+	 * @since 5.3
+	 */
+	@Nullable
+	public Set<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -197,6 +267,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
+		if (this.pathPatterns != null && other.pathPatterns != null) {
+			return combinePathPatterns(this.pathPatterns, other.pathPatterns);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -217,6 +290,18 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return new PatternsRequestCondition(result, this);
 	}
 
+	private static PatternsRequestCondition combinePathPatterns(
+			Set<PathPattern> pathPatterns, Set<PathPattern> otherPathPatterns) {
+
+		Set<PathPattern> result = new LinkedHashSet<>();
+		for (PathPattern pattern1 : pathPatterns) {
+			for (PathPattern pattern2 : otherPathPatterns) {
+				result.add(pattern1.combine(pattern2));
+			}
+		}
+		return new PatternsRequestCondition(result);
+	}
+
 	/**
 	 * Checks if any of the patterns match the given request and returns an instance
 	 * that is guaranteed to contain matching patterns, sorted via
@@ -239,6 +324,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.pathPatterns != null) {
+			PathContainer path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication();
+			Set<PathPattern> matches = getMatchingPathPatterns(this.pathPatterns, path);
+			return (!matches.isEmpty() ? new PatternsRequestCondition(matches) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request, HandlerMapping.LOOKUP_PATH);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return !matches.isEmpty() ? new PatternsRequestCondition(new LinkedHashSet<>(matches), this) : null;
@@ -253,6 +343,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.pathPatterns != null) {
+			Set<PathPattern> pathMatches = getMatchingPathPatterns(this.pathPatterns, PathContainer.parsePath(lookupPath));
+			List<String> result = new ArrayList<>(pathMatches.size());
+			for (PathPattern pathPattern : pathMatches) {
+				result.add(pathPattern.getPatternString());
+			}
+			return result;
+		}
 		List<String> matches = null;
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -270,6 +368,28 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	/**
+	 * Find the parsed patterns matching the given path, sorted via
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR}.
+	 */
+	private static Set<PathPattern> getMatchingPathPatterns(Set<PathPattern> pathPatterns, PathContainer path) {
+		List<PathPattern> matches = null;
+		for (PathPattern pathPattern : pathPatterns) {
+			if (pathPattern.matches(path)) {
+				matches = (matches != null ? matches : new ArrayList<>());
+				matches.add(pathPattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptySet();
+		}
+		if (matches.size() == 1) {
+			return Collections.singleton(matches.get(0));
+		}
+		matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		return new LinkedHashSet<>(matches);
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -314,10 +434,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.pathPatterns != null && other.pathPatterns != null) {
+			return compareTo(this.pathPatterns.iterator(), other.pathPatterns.iterator(),
+					PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request, HandlerMapping.LOOKUP_PATH);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compareTo(this.patterns.iterator(), other.patterns.iterator(), patternComparator);
+	}
+
+	private static <P> int compareTo(Iterator<P> iterator, Iterator<P> iteratorOther, Comparator<P> patternComparator) {
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
 			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
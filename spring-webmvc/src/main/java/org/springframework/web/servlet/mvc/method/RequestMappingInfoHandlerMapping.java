@@ -33,6 +33,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -45,8 +47,11 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -54,6 +59,7 @@ import org.springframework.web.util.WebUtils;
  *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
+ * @author Tan Jiquan
  * @since 3.1
  */
 public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMethodMapping<RequestMappingInfo> {
@@ -84,6 +90,18 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getPatternsCondition().getPatterns();
 	}
 
+	/**
+	 * Look up mappings through the pattern index when using parsed
+	 * {@link PathPattern PathPatterns} or as long as the configured
+	 * {@link #getPathMatcher() PathMatcher} is a plain {@link AntPathMatcher},
+	 * the matching semantics of which the index is aware of.
+	 * @since 5.3
+	 */
+	@Override
+	protected boolean isPatternIndexEnabled() {
+		return (usesPathPatterns() || getPathMatcher().getClass() == AntPathMatcher.class);
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
@@ -124,10 +142,17 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
+		PatternsRequestCondition patternsCondition = info.getPatternsCondition();
+		Set<PathPattern> pathPatterns = patternsCondition.getPathPatterns();
+		if (pathPatterns != null) {
+			handlePathPatternMatch(info, pathPatterns, request);
+			return;
+		}
+
 		String bestPattern;
 		Map<String, String> uriVariables;
 
-		Set<String> patterns = info.getPatternsCondition().getPatterns();
+		Set<String> patterns = patternsCondition.getPatterns();
 		if (patterns.isEmpty()) {
 			bestPattern = lookupPath;
 			uriVariables = Collections.emptyMap();
@@ -147,6 +172,41 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
 
+		exposeProducibleMediaTypes(info, request);
+	}
+
+	/**
+	 * Variant of {@link #handleMatch} for parsed {@link PathPattern PathPatterns},
+	 * extracting URI template variables and matrix variables from the request
+	 * path parsed at the start of the lookup, already decoded.
+	 */
+	private void handlePathPatternMatch(
+			RequestMappingInfo info, Set<PathPattern> pathPatterns, HttpServletRequest request) {
+
+		PathPattern bestPattern = pathPatterns.iterator().next();
+		PathContainer path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication();
+		PathPattern.PathMatchInfo matchInfo = bestPattern.matchAndExtract(path);
+		Map<String, String> uriVariables;
+		Map<String, MultiValueMap<String, String>> matrixVariables;
+		if (matchInfo != null) {
+			uriVariables = matchInfo.getUriVariables();
+			matrixVariables = matchInfo.getMatrixVariables();
+		}
+		else {
+			uriVariables = Collections.emptyMap();
+			matrixVariables = Collections.emptyMap();
+		}
+
+		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern.getPatternString());
+		if (!matrixVariables.isEmpty()) {
+			request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matrixVariables);
+		}
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriVariables);
+
+		exposeProducibleMediaTypes(info, request);
+	}
+
+	private void exposeProducibleMediaTypes(RequestMappingInfo info, HttpServletRequest request) {
 		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
 			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
 			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
@@ -24,6 +24,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -223,4 +225,65 @@ public class PatternsRequestConditionTests {
 		assertThat(match1.compareTo(match2, request)).isEqualTo(1);
 	}
 
+	@Test
+	public void pathPatternMatch() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo/{id}"}, parser);
+		assertThat(condition.getPathPatterns()).hasSize(1);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+		assertThat(match).isNotNull();
+		assertThat(match.getPatterns()).containsExactly("/foo/{id}");
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isTrue();
+
+		assertThat(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar/baz"))).isNull();
+		assertThat(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar/"))).isNotNull();
+		assertThat(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar.json"))).isNotNull();
+		assertThat(condition.getMatchingPatterns("/foo/bar")).containsExactly("/foo/{id}");
+	}
+
+	@Test
+	public void pathPatternMatchUsesParsedRequestPath() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo"}, new PathPatternParser());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		assertThat(condition.getMatchingCondition(request)).isNotNull();
+	}
+
+	@Test
+	public void pathPatternMatchSortedBySpecificity() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(
+				new String[] {"/**", "/foo/*", "/foo/bar"}, new PathPatternParser());
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+
+		assertThat(match).isNotNull();
+		assertThat(match.getPatterns()).containsExactly("/foo/bar", "/foo/*", "/**");
+	}
+
+	@Test
+	public void pathPatternCombine() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/t1", "/t2"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/m1"}, parser);
+		PatternsRequestCondition c3 = new PatternsRequestCondition(new String[0], parser);
+
+		assertThat(c1.combine(c2).getPatterns()).containsExactly("/t1/m1", "/t2/m1");
+		assertThat(c1.combine(c2).getPathPatterns()).isNotNull();
+		assertThat(c3.combine(c2).getPatterns()).containsExactly("/m1");
+	}
+
+	@Test
+	public void pathPatternCompare() {
+		PathPatternParser parser = new PathPatternParser();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/fo*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+
+		assertThat(c1.compareTo(c2, request)).isEqualTo(1);
+		assertThat(c2.compareTo(c1, request)).isEqualTo(-1);
+	}
+
 }